@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the journal entry legs created by the accounting processors within the current transaction.
+ *
+ * The legs are persisted without flushing, so they are written together when the transaction commits instead of one
+ * flush per leg. Before the commit the legs of the transaction are checked to balance per currency.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalEntryAccumulator {
+
+    private final JournalEntryRepository glJournalEntryRepository;
+
+    public void add(final JournalEntry journalEntry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.glJournalEntryRepository.saveAndFlush(journalEntry);
+            return;
+        }
+        this.glJournalEntryRepository.save(journalEntry);
+        currentLegs().add(journalEntry);
+    }
+
+    private JournalEntryLegs currentLegs() {
+        // synchronizations are suspended together with their transaction, so the legs stay scoped to it
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof JournalEntryLegs) {
+                return (JournalEntryLegs) synchronization;
+            }
+        }
+        final JournalEntryLegs legs = new JournalEntryLegs();
+        TransactionSynchronizationManager.registerSynchronization(legs);
+        return legs;
+    }
+
+    private static final class JournalEntryLegs implements TransactionSynchronization {
+
+        private final Map<String, BigDecimal> debits = new HashMap<>();
+        private final Map<String, BigDecimal> credits = new HashMap<>();
+
+        void add(final JournalEntry journalEntry) {
+            final Map<String, BigDecimal> totals = journalEntry.isDebitEntry() ? this.debits : this.credits;
+            totals.merge(journalEntry.getCurrencyCode(), journalEntry.getAmount(), BigDecimal::add);
+        }
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            for (final Map.Entry<String, BigDecimal> debit : this.debits.entrySet()) {
+                final BigDecimal credit = this.credits.getOrDefault(debit.getKey(), BigDecimal.ZERO);
+                if (debit.getValue().compareTo(credit) != 0) {
+                    throw new PlatformDataIntegrityException("error.msg.journalentry.legs.not.balanced",
+                            "Journal entries of currency " + debit.getKey() + " are not balanced: debits " + debit.getValue()
+                                    + " credits " + credit,
+                            debit.getKey(), debit.getValue(), credit);
+                }
+            }
+            for (final Map.Entry<String, BigDecimal> credit : this.credits.entrySet()) {
+                if (!this.debits.containsKey(credit.getKey()) && credit.getValue().signum() != 0) {
+                    throw new PlatformDataIntegrityException("error.msg.journalentry.legs.not.balanced",
+                            "Journal entries of currency " + credit.getKey() + " are not balanced: debits 0 credits " + credit.getValue(),
+                            credit.getKey(), BigDecimal.ZERO, credit.getValue());
+                }
+            }
+        }
+    }
+}
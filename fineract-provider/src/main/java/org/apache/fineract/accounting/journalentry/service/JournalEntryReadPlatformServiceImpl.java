@@ -335,7 +335,21 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             whereClose = " and ";
         }
 
-        if (searchParameters.isOrderByRequested()) {
+        // the total of a keyset page counts the whole list, not only the rows past the cursor
+        final String sqlCountRows = sqlBuilder.toString();
+        final Object[] countArgs = Arrays.copyOf(objectArray, arrayPos);
+
+        if (searchParameters.isAfterIdBound()) {
+            sqlBuilder.append(whereClose).append(searchParameters.keysetConditionSql("journalEntry.id"));
+            objectArray[arrayPos] = searchParameters.getAfterId();
+            arrayPos = arrayPos + 1;
+
+            whereClose = " and ";
+        }
+
+        if (searchParameters.isAfterIdPassed()) {
+            sqlBuilder.append(searchParameters.keysetOrderBySql("journalEntry.id"));
+        } else if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
 
@@ -357,7 +371,12 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
         }
 
         final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, rm);
+        if (searchParameters.isAfterIdPassed()) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, sqlCountRows, countArgs, rm,
+                    searchParameters.getCountMode());
+        }
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, rm,
+                searchParameters.getCountMode());
     }
 
     @Override
@@ -28,16 +28,13 @@ import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.fineract.accounting.common.AccountingEnumerations;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
 import org.apache.fineract.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
@@ -54,6 +51,10 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
+    private static final int PAGE_SIZE = 10000;
+    private static final int BATCH_UPDATE_SIZE = 1000;
+    private static final RunningBalanceEntryMapper ENTRY_MAPPER = new RunningBalanceEntryMapper();
+
     private final JdbcTemplate jdbcTemplate;
 
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
@@ -63,8 +64,6 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
     private final FromJsonHelper fromApiJsonHelper;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
 
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
-
     @Override
     @CronTarget(jobName = JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE)
     public void updateRunningBalance() {
@@ -103,125 +102,124 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
     }
 
     private void updateOrganizationRunningBalance(LocalDate entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
-
-        final String organizationRunningBalanceQuery = "select je.organization_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
-
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceQuery, // NOSONAR
-                entityDate, entityDate);
-
-        for (Map<String, Object> entries : list) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString()); // Drizzle
-                                                                                  // is
-                                                                                  // returning
-                                                                                  // Big
-                                                                                  // Integer
-                                                                                  // where
-                                                                                  // as
-                                                                                  // MySQL
-                                                                                  // returns
-                                                                                  // Long.
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+        if (entityDate == null) {
+            return;
         }
+        final int entries = recalculateRunningBalances(null, entityDate);
+        log.info("Running balances recalculated for {} journal entries from {}", entries, entityDate);
+    }
 
-        final String offlineRunningBalanceQuery = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-                + "from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
-
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(offlineRunningBalanceQuery, // NOSONAR
-                entityDate, entityDate);
-        for (Map<String, Object> entries : officesRunningBalanceList) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString());
-            Long officeId = Long.parseLong(entries.get("officeId").toString());
-            Map<Long, BigDecimal> runningBalance = null;
-            if (officesRunningBalance.containsKey(officeId)) {
-                runningBalance = officesRunningBalance.get(officeId);
-            } else {
-                runningBalance = new HashMap<>();
-                officesRunningBalance.put(officeId, runningBalance);
-            }
-            if (!runningBalance.containsKey(accountId)) {
-                runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+    private void updateRunningBalance(Long officeId, LocalDate entityDate) {
+        if (entityDate == null) {
+            return;
         }
+        final int entries = recalculateRunningBalances(officeId, entityDate);
+        log.info("Office running balances recalculated for {} journal entries of office {} from {}", entries, officeId, entityDate);
+    }
+
+    /**
+     * Recalculates the running balances of the journal entries from the given date on. The entries are read page by page
+     * in (account, entry date, id) order, so only the balances of the account being processed are held in memory. With
+     * an office only the office running balances of that office are recalculated. The organization run is not split by
+     * office, as the organization running balance of an account runs over the entries of all offices in date order.
+     */
+    private int recalculateRunningBalances(final Long officeId, final LocalDate entityDate) {
+        final Map<Long, BigDecimal> officeRunningBalances = new HashMap<>();
+        final List<Object[]> updateParams = new ArrayList<>(BATCH_UPDATE_SIZE);
+        Long accountId = null;
+        BigDecimal organizationRunningBalance = null;
+        int processed = 0;
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper, entityDate);
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0; index < entryDatas.size(); index++) {
-                JournalEntryData entryData = entryDatas.get(index);
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
+        List<RunningBalanceEntry> entries = readEntries(officeId, entityDate, null);
+        while (!entries.isEmpty()) {
+            for (final RunningBalanceEntry entry : entries) {
+                if (!entry.accountId.equals(accountId)) {
+                    accountId = entry.accountId;
+                    officeRunningBalances.clear();
+                    organizationRunningBalance = officeId == null ? retrieveOpeningBalance(null, accountId, entityDate) : null;
+                }
+                BigDecimal officeRunningBalance = officeRunningBalances.get(entry.officeId);
+                if (officeRunningBalance == null) {
+                    officeRunningBalance = retrieveOpeningBalance(entry.officeId, accountId, entityDate);
+                }
+                officeRunningBalance = calculateRunningBalance(entry, officeRunningBalance);
+                officeRunningBalances.put(entry.officeId, officeRunningBalance);
+                if (officeId == null) {
+                    organizationRunningBalance = calculateRunningBalance(entry, organizationRunningBalance);
+                    updateParams.add(new Object[] { organizationRunningBalance, officeRunningBalance, entry.id });
                 } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
+                    updateParams.add(new Object[] { officeRunningBalance, entry.id });
                 }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=true, organization_running_balance="
-                        + runningBalance + ",office_running_balance=" + officeRunningBalance + " WHERE  id=" + entryData.getId();
-                updateSql.add(sql);
-                batchIndex++;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size() - 1) {
-                    // run a batch update of the 1000 update SQL statements
-                    String[] batch = new String[updateSql.size()];
-                    updateSql.toArray(batch);
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
+                if (updateParams.size() == BATCH_UPDATE_SIZE) {
+                    writeRunningBalances(officeId, updateParams);
                 }
             }
+            processed += entries.size();
+            entries = readEntries(officeId, entityDate, entries.get(entries.size() - 1));
         }
-
+        writeRunningBalances(officeId, updateParams);
+        return processed;
     }
 
-    private void updateRunningBalance(Long officeId, LocalDate entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+    private List<RunningBalanceEntry> readEntries(final Long officeId, final LocalDate entityDate, final RunningBalanceEntry lastEntry) {
+        final StringBuilder sqlBuilder = new StringBuilder(600);
+        final List<Object> params = new ArrayList<>();
+        sqlBuilder.append("select je.id as id, je.account_id as accountId, je.office_id as officeId, je.entry_date as entryDate, ")
+                .append("je.type_enum as entryType, je.amount as amount, glAccount.classification_enum as classification ")
+                .append("from acc_gl_journal_entry je inner join acc_gl_account glAccount on glAccount.id = je.account_id ")
+                .append("where je.entry_date >= ? ");
+        params.add(entityDate);
+        if (officeId != null) {
+            sqlBuilder.append("and je.office_id = ? ");
+            params.add(officeId);
+        }
+        if (lastEntry != null) {
+            sqlBuilder.append("and (je.account_id > ? or (je.account_id = ? ")
+                    .append("and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)))) ");
+            params.add(lastEntry.accountId);
+            params.add(lastEntry.accountId);
+            params.add(lastEntry.entryDate);
+            params.add(lastEntry.entryDate);
+            params.add(lastEntry.id);
+        }
+        sqlBuilder.append("order by je.account_id, je.entry_date, je.id ").append(sqlGenerator.limit(PAGE_SIZE));
+        return this.jdbcTemplate.query(sqlBuilder.toString(), ENTRY_MAPPER, params.toArray());
+    }
 
-        final String offlineRunningBalanceQuery = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
+    /**
+     * Running balance of the last entry of the account before the given date, for the whole organization or for one
+     * office.
+     */
+    private BigDecimal retrieveOpeningBalance(final Long officeId, final Long accountId, final LocalDate entityDate) {
+        final List<BigDecimal> balances;
+        if (officeId == null) {
+            balances = this.jdbcTemplate.queryForList("select je.organization_running_balance from acc_gl_journal_entry je "
+                    + "where je.account_id = ? and je.entry_date < ? order by je.entry_date DESC, je.id DESC " + sqlGenerator.limit(1),
+                    BigDecimal.class, accountId, entityDate);
+        } else {
+            balances = this.jdbcTemplate.queryForList("select je.office_running_balance from acc_gl_journal_entry je "
+                    + "where je.office_id = ? and je.account_id = ? and je.entry_date < ? order by je.entry_date DESC, je.id DESC "
+                    + sqlGenerator.limit(1), BigDecimal.class, officeId, accountId, entityDate);
+        }
+        return balances.isEmpty() || balances.get(0) == null ? BigDecimal.ZERO : balances.get(0);
+    }
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(offlineRunningBalanceQuery, // NOSONAR
-                officeId, entityDate, officeId, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = (Long) entries.get("accountId");
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+    private void writeRunningBalances(final Long officeId, final List<Object[]> updateParams) {
+        if (updateParams.isEmpty()) {
+            return;
         }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, officeId, entityDate);
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry SET office_running_balance=" + runningBalance + " WHERE id=" + entryData.getId();
-            updateSql[i++] = sql;
+        if (officeId == null) {
+            this.jdbcTemplate.batchUpdate("UPDATE acc_gl_journal_entry SET is_running_balance_calculated=true, "
+                    + "organization_running_balance=?, office_running_balance=? WHERE id=?", updateParams);
+        } else {
+            this.jdbcTemplate.batchUpdate("UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?", updateParams);
         }
-        this.jdbcTemplate.batchUpdate(updateSql);
+        updateParams.clear();
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
-        }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
+    private BigDecimal calculateRunningBalance(RunningBalanceEntry entry, BigDecimal runningBalance) {
+        GLAccountType accounttype = GLAccountType.fromInt(entry.accountType);
+        JournalEntryType entryType = JournalEntryType.fromInt(entry.entryType);
         boolean isIncrease = false;
         switch (accounttype) {
             case ASSET:
@@ -251,44 +249,40 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             break;
         }
         if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
-        } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
+            return runningBalance.add(entry.amount);
         }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
-        return runningBalance;
+        return runningBalance.subtract(entry.amount);
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
+    private static final class RunningBalanceEntry {
 
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
-        }
+        private final Long id;
+        private final Long accountId;
+        private final Long officeId;
+        private final LocalDate entryDate;
+        private final int entryType;
+        private final int accountType;
+        private final BigDecimal amount;
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+        RunningBalanceEntry(final Long id, final Long accountId, final Long officeId, final LocalDate entryDate, final int entryType,
+                final int accountType, final BigDecimal amount) {
+            this.id = id;
+            this.accountId = accountId;
+            this.officeId = officeId;
+            this.entryDate = entryDate;
+            this.entryType = entryType;
+            this.accountType = accountType;
+            this.amount = amount;
         }
+    }
 
-        @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
-
-            final Long id = rs.getLong("id");
-            final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
-            final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
+    private static final class RunningBalanceEntryMapper implements RowMapper<RunningBalanceEntry> {
 
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null);
+        @Override
+        public RunningBalanceEntry mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new RunningBalanceEntry(rs.getLong("id"), rs.getLong("accountId"), rs.getLong("officeId"),
+                    JdbcSupport.getLocalDate(rs, "entryDate"), JdbcSupport.getInteger(rs, "entryType"),
+                    JdbcSupport.getInteger(rs, "classification"), rs.getBigDecimal("amount"));
         }
     }
 
@@ -84,6 +84,8 @@ public class BatchApiResource {
      *
      * @param jsonRequestString
      * @param enclosingTransaction
+     * @param parallel
+     *            executes the independent requests concurrently, ignored within an enclosing transaction
      * @param uriInfo
      * @return serialized JSON
      */
@@ -98,6 +100,7 @@ public class BatchApiResource {
             @ApiResponse(responseCode = "200", description = "Success", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchResponse.class)))) })
     public String handleBatchRequests(
             @DefaultValue("false") @QueryParam("enclosingTransaction") @Parameter(description = "enclosingTransaction", required = false) final boolean enclosingTransaction,
+            @DefaultValue("false") @QueryParam("parallel") @Parameter(description = "parallel", required = false) final boolean parallel,
             @Parameter(hidden = true) final String jsonRequestString, @Context UriInfo uriInfo) {
 
         // Handles user authentication
@@ -114,7 +117,8 @@ public class BatchApiResource {
         if (enclosingTransaction) {
             result = service.handleBatchRequestsWithEnclosingTransaction(requestList, uriInfo);
         } else {
-            result = service.handleBatchRequestsWithoutEnclosingTransaction(requestList, uriInfo);
+            // Independent requests may run concurrently on request
+            result = service.handleBatchRequestsWithoutEnclosingTransaction(requestList, uriInfo, parallel);
         }
 
         return this.toApiJsonSerializer.serialize(result);
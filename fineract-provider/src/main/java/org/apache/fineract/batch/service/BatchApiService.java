@@ -45,6 +45,18 @@ public interface BatchApiService {
      */
     List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo);
 
+    /**
+     * Same as {@link #handleBatchRequestsWithoutEnclosingTransaction(List, UriInfo)}, optionally running the independent
+     * request trees (a root request with the requests depending on it) concurrently. The responses are ordered by
+     * request id in both cases.
+     *
+     * @param requestList
+     * @param uriInfo
+     * @param parallel
+     * @return List&lt;BatchResponse&gt;
+     */
+    List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo, boolean parallel);
+
     /**
      * returns a list of {@link org.apache.fineract.batch.domain.BatchResponse}s by getting the appropriate
      * CommandStrategy for every {@link org.apache.fineract.batch.domain.BatchRequest}. It will be used when the Query
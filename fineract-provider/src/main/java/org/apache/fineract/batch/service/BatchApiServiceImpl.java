@@ -22,12 +22,23 @@ import com.google.gson.Gson;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.batch.command.CommandContext;
 import org.apache.fineract.batch.command.CommandStrategy;
 import org.apache.fineract.batch.command.CommandStrategyProvider;
@@ -37,7 +48,11 @@ import org.apache.fineract.batch.exception.ClientDetailsNotFoundException;
 import org.apache.fineract.batch.exception.ErrorHandler;
 import org.apache.fineract.batch.exception.ErrorInfo;
 import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.ContextPropagatingTaskDecorator;
 import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
@@ -59,9 +74,34 @@ import org.springframework.transaction.support.TransactionTemplate;
 @Slf4j
 public class BatchApiServiceImpl implements BatchApiService {
 
+    // loans/{id} and savingsaccounts/{id}, with any sub resource or query
+    private static final Pattern TARGET_ACCOUNT_URL = Pattern.compile("^/?(loans|savingsaccounts)/(\\d+)([/?].*)?$");
+
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
+    private final FineractProperties fineractProperties;
+
+    private ThreadPoolTaskExecutor parallelExecutor;
+
+    @PostConstruct
+    public void start() {
+        final FineractProperties.FineractBatchApiProperties properties = this.fineractProperties.getBatchApi();
+        this.parallelExecutor = new ThreadPoolTaskExecutor();
+        this.parallelExecutor.setThreadNamePrefix("fineract-batch-api-");
+        this.parallelExecutor.setCorePoolSize(properties.getThreadCount());
+        this.parallelExecutor.setMaxPoolSize(properties.getThreadCount());
+        this.parallelExecutor.setQueueCapacity(properties.getQueueCapacity());
+        // the request thread, which carries the context anyway, runs the tree itself when the pool is saturated
+        this.parallelExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.parallelExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        this.parallelExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.parallelExecutor.shutdown();
+    }
 
     /**
      * Returns the response list by getting a proper {@link org.apache.fineract.batch.command.CommandStrategy}.
@@ -69,9 +109,11 @@ public class BatchApiServiceImpl implements BatchApiService {
      *
      * @param requestList
      * @param uriInfo
+     * @param parallel
+     *            whether the independent request trees are executed concurrently
      * @return {@code List<BatchResponse>}
      */
-    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo, final boolean parallel) {
 
         final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
 
@@ -84,14 +126,12 @@ public class BatchApiServiceImpl implements BatchApiService {
             responseList.add(response);
             return responseList;
         }
-        for (BatchRequestNode rootNode : batchRequestNodes) {
-            final BatchRequest rootRequest = rootNode.getRequest();
-            final CommandStrategy commandStrategy = this.strategyProvider
-                    .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
-            final BatchResponse rootResponse = safelyExecuteStrategy(commandStrategy, rootRequest, uriInfo);
-
-            responseList.add(rootResponse);
-            responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        if (parallel && batchRequestNodes.size() > 1) {
+            responseList.addAll(processRootRequestsInParallel(batchRequestNodes, uriInfo));
+        } else {
+            for (BatchRequestNode rootNode : batchRequestNodes) {
+                responseList.addAll(processRootRequest(rootNode, uriInfo));
+            }
         }
 
         Collections.sort(responseList, Comparator.comparing(BatchResponse::getRequestId));
@@ -100,6 +140,99 @@ public class BatchApiServiceImpl implements BatchApiService {
 
     }
 
+    private List<BatchResponse> processRootRequest(final BatchRequestNode rootNode, final UriInfo uriInfo) {
+        final List<BatchResponse> responseList = new ArrayList<>();
+        final BatchRequest rootRequest = rootNode.getRequest();
+        final CommandStrategy commandStrategy = this.strategyProvider
+                .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
+        final BatchResponse rootResponse = safelyExecuteStrategy(commandStrategy, rootRequest, uriInfo);
+
+        responseList.add(rootResponse);
+        responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        return responseList;
+    }
+
+    /**
+     * The root nodes resolved by the {@link ResolutionHelper} do not depend on each other's responses, but they may
+     * still change the same loan or savings account, which would fail on its version. The roots are therefore grouped
+     * by the account of their URL: the roots of a group run one after the other, with their children, as one task. At
+     * most the configured number of tasks of a batch runs at the same time.
+     */
+    private List<BatchResponse> processRootRequestsInParallel(final List<BatchRequestNode> rootNodes, final UriInfo uriInfo) {
+        final List<List<BatchRequestNode>> groups = groupByTargetAccount(rootNodes);
+        final Semaphore permits = new Semaphore(Math.max(1, this.fineractProperties.getBatchApi().getMaxConcurrencyPerBatch()));
+        final List<Future<List<BatchResponse>>> futures = new ArrayList<>(groups.size());
+        final List<BatchResponse> responseList = new ArrayList<>();
+        try {
+            for (List<BatchRequestNode> group : groups) {
+                permits.acquire();
+                futures.add(this.parallelExecutor.submit(() -> {
+                    try {
+                        final List<BatchResponse> groupResponses = new ArrayList<>();
+                        for (BatchRequestNode rootNode : group) {
+                            try {
+                                groupResponses.addAll(processRootRequest(rootNode, uriInfo));
+                            } catch (RuntimeException e) {
+                                groupResponses.add(errorResponse(rootNode.getRequest(), e));
+                            }
+                        }
+                        return groupResponses;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    responseList.addAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    for (BatchRequestNode rootNode : groups.get(i)) {
+                        responseList.add(errorResponse(rootNode.getRequest(), e.getCause()));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for the batch requests", e);
+        }
+        return responseList;
+    }
+
+    /**
+     * Groups the roots changing the same loan or savings account, keeping their order; every other root is a group of
+     * its own.
+     */
+    static List<List<BatchRequestNode>> groupByTargetAccount(final List<BatchRequestNode> rootNodes) {
+        final Map<String, List<BatchRequestNode>> groupsByAccount = new HashMap<>();
+        final List<List<BatchRequestNode>> groups = new ArrayList<>();
+        for (BatchRequestNode rootNode : rootNodes) {
+            final Matcher matcher = TARGET_ACCOUNT_URL.matcher(StringUtils.defaultString(rootNode.getRequest().getRelativeUrl()));
+            if (matcher.matches()) {
+                groupsByAccount.computeIfAbsent(matcher.group(1) + "/" + matcher.group(2), account -> {
+                    final List<BatchRequestNode> group = new ArrayList<>();
+                    groups.add(group);
+                    return group;
+                }).add(rootNode);
+            } else {
+                groups.add(new ArrayList<>(List.of(rootNode)));
+            }
+        }
+        return groups;
+    }
+
+    private BatchResponse errorResponse(final BatchRequest request, final Throwable t) {
+        log.warn("Exception while executing batch request {}", request.getRequestId(), t);
+        final ErrorInfo ex = ErrorHandler.handler(t instanceof RuntimeException ? (RuntimeException) t
+                : new PlatformInternalServerException("error.msg.batch.request.failed", "Batch request failed", request.getRequestId()));
+        final BatchResponse response = new BatchResponse();
+        response.setRequestId(request.getRequestId());
+        response.setHeaders(request.getHeaders());
+        response.setStatusCode(ex.getStatusCode());
+        response.setBody(ex.getMessage());
+        return response;
+    }
+
     private BatchResponse safelyExecuteStrategy(CommandStrategy commandStrategy, BatchRequest request, UriInfo uriInfo) {
         try {
             return commandStrategy.execute(request, uriInfo);
@@ -168,7 +301,14 @@ public class BatchApiServiceImpl implements BatchApiService {
     @Override
     public List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(final List<BatchRequest> requestList, UriInfo uriInfo) {
 
-        return handleBatchRequests(requestList, uriInfo);
+        return handleBatchRequests(requestList, uriInfo, false);
+    }
+
+    @Override
+    public List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(final List<BatchRequest> requestList, UriInfo uriInfo,
+            boolean parallel) {
+
+        return handleBatchRequests(requestList, uriInfo, parallel);
     }
 
     @Override
@@ -180,7 +320,7 @@ public class BatchApiServiceImpl implements BatchApiService {
                 @Override
                 public List<BatchResponse> doInTransaction(TransactionStatus status) {
                     try {
-                        responseList.addAll(handleBatchRequests(requestList, uriInfo));
+                        responseList.addAll(handleBatchRequests(requestList, uriInfo, false));
                         return responseList;
                     } catch (RuntimeException ex) {
 
@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.fineract.cob.data.IdRangePartition;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpoint;
+import org.apache.fineract.cob.domain.BatchPartitionStatus;
+import org.apache.fineract.cob.exception.BatchPartitionLeaseLostException;
+
+public interface BatchPartitionService {
+
+    /**
+     * Returns the stored partitions of the job run for the given business date, or creates them with the given
+     * partitioner when the run has not been started yet.
+     */
+    List<BatchPartitionCheckpoint> retrieveOrCreatePartitions(String jobName, LocalDate businessDate,
+            Supplier<List<IdRangePartition>> partitioner);
+
+    boolean isRemoteExecutionEnabled();
+
+    /**
+     * Blocks until every partition of the job run has been finished by the worker nodes, or until the await timeout
+     * elapsed.
+     *
+     * @return errors for the partitions which failed or did not finish in time
+     */
+    List<Throwable> awaitPartitions(String jobName, LocalDate businessDate) throws InterruptedException;
+
+    /**
+     * Leases the next pending (or abandoned) partition of the job for this node, or returns null if there is none.
+     */
+    BatchPartitionCheckpoint leaseNextPartition(String jobName);
+
+    /**
+     * Moves the checkpoint of the partition and refreshes its heartbeat. Has to be called in the transaction of the
+     * processed items, so that they are rolled back when the partition has been taken over by another node.
+     *
+     * @throws BatchPartitionLeaseLostException
+     *             when the partition is no longer owned by the node of the given checkpoint
+     */
+    void updateProgress(BatchPartitionCheckpoint checkpoint, Long lastProcessedId, BatchPartitionStatus status);
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.data.IdRangePartition;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpoint;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpointRepository;
+import org.apache.fineract.cob.domain.BatchPartitionStatus;
+import org.apache.fineract.cob.exception.BatchPartitionLeaseLostException;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractPartitionedJobProperties;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchPartitionServiceImpl implements BatchPartitionService {
+
+    private static final int LEASE_CANDIDATES = 10;
+
+    private final BatchPartitionCheckpointRepository checkpointRepository;
+    private final FineractProperties fineractProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public List<BatchPartitionCheckpoint> retrieveOrCreatePartitions(final String jobName, final LocalDate businessDate,
+            final Supplier<List<IdRangePartition>> partitioner) {
+        final List<BatchPartitionCheckpoint> checkpoints = checkpointRepository.findAllByJobNameAndBusinessDateOrderByPartitionNo(jobName,
+                businessDate);
+        if (!checkpoints.isEmpty()) {
+            log.info("Restarting {} for {} from the stored partition checkpoints", jobName, businessDate);
+            return checkpoints;
+        }
+        final List<BatchPartitionCheckpoint> newCheckpoints = new ArrayList<>();
+        for (final IdRangePartition partition : partitioner.get()) {
+            newCheckpoints.add(BatchPartitionCheckpoint.instance(jobName, businessDate, partition.getPartitionNo(), partition.getMinId(),
+                    partition.getMaxId()));
+        }
+        return checkpointRepository.saveAll(newCheckpoints);
+    }
+
+    @Override
+    public boolean isRemoteExecutionEnabled() {
+        return fineractProperties.getPartitionedJob() != null && fineractProperties.getPartitionedJob().isRemoteEnabled();
+    }
+
+    @Override
+    public List<Throwable> awaitPartitions(final String jobName, final LocalDate businessDate) throws InterruptedException {
+        final FineractPartitionedJobProperties properties = fineractProperties.getPartitionedJob();
+        final long pollInterval = TimeUnit.SECONDS.toMillis(properties.getPollIntervalInSeconds());
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(properties.getAwaitTimeoutInSeconds());
+        while (true) {
+            Thread.sleep(pollInterval);
+            final LocalDateTime expiredBefore = DateUtils.getLocalDateTimeOfSystem().minusSeconds(properties.getLeaseTimeoutInSeconds());
+            final List<BatchPartitionCheckpoint> checkpoints = checkpointRepository
+                    .findAllByJobNameAndBusinessDateOrderByPartitionNo(jobName, businessDate);
+            final List<BatchPartitionCheckpoint> unfinished = checkpoints.stream()
+                    .filter(checkpoint -> !checkpoint.isFinished(expiredBefore, properties.getMaxAttempts())).collect(Collectors.toList());
+            log.debug("{} of {} partitions of {} are finished", checkpoints.size() - unfinished.size(), checkpoints.size(), jobName);
+            final boolean timedOut = System.currentTimeMillis() >= deadline;
+            if (unfinished.isEmpty() || timedOut) {
+                final List<Throwable> errors = new ArrayList<>();
+                for (final BatchPartitionCheckpoint checkpoint : checkpoints) {
+                    if (unfinished.contains(checkpoint)) {
+                        final String message = "Partition " + checkpoint.getPartitionNo() + " of " + jobName + " did not finish within "
+                                + properties.getAwaitTimeoutInSeconds() + " seconds";
+                        errors.add(new PlatformInternalServerException("error.msg.batch.partition.timeout", message,
+                                checkpoint.getPartitionNo(), jobName));
+                    } else if (!checkpoint.isCompleted()) {
+                        final String message = "Partition " + checkpoint.getPartitionNo() + " of " + jobName + " failed on node "
+                                + checkpoint.getOwnerNodeId() + " after " + checkpoint.getAttempts() + " attempt(s)";
+                        errors.add(new PlatformInternalServerException("error.msg.batch.partition.failed", message,
+                                checkpoint.getPartitionNo(), jobName));
+                    }
+                }
+                return errors;
+            }
+        }
+    }
+
+    @Override
+    public BatchPartitionCheckpoint leaseNextPartition(final String jobName) {
+        final FineractPartitionedJobProperties properties = fineractProperties.getPartitionedJob();
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final LocalDateTime expiredBefore = now.minusSeconds(properties.getLeaseTimeoutInSeconds());
+        for (final BatchPartitionCheckpoint candidate : checkpointRepository.findLeasable(jobName, expiredBefore,
+                properties.getMaxAttempts(), PageRequest.of(0, LEASE_CANDIDATES))) {
+            final Integer leased = transactionTemplate.execute(status -> checkpointRepository.lease(candidate.getId(),
+                    fineractProperties.getNodeId(), now, expiredBefore, properties.getMaxAttempts()));
+            if (leased != null && leased == 1) {
+                log.info("Leased partition {} of {} for {}", candidate.getPartitionNo(), jobName, candidate.getBusinessDate());
+                return checkpointRepository.findById(candidate.getId()).orElse(null);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void updateProgress(final BatchPartitionCheckpoint checkpoint, final Long lastProcessedId, final BatchPartitionStatus status) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final String ownerNodeId = checkpoint.getOwnerNodeId();
+        final int updated = ownerNodeId == null
+                ? checkpointRepository.updateUnownedProgress(checkpoint.getId(), lastProcessedId, status, now)
+                : checkpointRepository.updateOwnedProgress(checkpoint.getId(), ownerNodeId, lastProcessedId, status, now);
+        if (updated == 0) {
+            throw new BatchPartitionLeaseLostException(checkpoint.getPartitionNo(), checkpoint.getJobName(), ownerNodeId);
+        }
+    }
+}
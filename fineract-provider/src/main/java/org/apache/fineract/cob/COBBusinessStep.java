@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.cob;
 
+import java.util.Collection;
 import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
 
 public interface COBBusinessStep<T extends AbstractPersistableCustom> {
@@ -27,4 +28,12 @@ public interface COBBusinessStep<T extends AbstractPersistableCustom> {
     String getEnumStyledName();
 
     String getHumanReadableName();
+
+    /**
+     * Called with the ids of a whole chunk before the step is executed on its items, so the step can load the data it
+     * needs for the chunk in bulk. Prefetched data has to be bound to the calling thread.
+     */
+    default void prefetch(Collection<Long> ids) {}
+
+    default void clearPrefetched() {}
 }
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.domain.BatchBusinessStep;
+import org.apache.fineract.cob.domain.BatchBusinessStepRepository;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class COBBusinessStepServiceImpl implements COBBusinessStepService {
+
+    private final BatchBusinessStepRepository batchBusinessStepRepository;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public <T extends COBBusinessStep<S>, S extends AbstractPersistableCustom> List<T> getBusinessSteps(Class<T> businessStepType,
+            String jobName) {
+        Map<String, T> availableSteps = applicationContext.getBeansOfType(businessStepType).values().stream()
+                .collect(Collectors.toMap(COBBusinessStep::getEnumStyledName, Function.identity()));
+        List<T> businessSteps = new ArrayList<>();
+        for (BatchBusinessStep batchBusinessStep : batchBusinessStepRepository.findAllByJobNameOrderByStepOrder(jobName)) {
+            T businessStep = availableSteps.get(batchBusinessStep.getStepName());
+            if (businessStep == null) {
+                throw new PlatformInternalServerException("error.msg.cob.business.step.not.found",
+                        "Business step " + batchBusinessStep.getStepName() + " configured for job " + jobName + " does not exist",
+                        batchBusinessStep.getStepName(), jobName);
+            }
+            businessSteps.add(businessStep);
+        }
+        return businessSteps;
+    }
+
+    @Override
+    public <S extends AbstractPersistableCustom> S run(List<? extends COBBusinessStep<S>> businessSteps, S item) {
+        S result = item;
+        for (COBBusinessStep<S> businessStep : businessSteps) {
+            log.debug("Executing business step {} on {}", businessStep.getEnumStyledName(), result.getId());
+            result = businessStep.execute(result);
+        }
+        return result;
+    }
+}
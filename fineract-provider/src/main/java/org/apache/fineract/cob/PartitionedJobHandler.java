@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.util.List;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpoint;
+
+/**
+ * Executes single partitions of a partitioned job. Implementations are picked up by the {@link RemotePartitionWorker}
+ * to process partitions which were enqueued by a batch manager node.
+ */
+public interface PartitionedJobHandler {
+
+    String getJobName();
+
+    /**
+     * Processes the partition from its last checkpoint. Tenant, business dates and authentication are already set up
+     * for the calling thread.
+     *
+     * @return the errors of the items which could not be processed
+     */
+    List<Throwable> processPartition(BatchPartitionCheckpoint checkpoint);
+}
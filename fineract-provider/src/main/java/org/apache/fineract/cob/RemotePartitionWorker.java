@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpoint;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.businessdate.service.BusinessDateReadPlatformService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker side of remotely partitioned jobs.
+ *
+ * On nodes running in batch worker mode with remote partitioned execution enabled, the work queue of every tenant is
+ * polled periodically. Pending partitions (or partitions abandoned by a dead worker) are leased and processed by the
+ * {@link PartitionedJobHandler} of their job on a fixed size worker pool.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RemotePartitionWorker implements ApplicationListener<ContextClosedEvent> {
+
+    private final FineractProperties fineractProperties;
+    private final TenantDetailsService tenantDetailsService;
+    private final BatchPartitionService batchPartitionService;
+    private final List<PartitionedJobHandler> partitionedJobHandlers;
+    private final AppUserRepositoryWrapper userRepository;
+    private final BusinessDateReadPlatformService businessDateReadPlatformService;
+
+    private ScheduledExecutorService poller;
+    private ExecutorService workers;
+    private Semaphore idleWorkers;
+
+    @PostConstruct
+    public void start() {
+        if (!fineractProperties.getMode().isBatchWorkerEnabled() || !batchPartitionService.isRemoteExecutionEnabled()) {
+            return;
+        }
+        final int workerThreadCount = fineractProperties.getPartitionedJob().getWorkerThreadCount();
+        final int pollInterval = fineractProperties.getPartitionedJob().getPollIntervalInSeconds();
+        this.workers = Executors.newFixedThreadPool(workerThreadCount);
+        this.idleWorkers = new Semaphore(workerThreadCount);
+        this.poller = Executors.newSingleThreadScheduledExecutor();
+        this.poller.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.SECONDS);
+        log.info("Remote partition worker started with {} thread(s) on node {}", workerThreadCount, fineractProperties.getNodeId());
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.poller != null) {
+            this.poller.shutdownNow();
+            this.workers.shutdownNow();
+        }
+    }
+
+    private void poll() {
+        try {
+            for (final FineractPlatformTenant tenant : tenantDetailsService.findAllTenants()) {
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    for (final PartitionedJobHandler handler : partitionedJobHandlers) {
+                        leasePartitions(tenant, handler);
+                    }
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }
+        } catch (Exception e) {
+            // an exception must not escape, it would cancel the polling
+            log.error("Polling the partition work queue failed", e);
+        }
+    }
+
+    private void leasePartitions(final FineractPlatformTenant tenant, final PartitionedJobHandler handler) {
+        while (idleWorkers.tryAcquire()) {
+            final BatchPartitionCheckpoint checkpoint;
+            try {
+                checkpoint = batchPartitionService.leaseNextPartition(handler.getJobName());
+            } catch (RuntimeException e) {
+                idleWorkers.release();
+                throw e;
+            }
+            if (checkpoint == null) {
+                idleWorkers.release();
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    execute(tenant, handler, checkpoint);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    private void execute(final FineractPlatformTenant tenant, final PartitionedJobHandler handler,
+            final BatchPartitionCheckpoint checkpoint) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            final AppUser user = this.userRepository.fetchSystemUser();
+            SecurityContextHolder.getContext()
+                    .setAuthentication(new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities()));
+            final HashMap<BusinessDateType, LocalDate> businessDates = businessDateReadPlatformService.getBusinessDates();
+            // partitions are always processed for the business date they were created for
+            businessDates.put(BusinessDateType.COB_DATE, checkpoint.getBusinessDate());
+            ThreadLocalContextUtil.setBusinessDates(businessDates);
+            ThreadLocalContextUtil.setActionContext(ActionContext.COB);
+
+            final List<Throwable> errors = handler.processPartition(checkpoint);
+            if (!errors.isEmpty()) {
+                log.error("Partition {} of {} finished with {} error(s)", checkpoint.getPartitionNo(), handler.getJobName(), errors.size());
+            }
+        } catch (Exception e) {
+            log.error("Processing partition {} of {} failed", checkpoint.getPartitionNo(), handler.getJobName(), e);
+        } finally {
+            ThreadLocalContextUtil.setActionContext(ActionContext.DEFAULT);
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+}
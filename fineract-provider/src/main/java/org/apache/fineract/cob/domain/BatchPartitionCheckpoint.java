@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+import lombok.Getter;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+
+/**
+ * Restart point of one id range partition of a close of business job. The last processed id is moved forward in the
+ * same transaction which commits the processed chunk, so a restarted job continues right after the last committed
+ * chunk.
+ *
+ * The checkpoints of a job also form its work queue when partitions are executed remotely: a worker node leases a
+ * pending partition, refreshes the heartbeat with every committed chunk and acknowledges it by completing it. A
+ * partition whose heartbeat is older than the lease timeout can be leased again by another worker.
+ */
+@Getter
+@Entity
+@Table(name = "m_batch_partition_checkpoint", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_batch_partition_checkpoint", columnNames = { "job_name", "business_date", "partition_no" }) })
+public class BatchPartitionCheckpoint extends AbstractPersistableCustom {
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "business_date", nullable = false, columnDefinition = "DATE")
+    private LocalDate businessDate;
+
+    @Column(name = "partition_no", nullable = false)
+    private Integer partitionNo;
+
+    @Column(name = "min_id", nullable = false)
+    private Long minId;
+
+    @Column(name = "max_id", nullable = false)
+    private Long maxId;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private BatchPartitionStatus status;
+
+    @Column(name = "owner_node_id")
+    private String ownerNodeId;
+
+    @Column(name = "heartbeat_time")
+    private LocalDateTime heartbeatTime;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    protected BatchPartitionCheckpoint() {}
+
+    protected BatchPartitionCheckpoint(@NotNull String jobName, @NotNull LocalDate businessDate, @NotNull Integer partitionNo,
+            @NotNull Long minId, @NotNull Long maxId) {
+        this.jobName = jobName;
+        this.businessDate = businessDate;
+        this.partitionNo = partitionNo;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.status = BatchPartitionStatus.PENDING;
+        this.attempts = 0;
+    }
+
+    public static BatchPartitionCheckpoint instance(@NotNull String jobName, @NotNull LocalDate businessDate, @NotNull Integer partitionNo,
+            @NotNull Long minId, @NotNull Long maxId) {
+        return new BatchPartitionCheckpoint(jobName, businessDate, partitionNo, minId, maxId);
+    }
+
+    /**
+     * Id to continue the partition from (exclusive).
+     */
+    public Long getResumeAfterId() {
+        return this.lastProcessedId == null ? this.minId - 1 : this.lastProcessedId;
+    }
+
+    public boolean isCompleted() {
+        return BatchPartitionStatus.COMPLETED.equals(this.status);
+    }
+
+    /**
+     * A partition is finished once it is completed, or when it failed or was abandoned by its node and has no attempts
+     * left. Failed and abandoned partitions with attempts left are leased again.
+     */
+    public boolean isFinished(LocalDateTime expiredBefore, int maxAttempts) {
+        if (isCompleted()) {
+            return true;
+        }
+        if (this.attempts < maxAttempts) {
+            return false;
+        }
+        return BatchPartitionStatus.FAILED.equals(this.status) || (BatchPartitionStatus.STARTED.equals(this.status)
+                && this.heartbeatTime != null && this.heartbeatTime.isBefore(expiredBefore));
+    }
+}
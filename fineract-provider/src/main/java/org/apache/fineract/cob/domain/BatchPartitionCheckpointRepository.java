@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BatchPartitionCheckpointRepository
+        extends JpaRepository<BatchPartitionCheckpoint, Long>, JpaSpecificationExecutor<BatchPartitionCheckpoint> {
+
+    /**
+     * Pending partitions, and started or failed partitions whose lease expired, as long as they have not been attempted
+     * the maximum number of times.
+     */
+    String LEASABLE_CONDITION = "c.attempts < :maxAttempts and (c.status = org.apache.fineract.cob.domain.BatchPartitionStatus.PENDING"
+            + " or (c.status in (org.apache.fineract.cob.domain.BatchPartitionStatus.STARTED,"
+            + " org.apache.fineract.cob.domain.BatchPartitionStatus.FAILED) and c.heartbeatTime < :expiredBefore))";
+
+    List<BatchPartitionCheckpoint> findAllByJobNameAndBusinessDateOrderByPartitionNo(String jobName, LocalDate businessDate);
+
+    @Query("select c from BatchPartitionCheckpoint c where c.jobName = :jobName and " + LEASABLE_CONDITION
+            + " order by c.businessDate, c.partitionNo")
+    List<BatchPartitionCheckpoint> findLeasable(@Param("jobName") String jobName, @Param("expiredBefore") LocalDateTime expiredBefore,
+            @Param("maxAttempts") Integer maxAttempts, Pageable pageable);
+
+    /**
+     * Leases the partition for the given node. Returns 0 when another node has leased it in the meantime.
+     */
+    @Modifying
+    @Query("update BatchPartitionCheckpoint c set c.status = org.apache.fineract.cob.domain.BatchPartitionStatus.STARTED,"
+            + " c.ownerNodeId = :nodeId, c.heartbeatTime = :now, c.attempts = c.attempts + 1 where c.id = :id and "
+            + LEASABLE_CONDITION)
+    int lease(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("now") LocalDateTime now,
+            @Param("expiredBefore") LocalDateTime expiredBefore, @Param("maxAttempts") Integer maxAttempts);
+
+    /**
+     * Updates the progress of a partition leased by the given node. Returns 0 when the partition is owned by another
+     * node.
+     */
+    @Modifying
+    @Query("update BatchPartitionCheckpoint c set c.lastProcessedId = :lastProcessedId, c.status = :status, c.heartbeatTime = :now"
+            + " where c.id = :id and c.ownerNodeId = :ownerNodeId")
+    int updateOwnedProgress(@Param("id") Long id, @Param("ownerNodeId") String ownerNodeId, @Param("lastProcessedId") Long lastProcessedId,
+            @Param("status") BatchPartitionStatus status, @Param("now") LocalDateTime now);
+
+    /**
+     * Updates the progress of a partition executed locally, without lease. Returns 0 when a node has leased it.
+     */
+    @Modifying
+    @Query("update BatchPartitionCheckpoint c set c.lastProcessedId = :lastProcessedId, c.status = :status, c.heartbeatTime = :now"
+            + " where c.id = :id and c.ownerNodeId is null")
+    int updateUnownedProgress(@Param("id") Long id, @Param("lastProcessedId") Long lastProcessedId,
+            @Param("status") BatchPartitionStatus status, @Param("now") LocalDateTime now);
+}
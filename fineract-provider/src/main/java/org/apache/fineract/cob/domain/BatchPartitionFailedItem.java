@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+import lombok.Getter;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+
+/**
+ * Item of a partition which failed to be processed. The partition checkpoint moves past failed items, they are retried
+ * when the partition is restarted.
+ */
+@Getter
+@Entity
+@Table(name = "m_batch_partition_failed_item", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_batch_partition_failed_item", columnNames = { "checkpoint_id", "item_id" }) })
+public class BatchPartitionFailedItem extends AbstractPersistableCustom {
+
+    @Column(name = "checkpoint_id", nullable = false)
+    private Long checkpointId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    protected BatchPartitionFailedItem() {}
+
+    protected BatchPartitionFailedItem(@NotNull Long checkpointId, @NotNull Long itemId) {
+        this.checkpointId = checkpointId;
+        this.itemId = itemId;
+    }
+
+    public static BatchPartitionFailedItem instance(@NotNull Long checkpointId, @NotNull Long itemId) {
+        return new BatchPartitionFailedItem(checkpointId, itemId);
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.domain;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BatchPartitionFailedItemRepository
+        extends JpaRepository<BatchPartitionFailedItem, Long>, JpaSpecificationExecutor<BatchPartitionFailedItem> {
+
+    @Query("select f.itemId from BatchPartitionFailedItem f where f.checkpointId = :checkpointId order by f.itemId")
+    List<Long> findItemIds(@Param("checkpointId") Long checkpointId);
+
+    boolean existsByCheckpointIdAndItemId(Long checkpointId, Long itemId);
+
+    @Modifying
+    @Query("delete from BatchPartitionFailedItem f where f.checkpointId = :checkpointId and f.itemId = :itemId")
+    int deleteItem(@Param("checkpointId") Long checkpointId, @Param("itemId") Long itemId);
+}
@@ -18,10 +18,10 @@
  */
 package org.apache.fineract.cob.loan;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
@@ -38,22 +38,38 @@ public class ApplyChargeToOverdueLoansBusinessStep implements LoanCOBBusinessSte
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanWritePlatformService loanWritePlatformService;
 
+    // overdue installments of the chunk processed by the current thread, see prefetch
+    private final ThreadLocal<Map<Long, List<OverdueLoanScheduleData>>> prefetchedOverdueInstallments = new ThreadLocal<>();
+
     @Override
     public Loan execute(Loan input) {
-        final Long penaltyWaitPeriodValue = configurationDomainService.retrievePenaltyWaitPeriod();
-        final Boolean backdatePenalties = configurationDomainService.isBackdatePenaltiesEnabled();
-        final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments = loanReadPlatformService
-                .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue, backdatePenalties);
-        // TODO: this is very much not effective to get all overdue installments for each loan, a new method needs to be
-        // implemented for it
-        Map<Long, List<OverdueLoanScheduleData>> groupedOverdueData = overdueLoanScheduledInstallments.stream()
-                .collect(Collectors.groupingBy(OverdueLoanScheduleData::getLoanId));
-        for (Long loanId : groupedOverdueData.keySet()) {
-            loanWritePlatformService.applyOverdueChargesForLoan(input.getId(), groupedOverdueData.get(loanId));
+        final Map<Long, List<OverdueLoanScheduleData>> prefetched = prefetchedOverdueInstallments.get();
+        final Collection<OverdueLoanScheduleData> overdueInstallments;
+        if (prefetched != null && prefetched.containsKey(input.getId())) {
+            overdueInstallments = prefetched.get(input.getId());
+        } else if (prefetched != null) {
+            overdueInstallments = new ArrayList<>();
+        } else {
+            overdueInstallments = loanReadPlatformService.retrieveOverdueInstallmentsForLoan(input.getId(),
+                    configurationDomainService.retrievePenaltyWaitPeriod(), configurationDomainService.isBackdatePenaltiesEnabled());
+        }
+        if (!overdueInstallments.isEmpty()) {
+            loanWritePlatformService.applyOverdueChargesForLoan(input.getId(), overdueInstallments);
         }
         return input;
     }
 
+    @Override
+    public void prefetch(Collection<Long> ids) {
+        prefetchedOverdueInstallments.set(loanReadPlatformService.retrieveOverdueInstallmentsForLoans(ids,
+                configurationDomainService.retrievePenaltyWaitPeriod(), configurationDomainService.isBackdatePenaltiesEnabled()));
+    }
+
+    @Override
+    public void clearPrefetched() {
+        prefetchedOverdueInstallments.remove();
+    }
+
     @Override
     public String getEnumStyledName() {
         return "APPLY_CHARGE_TO_OVERDUE_LOANS";
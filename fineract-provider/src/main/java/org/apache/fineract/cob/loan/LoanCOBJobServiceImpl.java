@@ -0,0 +1,294 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.BatchPartitionService;
+import org.apache.fineract.cob.COBBusinessStepService;
+import org.apache.fineract.cob.PartitionedJobHandler;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpoint;
+import org.apache.fineract.cob.domain.BatchPartitionFailedItem;
+import org.apache.fineract.cob.domain.BatchPartitionFailedItemRepository;
+import org.apache.fineract.cob.domain.BatchPartitionStatus;
+import org.apache.fineract.cob.exception.BatchPartitionLeaseLostException;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameter;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameterRepository;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Close of business engine for loans.
+ *
+ * The active loan book is split into id range partitions which are processed in parallel. Every partition is read in
+ * chunks; all configured {@link LoanCOBBusinessStep}s are applied to each loan of the chunk and the chunk is committed
+ * in one transaction together with the partition checkpoint. When a chunk fails, it is replayed loan by loan so that a
+ * single broken loan does not block the rest of the chunk. Loans which fail on their own are recorded as failed items of
+ * the partition and retried first when the partition is restarted; the partition is only completed once all of them
+ * went through.
+ *
+ * With remote partitioned execution enabled, the batch manager node only enqueues the partitions and waits for the
+ * worker nodes to process them (see {@link org.apache.fineract.cob.RemotePartitionWorker}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanCOBJobServiceImpl implements LoanCOBJobService, PartitionedJobHandler {
+
+    public static final String JOB_NAME = JobName.LOAN_COB.name();
+
+    public static final String THREAD_POOL_SIZE_PARAMETER = "thread-pool-size";
+    public static final String PARTITION_SIZE_PARAMETER = "partition-size";
+    public static final String CHUNK_SIZE_PARAMETER = "chunk-size";
+
+    private static final int DEFAULT_THREAD_POOL_SIZE = 4;
+    private static final int DEFAULT_PARTITION_SIZE = 10000;
+    private static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private final COBBusinessStepService cobBusinessStepService;
+    private final LoanCOBPartitioner loanCOBPartitioner;
+    private final BatchPartitionService batchPartitionService;
+    private final BatchPartitionFailedItemRepository failedItemRepository;
+    private final LoanRepositoryWrapper loanRepositoryWrapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JobParameterRepository jobParameterRepository;
+
+    @Override
+    @CronTarget(jobName = JobName.LOAN_COB)
+    public void executeLoanCOB(final Map<String, String> jobParameters) throws JobExecutionException {
+        final int threadPoolSize = getParameter(jobParameters, THREAD_POOL_SIZE_PARAMETER, DEFAULT_THREAD_POOL_SIZE);
+        final int partitionSize = getParameter(jobParameters, PARTITION_SIZE_PARAMETER, DEFAULT_PARTITION_SIZE);
+        final int chunkSize = getParameter(jobParameters, CHUNK_SIZE_PARAMETER, DEFAULT_CHUNK_SIZE);
+
+        final List<LoanCOBBusinessStep> businessSteps = cobBusinessStepService.getBusinessSteps(LoanCOBBusinessStep.class, JOB_NAME);
+        if (businessSteps.isEmpty()) {
+            log.warn("No business steps are configured for {}, nothing to execute", JOB_NAME);
+            return;
+        }
+
+        final FineractContext context = createCOBContext();
+        final LocalDate cobDate = context.getBusinessDateContext().get(BusinessDateType.COB_DATE);
+        final List<BatchPartitionCheckpoint> pendingPartitions = batchPartitionService
+                .retrieveOrCreatePartitions(JOB_NAME, cobDate, () -> loanCOBPartitioner.createPartitions(partitionSize)).stream()
+                .filter(checkpoint -> !checkpoint.isCompleted()).collect(Collectors.toList());
+        if (pendingPartitions.isEmpty()) {
+            log.info("{} has already been completed for {}", JOB_NAME, cobDate);
+            return;
+        }
+
+        final List<Throwable> errors = new ArrayList<>();
+        if (batchPartitionService.isRemoteExecutionEnabled()) {
+            log.info("Enqueued {} for {} with {} pending partition(s) for the worker nodes", JOB_NAME, cobDate, pendingPartitions.size());
+            try {
+                errors.addAll(batchPartitionService.awaitPartitions(JOB_NAME, cobDate));
+            } catch (InterruptedException e) {
+                log.error("Interrupted while waiting for the partitions of {}", JOB_NAME, e);
+                Thread.currentThread().interrupt();
+                errors.add(e);
+            }
+        } else {
+            log.info("Starting {} for {} with {} pending partition(s)", JOB_NAME, cobDate, pendingPartitions.size());
+            errors.addAll(executeLocally(pendingPartitions, context, threadPoolSize, chunkSize, businessSteps));
+        }
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    public List<Throwable> processPartition(final BatchPartitionCheckpoint checkpoint) {
+        final List<LoanCOBBusinessStep> businessSteps = cobBusinessStepService.getBusinessSteps(LoanCOBBusinessStep.class, JOB_NAME);
+        final Map<String, String> jobParameters = jobParameterRepository.findJobParametersByJobName(JobName.LOAN_COB.toString()).stream()
+                .collect(Collectors.toMap(JobParameter::getParameterName, JobParameter::getParameterValue));
+        return processPartition(checkpoint, businessSteps, getParameter(jobParameters, CHUNK_SIZE_PARAMETER, DEFAULT_CHUNK_SIZE));
+    }
+
+    private List<Throwable> executeLocally(final List<BatchPartitionCheckpoint> pendingPartitions, final FineractContext context,
+            final int threadPoolSize, final int chunkSize, final List<LoanCOBBusinessStep> businessSteps) {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final List<Callable<List<Throwable>>> workers = new ArrayList<>();
+        for (final BatchPartitionCheckpoint checkpoint : pendingPartitions) {
+            workers.add(() -> {
+                ThreadLocalContextUtil.init(context);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                try {
+                    return processPartition(checkpoint, businessSteps, chunkSize);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.clearTenant();
+                    ThreadLocalContextUtil.clearDataSourceContext();
+                }
+            });
+        }
+
+        final List<Throwable> errors = new ArrayList<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threadPoolSize, workers.size()));
+        try {
+            for (final Future<List<Throwable>> response : executorService.invokeAll(workers)) {
+                errors.addAll(response.get());
+            }
+        } catch (InterruptedException e) {
+            log.error("Interrupted while executing {}", JOB_NAME, e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } catch (ExecutionException e) {
+            log.error("Execution exception while executing {}", JOB_NAME, e);
+            errors.add(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+        return errors;
+    }
+
+    private List<Throwable> processPartition(final BatchPartitionCheckpoint checkpoint, final List<LoanCOBBusinessStep> businessSteps,
+            final int chunkSize) {
+        final List<Throwable> errors = new ArrayList<>();
+        try {
+            Long lastProcessedId = checkpoint.getResumeAfterId();
+            retryFailedLoans(checkpoint, lastProcessedId, businessSteps, errors);
+            List<Long> loanIds = loanCOBPartitioner.readChunk(lastProcessedId, checkpoint.getMaxId(), chunkSize);
+            while (!loanIds.isEmpty()) {
+                processChunk(checkpoint, loanIds, businessSteps, errors);
+                lastProcessedId = loanIds.get(loanIds.size() - 1);
+                loanIds = loanCOBPartitioner.readChunk(lastProcessedId, checkpoint.getMaxId(), chunkSize);
+            }
+            final Long finalProcessedId = lastProcessedId;
+            final BatchPartitionStatus status = errors.isEmpty() ? BatchPartitionStatus.COMPLETED : BatchPartitionStatus.FAILED;
+            transactionTemplate.executeWithoutResult(
+                    transactionStatus -> batchPartitionService.updateProgress(checkpoint, finalProcessedId, status));
+            log.info("{} partition {} finished with status {}", JOB_NAME, checkpoint.getPartitionNo(), status);
+        } catch (BatchPartitionLeaseLostException e) {
+            // the node which took the partition over continues from the last checkpoint committed by this node
+            log.warn("{} partition {} was taken over by another node, stopping", JOB_NAME, checkpoint.getPartitionNo(), e);
+        }
+        return errors;
+    }
+
+    private void processChunk(final BatchPartitionCheckpoint checkpoint, final List<Long> loanIds,
+            final List<LoanCOBBusinessStep> businessSteps, final List<Throwable> errors) {
+        final Long lastLoanId = loanIds.get(loanIds.size() - 1);
+        businessSteps.forEach(businessStep -> businessStep.prefetch(loanIds));
+        try {
+            transactionTemplate.executeWithoutResult(transactionStatus -> {
+                for (final Long loanId : loanIds) {
+                    processLoan(loanId, businessSteps);
+                }
+                batchPartitionService.updateProgress(checkpoint, lastLoanId, BatchPartitionStatus.STARTED);
+            });
+        } catch (BatchPartitionLeaseLostException e) {
+            throw e;
+        } catch (Exception chunkException) {
+            log.warn("{} chunk ending with loan {} failed, processing its loans one by one", JOB_NAME, lastLoanId, chunkException);
+            for (final Long loanId : loanIds) {
+                // the checkpoint moves with every loan, a failed loan is kept as failed item to be retried on restart
+                try {
+                    transactionTemplate.executeWithoutResult(transactionStatus -> {
+                        processLoan(loanId, businessSteps);
+                        batchPartitionService.updateProgress(checkpoint, loanId, BatchPartitionStatus.STARTED);
+                    });
+                } catch (BatchPartitionLeaseLostException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.error("{} failed for loan {}", JOB_NAME, loanId, e);
+                    errors.add(e);
+                    transactionTemplate.executeWithoutResult(transactionStatus -> {
+                        recordFailedLoan(checkpoint.getId(), loanId);
+                        batchPartitionService.updateProgress(checkpoint, loanId, BatchPartitionStatus.STARTED);
+                    });
+                }
+            }
+        } finally {
+            businessSteps.forEach(LoanCOBBusinessStep::clearPrefetched);
+        }
+    }
+
+    private void retryFailedLoans(final BatchPartitionCheckpoint checkpoint, final Long lastProcessedId,
+            final List<LoanCOBBusinessStep> businessSteps, final List<Throwable> errors) {
+        final List<Long> failedLoanIds = failedItemRepository.findItemIds(checkpoint.getId());
+        if (failedLoanIds.isEmpty()) {
+            return;
+        }
+        log.info("{} retrying {} failed loan(s) of partition {}", JOB_NAME, failedLoanIds.size(), checkpoint.getPartitionNo());
+        for (final Long loanId : failedLoanIds) {
+            try {
+                transactionTemplate.executeWithoutResult(transactionStatus -> {
+                    processLoan(loanId, businessSteps);
+                    failedItemRepository.deleteItem(checkpoint.getId(), loanId);
+                    batchPartitionService.updateProgress(checkpoint, lastProcessedId, BatchPartitionStatus.STARTED);
+                });
+            } catch (BatchPartitionLeaseLostException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("{} failed again for loan {}", JOB_NAME, loanId, e);
+                errors.add(e);
+            }
+        }
+    }
+
+    private void recordFailedLoan(final Long checkpointId, final Long loanId) {
+        if (!failedItemRepository.existsByCheckpointIdAndItemId(checkpointId, loanId)) {
+            failedItemRepository.save(BatchPartitionFailedItem.instance(checkpointId, loanId));
+        }
+    }
+
+    private void processLoan(final Long loanId, final List<LoanCOBBusinessStep> businessSteps) {
+        final Loan loan = loanRepositoryWrapper.findOneWithNotFoundDetection(loanId);
+        cobBusinessStepService.run(businessSteps, loan);
+    }
+
+    private FineractContext createCOBContext() {
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>(ThreadLocalContextUtil.getBusinessDates());
+        // Without business date support the close of business runs for the day before the tenant date
+        businessDates.computeIfAbsent(BusinessDateType.COB_DATE, type -> businessDates.get(BusinessDateType.BUSINESS_DATE).minusDays(1));
+        return new FineractContext(ThreadLocalContextUtil.getDataSourceContext(), ThreadLocalContextUtil.getTenant(),
+                ThreadLocalContextUtil.getAuthToken(), businessDates, ActionContext.COB);
+    }
+
+    private int getParameter(final Map<String, String> jobParameters, final String name, final int defaultValue) {
+        final String value = jobParameters == null ? null : jobParameters.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
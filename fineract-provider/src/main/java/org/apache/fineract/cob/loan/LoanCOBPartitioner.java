@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.cob.data.IdRangePartition;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits the active loan book into contiguous id ranges and reads the loan ids of a range chunk by chunk.
+ *
+ * Partition boundaries are found by seeking the primary key index, so the full id list is never materialized.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanCOBPartitioner {
+
+    private static final String ACTIVE_LOAN_IDS = "select id from m_loan where loan_status_id = ? ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+
+    public List<IdRangePartition> createPartitions(final int partitionSize) {
+        final List<IdRangePartition> partitions = new ArrayList<>();
+        Long lastMaxId = 0L;
+        while (true) {
+            final List<Long> minIds = this.jdbcTemplate.queryForList(ACTIVE_LOAN_IDS + "and id > ? order by id " + sqlGenerator.limit(1),
+                    Long.class, LoanStatus.ACTIVE.getValue(), lastMaxId); // NOSONAR
+            if (minIds.isEmpty()) {
+                break;
+            }
+            final Long minId = minIds.get(0);
+            final List<Long> maxIds = this.jdbcTemplate.queryForList(
+                    ACTIVE_LOAN_IDS + "and id >= ? order by id " + sqlGenerator.limit(1, partitionSize - 1), Long.class,
+                    LoanStatus.ACTIVE.getValue(), minId); // NOSONAR
+            final Long maxId = maxIds.isEmpty()
+                    ? this.jdbcTemplate.queryForObject("select max(id) from m_loan where loan_status_id = ? and id >= ?", Long.class,
+                            LoanStatus.ACTIVE.getValue(), minId)
+                    : maxIds.get(0);
+            partitions.add(new IdRangePartition(partitions.size() + 1, minId, maxId));
+            lastMaxId = maxId;
+        }
+        return partitions;
+    }
+
+    public List<Long> readChunk(final Long afterId, final Long maxId, final int chunkSize) {
+        return this.jdbcTemplate.queryForList(ACTIVE_LOAN_IDS + "and id > ? and id <= ? order by id " + sqlGenerator.limit(chunkSize),
+                Long.class, LoanStatus.ACTIVE.getValue(), afterId, maxId); // NOSONAR
+    }
+}
@@ -177,11 +177,22 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
         final AuditMapper rm = new AuditMapper();
+
+        // the total of a keyset page counts the whole list, not only the rows past the cursor
+        final String sqlCountRows = "select " + rm.schema(includeJson, hierarchy) + ' ' + extraCriteria.getSQLTemplate();
+        final Object[] countArgs = extraCriteria.getArguments();
+
+        if (parameters.isAfterIdBound()) {
+            extraCriteria.addCriteria(parameters.isSortOrderDescending() ? "aud.id < " : "aud.id > ", parameters.getAfterId());
+        }
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
         sqlBuilder.append(rm.schema(includeJson, hierarchy));
         sqlBuilder.append(' ').append(extraCriteria.getSQLTemplate());
-        if (parameters.isOrderByRequested()) {
+        if (parameters.isAfterIdPassed()) {
+            sqlBuilder.append(" order by aud.id ").append(parameters.isSortOrderDescending() ? "desc" : "asc");
+        } else if (parameters.isOrderByRequested()) {
             sqlBuilder.append(' ').append(parameters.orderBySql());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), parameters.orderBySql());
         } else {
@@ -195,7 +206,12 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
         log.info("sql: {}", sqlBuilder);
 
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), extraCriteria.getArguments(), rm);
+        if (parameters.isAfterIdPassed()) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), extraCriteria.getArguments(), sqlCountRows,
+                    countArgs, rm, parameters.getCountMode());
+        }
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), extraCriteria.getArguments(), rm,
+                parameters.getCountMode());
     }
 
     @Override
@@ -45,6 +45,7 @@ import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
 import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.context.ApplicationContext;
@@ -63,6 +64,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private final CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
+    private final HookDeliveryService hookDeliveryService;
 
     @Transactional
     @Override
@@ -221,6 +223,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
     private void publishEvent(final String entityName, final String actionName, JsonCommand command, final Object result) {
         Gson gson = new Gson();
+        String hookPayload = null;
         try {
             final AppUser appUser = this.context.authenticatedUser(CommandWrapper.wrap(actionName, entityName, null, null));
 
@@ -264,6 +267,13 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
                 final String serializedResult = this.toApiResultJsonSerializer.serialize(reqmap);
 
+                // web hooks go through the outbox: on their own if the command failed, with the command transaction otherwise
+                if (result instanceof ErrorInfo) {
+                    this.hookDeliveryService.enqueueInNewTransaction(entityName, actionName, serializedResult);
+                } else {
+                    hookPayload = serializedResult;
+                }
+
                 final HookEvent applicationEvent = new HookEvent(hookEventSource, serializedResult, appUser,
                         ThreadLocalContextUtil.getContext());
 
@@ -272,6 +282,10 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         } catch (Exception e) {
             log.error("Error", e);
         }
+        if (hookPayload != null) {
+            // not swallowed like the event above: a delivery that can't be recorded rolls back the command rather than being lost
+            this.hookDeliveryService.enqueue(entityName, actionName, hookPayload);
+        }
     }
 
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.data;
 
+import java.io.File;
 import org.apache.fineract.infrastructure.core.domain.FineractContext;
 import org.apache.fineract.infrastructure.core.domain.FineractEvent;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -26,30 +27,38 @@ public final class BulkImportEvent extends FineractEvent {
 
     private final Workbook workbook;
 
+    // an .xlsx upload, which is streamed instead of being loaded into the workbook
+    private final File xlsxFile;
+
     private final Long importId;
 
     private final String locale;
 
     private final String dateFormat;
 
-    private BulkImportEvent(final Object source, final Workbook workbook, final Long importId, final String locale, final String dateFormat,
-            FineractContext context) {
+    private BulkImportEvent(final Object source, final Workbook workbook, final File xlsxFile, final Long importId, final String locale,
+            final String dateFormat, FineractContext context) {
         super(source, context);
         this.workbook = workbook;
+        this.xlsxFile = xlsxFile;
         this.importId = importId;
         this.locale = locale;
         this.dateFormat = dateFormat;
     }
 
-    public static BulkImportEvent instance(final Object source, final Workbook workbook, final Long importId, final String locale,
-            final String dateFormat, FineractContext context) {
-        return new BulkImportEvent(source, workbook, importId, locale, dateFormat, context);
+    public static BulkImportEvent instance(final Object source, final Workbook workbook, final File xlsxFile, final Long importId,
+            final String locale, final String dateFormat, FineractContext context) {
+        return new BulkImportEvent(source, workbook, xlsxFile, importId, locale, dateFormat, context);
     }
 
     public Workbook getWorkbook() {
         return workbook;
     }
 
+    public File getXlsxFile() {
+        return xlsxFile;
+    }
+
     public Long getImportId() {
         return importId;
     }
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * The names of a lookup sheet of an import template (offices, staff, clients, products, charges...) with the ids next to
+ * them, read once instead of scanning the whole sheet for every row of the import.
+ *
+ * Names resolve like {@link ImportHandlerUtils#getIdByName} and {@link ImportHandlerUtils#getChargeTimeTypeEmun} resolve
+ * them on the sheet itself.
+ */
+public final class ImportLookupSheet {
+
+    private final String sheetName;
+    private final Map<String, Long> idsByName = new HashMap<>();
+    private final Map<String, String> chargeTimeTypesByName = new HashMap<>();
+
+    public ImportLookupSheet(final String sheetName) {
+        this.sheetName = sheetName;
+    }
+
+    public static ImportLookupSheet of(final Sheet sheet) {
+        final ImportLookupSheet lookupSheet = new ImportLookupSheet(sheet.getSheetName());
+        for (Row row : sheet) {
+            lookupSheet.addRow(row);
+        }
+        return lookupSheet;
+    }
+
+    /**
+     * Adds the names of the row, rows are expected in sheet order.
+     */
+    public void addRow(final Row row) {
+        if (this.sheetName.equals(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME)) {
+            // the product sheet lists the name of each product right of its id
+            final String name = readString(row.getCell(1));
+            if (name != null) {
+                this.idsByName.putIfAbsent(name, readId(row, 0));
+            }
+            return;
+        }
+        for (Cell cell : row) {
+            final String name = readString(cell);
+            if (name == null) {
+                continue;
+            }
+            // the first cell holding a name wins, like the scan over the sheet
+            this.idsByName.putIfAbsent(name, readId(row, cell.getColumnIndex()));
+            if (this.sheetName.equals(TemplatePopulateImportConstants.CHARGE_SHEET_NAME)) {
+                final Cell chargeTimeTypeCell = row.getCell(cell.getColumnIndex() + 3);
+                if (chargeTimeTypeCell != null && chargeTimeTypeCell.getCellType() == CellType.STRING) {
+                    this.chargeTimeTypesByName.put(name, chargeTimeTypeCell.getStringCellValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the id next to the name, 0 if the name is not on the sheet
+     */
+    public Long getIdByName(final String name) {
+        if (name == null) {
+            return 0L;
+        }
+        return this.idsByName.getOrDefault(name, 0L);
+    }
+
+    public EnumOptionData getChargeTimeTypeEnum(final String name) {
+        final String chargeTimeType = name == null ? null : this.chargeTimeTypesByName.get(name);
+        if (chargeTimeType == null || chargeTimeType.equals("")) {
+            return null;
+        }
+        String chargeTimeTypeId = "";
+        if (chargeTimeType.equalsIgnoreCase("Disbursement")) {
+            chargeTimeTypeId = "1";
+        }
+        return new EnumOptionData(null, null, chargeTimeTypeId);
+    }
+
+    private Long readId(final Row row, final int nameColumn) {
+        final int idColumn;
+        if (this.sheetName.equals(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.OFFICE_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.GL_ACCOUNTS_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.CHARGE_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.SHARED_PRODUCTS_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.ROLES_SHEET_NAME)) {
+            idColumn = nameColumn - 1;
+        } else if (this.sheetName.equals(TemplatePopulateImportConstants.CLIENT_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.CENTER_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.GROUP_SHEET_NAME)
+                || this.sheetName.equals(TemplatePopulateImportConstants.STAFF_SHEET_NAME)) {
+            idColumn = nameColumn + 1;
+        } else {
+            return 0L;
+        }
+        final Cell idCell = idColumn < 0 ? null : row.getCell(idColumn);
+        if (idCell != null && idCell.getCellType() == CellType.NUMERIC) {
+            return ((Double) idCell.getNumericCellValue()).longValue();
+        }
+        return 0L;
+    }
+
+    private static String readString(final Cell cell) {
+        if (cell != null && cell.getCellType() == CellType.STRING) {
+            return cell.getStringCellValue().trim();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntFunction;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.ContextPropagatingTaskDecorator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the per-row commands of an import on a bounded pool. The rows are split into chunks of
+ * fineract.bulk-import.chunk-size, every chunk is one task and at most fineract.bulk-import.thread-count chunks of one
+ * import are in flight at the same time.
+ *
+ * The row processor must not touch the workbook, as POI workbooks are not thread safe: it returns a result per row,
+ * which the import handler writes back on its own thread.
+ */
+@Component
+public class ImportRowExecutor {
+
+    private final FineractProperties fineractProperties;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    public ImportRowExecutor(final FineractProperties fineractProperties) {
+        this.fineractProperties = fineractProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        final FineractProperties.FineractBulkImportProperties properties = this.fineractProperties.getBulkImport();
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setThreadNamePrefix("fineract-bulk-import-");
+        this.executor.setCorePoolSize(Math.max(1, properties.getThreadCount()));
+        this.executor.setMaxPoolSize(Math.max(1, properties.getThreadCount()));
+        this.executor.setQueueCapacity(properties.getQueueCapacity());
+        // the import thread, which carries the context anyway, runs the chunk itself when the pool is saturated
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * @return the number of rows to hand over to {@link #processRows} at a time, one chunk for each thread
+     */
+    public int getBatchSize() {
+        final FineractProperties.FineractBulkImportProperties properties = this.fineractProperties.getBulkImport();
+        return Math.max(1, properties.getChunkSize()) * Math.max(1, properties.getThreadCount());
+    }
+
+    /**
+     * @param rowCount
+     *            number of rows to process
+     * @param rowProcessor
+     *            processes the row with the given index, failures of the row are expected to be part of its result
+     * @return the results in row order
+     */
+    public <T> List<T> processRows(final int rowCount, final IntFunction<T> rowProcessor) {
+        final FineractProperties.FineractBulkImportProperties properties = this.fineractProperties.getBulkImport();
+        final int chunkSize = Math.max(1, properties.getChunkSize());
+        final List<T> results = new ArrayList<>(Collections.nCopies(rowCount, null));
+        if (properties.getThreadCount() <= 1 || rowCount <= chunkSize) {
+            for (int i = 0; i < rowCount; i++) {
+                results.set(i, rowProcessor.apply(i));
+            }
+            return results;
+        }
+
+        final Semaphore permits = new Semaphore(properties.getThreadCount());
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int from = 0; from < rowCount; from += chunkSize) {
+                final int chunkFrom = from;
+                final int chunkTo = Math.min(rowCount, from + chunkSize);
+                permits.acquire();
+                futures.add(this.executor.submit(() -> {
+                    try {
+                        for (int i = chunkFrom; i < chunkTo; i++) {
+                            results.set(i, rowProcessor.apply(i));
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            RuntimeException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                                : new IllegalStateException(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for the import rows", e);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,349 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * An .xlsx upload read sheet by sheet through the SAX event API, with the result workbook written by a
+ * {@link SXSSFWorkbook}. Unlike the full XSSF model, which holds every cell of the upload and of the result at once,
+ * only the shared strings and the last rowAccessWindowSize rows of each sheet are kept in memory.
+ *
+ * Each row read is copied to the same place of the result workbook, values and number formats only (formulas are
+ * replaced by their cached values), and handed over as a row of the result workbook. The import handlers thus read and
+ * write it through the usual {@link Row} API, for as long as fewer than rowAccessWindowSize further rows of its sheet
+ * have been read.
+ */
+public final class StreamingImportWorkbook implements Closeable {
+
+    private final OPCPackage upload;
+    private final XSSFReader reader;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final StylesTable styles;
+    private final SXSSFWorkbook result;
+    private final List<String> sheetNames;
+    private final Map<Integer, String> dataFormatsByStyle = new HashMap<>();
+    private final Map<String, CellStyle> resultStylesByDataFormat = new HashMap<>();
+
+    private StreamingImportWorkbook(final OPCPackage upload, final int rowAccessWindowSize)
+            throws IOException, OpenXML4JException, SAXException {
+        this.upload = upload;
+        this.reader = new XSSFReader(upload);
+        this.sharedStrings = new ReadOnlySharedStringsTable(upload);
+        this.styles = this.reader.getStylesTable();
+        this.sheetNames = new ArrayList<>();
+        final XSSFReader.SheetIterator sheets = sheets();
+        while (sheets.hasNext()) {
+            try (InputStream sheet = sheets.next()) {
+                this.sheetNames.add(sheets.getSheetName());
+            }
+        }
+        this.result = new SXSSFWorkbook(rowAccessWindowSize);
+        this.result.setCompressTempFiles(true);
+        // the result lists the sheets in the order of the upload, whichever is read first
+        for (String sheetName : this.sheetNames) {
+            this.result.createSheet(sheetName);
+        }
+    }
+
+    public static StreamingImportWorkbook open(final File file, final int rowAccessWindowSize) throws IOException {
+        final OPCPackage upload;
+        try {
+            upload = OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException(e);
+        }
+        boolean opened = false;
+        try {
+            final StreamingImportWorkbook workbook = new StreamingImportWorkbook(upload, rowAccessWindowSize);
+            opened = true;
+            return workbook;
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
+        } finally {
+            if (!opened) {
+                upload.revert();
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries on the first sheet, as {@link ImportHandlerUtils#getNumberOfRows} counts them
+     */
+    public static int countEntries(final File file, final int primaryColumn) throws IOException {
+        try (StreamingImportWorkbook workbook = open(file, 1)) {
+            final AtomicInteger entries = new AtomicInteger();
+            workbook.readSheet(workbook.sheetNames.get(0), primaryColumn, header -> {}, entry -> entries.incrementAndGet(), () -> {});
+            return entries.get();
+        }
+    }
+
+    /**
+     * @return the result workbook, e.g. for its cell styles
+     */
+    public Workbook getWorkbook() {
+        return this.result;
+    }
+
+    /**
+     * Copies every sheet but the main one to the result, collecting the names and ids on them.
+     *
+     * @return the lookup sheets by sheet name
+     */
+    public Map<String, ImportLookupSheet> readLookupSheets(final String mainSheetName) throws IOException {
+        final Map<String, ImportLookupSheet> lookupSheets = new HashMap<>();
+        for (String sheetName : this.sheetNames) {
+            if (!sheetName.equals(mainSheetName)) {
+                final ImportLookupSheet lookupSheet = new ImportLookupSheet(sheetName);
+                readSheet(sheetName, lookupSheet::addRow);
+                lookupSheets.put(sheetName, lookupSheet);
+            }
+        }
+        return lookupSheets;
+    }
+
+    /**
+     * Copies the main sheet to the result. The header row goes to the header consumer, the entries to the entry consumer:
+     * the rows from the second one on up to the first one without a cell in the primary column, as
+     * {@link ImportHandlerUtils#getNumberOfRows} counts them. The rows after the entries are copied only.
+     *
+     * @param afterLastEntry
+     *            runs once the entries are over, while the last rowAccessWindowSize - 1 of them can still be written to
+     */
+    public void readSheet(final String sheetName, final int primaryColumn, final Consumer<Row> headerConsumer,
+            final Consumer<Row> entryConsumer, final Runnable afterLastEntry) throws IOException {
+        final AtomicInteger nextEntry = new AtomicInteger(TemplatePopulateImportConstants.ROWHEADER_INDEX + 1);
+        readSheet(sheetName, row -> {
+            if (row.getRowNum() == TemplatePopulateImportConstants.ROWHEADER_INDEX) {
+                headerConsumer.accept(row);
+            } else if (nextEntry.get() > 0) {
+                if (row.getRowNum() == nextEntry.get() && row.getCell(primaryColumn) != null) {
+                    nextEntry.incrementAndGet();
+                    entryConsumer.accept(row);
+                } else {
+                    nextEntry.set(-1);
+                    afterLastEntry.run();
+                }
+            }
+        });
+        if (nextEntry.get() > 0) {
+            afterLastEntry.run();
+        }
+    }
+
+    public void write(final OutputStream outputStream) throws IOException {
+        this.result.write(outputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            // removes the temporary files the rows were written to
+            this.result.dispose();
+            this.result.close();
+        } finally {
+            this.upload.revert();
+        }
+    }
+
+    private void readSheet(final String sheetName, final Consumer<Row> rowConsumer) throws IOException {
+        final XSSFReader.SheetIterator sheets = sheets();
+        while (sheets.hasNext()) {
+            try (InputStream sheet = sheets.next()) {
+                if (sheets.getSheetName().equals(sheetName)) {
+                    final XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new SheetHandler(this.result.getSheet(sheetName), rowConsumer));
+                    parser.parse(new InputSource(sheet));
+                    return;
+                }
+            } catch (SAXException | ParserConfigurationException e) {
+                throw new IOException(e);
+            }
+        }
+        throw new IOException("The uploaded workbook has no sheet " + sheetName);
+    }
+
+    private XSSFReader.SheetIterator sheets() throws IOException {
+        try {
+            return (XSSFReader.SheetIterator) this.reader.getSheetsData();
+        } catch (OpenXML4JException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private String dataFormat(final String styleIndex) {
+        if (styleIndex == null) {
+            return null;
+        }
+        final Integer index = Integer.valueOf(styleIndex);
+        if (!this.dataFormatsByStyle.containsKey(index)) {
+            final XSSFCellStyle style = this.styles.getStyleAt(index);
+            final String dataFormat = style == null ? null : style.getDataFormatString();
+            this.dataFormatsByStyle.put(index, dataFormat == null || dataFormat.equals("General") ? null : dataFormat);
+        }
+        return this.dataFormatsByStyle.get(index);
+    }
+
+    private CellStyle resultStyle(final String dataFormat) {
+        return this.resultStylesByDataFormat.computeIfAbsent(dataFormat, format -> {
+            final CellStyle style = this.result.createCellStyle();
+            style.setDataFormat(this.result.createDataFormat().getFormat(format));
+            return style;
+        });
+    }
+
+    /**
+     * Copies the rows of a sheet part to the result sheet, see the SpreadsheetML sheetData element.
+     */
+    private final class SheetHandler extends DefaultHandler {
+
+        private final Sheet resultSheet;
+        private final Consumer<Row> rowConsumer;
+        private final StringBuilder value = new StringBuilder();
+        private Row row;
+        private int rowIndex = -1;
+        private int columnIndex;
+        private String cellType;
+        private String dataFormat;
+        private boolean hasValue;
+        private boolean inValue;
+        private boolean inInlineString;
+
+        SheetHandler(final Sheet resultSheet, final Consumer<Row> rowConsumer) {
+            this.resultSheet = resultSheet;
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    final String rowReference = attributes.getValue("r");
+                    this.rowIndex = rowReference == null ? this.rowIndex + 1 : Integer.parseInt(rowReference) - 1;
+                    this.row = this.resultSheet.createRow(this.rowIndex);
+                    this.columnIndex = -1;
+                break;
+                case "c":
+                    final String cellReference = attributes.getValue("r");
+                    this.columnIndex = cellReference == null ? this.columnIndex + 1 : new CellReference(cellReference).getCol();
+                    this.cellType = attributes.getValue("t");
+                    this.dataFormat = dataFormat(attributes.getValue("s"));
+                    this.value.setLength(0);
+                    this.hasValue = false;
+                break;
+                case "v":
+                    this.inValue = true;
+                    this.hasValue = true;
+                break;
+                case "is":
+                    this.inInlineString = true;
+                    this.hasValue = true;
+                break;
+                case "t":
+                    // the text runs of an inline string
+                    this.inValue = this.inInlineString;
+                break;
+                default:
+                break;
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    this.inValue = false;
+                break;
+                case "is":
+                    this.inInlineString = false;
+                break;
+                case "c":
+                    writeCell();
+                break;
+                case "row":
+                    this.rowConsumer.accept(this.row);
+                    this.row = null;
+                break;
+                default:
+                break;
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if (this.inValue) {
+                this.value.append(ch, start, length);
+            }
+        }
+
+        private void writeCell() {
+            final Cell cell = this.row.createCell(this.columnIndex);
+            if (this.dataFormat != null) {
+                cell.setCellStyle(resultStyle(this.dataFormat));
+            }
+            if (!this.hasValue) {
+                return;
+            }
+            final String text = this.value.toString();
+            if ("s".equals(this.cellType)) {
+                cell.setCellValue(sharedStrings.getItemAt(Integer.parseInt(text)).getString());
+            } else if ("inlineStr".equals(this.cellType) || "str".equals(this.cellType)) {
+                cell.setCellValue(text);
+            } else if ("b".equals(this.cellType)) {
+                cell.setCellValue("1".equals(text));
+            } else if (!"e".equals(this.cellType) && !text.isEmpty()) {
+                // numbers and dates, error values are left blank
+                cell.setCellValue(Double.parseDouble(text));
+            }
+        }
+    }
+}
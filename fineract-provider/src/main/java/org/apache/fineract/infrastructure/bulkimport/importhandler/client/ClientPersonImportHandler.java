@@ -19,20 +19,27 @@
 package org.apache.fineract.infrastructure.bulkimport.importhandler.client;
 
 import com.google.common.base.Splitter;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.bulkimport.constants.ClientPersonConstants;
 import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
-import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportLookupSheet;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.StreamingImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.StreamingImportWorkbook;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.portfolio.address.data.AddressData;
@@ -48,37 +55,82 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
-public class ClientPersonImportHandler implements ImportHandler {
+public class ClientPersonImportHandler implements StreamingImportHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(ClientPersonImportHandler.class);
     private Workbook workbook;
-    private List<ClientData> clients;
+    private Map<String, ImportLookupSheet> lookupSheets;
+    private List<Row> pendingRows;
+    private List<ClientData> pendingClients;
+    private int batchRowCount;
+    private int successCount;
+    private int errorCount;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowExecutor importRowExecutor;
 
     @Autowired
-    public ClientPersonImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+    public ClientPersonImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final ImportRowExecutor importRowExecutor) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
     public Count process(Workbook workbook, String locale, String dateFormat) {
-        this.workbook = workbook;
-        this.clients = new ArrayList<>();
-        readExcelFile(locale, dateFormat);
-        return importEntity(dateFormat);
-    }
-
-    public void readExcelFile(final String locale, final String dateFormat) {
+        final Map<String, ImportLookupSheet> lookupSheets = new HashMap<>();
+        for (Sheet sheet : workbook) {
+            if (!sheet.getSheetName().equals(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME)) {
+                lookupSheets.put(sheet.getSheetName(), ImportLookupSheet.of(sheet));
+            }
+        }
+        start(workbook, lookupSheets);
         Sheet clientSheet = workbook.getSheet(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME);
+        setReportHeaders(clientSheet.getRow(TemplatePopulateImportConstants.ROWHEADER_INDEX));
         Integer noOfEntries = ImportHandlerUtils.getNumberOfRows(clientSheet, 0);
         for (int rowIndex = 1; rowIndex <= noOfEntries; rowIndex++) {
-            Row row;
-            row = clientSheet.getRow(rowIndex);
-            if (ImportHandlerUtils.isNotImported(row, ClientPersonConstants.STATUS_COL)) {
-                clients.add(readClient(row, locale, dateFormat));
+            addRow(clientSheet.getRow(rowIndex), locale, dateFormat);
+        }
+        importPendingRows(dateFormat);
+        return Count.instance(successCount, errorCount);
+    }
+
+    @Override
+    public Count process(StreamingImportWorkbook workbook, String locale, String dateFormat) throws IOException {
+        start(workbook.getWorkbook(), workbook.readLookupSheets(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME));
+        workbook.readSheet(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME, 0, this::setReportHeaders,
+                row -> addRow(row, locale, dateFormat), () -> importPendingRows(dateFormat));
+        return Count.instance(successCount, errorCount);
+    }
+
+    private void start(final Workbook workbook, final Map<String, ImportLookupSheet> lookupSheets) {
+        this.workbook = workbook;
+        this.lookupSheets = lookupSheets;
+        this.pendingRows = new ArrayList<>();
+        this.pendingClients = new ArrayList<>();
+        this.batchRowCount = 0;
+        this.successCount = 0;
+        this.errorCount = 0;
+    }
+
+    private void addRow(final Row row, final String locale, final String dateFormat) {
+        if (ImportHandlerUtils.isNotImported(row, ClientPersonConstants.STATUS_COL)) {
+            try {
+                final ClientData client = readClient(row, locale, dateFormat);
+                pendingRows.add(row);
+                pendingClients.add(client);
+            } catch (RuntimeException ex) {
+                // a row that cannot be read is reported as failed instead of aborting the whole import
+                errorCount++;
+                LOG.error("Problem occurred in readExcelFile function", ex);
+                ImportHandlerUtils.writeErrorMessage(row.getSheet(), row.getRowNum(), ImportHandlerUtils.getErrorMessage(ex),
+                        ClientPersonConstants.STATUS_COL);
             }
         }
+        // the rows are imported batch by batch, so that a streamed row is written to before it leaves the row window
+        if (++batchRowCount == importRowExecutor.getBatchSize()) {
+            importPendingRows(dateFormat);
+        }
     }
 
     private ClientData readClient(Row row, final String locale, final String dateFormat) {
@@ -87,12 +139,12 @@ public class ClientPersonImportHandler implements ImportHandler {
         String lastName = ImportHandlerUtils.readAsString(ClientPersonConstants.LAST_NAME_COL, row);
         String middleName = ImportHandlerUtils.readAsString(ClientPersonConstants.MIDDLE_NAME_COL, row);
         String officeName = ImportHandlerUtils.readAsString(ClientPersonConstants.OFFICE_NAME_COL, row);
-        Long officeId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.OFFICE_SHEET_NAME), officeName);
+        Long officeId = lookupSheet(TemplatePopulateImportConstants.OFFICE_SHEET_NAME).getIdByName(officeName);
         if (officeId == 0L) {
             officeId = null;
         }
         String staffName = ImportHandlerUtils.readAsString(ClientPersonConstants.STAFF_NAME_COL, row);
-        Long staffId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.STAFF_SHEET_NAME), staffName);
+        Long staffId = lookupSheet(TemplatePopulateImportConstants.STAFF_SHEET_NAME).getIdByName(staffName);
         if (staffId == 0L) {
             staffId = null;
         }
@@ -185,37 +237,59 @@ public class ClientPersonImportHandler implements ImportHandler {
 
     }
 
-    public Count importEntity(String dateFormat) {
-        Sheet clientSheet = workbook.getSheet(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME);
-        int successCount = 0;
-        int errorCount = 0;
-        String errorMessage = "";
+    private ImportLookupSheet lookupSheet(final String sheetName) {
+        // a sheet missing from the upload resolves no names, like an empty one
+        return lookupSheets.computeIfAbsent(sheetName, ImportLookupSheet::new);
+    }
+
+    private void importPendingRows(final String dateFormat) {
+        final List<Row> rows = pendingRows;
+        final List<ClientData> clients = pendingClients;
+        pendingRows = new ArrayList<>();
+        pendingClients = new ArrayList<>();
+        batchRowCount = 0;
         GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
-        for (ClientData client : clients) {
-            try {
-                String payload = gsonBuilder.create().toJson(client);
-                final CommandWrapper commandRequest = new CommandWrapperBuilder() //
-                        .createClient() //
-                        .withJson(payload) //
-                        .build(); //
-                commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        final Gson gson = gsonBuilder.create();
+        // the commands of the rows are submitted on the import pool, the workbook is only written on this thread
+        final List<String> errorMessages = importRowExecutor.processRows(clients.size(), i -> importClient(gson, clients.get(i)));
+
+        for (int i = 0; i < rows.size(); i++) {
+            final Row row = rows.get(i);
+            final String errorMessage = errorMessages.get(i);
+            if (errorMessage == null) {
                 successCount++;
-                Cell statusCell = clientSheet.getRow(client.getRowIndex()).createCell(ClientPersonConstants.STATUS_COL);
+                Cell statusCell = row.createCell(ClientPersonConstants.STATUS_COL);
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
                 statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
+            } else {
                 errorCount++;
-                LOG.error("Problem occurred in importEntity function", ex);
-                errorMessage = ImportHandlerUtils.getErrorMessage(ex);
-                ImportHandlerUtils.writeErrorMessage(clientSheet, client.getRowIndex(), errorMessage, ClientPersonConstants.STATUS_COL);
+                ImportHandlerUtils.writeErrorMessage(row.getSheet(), row.getRowNum(), errorMessage, ClientPersonConstants.STATUS_COL);
             }
         }
-        clientSheet.setColumnWidth(ClientPersonConstants.STATUS_COL, TemplatePopulateImportConstants.SMALL_COL_SIZE);
-        ImportHandlerUtils.writeString(ClientPersonConstants.STATUS_COL,
-                clientSheet.getRow(TemplatePopulateImportConstants.ROWHEADER_INDEX), TemplatePopulateImportConstants.STATUS_COLUMN_HEADER);
+    }
 
-        return Count.instance(successCount, errorCount);
+    /**
+     * @return the error message, null once the client is created
+     */
+    private String importClient(final Gson gson, final ClientData client) {
+        try {
+            String payload = gson.toJson(client);
+            final CommandWrapper commandRequest = new CommandWrapperBuilder() //
+                    .createClient() //
+                    .withJson(payload) //
+                    .build(); //
+            commandsSourceWritePlatformService.logCommandSource(commandRequest);
+            return null;
+        } catch (RuntimeException ex) {
+            LOG.error("Problem occurred in importEntity function", ex);
+            return ImportHandlerUtils.getErrorMessage(ex);
+        }
+    }
+
+    private void setReportHeaders(Row rowHeader) {
+        rowHeader.getSheet().setColumnWidth(ClientPersonConstants.STATUS_COL, TemplatePopulateImportConstants.SMALL_COL_SIZE);
+        ImportHandlerUtils.writeString(ClientPersonConstants.STATUS_COL, rowHeader, TemplatePopulateImportConstants.STATUS_COLUMN_HEADER);
     }
 
 }
@@ -22,19 +22,25 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.bulkimport.constants.LoanConstants;
 import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
-import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportLookupSheet;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.StreamingImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.StreamingImportWorkbook;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.EnumOptionDataValueSerializer;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -59,49 +65,82 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
-public class LoanImportHandler implements ImportHandler {
+public class LoanImportHandler implements StreamingImportHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoanImportHandler.class);
     private Workbook workbook;
-    private List<LoanAccountData> loans;
-    private List<LoanApprovalData> approvalDates;
-    private List<LoanTransactionData> loanRepayments;
-    private List<DisbursementData> disbursalDates;
-    private List<String> statuses;
+    private Map<String, ImportLookupSheet> lookupSheets;
+    private List<LoanImportRow> pendingRows;
+    private int batchRowCount;
+    private int successCount;
+    private int errorCount;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowExecutor importRowExecutor;
 
     @Autowired
-    public LoanImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+    public LoanImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final ImportRowExecutor importRowExecutor) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
     public Count process(Workbook workbook, String locale, String dateFormat) {
-        this.workbook = workbook;
-        this.loans = new ArrayList<>();
-        this.approvalDates = new ArrayList<>();
-        this.loanRepayments = new ArrayList<>();
-        this.disbursalDates = new ArrayList<>();
-        this.statuses = new ArrayList<>();
-        readExcelFile(locale, dateFormat);
-        return importEntity(dateFormat);
-    }
-
-    public void readExcelFile(final String locale, final String dateFormat) {
+        final Map<String, ImportLookupSheet> lookupSheets = new HashMap<>();
+        for (Sheet sheet : workbook) {
+            if (!sheet.getSheetName().equals(TemplatePopulateImportConstants.LOANS_SHEET_NAME)) {
+                lookupSheets.put(sheet.getSheetName(), ImportLookupSheet.of(sheet));
+            }
+        }
+        start(workbook, lookupSheets);
         Sheet loanSheet = workbook.getSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME);
+        setReportHeaders(loanSheet.getRow(TemplatePopulateImportConstants.ROWHEADER_INDEX));
         Integer noOfEntries = ImportHandlerUtils.getNumberOfRows(loanSheet, TemplatePopulateImportConstants.FIRST_COLUMN_INDEX);
         for (int rowIndex = 1; rowIndex <= noOfEntries; rowIndex++) {
-            Row row;
-            row = loanSheet.getRow(rowIndex);
-            if (ImportHandlerUtils.isNotImported(row, LoanConstants.STATUS_COL)) {
-                loans.add(readLoan(row, locale, dateFormat));
-                approvalDates.add(readLoanApproval(row, locale, dateFormat));
-                disbursalDates.add(readDisbursalData(row, locale, dateFormat));
-                loanRepayments.add(readLoanRepayment(row, locale, dateFormat));
-            }
+            addRow(loanSheet.getRow(rowIndex), locale, dateFormat);
         }
+        importPendingRows(dateFormat);
+        return Count.instance(successCount, errorCount);
+    }
+
+    @Override
+    public Count process(StreamingImportWorkbook workbook, String locale, String dateFormat) throws IOException {
+        start(workbook.getWorkbook(), workbook.readLookupSheets(TemplatePopulateImportConstants.LOANS_SHEET_NAME));
+        workbook.readSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME, TemplatePopulateImportConstants.FIRST_COLUMN_INDEX,
+                this::setReportHeaders, row -> addRow(row, locale, dateFormat), () -> importPendingRows(dateFormat));
+        return Count.instance(successCount, errorCount);
+    }
+
+    private void start(final Workbook workbook, final Map<String, ImportLookupSheet> lookupSheets) {
+        this.workbook = workbook;
+        this.lookupSheets = lookupSheets;
+        this.pendingRows = new ArrayList<>();
+        this.batchRowCount = 0;
+        this.successCount = 0;
+        this.errorCount = 0;
+    }
 
+    private void addRow(final Row row, final String locale, final String dateFormat) {
+        if (ImportHandlerUtils.isNotImported(row, LoanConstants.STATUS_COL)) {
+            try {
+                final LoanAccountData loan = readLoan(row, locale, dateFormat);
+                final LoanApprovalData approvalDate = readLoanApproval(row, locale, dateFormat);
+                final DisbursementData disbursalDate = readDisbursalData(row, locale, dateFormat);
+                final LoanTransactionData loanRepayment = readLoanRepayment(row, locale, dateFormat);
+                pendingRows.add(new LoanImportRow(row, loan, approvalDate, disbursalDate, loanRepayment));
+            } catch (RuntimeException ex) {
+                // a row that cannot be read is reported as failed instead of aborting the whole import
+                errorCount++;
+                LOG.error("Problem occurred in readExcelFile function", ex);
+                writeLoanErrorMessage("", ImportHandlerUtils.getErrorMessage(ex), 0, row.createCell(LoanConstants.STATUS_COL),
+                        row.createCell(LoanConstants.FAILURE_REPORT_COL), row);
+            }
+        }
+        // the rows are imported batch by batch, so that a streamed row is written to before it leaves the row window
+        if (++batchRowCount == importRowExecutor.getBatchSize()) {
+            importPendingRows(dateFormat);
+        }
     }
 
     private LoanTransactionData readLoanRepayment(Row row, String locale, String dateFormat) {
@@ -111,8 +150,7 @@ public class LoanImportHandler implements ImportHandler {
         }
         LocalDate lastRepaymentDate = ImportHandlerUtils.readAsDate(LoanConstants.LAST_REPAYMENT_DATE_COL, row);
         String repaymentType = ImportHandlerUtils.readAsString(LoanConstants.REPAYMENT_TYPE_COL, row);
-        Long repaymentTypeId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME),
-                repaymentType);
+        Long repaymentTypeId = lookupSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME).getIdByName(repaymentType);
         if (repaymentAmount != null && lastRepaymentDate != null && repaymentType != null && repaymentTypeId != null) {
             return LoanTransactionData.importInstance(repaymentAmount, lastRepaymentDate, repaymentTypeId, row.getRowNum(), locale,
                     dateFormat);
@@ -145,19 +183,17 @@ public class LoanImportHandler implements ImportHandler {
 
     private LoanAccountData readLoan(Row row, String locale, String dateFormat) {
         String externalId = ImportHandlerUtils.readAsString(LoanConstants.EXTERNAL_ID_COL, row);
-        String status = ImportHandlerUtils.readAsString(LoanConstants.STATUS_COL, row);
         String productName = ImportHandlerUtils.readAsString(LoanConstants.PRODUCT_COL, row);
-        Long productId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME), productName);
+        Long productId = lookupSheet(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME).getIdByName(productName);
         String loanOfficerName = ImportHandlerUtils.readAsString(LoanConstants.LOAN_OFFICER_NAME_COL, row);
-        Long loanOfficerId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.STAFF_SHEET_NAME),
-                loanOfficerName);
+        Long loanOfficerId = lookupSheet(TemplatePopulateImportConstants.STAFF_SHEET_NAME).getIdByName(loanOfficerName);
         LocalDate submittedOnDate = ImportHandlerUtils.readAsDate(LoanConstants.SUBMITTED_ON_DATE_COL, row);
         String fundName = ImportHandlerUtils.readAsString(LoanConstants.FUND_NAME_COL, row);
         Long fundId;
         if (fundName == null) {
             fundId = null;
         } else {
-            fundId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME), fundName);
+            fundId = lookupSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME).getIdByName(fundName);
         }
 
         BigDecimal principal = null;
@@ -278,13 +314,11 @@ public class LoanImportHandler implements ImportHandler {
 
         Long chargeOneId = null;
         if (chargeOneName != null) {
-            chargeOneId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME),
-                    chargeOneName);
+            chargeOneId = lookupSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME).getIdByName(chargeOneName);
         }
         Long chargeTwoId = null;
         if (chargeTwoName != null) {
-            chargeTwoId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME),
-                    chargeTwoName);
+            chargeTwoId = lookupSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME).getIdByName(chargeTwoName);
         }
 
         Long collateralId = ImportHandlerUtils.readAsLong(LoanConstants.LOAN_COLLATERAL_ID, row);
@@ -295,8 +329,8 @@ public class LoanImportHandler implements ImportHandler {
 
         if (chargeOneId != null) {
             if (ImportHandlerUtils.readAsDouble(LoanConstants.CHARGE_AMOUNT_1, row) != null) {
-                EnumOptionData chargeOneTimeTypeEnum = ImportHandlerUtils
-                        .getChargeTimeTypeEmun(workbook.getSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME), chargeOneName);
+                EnumOptionData chargeOneTimeTypeEnum = lookupSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME)
+                        .getChargeTimeTypeEnum(chargeOneName);
                 EnumOptionData chargeOneAmountTypeEnum = ImportHandlerUtils
                         .getChargeAmountTypeEnum(ImportHandlerUtils.readAsString(LoanConstants.CHARGE_AMOUNT_TYPE_1, row));
 
@@ -317,8 +351,8 @@ public class LoanImportHandler implements ImportHandler {
 
         if (chargeTwoId != null) {
             if (ImportHandlerUtils.readAsDouble(LoanConstants.CHARGE_AMOUNT_2, row) != null) {
-                EnumOptionData chargeTwoTimeTypeEnum = ImportHandlerUtils
-                        .getChargeTimeTypeEmun(workbook.getSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME), chargeTwoName);
+                EnumOptionData chargeTwoTimeTypeEnum = lookupSheet(TemplatePopulateImportConstants.CHARGE_SHEET_NAME)
+                        .getChargeTimeTypeEnum(chargeTwoName);
                 EnumOptionData chargeTwoAmountTypeEnum = ImportHandlerUtils
                         .getChargeAmountTypeEnum(ImportHandlerUtils.readAsString(LoanConstants.CHARGE_AMOUNT_TYPE_2, row));
 
@@ -349,12 +383,9 @@ public class LoanImportHandler implements ImportHandler {
             }
         }
 
-        statuses.add(status);
-
         if (loanType != null) {
             if (loanType.equals("individual")) {
-                Long clientId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.CLIENT_SHEET_NAME),
-                        clientOrGroupName);
+                Long clientId = lookupSheet(TemplatePopulateImportConstants.CLIENT_SHEET_NAME).getIdByName(clientOrGroupName);
                 return LoanAccountData.importInstanceIndividual(loanTypeEnumOption, clientId, productId, loanOfficerId, submittedOnDate,
                         fundId, principal, numberOfRepayments, repaidEvery, repaidEveryFrequencyEnums, loanTerm, loanTermFrequencyEnum,
                         nominalInterestRate, submittedOnDate, amortizationEnumOption, interestMethodEnum, interestCalculationPeriodEnum,
@@ -362,8 +393,7 @@ public class LoanImportHandler implements ImportHandler {
                         interestChargedFromDate, firstRepaymentOnDate, row.getRowNum(), externalId, null, charges, linkAccountId, locale,
                         dateFormat, loanCollateralManagementData);
             } else if (loanType.equals("jlg")) {
-                Long clientId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.CLIENT_SHEET_NAME),
-                        clientOrGroupName);
+                Long clientId = lookupSheet(TemplatePopulateImportConstants.CLIENT_SHEET_NAME).getIdByName(clientOrGroupName);
                 return LoanAccountData.importInstanceIndividual(loanTypeEnumOption, clientId, productId, loanOfficerId, submittedOnDate,
                         fundId, principal, numberOfRepayments, repaidEvery, repaidEveryFrequencyEnums, loanTerm, loanTermFrequencyEnum,
                         nominalInterestRate, submittedOnDate, amortizationEnumOption, interestMethodEnum, interestCalculationPeriodEnum,
@@ -371,8 +401,7 @@ public class LoanImportHandler implements ImportHandler {
                         interestChargedFromDate, firstRepaymentOnDate, row.getRowNum(), externalId, groupId, charges, linkAccountId, locale,
                         dateFormat, null);
             } else {
-                Long groupIdforGroupLoan = ImportHandlerUtils
-                        .getIdByName(workbook.getSheet(TemplatePopulateImportConstants.GROUP_SHEET_NAME), clientOrGroupName);
+                Long groupIdforGroupLoan = lookupSheet(TemplatePopulateImportConstants.GROUP_SHEET_NAME).getIdByName(clientOrGroupName);
                 return LoanAccountData.importInstanceGroup(loanTypeEnumOption, groupIdforGroupLoan, productId, loanOfficerId,
                         submittedOnDate, fundId, principal, numberOfRepayments, repaidEvery, repaidEveryFrequencyEnums, loanTerm,
                         loanTermFrequencyEnum, nominalInterestRate, amortizationEnumOption, interestMethodEnum,
@@ -385,56 +414,65 @@ public class LoanImportHandler implements ImportHandler {
         return null;
     }
 
-    public Count importEntity(String dateFormat) {
-        Sheet loanSheet = workbook.getSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME);
-        int successCount = 0;
-        int errorCount = 0;
-        int progressLevel = 0;
-        String loanId;
-        String errorMessage = "";
-        for (int i = 0; i < loans.size(); i++) {
-            Row row = loanSheet.getRow(loans.get(i).getRowIndex());
-            Cell errorReportCell = row.createCell(LoanConstants.FAILURE_REPORT_COL);
-            Cell statusCell = row.createCell(LoanConstants.STATUS_COL);
-            CommandProcessingResult result = null;
-            loanId = "";
-            try {
-                String status = statuses.get(i);
-                progressLevel = getProgressLevel(status);
-
-                if (progressLevel == 0 && loans.get(i) != null) {
-                    result = importLoan(i, dateFormat);
-                    loanId = result.getLoanId().toString();
-                    progressLevel = 1;
-                } else {
-                    loanId = ImportHandlerUtils.readAsString(LoanConstants.LOAN_ID_COL, loanSheet.getRow(loans.get(i).getRowIndex()));
-                }
-
-                if (progressLevel <= 1 && approvalDates.get(i) != null) {
-                    progressLevel = importLoanApproval(result, i, dateFormat);
-                }
-
-                if (progressLevel <= 2 && disbursalDates.get(i) != null) {
-                    progressLevel = importDisbursalData(result, i, dateFormat);
-                }
+    private ImportLookupSheet lookupSheet(final String sheetName) {
+        // a sheet missing from the upload resolves no names, like an empty one
+        return lookupSheets.computeIfAbsent(sheetName, ImportLookupSheet::new);
+    }
 
-                if (loanRepayments.get(i) != null) {
-                    progressLevel = importLoanRepayment(result, i, dateFormat);
-                }
+    private void importPendingRows(final String dateFormat) {
+        final List<LoanImportRow> rows = pendingRows;
+        pendingRows = new ArrayList<>();
+        batchRowCount = 0;
+        // the commands of the rows are submitted on the import pool, the workbook is only written on this thread
+        final List<LoanImportResult> results = importRowExecutor.processRows(rows.size(), i -> importLoanRow(rows.get(i), dateFormat));
 
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i).row;
+            Cell errorReportCell = row.createCell(LoanConstants.FAILURE_REPORT_COL);
+            Cell statusCell = row.createCell(LoanConstants.STATUS_COL);
+            LoanImportResult result = results.get(i);
+            if (result.errorMessage == null) {
                 successCount++;
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
                 statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
+            } else {
                 errorCount++;
-                LOG.error("Problem occurred in importEntity function", ex);
-                errorMessage = ImportHandlerUtils.getErrorMessage(ex);
-                writeLoanErrorMessage(loanId, errorMessage, progressLevel, statusCell, errorReportCell, row);
+                writeLoanErrorMessage(result.loanId, result.errorMessage, result.progressLevel, statusCell, errorReportCell, row);
             }
+        }
+    }
 
+    private LoanImportResult importLoanRow(LoanImportRow loanRow, String dateFormat) {
+        int progressLevel = 0;
+        String loanId = "";
+        CommandProcessingResult result = null;
+        try {
+            progressLevel = getProgressLevel(loanRow.status);
+
+            if (progressLevel == 0 && loanRow.loan != null) {
+                result = importLoan(loanRow.loan, dateFormat);
+                loanId = result.getLoanId().toString();
+                progressLevel = 1;
+            } else {
+                loanId = loanRow.existingLoanId;
+            }
+
+            if (progressLevel <= 1 && loanRow.approvalDate != null) {
+                progressLevel = importLoanApproval(result, loanRow.approvalDate, dateFormat);
+            }
+
+            if (progressLevel <= 2 && loanRow.disbursalDate != null) {
+                progressLevel = importDisbursalData(result, loanRow.approvalDate, loanRow.disbursalDate, dateFormat);
+            }
+
+            if (loanRow.loanRepayment != null) {
+                progressLevel = importLoanRepayment(result, loanRow.loanRepayment, dateFormat);
+            }
+            return new LoanImportResult(loanId, progressLevel, null);
+        } catch (RuntimeException ex) {
+            LOG.error("Problem occurred in importEntity function", ex);
+            return new LoanImportResult(loanId, progressLevel, ImportHandlerUtils.getErrorMessage(ex));
         }
-        setReportHeaders(loanSheet);
-        return Count.instance(successCount, errorCount);
     }
 
     private void writeLoanErrorMessage(String loanId, String errorMessage, int progressLevel, Cell statusCell, Cell errorReportCell,
@@ -458,18 +496,17 @@ public class LoanImportHandler implements ImportHandler {
         errorReportCell.setCellValue(errorMessage);
     }
 
-    private void setReportHeaders(Sheet sheet) {
-        sheet.setColumnWidth(LoanConstants.STATUS_COL, TemplatePopulateImportConstants.SMALL_COL_SIZE);
-        Row rowHeader = sheet.getRow(TemplatePopulateImportConstants.ROWHEADER_INDEX);
+    private void setReportHeaders(Row rowHeader) {
+        rowHeader.getSheet().setColumnWidth(LoanConstants.STATUS_COL, TemplatePopulateImportConstants.SMALL_COL_SIZE);
         ImportHandlerUtils.writeString(LoanConstants.STATUS_COL, rowHeader, "Status");
         ImportHandlerUtils.writeString(LoanConstants.LOAN_ID_COL, rowHeader, "Loan ID");
         ImportHandlerUtils.writeString(LoanConstants.FAILURE_REPORT_COL, rowHeader, "Report");
     }
 
-    private Integer importLoanRepayment(CommandProcessingResult result, int rowIndex, String dateFormat) {
+    private Integer importLoanRepayment(CommandProcessingResult result, LoanTransactionData loanRepayment, String dateFormat) {
         GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
-        JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayments.get(rowIndex)).getAsJsonObject();
+        JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayment).getAsJsonObject();
         loanRepaymentJsonob.remove("manuallyReversed");
         loanRepaymentJsonob.remove("numberOfRepayments");
         String payload = loanRepaymentJsonob.toString();
@@ -482,10 +519,10 @@ public class LoanImportHandler implements ImportHandler {
         return 4;
     }
 
-    private Integer importDisbursalData(CommandProcessingResult result, int rowIndex, String dateFormat) {
-        if (approvalDates.get(rowIndex) != null && disbursalDates.get(rowIndex) != null) {
+    private Integer importDisbursalData(CommandProcessingResult result, LoanApprovalData approvalDate, DisbursementData disbusalData,
+            String dateFormat) {
+        if (approvalDate != null && disbusalData != null) {
 
-            DisbursementData disbusalData = disbursalDates.get(rowIndex);
             String linkAccountId = disbusalData.getLinkAccountId();
             GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
             gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
@@ -509,11 +546,11 @@ public class LoanImportHandler implements ImportHandler {
         return 3;
     }
 
-    private Integer importLoanApproval(CommandProcessingResult result, int rowIndex, String dateFormat) {
-        if (approvalDates.get(rowIndex) != null) {
+    private Integer importLoanApproval(CommandProcessingResult result, LoanApprovalData approvalDate, String dateFormat) {
+        if (approvalDate != null) {
             GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
             gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
-            String payload = gsonBuilder.create().toJson(approvalDates.get(rowIndex));
+            String payload = gsonBuilder.create().toJson(approvalDate);
             final CommandWrapper commandRequest = new CommandWrapperBuilder() //
                     .approveLoanApplication(result.getLoanId()) //
                     .withJson(payload) //
@@ -524,11 +561,11 @@ public class LoanImportHandler implements ImportHandler {
         return 2;
     }
 
-    private CommandProcessingResult importLoan(int rowIndex, String dateFormat) {
+    private CommandProcessingResult importLoan(LoanAccountData loan, String dateFormat) {
         GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
         gsonBuilder.registerTypeAdapter(EnumOptionData.class, new EnumOptionDataValueSerializer());
-        JsonObject loanJsonOb = gsonBuilder.create().toJsonTree(loans.get(rowIndex)).getAsJsonObject();
+        JsonObject loanJsonOb = gsonBuilder.create().toJsonTree(loan).getAsJsonObject();
         loanJsonOb.remove("isLoanProductLinkedToFloatingRate");
         loanJsonOb.remove("isInterestRecalculationEnabled");
         loanJsonOb.remove("isFloatingInterestRate");
@@ -567,4 +604,38 @@ public class LoanImportHandler implements ImportHandler {
         return 0;
     }
 
+    private static final class LoanImportRow {
+
+        private final Row row;
+        private final String status;
+        private final String existingLoanId;
+        private final LoanAccountData loan;
+        private final LoanApprovalData approvalDate;
+        private final DisbursementData disbursalDate;
+        private final LoanTransactionData loanRepayment;
+
+        LoanImportRow(final Row row, final LoanAccountData loan, final LoanApprovalData approvalDate, final DisbursementData disbursalDate,
+                final LoanTransactionData loanRepayment) {
+            this.row = row;
+            this.status = ImportHandlerUtils.readAsString(LoanConstants.STATUS_COL, row);
+            this.existingLoanId = ImportHandlerUtils.readAsString(LoanConstants.LOAN_ID_COL, row);
+            this.loan = loan;
+            this.approvalDate = approvalDate;
+            this.disbursalDate = disbursalDate;
+            this.loanRepayment = loanRepayment;
+        }
+    }
+
+    private static final class LoanImportResult {
+
+        private final String loanId;
+        private final int progressLevel;
+        private final String errorMessage;
+
+        LoanImportResult(final String loanId, final int progressLevel, final String errorMessage) {
+            this.loanId = loanId;
+            this.progressLevel = progressLevel;
+            this.errorMessage = errorMessage;
+        }
+    }
 }
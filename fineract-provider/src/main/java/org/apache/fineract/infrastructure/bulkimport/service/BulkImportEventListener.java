@@ -20,8 +20,12 @@ package org.apache.fineract.infrastructure.bulkimport.service;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLConnection;
+import java.nio.file.Files;
 import java.util.HashSet;
 import java.util.Set;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
@@ -30,6 +34,9 @@ import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.StreamingImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.StreamingImportWorkbook;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
@@ -38,6 +45,7 @@ import org.apache.fineract.infrastructure.documentmanagement.domain.Document;
 import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWritePlatformService;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,14 +61,17 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
     private final ApplicationContext applicationContext;
     private final ImportDocumentRepository importRepository;
     private final DocumentWritePlatformService documentService;
+    private final ImportRowExecutor importRowExecutor;
 
     @Autowired
     public BulkImportEventListener(final TenantDetailsService tenantDetailsService, final ApplicationContext context,
-            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService) {
+            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService,
+            final ImportRowExecutor importRowExecutor) {
         this.tenantDetailsService = tenantDetailsService;
         this.applicationContext = context;
         this.importRepository = importRepository;
         this.documentService = documentService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
@@ -133,8 +144,15 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
 
         }
 
-        final Workbook workbook = event.getWorkbook();
-        final Count count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final Count count;
+        try {
+            count = importWorkbook(importHandler, event, bos);
+        } catch (IOException io) {
+            throw new GeneralPlatformDomainRuleException("error.msg.io.exception", "IO exception occured with the uploaded workbook", io);
+        } finally {
+            deleteXlsxFile(event.getXlsxFile());
+        }
         importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount(), count.getErrorCount());
         this.importRepository.saveAndFlush(importDocument);
 
@@ -148,19 +166,64 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
         DocumentCommand documentCommand = new DocumentCommand(modifiedParams, document.getId(), entityType.name(), null, document.getName(),
                 document.getFileName(), document.getSize(), URLConnection.guessContentTypeFromName(document.getFileName()), null, null);
 
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try {
-            try {
-                workbook.write(bos);
-            } finally {
-                bos.close();
+        byte[] bytes = bos.toByteArray();
+        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
+        this.documentService.updateDocument(documentCommand, bis);
+    }
+
+    /**
+     * Runs the import and writes the resulting workbook, with the status of each row, to the given stream.
+     */
+    private Count importWorkbook(final ImportHandler importHandler, final BulkImportEvent event, final OutputStream result)
+            throws IOException {
+        final File xlsxFile = event.getXlsxFile();
+        if (xlsxFile != null && importHandler instanceof StreamingImportHandler) {
+            // a streamed row is written to while the row window still holds it, see StreamingImportWorkbook
+            try (StreamingImportWorkbook workbook = StreamingImportWorkbook.open(xlsxFile, this.importRowExecutor.getBatchSize() + 1)) {
+                final Count count = ((StreamingImportHandler) importHandler).process(workbook, event.getLocale(), event.getDateFormat());
+                writeResult(workbook::write, result);
+                return count;
             }
+        }
+        if (xlsxFile != null) {
+            // the templates of the other entities are small enough for the full workbook model
+            try (InputStream upload = Files.newInputStream(xlsxFile.toPath()); Workbook workbook = WorkbookFactory.create(upload)) {
+                final Count count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
+                writeResult(workbook::write, result);
+                return count;
+            }
+        }
+        try (Workbook workbook = event.getWorkbook()) {
+            final Count count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
+            writeResult(workbook::write, result);
+            return count;
+        }
+    }
+
+    private void writeResult(final WorkbookWriter writer, final OutputStream result) {
+        try {
+            writer.write(result);
+            result.close();
         } catch (IOException io) {
             LOG.error("Problem occurred in onApplicationEvent function", io);
         }
-        byte[] bytes = bos.toByteArray();
-        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-        this.documentService.updateDocument(documentCommand, bis);
+    }
+
+    private void deleteXlsxFile(final File xlsxFile) {
+        if (xlsxFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(xlsxFile.toPath());
+        } catch (IOException io) {
+            LOG.warn("Could not delete the uploaded workbook {}", xlsxFile, io);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WorkbookWriter {
+
+        void write(OutputStream outputStream) throws IOException;
     }
 
 }
@@ -24,10 +24,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
+import java.nio.file.Files;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Locale;
 import javax.ws.rs.core.Response;
 import org.apache.commons.io.IOUtils;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
@@ -36,6 +38,7 @@ import org.apache.fineract.infrastructure.bulkimport.data.ImportData;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.StreamingImportWorkbook;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -63,6 +66,7 @@ import org.springframework.stereotype.Service;
 public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService {
 
     private static final Logger LOG = LoggerFactory.getLogger(BulkImportWorkbookServiceImpl.class);
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
     private final ApplicationContext applicationContext;
     private final PlatformSecurityContext securityContext;
     private final DocumentWritePlatformService documentWritePlatformService;
@@ -96,7 +100,7 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
                 final Tika tika = new Tika();
                 final TikaInputStream tikaInputStream = TikaInputStream.get(clonedInputStream);
                 final String fileType = tika.detect(tikaInputStream);
-                if (!fileType.contains("msoffice") && !fileType.contains("application/vnd.ms-excel")) {
+                if (!fileType.contains("msoffice") && !fileType.contains("application/vnd.ms-excel") && !isOoxml(fileType)) {
                     // We had a problem where we tried to upload the downloaded
                     // file from the import options, it was somehow changed the
                     // extension we use this fix.
@@ -104,7 +108,6 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
                             "Uploaded file extension is not recognized.");
 
                 }
-                Workbook workbook = new HSSFWorkbook(clonedInputStreamWorkbook);
                 GlobalEntityType entityType = null;
                 int primaryColumn = 0;
                 if (entity.trim().equalsIgnoreCase(GlobalEntityType.CLIENTS_PERSON.toString())) {
@@ -165,11 +168,31 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
                     entityType = GlobalEntityType.USERS;
                     primaryColumn = 0;
                 } else {
-                    workbook.close();
                     throw new GeneralPlatformDomainRuleException("error.msg.unable.to.find.resource", "Unable to find requested resource");
 
                 }
-                return publishEvent(primaryColumn, fileDetail, clonedInputStreamWorkbook, entityType, workbook, locale, dateFormat);
+                // .xls templates are loaded into a workbook, .xlsx files saved by newer spreadsheet applications are not: they
+                // are streamed from a temporary file by the import, which removes the file once done
+                final File xlsxFile = isOoxml(fileType) ? Files.createTempFile("fineract-import-", ".xlsx").toFile() : null;
+                try {
+                    final Workbook workbook;
+                    final int totalRecords;
+                    if (xlsxFile == null) {
+                        workbook = new HSSFWorkbook(clonedInputStreamWorkbook);
+                        totalRecords = ImportHandlerUtils.getNumberOfRows(workbook.getSheetAt(0), primaryColumn);
+                    } else {
+                        Files.write(xlsxFile.toPath(), bytes);
+                        workbook = null;
+                        totalRecords = StreamingImportWorkbook.countEntries(xlsxFile, primaryColumn);
+                    }
+                    return publishEvent(totalRecords, fileDetail, clonedInputStreamWorkbook, entityType, workbook, xlsxFile, locale,
+                            dateFormat);
+                } catch (IOException | RuntimeException e) {
+                    if (xlsxFile != null) {
+                        Files.deleteIfExists(xlsxFile.toPath());
+                    }
+                    throw e;
+                }
             }
             throw new GeneralPlatformDomainRuleException("error.msg.null", "One or more of the given parameters not found");
         } catch (IOException e) {
@@ -180,9 +203,13 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
         }
     }
 
-    private Long publishEvent(final Integer primaryColumn, final FormDataContentDisposition fileDetail,
-            final InputStream clonedInputStreamWorkbook, final GlobalEntityType entityType, final Workbook workbook, final String locale,
-            final String dateFormat) {
+    private static boolean isOoxml(final String fileType) {
+        return fileType.contains("x-tika-ooxml") || fileType.contains("openxmlformats-officedocument.spreadsheetml");
+    }
+
+    private Long publishEvent(final int totalRecords, final FormDataContentDisposition fileDetail,
+            final InputStream clonedInputStreamWorkbook, final GlobalEntityType entityType, final Workbook workbook, final File xlsxFile,
+            final String locale, final String dateFormat) {
 
         final String fileName = fileDetail.getFileName();
 
@@ -193,9 +220,9 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
         final Document document = this.documentRepository.findById(documentId).orElse(null);
 
         final ImportDocument importDocument = ImportDocument.instance(document, DateUtils.getLocalDateTimeOfTenant(), entityType.getValue(),
-                this.securityContext.authenticatedUser(), ImportHandlerUtils.getNumberOfRows(workbook.getSheetAt(0), primaryColumn));
+                this.securityContext.authenticatedUser(), totalRecords);
         this.importDocumentRepository.saveAndFlush(importDocument);
-        BulkImportEvent event = BulkImportEvent.instance(this, workbook, importDocument.getId(), locale, dateFormat,
+        BulkImportEvent event = BulkImportEvent.instance(this, workbook, xlsxFile, importDocument.getId(), locale, dateFormat,
                 ThreadLocalContextUtil.getContext());
         applicationContext.publishEvent(event);
         return importDocument.getId();
@@ -265,7 +292,8 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
         File file = new File(fileLocation);
         final Response.ResponseBuilder response = Response.ok(file);
         response.header("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
-        response.header("Content-Type", "application/vnd.ms-excel");
+        final boolean xlsx = fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx");
+        response.header("Content-Type", xlsx ? XLSX_CONTENT_TYPE : "application/vnd.ms-excel");
         return response.build();
     }
 
@@ -31,4 +31,9 @@ public interface BusinessDateReadPlatformService {
     BusinessDateData findByType(String type);
 
     HashMap<BusinessDateType, LocalDate> getBusinessDates();
+
+    /**
+     * Drops the snapshot of the business dates of the current tenant, on this and (after commit) on the other nodes.
+     */
+    void invalidateBusinessDates();
 }
@@ -20,9 +20,14 @@ package org.apache.fineract.infrastructure.businessdate.service;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.infrastructure.businessdate.data.BusinessDateData;
@@ -31,18 +36,40 @@ import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateReposi
 import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
 import org.apache.fineract.infrastructure.businessdate.exception.BusinessDateNotFoundException;
 import org.apache.fineract.infrastructure.businessdate.mapper.BusinessDateMapper;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationData;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationTransport;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BusinessDateReadPlatformServiceImpl implements BusinessDateReadPlatformService {
 
+    private static final String BUSINESS_DATES_SNAPSHOT = "businessDates";
+
     private final BusinessDateRepository repository;
     private final BusinessDateMapper mapper;
     private final ConfigurationDomainService configurationDomainService;
+    private final CacheInvalidationTransport invalidationTransport;
+
+    // stored business dates per tenant identifier, empty when the business date is not enabled
+    private final Map<String, Map<BusinessDateType, LocalDate>> snapshots = new ConcurrentHashMap<>();
+    // incremented by every invalidation, a snapshot loaded meanwhile is not stored
+    private final AtomicLong snapshotGeneration = new AtomicLong();
+
+    @PostConstruct
+    public void subscribe() {
+        this.invalidationTransport.subscribe(invalidation -> {
+            if (BUSINESS_DATES_SNAPSHOT.equals(invalidation.getCacheName()) && !invalidation.isClear()) {
+                evictSnapshot(invalidation.getKey());
+            }
+        });
+    }
 
     @Override
     public List<BusinessDateData> findAll() {
@@ -73,13 +100,60 @@ public class BusinessDateReadPlatformServiceImpl implements BusinessDateReadPlat
         ZoneId zone = DateUtils.getDateTimeZoneOfTenant();
         LocalDate tenantDate = LocalDate.now(zone);
         businessDateMap.put(BusinessDateType.BUSINESS_DATE, tenantDate);
+        businessDateMap.putAll(getStoredBusinessDates());
+
+        return businessDateMap;
+    }
+
+    @Override
+    public void invalidateBusinessDates() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        evictSnapshot(tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    evictSnapshot(tenantIdentifier);
+                    publishInvalidation(tenantIdentifier);
+                }
+            });
+        } else {
+            publishInvalidation(tenantIdentifier);
+        }
+    }
+
+    private Map<BusinessDateType, LocalDate> getStoredBusinessDates() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Map<BusinessDateType, LocalDate> snapshot = this.snapshots.get(tenantIdentifier);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        final long generation = this.snapshotGeneration.get();
+        final Map<BusinessDateType, LocalDate> loadedSnapshot = loadStoredBusinessDates();
+        this.snapshots.compute(tenantIdentifier, (key, current) -> generation == this.snapshotGeneration.get() ? loadedSnapshot : current);
+        return loadedSnapshot;
+    }
+
+    private Map<BusinessDateType, LocalDate> loadStoredBusinessDates() {
+        final Map<BusinessDateType, LocalDate> businessDates = new EnumMap<>(BusinessDateType.class);
         if (configurationDomainService.isBusinessDateEnabled()) {
             final List<BusinessDateData> businessDateDataList = this.findAll();
             for (BusinessDateData businessDateData : businessDateDataList) {
-                businessDateMap.put(BusinessDateType.valueOf(businessDateData.getType()), businessDateData.getDate());
+                businessDates.put(BusinessDateType.valueOf(businessDateData.getType()), businessDateData.getDate());
             }
         }
+        return Map.copyOf(businessDates);
+    }
 
-        return businessDateMap;
+    private void evictSnapshot(final String tenantIdentifier) {
+        this.snapshots.compute(tenantIdentifier, (key, current) -> {
+            this.snapshotGeneration.incrementAndGet();
+            return null;
+        });
+    }
+
+    private void publishInvalidation(final String tenantIdentifier) {
+        this.invalidationTransport.publish(CacheInvalidationData.evict(BUSINESS_DATES_SNAPSHOT, tenantIdentifier));
     }
 }
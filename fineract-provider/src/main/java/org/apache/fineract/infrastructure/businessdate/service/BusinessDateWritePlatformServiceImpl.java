@@ -55,6 +55,7 @@ public class BusinessDateWritePlatformServiceImpl implements BusinessDateWritePl
     private final BusinessDateDataParserAndValidator dataValidator;
     private final BusinessDateRepository repository;
     private final ConfigurationDomainService configurationDomainService;
+    private final BusinessDateReadPlatformService businessDateReadPlatformService;
 
     @Override
     public CommandProcessingResult updateBusinessDate(@NotNull final JsonCommand command) {
@@ -127,6 +128,7 @@ public class BusinessDateWritePlatformServiceImpl implements BusinessDateWritePl
         if (businessDate.isEmpty()) {
             BusinessDate newBusinessDate = BusinessDate.instance(businessDateType, newDate);
             repository.save(newBusinessDate);
+            businessDateReadPlatformService.invalidateBusinessDates();
             changes.put(type, newBusinessDate.getDate());
         } else {
             updateBusinessDate(businessDate.get(), newDate, changes);
@@ -141,6 +143,7 @@ public class BusinessDateWritePlatformServiceImpl implements BusinessDateWritePl
         }
         businessDate.updateDate(newDate);
         repository.save(businessDate);
+        businessDateReadPlatformService.invalidateBusinessDates();
         changes.put(businessDate.getType().name(), newDate);
     }
 
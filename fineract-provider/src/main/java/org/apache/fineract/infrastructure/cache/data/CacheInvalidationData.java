@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.data;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Invalidation of a local cache entry, sent to the other nodes when the caches run in multi node mode. A
+ * <code>null</code> key clears the whole cache.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class CacheInvalidationData {
+
+    /**
+     * Reserved cache name for propagating a switch of the cache type, the key holds the value of the new type.
+     */
+    public static final String CACHE_TYPE_SWITCH = "_cacheType";
+
+    private final String cacheName;
+    private final String key;
+
+    public static CacheInvalidationData evict(final String cacheName, final String key) {
+        return new CacheInvalidationData(cacheName, key);
+    }
+
+    public static CacheInvalidationData clear(final String cacheName) {
+        return new CacheInvalidationData(cacheName, null);
+    }
+
+    public boolean isClear() {
+        return this.key == null;
+    }
+
+    public boolean isCacheTypeSwitch() {
+        return CACHE_TYPE_SWITCH.equals(this.cacheName);
+    }
+}
@@ -38,6 +38,10 @@ public class PlatformCache extends AbstractPersistableCustom {
         this.cacheType = cacheType.getValue();
     }
 
+    public CacheType getCacheType() {
+        return CacheType.fromInt(this.cacheType);
+    }
+
     public boolean isNoCachedEnabled() {
         return CacheType.fromInt(this.cacheType).isNoCache();
     }
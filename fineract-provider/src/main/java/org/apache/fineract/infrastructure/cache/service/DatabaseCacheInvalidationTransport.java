@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationData;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default {@link CacheInvalidationTransport}, the invalidations are appended to a log table in the tenant store database
+ * shared by all nodes, which every node polls for the invalidations of the others. Rows older than the retention period
+ * are purged.
+ *
+ * The ids of the log are not committed in order, so the poll reads the rows created since the previous poll minus an
+ * overlap window and skips the ids it has already seen. The window also covers clock differences between the nodes.
+ * Nothing is published or polled unless fineract.cache.multi-node is enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "fineract.cache.invalidation-transport", havingValue = "database", matchIfMissing = true)
+public class DatabaseCacheInvalidationTransport implements CacheInvalidationTransport, ApplicationListener<ContextClosedEvent> {
+
+    private static final int MAX_KEY_LENGTH = 500;
+    private static final long POLL_OVERLAP_IN_MILLIS = 30000L;
+    private static final long PURGE_INTERVAL_IN_MILLIS = 60000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FineractProperties fineractProperties;
+    private final String nodeInstance = UUID.randomUUID().toString();
+    private final List<Consumer<CacheInvalidationData>> listeners = new CopyOnWriteArrayList<>();
+
+    // ids read within the overlap window, with their creation time
+    private final Map<Long, Long> seenIds = new HashMap<>();
+
+    private ScheduledExecutorService poller;
+    // -1 until the first poll, which starts from the invalidations created at that time
+    private long lastPollMillis = -1L;
+    private long lastPurgeMillis;
+
+    @Autowired
+    public DatabaseCacheInvalidationTransport(@Qualifier("hikariTenantDataSource") final DataSource tenantDataSource,
+            final FineractProperties fineractProperties) {
+        this.jdbcTemplate = new JdbcTemplate(tenantDataSource);
+        this.fineractProperties = fineractProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        final long pollInterval = fineractProperties.getCache().getInvalidationPollIntervalInMillis();
+        if (!fineractProperties.getCache().isMultiNode() || pollInterval <= 0) {
+            return;
+        }
+        this.poller = Executors.newSingleThreadScheduledExecutor();
+        this.poller.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.poller != null) {
+            this.poller.shutdownNow();
+        }
+    }
+
+    @Override
+    public void publish(final CacheInvalidationData invalidation) {
+        if (!fineractProperties.getCache().isMultiNode()) {
+            return;
+        }
+        // keys too long for the log clear the whole cache on the other nodes
+        final String key = invalidation.getKey() != null && invalidation.getKey().length() > MAX_KEY_LENGTH ? null
+                : invalidation.getKey();
+        try {
+            this.jdbcTemplate.update(
+                    "insert into cache_invalidation_log (node_instance, cache_name, cache_key, created_at_millis) values (?, ?, ?, ?)",
+                    this.nodeInstance, invalidation.getCacheName(), key, System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            // called after the commit of the change, it must not fail the request
+            log.error("Could not publish the invalidation of cache {}", invalidation.getCacheName(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(final Consumer<CacheInvalidationData> listener) {
+        this.listeners.add(listener);
+    }
+
+    void poll() {
+        try {
+            final long now = System.currentTimeMillis();
+            if (this.lastPollMillis < 0) {
+                this.lastPollMillis = now;
+                return;
+            }
+            final long pollFromMillis = this.lastPollMillis - POLL_OVERLAP_IN_MILLIS;
+            final String sql = "select id, node_instance, cache_name, cache_key, created_at_millis from cache_invalidation_log "
+                    + "where created_at_millis >= ? order by id";
+            this.jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                if (this.seenIds.putIfAbsent(rs.getLong("id"), rs.getLong("created_at_millis")) == null
+                        && !this.nodeInstance.equals(rs.getString("node_instance"))) {
+                    notifyListeners(new CacheInvalidationData(rs.getString("cache_name"), rs.getString("cache_key")));
+                }
+            }, pollFromMillis);
+            this.lastPollMillis = now;
+            // the next poll starts from now minus the overlap, older ids can't be read again
+            this.seenIds.values().removeIf(createdAtMillis -> createdAtMillis < now - POLL_OVERLAP_IN_MILLIS);
+            purge();
+        } catch (Exception e) {
+            // an exception must not escape, it would cancel the polling
+            log.error("Polling the cache invalidation log failed", e);
+        }
+    }
+
+    private void notifyListeners(final CacheInvalidationData invalidation) {
+        for (final Consumer<CacheInvalidationData> listener : this.listeners) {
+            listener.accept(invalidation);
+        }
+    }
+
+    private void purge() {
+        final long now = System.currentTimeMillis();
+        if (now - this.lastPurgeMillis < PURGE_INTERVAL_IN_MILLIS) {
+            return;
+        }
+        this.lastPurgeMillis = now;
+        final long retention = fineractProperties.getCache().getInvalidationRetentionInMillis();
+        this.jdbcTemplate.update("delete from cache_invalidation_log where created_at_millis < ?", now - retention);
+    }
+}
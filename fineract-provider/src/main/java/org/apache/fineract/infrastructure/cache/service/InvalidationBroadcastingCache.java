@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.concurrent.Callable;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationData;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Node local {@link Cache} which sends its evictions to the other nodes. They are sent after the surrounding transaction
+ * commits, so that another node can not reload the old state into its cache. Puts are not sent, they only fill the
+ * local cache.
+ */
+@RequiredArgsConstructor
+public class InvalidationBroadcastingCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheInvalidationTransport transport;
+
+    @Override
+    public String getName() {
+        return this.delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        return this.delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        return this.delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        return this.delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        this.delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        return this.delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        this.delegate.evict(key);
+        publish(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        final boolean evicted = this.delegate.evictIfPresent(key);
+        // the entry may still be present on the other nodes
+        publish(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        this.delegate.clear();
+        publish(null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        final boolean invalidated = this.delegate.invalidate();
+        publish(null);
+        return invalidated;
+    }
+
+    private void publish(final Object key) {
+        // the keys used by the platform are strings, other keys clear the cache on the other nodes
+        final CacheInvalidationData invalidation = key instanceof String ? CacheInvalidationData.evict(getName(), (String) key)
+                : CacheInvalidationData.clear(getName());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    InvalidationBroadcastingCache.this.transport.publish(invalidation);
+                }
+            });
+        } else {
+            this.transport.publish(invalidation);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CacheInvalidationTransport} publishing the invalidations on an ActiveMQ topic, which every node subscribes to.
+ * It uses the connection factory of the activeMqEnabled profile.
+ */
+@Slf4j
+@Component
+@Profile("activeMqEnabled")
+@ConditionalOnProperty(value = "fineract.cache.invalidation-transport", havingValue = "jms")
+public class JmsCacheInvalidationTransport
+        implements CacheInvalidationTransport, MessageListener, ApplicationListener<ContextClosedEvent> {
+
+    private static final String TOPIC_NAME = "CacheInvalidationTopic";
+    private static final String NODE_INSTANCE = "nodeInstance";
+    private static final String CACHE_NAME = "cacheName";
+    private static final String CACHE_KEY = "cacheKey";
+
+    private final JmsTemplate jmsTemplate;
+    private final DefaultMessageListenerContainer listenerContainer = new DefaultMessageListenerContainer();
+    private final String nodeInstance = UUID.randomUUID().toString();
+    private final List<Consumer<CacheInvalidationData>> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public JmsCacheInvalidationTransport(@Qualifier("connectionFactory") final ConnectionFactory connectionFactory) {
+        this.jmsTemplate = new JmsTemplate(connectionFactory);
+        this.jmsTemplate.setPubSubDomain(true);
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.setPubSubDomain(true);
+        this.listenerContainer.setDestinationName(TOPIC_NAME);
+        this.listenerContainer.setMessageListener(this);
+    }
+
+    @PostConstruct
+    public void start() {
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        this.listenerContainer.shutdown();
+    }
+
+    @Override
+    public void publish(final CacheInvalidationData invalidation) {
+        try {
+            this.jmsTemplate.send(TOPIC_NAME, session -> {
+                final MapMessage message = session.createMapMessage();
+                message.setString(NODE_INSTANCE, this.nodeInstance);
+                message.setString(CACHE_NAME, invalidation.getCacheName());
+                message.setString(CACHE_KEY, invalidation.getKey());
+                return message;
+            });
+        } catch (JmsException e) {
+            // called after the commit of the change, it must not fail the request
+            log.error("Could not publish the invalidation of cache {}", invalidation.getCacheName(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(final Consumer<CacheInvalidationData> listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(final Message message) {
+        if (!(message instanceof MapMessage)) {
+            return;
+        }
+        try {
+            final MapMessage mapMessage = (MapMessage) message;
+            if (this.nodeInstance.equals(mapMessage.getString(NODE_INSTANCE))) {
+                return;
+            }
+            final CacheInvalidationData invalidation = new CacheInvalidationData(mapMessage.getString(CACHE_NAME),
+                    mapMessage.getString(CACHE_KEY));
+            for (final Consumer<CacheInvalidationData> listener : this.listeners) {
+                listener.accept(invalidation);
+            }
+        } catch (JMSException e) {
+            log.error("Could not read cache invalidation message", e);
+        }
+    }
+}
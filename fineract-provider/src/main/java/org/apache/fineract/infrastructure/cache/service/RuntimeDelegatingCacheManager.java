@@ -22,9 +22,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.fineract.infrastructure.cache.CacheApiConstants;
 import org.apache.fineract.infrastructure.cache.CacheEnumerations;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationData;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.slf4j.Logger;
@@ -41,6 +43,9 @@ import org.springframework.stereotype.Component;
  *
  * By default it is {@link NoOpCacheManager} but we can change that by checking some persisted configuration in the
  * database on startup and allow user to switch implementation through UI/API
+ *
+ * In multi node mode every node keeps its local caches, their evictions are sent to the other nodes through the
+ * {@link CacheInvalidationTransport}. Switches of the cache type are sent the same way, so all nodes use the same type.
  */
 @Component(value = "runtimeDelegatingCacheManager")
 public class RuntimeDelegatingCacheManager implements CacheManager {
@@ -49,12 +54,17 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
     private final CacheManager cacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
-    private CacheManager currentCacheManager;
+    private final CacheManager multiNodeCacheManager;
+    private final CacheInvalidationTransport invalidationTransport;
+    private volatile CacheManager currentCacheManager;
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager) {
+    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager, final CacheInvalidationTransport invalidationTransport) {
         this.cacheManager = cacheManager;
+        this.invalidationTransport = invalidationTransport;
+        this.multiNodeCacheManager = new MultiNodeCacheManager(cacheManager, invalidationTransport);
         this.currentCacheManager = this.noOpCacheManager;
+        invalidationTransport.subscribe(this::applyInvalidation);
     }
 
     @Override
@@ -69,60 +79,76 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
     public Collection<CacheData> retrieveAll() {
 
-        final boolean noCacheEnabled = this.currentCacheManager instanceof NoOpCacheManager;
-        final boolean ehcacheEnabled = this.currentCacheManager instanceof JCacheCacheManager;
-
-        // final boolean distributedCacheEnabled = false;
+        final boolean noCacheEnabled = this.currentCacheManager == this.noOpCacheManager;
+        final boolean ehcacheEnabled = this.currentCacheManager == this.cacheManager;
+        final boolean distributedCacheEnabled = this.currentCacheManager == this.multiNodeCacheManager;
 
         final EnumOptionData noCacheType = CacheEnumerations.cacheType(CacheType.NO_CACHE);
         final EnumOptionData singleNodeCacheType = CacheEnumerations.cacheType(CacheType.SINGLE_NODE);
-        // final EnumOptionData multiNodeCacheType =
-        // CacheEnumerations.cacheType(CacheType.MULTI_NODE);
+        final EnumOptionData multiNodeCacheType = CacheEnumerations.cacheType(CacheType.MULTI_NODE);
 
         final CacheData noCache = CacheData.instance(noCacheType, noCacheEnabled);
         final CacheData singleNodeCache = CacheData.instance(singleNodeCacheType, ehcacheEnabled);
-        // final CacheData distributedCache =
-        // CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
+        final CacheData distributedCache = CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
 
-        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache);
+        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache, distributedCache);
         return caches;
     }
 
-    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
+    public Map<String, Object> switchToCache(final CacheType currentCacheType, final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
 
-        final boolean noCacheEnabled = !ehcacheEnabled;
-        final boolean distributedCacheEnabled = !ehcacheEnabled;
+        if (toCacheType != CacheType.INVALID && currentCacheType != toCacheType) {
+            changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
+        }
+        switchCacheManager(toCacheType, !changes.isEmpty());
+        if (!changes.isEmpty()) {
+            // the other nodes must follow, a node without caching would not send its evictions
+            this.invalidationTransport.publish(
+                    new CacheInvalidationData(CacheInvalidationData.CACHE_TYPE_SWITCH, String.valueOf(toCacheType.getValue())));
+        }
+
+        return changes;
+    }
 
+    private void switchCacheManager(final CacheType toCacheType, final boolean changed) {
         switch (toCacheType) {
             case INVALID:
             break;
             case NO_CACHE:
-                if (!noCacheEnabled) {
-                    changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
-                }
                 this.currentCacheManager = this.noOpCacheManager;
             break;
             case SINGLE_NODE:
-                if (!ehcacheEnabled) {
-                    changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
+            case MULTI_NODE:
+                if (changed) {
+                    // entries may have gone stale while they were not maintained by this mode
                     clearEhCache();
                 }
-                this.currentCacheManager = this.cacheManager;
+                this.currentCacheManager = toCacheType == CacheType.SINGLE_NODE ? this.cacheManager : this.multiNodeCacheManager;
 
                 if (this.currentCacheManager.getCacheNames().size() == 0) {
                     LOG.error("No caches configured for activated CacheManager {}", this.currentCacheManager);
                 }
             break;
-            case MULTI_NODE:
-                if (!distributedCacheEnabled) {
-                    changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
-                }
-            break;
         }
+    }
 
-        return changes;
+    private void applyInvalidation(final CacheInvalidationData invalidation) {
+        if (invalidation.isCacheTypeSwitch()) {
+            final CacheType toCacheType = CacheType.fromInt(Integer.valueOf(invalidation.getKey()));
+            switchCacheManager(toCacheType, true);
+            return;
+        }
+        final Cache cache = this.cacheManager.getCache(invalidation.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            cache.clear();
+        } else {
+            cache.evict(invalidation.getKey());
+        }
     }
 
     private void clearEhCache() {
@@ -131,4 +157,37 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
             cacheManager.getCache(cacheName).clear();
         }
     }
+
+    /**
+     * Node local caches of the {@link JCacheCacheManager} which send their evictions to the other nodes.
+     */
+    private static final class MultiNodeCacheManager implements CacheManager {
+
+        private final CacheManager localCacheManager;
+        private final CacheInvalidationTransport invalidationTransport;
+        private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+        MultiNodeCacheManager(final CacheManager localCacheManager, final CacheInvalidationTransport invalidationTransport) {
+            this.localCacheManager = localCacheManager;
+            this.invalidationTransport = invalidationTransport;
+        }
+
+        @Override
+        public Cache getCache(final String name) {
+            final Cache cache = this.caches.get(name);
+            if (cache != null) {
+                return cache;
+            }
+            final Cache localCache = this.localCacheManager.getCache(name);
+            if (localCache == null) {
+                return null;
+            }
+            return this.caches.computeIfAbsent(name, key -> new InvalidationBroadcastingCache(localCache, this.invalidationTransport));
+        }
+
+        @Override
+        public Collection<String> getCacheNames() {
+            return this.localCacheManager.getCacheNames();
+        }
+    }
 }
@@ -23,7 +23,6 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 import com.google.gson.JsonElement;
 import java.io.IOException;
 import java.io.StringReader;
@@ -34,6 +33,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -41,6 +41,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignStatus;
 import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignTriggerType;
 import org.apache.fineract.infrastructure.campaigns.sms.data.CampaignPreviewData;
@@ -88,14 +89,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaSystemException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWritePlatformService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SmsCampaignWritePlatformServiceJpaImpl.class);
+    private static final int MATERIALIZATION_CHUNK_SIZE = 1000;
+    private static final int COMPILED_TEMPLATE_CACHE_MAX_ENTRIES = 1000;
+    private static final String INSERT_PENDING_SMS_SQL = "insert into sms_messages_outbound (client_id, status_enum, mobile_no, message, "
+            + "campaign_id, submittedon_date, is_notification) values (?, ?, ?, ?, ?, ?, ?)";
 
     private final PlatformSecurityContext context;
 
@@ -111,6 +119,9 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
     private final DeviceRegistrationRepositoryWrapper deviceRegistrationRepository;
 
     private final SmsMessageScheduledJobService smsMessageScheduledJobService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Mustache> compiledTemplates = new ConcurrentHashMap<>();
 
     @Autowired
     public SmsCampaignWritePlatformServiceJpaImpl(final PlatformSecurityContext context, final SmsCampaignRepository smsCampaignRepository,
@@ -119,7 +130,8 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
             final ReadReportingService readReportingService, final GenericDataService genericDataService,
             final FromJsonHelper fromJsonHelper, final GroupRepository groupRepository,
             final SmsMessageScheduledJobService smsMessageScheduledJobService,
-            final DeviceRegistrationRepositoryWrapper deviceRegistrationRepository) {
+            final DeviceRegistrationRepositoryWrapper deviceRegistrationRepository, final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager) {
         this.context = context;
         this.smsCampaignRepository = smsCampaignRepository;
         this.smsCampaignValidator = smsCampaignValidator;
@@ -132,6 +144,8 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
         this.groupRepository = groupRepository;
         this.smsMessageScheduledJobService = smsMessageScheduledJobService;
         this.deviceRegistrationRepository = deviceRegistrationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
@@ -228,23 +242,11 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
                     queryParamForRunReport);
 
             if (runReportObject != null) {
-                for (HashMap<String, Object> entry : runReportObject) {
-                    String textMessage = this.compileSmsTemplate(smsCampaign.getMessage(), smsCampaign.getCampaignName(), entry);
-                    Integer clientId = (Integer) entry.get("id");
-                    Object mobileNo = entry.get("mobileNo");
-
-                    Client client = this.clientRepositoryWrapper.findOneWithNotFoundDetection(clientId.longValue());
-                    if (this.smsCampaignValidator.isValidNotificationOrSms(client, smsCampaign, mobileNo)) {
-                        // String countryCode =
-                        // this.smsReadPlatformService.retrieveCountryCode(client.getOffice().getId()).getCountryCode();
-                        String mobileNumber = null;
-                        if (mobileNo != null) {
-                            mobileNumber = mobileNo.toString();
-                        }
-                        SmsMessage smsMessage = SmsMessage.pendingSms(null, null, client, null, textMessage, mobileNumber, smsCampaign,
-                                smsCampaign.isNotification());
-                        this.smsMessageRepository.save(smsMessage);
-                    }
+                // each chunk commits on its own when run by the scheduler, and joins the transaction of an activation
+                for (int from = 0; from < runReportObject.size(); from += MATERIALIZATION_CHUNK_SIZE) {
+                    final List<HashMap<String, Object>> chunk = runReportObject.subList(from,
+                            Math.min(runReportObject.size(), from + MATERIALIZATION_CHUNK_SIZE));
+                    this.transactionTemplate.executeWithoutResult(status -> insertPendingMessages(smsCampaign, chunk));
                 }
             }
         } catch (final IOException e) {
@@ -253,6 +255,59 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
 
     }
 
+    /**
+     * Inserts the pending messages for a chunk of report rows with one JDBC batch. The clients of the chunk are checked
+     * with a single query: they must exist and, for notification campaigns, have a registered device.
+     */
+    private void insertPendingMessages(final SmsCampaign smsCampaign, final List<HashMap<String, Object>> rows) {
+        final Set<Long> clientIds = new HashSet<>();
+        for (HashMap<String, Object> entry : rows) {
+            if (entry.get("id") instanceof Number) {
+                clientIds.add(((Number) entry.get("id")).longValue());
+            }
+        }
+        if (clientIds.isEmpty()) {
+            return;
+        }
+        final String placeholders = String.join(", ", Collections.nCopies(clientIds.size(), "?"));
+        final String sql = smsCampaign.isNotification()
+                ? "select client_id from client_device_registration where client_id in (" + placeholders + ")"
+                : "select id from m_client where id in (" + placeholders + ")";
+        final Set<Long> validClientIds = new HashSet<>(this.jdbcTemplate.queryForList(sql, Long.class, clientIds.toArray())); // NOSONAR
+
+        final LocalDate submittedOnDate = DateUtils.getBusinessLocalDate();
+        final List<Object[]> batchArgs = new ArrayList<>(rows.size());
+        for (HashMap<String, Object> entry : rows) {
+            final Object clientId = entry.get("id");
+            final Object mobileNo = entry.get("mobileNo");
+            if (!(clientId instanceof Number) || !validClientIds.contains(((Number) clientId).longValue())
+                    || (!smsCampaign.isNotification() && mobileNo == null)) {
+                continue;
+            }
+            final String textMessage = this.compileSmsTemplate(smsCampaign.getMessage(), smsCampaign.getCampaignName(), entry);
+            batchArgs.add(new Object[] { ((Number) clientId).longValue(), SmsMessageStatusType.PENDING.getValue(),
+                    mobileNo != null ? mobileNo.toString() : null, textMessage, smsCampaign.getId(), submittedOnDate,
+                    smsCampaign.isNotification() });
+        }
+        if (batchArgs.size() < rows.size()) {
+            LOG.info("Skipped {} of {} report rows of campaign {} without a valid client or mobile number", rows.size() - batchArgs.size(),
+                    rows.size(), smsCampaign.getId());
+        }
+        if (!batchArgs.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_PENDING_SMS_SQL, batchArgs);
+        }
+    }
+
+    private void sendTriggeredMessages(final SmsCampaign smsCampaign, final Collection<SmsMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        this.smsMessageRepository.saveAll(messages);
+        Map<SmsCampaign, Collection<SmsMessage>> smsDataMap = new HashMap<>();
+        smsDataMap.put(smsCampaign, messages);
+        this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap);
+    }
+
     @Override
     public void insertDirectCampaignIntoSmsOutboundTable(final Loan loan, final SmsCampaign smsCampaign) {
         try {
@@ -261,6 +316,7 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
             }
 
             Set<Client> clientSet = new HashSet<>();
+            Collection<SmsMessage> messages = new ArrayList<>();
 
             HashMap<String, String> campaignParams = new ObjectMapper().readValue(smsCampaign.getParamValue(),
                     new TypeReference<HashMap<String, String>>() {});
@@ -299,16 +355,13 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
                             SmsMessage smsMessage = SmsMessage.pendingSms(null, null, client, null, textMessage, mobileNumber, smsCampaign,
                                     smsCampaign.isNotification());
                             smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            this.smsMessageRepository.save(smsMessage);
-                            Collection<SmsMessage> messages = new ArrayList<>();
                             messages.add(smsMessage);
-                            Map<SmsCampaign, Collection<SmsMessage>> smsDataMap = new HashMap<>();
-                            smsDataMap.put(smsCampaign, messages);
-                            this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap);
                         }
                     }
                 }
             }
+            // the messages of all clients are saved and handed to the gateway together
+            sendTriggeredMessages(smsCampaign, messages);
         } catch (final IOException e) {
             LOG.error("Error occured.", e);
         } catch (final RuntimeException e) {
@@ -328,6 +381,7 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
             campaignParams.put("clientId", client.getId().toString());
             queryParamForRunReport.put("clientId", client.getId().toString());
 
+            Collection<SmsMessage> messages = new ArrayList<>();
             List<HashMap<String, Object>> runReportObject = this.getRunReportByServiceImpl(campaignParams.get("reportName"),
                     queryParamForRunReport);
 
@@ -344,15 +398,11 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
                         SmsMessage smsMessage = SmsMessage.pendingSms(null, null, client, null, textMessage, mobileNumber, smsCampaign,
                                 smsCampaign.isNotification());
                         smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                        this.smsMessageRepository.save(smsMessage);
-                        Collection<SmsMessage> messages = new ArrayList<>();
                         messages.add(smsMessage);
-                        Map<SmsCampaign, Collection<SmsMessage>> smsDataMap = new HashMap<>();
-                        smsDataMap.put(smsCampaign, messages);
-                        this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap);
                     }
                 }
             }
+            sendTriggeredMessages(smsCampaign, messages);
         } catch (final IOException e) {
             LOG.error("Error occured.", e);
         } catch (final RuntimeException e) {
@@ -371,6 +421,7 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
             queryParamForRunReport.put("savingsId", savingsAccount.getId().toString());
 
             Client client = savingsAccount.getClient();
+            Collection<SmsMessage> messages = new ArrayList<>();
             List<HashMap<String, Object>> runReportObject = this.getRunReportByServiceImpl(campaignParams.get("reportName"),
                     queryParamForRunReport);
 
@@ -387,15 +438,11 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
                         SmsMessage smsMessage = SmsMessage.pendingSms(null, null, client, null, textMessage, mobileNumber, smsCampaign,
                                 smsCampaign.isNotification());
                         smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                        this.smsMessageRepository.save(smsMessage);
-                        Collection<SmsMessage> messages = new ArrayList<>();
                         messages.add(smsMessage);
-                        Map<SmsCampaign, Collection<SmsMessage>> smsDataMap = new HashMap<>();
-                        smsDataMap.put(smsCampaign, messages);
-                        this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap);
                     }
                 }
             }
+            sendTriggeredMessages(smsCampaign, messages);
         } catch (final IOException e) {
             LOG.error("Error occured.", e);
         } catch (final RuntimeException e) {
@@ -508,15 +555,30 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
 
     @Override
     public String compileSmsTemplate(final String textMessageTemplate, final String campaignName, final Map<String, Object> smsParams) {
-        final MustacheFactory mf = new DefaultMustacheFactory();
-        final Mustache mustache = mf.compile(new StringReader(textMessageTemplate), campaignName);
-
         final StringWriter stringWriter = new StringWriter();
-        mustache.execute(stringWriter, smsParams);
+        compiledTemplate(textMessageTemplate, campaignName).execute(stringWriter, smsParams);
 
         return stringWriter.toString();
     }
 
+    /**
+     * Compiled templates are shared, as a campaign renders the same template for every report row. The template text is
+     * part of the key, so editing a campaign simply compiles its new template.
+     */
+    private Mustache compiledTemplate(final String textMessageTemplate, final String campaignName) {
+        final String key = campaignName + "\n" + textMessageTemplate;
+        Mustache mustache = this.compiledTemplates.get(key);
+        if (mustache == null) {
+            if (this.compiledTemplates.size() >= COMPILED_TEMPLATE_CACHE_MAX_ENTRIES) {
+                // there are few campaign templates, so starting over on overflow is good enough
+                this.compiledTemplates.clear();
+            }
+            mustache = new DefaultMustacheFactory().compile(new StringReader(textMessageTemplate), campaignName);
+            this.compiledTemplates.put(key, mustache);
+        }
+        return mustache;
+    }
+
     private List<HashMap<String, Object>> getRunReportByServiceImpl(final String reportName, final Map<String, String> queryParams)
             throws IOException {
         final String reportType = "report";
@@ -109,6 +109,14 @@ public final class ApiParameterHelper {
         return exportCsv;
     }
 
+    public static boolean exportJsonLines(final MultivaluedMap<String, String> queryParams) {
+        return "true".equalsIgnoreCase(queryParams.getFirst("exportJSONL"));
+    }
+
+    public static boolean gzip(final MultivaluedMap<String, String> queryParams) {
+        return "true".equalsIgnoreCase(queryParams.getFirst("gzip"));
+    }
+
     public static boolean exportPdf(final MultivaluedMap<String, String> queryParams) {
         boolean exportPDF = false;
         if (queryParams.getFirst("exportPDF") != null) {
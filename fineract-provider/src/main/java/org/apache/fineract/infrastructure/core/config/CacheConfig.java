@@ -51,6 +51,7 @@ public class CacheConfig {
 
         cacheManager.createCache("users", defaultTemplate);
         cacheManager.createCache("usersByUsername", defaultTemplate);
+        cacheManager.createCache("usersByOfficePermission", defaultTemplate);
         cacheManager.createCache("tenantsById", defaultTemplate);
         cacheManager.createCache("offices", defaultTemplate);
         cacheManager.createCache("officesForDropdown", defaultTemplate);
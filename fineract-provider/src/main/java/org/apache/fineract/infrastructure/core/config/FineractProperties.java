@@ -36,6 +36,26 @@ public class FineractProperties {
 
     private FineractCorrelationProperties correlation;
 
+    private FineractPartitionedJobProperties partitionedJob;
+
+    private FineractQuartzProperties quartz;
+
+    private FineractCacheProperties cache;
+
+    private FineractEventsProperties events;
+
+    private FineractHookDeliveryProperties hookDelivery;
+
+    private FineractBatchApiProperties batchApi;
+
+    private FineractPaginationProperties pagination;
+
+    private FineractLoanScheduleProperties loanSchedule;
+
+    private FineractBulkImportProperties bulkImport;
+
+    private FineractImagesProperties images;
+
     @Getter
     @Setter
     public static class FineractTenantProperties {
@@ -72,4 +92,100 @@ public class FineractProperties {
         private boolean enabled;
         private String headerName;
     }
+
+    @Getter
+    @Setter
+    public static class FineractPartitionedJobProperties {
+
+        private boolean remoteEnabled;
+        private int workerThreadCount;
+        private int pollIntervalInSeconds;
+        private int leaseTimeoutInSeconds;
+        private int maxAttempts;
+        private int awaitTimeoutInSeconds;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractQuartzProperties {
+
+        private int threadCount;
+        private int groupThreadCount;
+        private long misfireThresholdInMillis;
+        private boolean clustered;
+        private long clusterCheckinIntervalInMillis;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractCacheProperties {
+
+        private boolean multiNode;
+        private String invalidationTransport;
+        private long invalidationPollIntervalInMillis;
+        private long invalidationRetentionInMillis;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractEventsProperties {
+
+        private int corePoolSize;
+        private int maxPoolSize;
+        private int queueCapacity;
+        private String overflowPolicy;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractHookDeliveryProperties {
+
+        private int threadCount;
+        private long pollIntervalInMillis;
+        private int leaseLimit;
+        private int maxAttempts;
+        private long initialBackoffInSeconds;
+        private long maxBackoffInSeconds;
+        private int leaseTimeoutInSeconds;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBatchApiProperties {
+
+        private int threadCount;
+        private int queueCapacity;
+        private int maxConcurrencyPerBatch;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractPaginationProperties {
+
+        private int countCacheTtlInSeconds;
+        private int countCacheMaxEntries;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractLoanScheduleProperties {
+
+        private int futureScheduleCacheMaxEntries;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBulkImportProperties {
+
+        private int threadCount;
+        private int queueCapacity;
+        private int chunkSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractImagesProperties {
+
+        private long resizedCacheMaxBytes;
+    }
 }
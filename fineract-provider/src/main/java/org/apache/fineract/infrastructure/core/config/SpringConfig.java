@@ -16,28 +16,61 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-
 package org.apache.fineract.infrastructure.core.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.service.ContextPropagatingTaskDecorator;
 import org.springframework.beans.factory.config.MethodInvokingFactoryBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.SimpleApplicationEventMulticaster;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+@Slf4j
 @Configuration
 public class SpringConfig {
 
+    public static final String EVENT_EXECUTOR_METRIC_NAME = "fineract.events.executor";
+
     @Bean
-    public SimpleApplicationEventMulticaster applicationEventMulticaster() {
+    public SimpleApplicationEventMulticaster applicationEventMulticaster(ThreadPoolTaskExecutor applicationEventExecutor,
+            MeterRegistry meterRegistry) {
+        // executor.queued, executor.queue.remaining, executor.active, executor.completed etc. of the initialised pool
+        new ExecutorServiceMetrics(applicationEventExecutor.getThreadPoolExecutor(), EVENT_EXECUTOR_METRIC_NAME, Collections.emptyList())
+                .bindTo(meterRegistry);
         SimpleApplicationEventMulticaster saem = new SimpleApplicationEventMulticaster();
-        saem.setTaskExecutor(new SimpleAsyncTaskExecutor());
+        saem.setTaskExecutor(applicationEventExecutor);
         return saem;
     }
 
-    // The application events (for importing) rely on the inheritable thread local security context strategy
-    // This is NOT compatible with threadpools so if we use threadpools the below will need to be reworked
+    // Bounded pool for the asynchronous application events (hooks, bulk imports); the tenant, business dates, security
+    // context and MDC are handed over explicitly by the task decorator rather than inherited by newly created threads
+    @Bean
+    public ThreadPoolTaskExecutor applicationEventExecutor(FineractProperties fineractProperties, MeterRegistry meterRegistry) {
+        FineractProperties.FineractEventsProperties properties = fineractProperties.getEvents();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("fineract-event-");
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(Math.max(properties.getCorePoolSize(), properties.getMaxPoolSize()));
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        String policy = properties.getOverflowPolicy() == null ? "CALLER_RUNS" : properties.getOverflowPolicy().toUpperCase(Locale.ROOT);
+        executor.setRejectedExecutionHandler(countingRejections(overflowPolicy(policy), policy, meterRegistry));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // The remaining application code still relies on the inheritable thread local security context strategy for the
+    // threads it starts itself; the application event executor does not depend on it
     @Bean
     public MethodInvokingFactoryBean methodInvokingFactoryBean() {
         MethodInvokingFactoryBean mifb = new MethodInvokingFactoryBean();
@@ -46,4 +79,27 @@ public class SpringConfig {
         mifb.setArguments("MODE_INHERITABLETHREADLOCAL");
         return mifb;
     }
+
+    private static RejectedExecutionHandler overflowPolicy(String policy) {
+        switch (policy) {
+            case "CALLER_RUNS":
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            case "ABORT":
+                return new ThreadPoolExecutor.AbortPolicy();
+            case "DISCARD":
+                return (task, executor) -> log.warn("Application event executor is saturated, discarding event");
+            default:
+                throw new IllegalArgumentException("Unknown application event executor overflow policy: " + policy);
+        }
+    }
+
+    private static RejectedExecutionHandler countingRejections(RejectedExecutionHandler delegate, String policy,
+            MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder(EVENT_EXECUTOR_METRIC_NAME + ".rejected").tag("policy", policy)
+                .description("Application events that did not fit into the event executor queue").register(meterRegistry);
+        return (task, executor) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.core.data;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.service.PageCountMode;
 
 /**
  * <p>
@@ -32,23 +33,38 @@ public final class PaginationParameters {
     private final Integer limit;
     private final String orderBy;
     private final String sortOrder;
+    private final Long afterId;
+    private final PageCountMode countMode;
 
     public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+        return instance(paged, offset, limit, orderBy, sortOrder, null, PageCountMode.EXACT);
+    }
+
+    /**
+     * With an <code>afterId</code> the rows are paged by keyset (ordered by id, descending if so requested, starting past
+     * that id) instead of by offset; 0 starts from the first row in either direction.
+     */
+    public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder,
+            Long afterId, PageCountMode countMode) {
         if (null == paged) {
             paged = false;
         }
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
-        return new PaginationParameters(paged, offset, maxLimitAllowed, orderBy, sortOrder);
+        return new PaginationParameters(paged, offset, maxLimitAllowed, orderBy, sortOrder, afterId,
+                countMode == null ? PageCountMode.EXACT : countMode);
     }
 
-    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder, Long afterId,
+            PageCountMode countMode) {
         this.paged = paged;
         this.offset = offset;
         this.limit = limit;
         this.orderBy = orderBy;
         this.sortOrder = sortOrder;
+        this.afterId = afterId;
+        this.countMode = countMode;
     }
 
     public static Integer getCheckedLimit(final Integer limit) {
@@ -100,7 +116,27 @@ public final class PaginationParameters {
     }
 
     public boolean isOffset() {
-        return this.offset != null;
+        return this.offset != null && !isAfterIdPassed();
+    }
+
+    public Long getAfterId() {
+        return this.afterId;
+    }
+
+    public boolean isAfterIdPassed() {
+        return this.afterId != null;
+    }
+
+    public boolean isAfterIdBound() {
+        return this.afterId != null && this.afterId > 0;
+    }
+
+    public boolean isSortOrderDescending() {
+        return "desc".equalsIgnoreCase(StringUtils.trim(this.sortOrder));
+    }
+
+    public PageCountMode getCountMode() {
+        return this.countMode;
     }
 
     public String orderBySql() {
@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Carries the {@link FineractContext} (tenant, business dates, auth token), the Spring Security context and the MDC of
+ * the submitting thread over to the pooled thread running the task.
+ *
+ * Pooled threads are cleaned up after each task, so no context leaks into the next one. A task running on the
+ * submitting thread itself (caller-runs overflow) is left alone, as that thread already holds the context.
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        final Thread submitter = Thread.currentThread();
+        final FineractContext fineractContext = ThreadLocalContextUtil.getContextIfPresent();
+        // copied, as the submitting thread may clear the authentication of its own context before the task runs
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            if (Thread.currentThread() == submitter) {
+                // caller-runs overflow: the context is already in place and must survive the task
+                runnable.run();
+                return;
+            }
+            apply(fineractContext, securityContext, mdc);
+            try {
+                runnable.run();
+            } finally {
+                apply(null, null, null);
+            }
+        };
+    }
+
+    private static void apply(final FineractContext fineractContext, final SecurityContext securityContext, final Map<String, String> mdc) {
+        if (fineractContext == null) {
+            ThreadLocalContextUtil.reset();
+        } else {
+            ThreadLocalContextUtil.init(fineractContext);
+        }
+        if (securityContext == null) {
+            SecurityContextHolder.clearContext();
+        } else {
+            SecurityContextHolder.setContext(securityContext);
+        }
+        if (mdc == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+    }
+}
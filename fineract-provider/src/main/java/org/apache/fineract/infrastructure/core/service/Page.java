@@ -23,6 +23,11 @@ import java.util.List;
 
 public class Page<E> implements Serializable {
 
+    /**
+     * Reported as total when the count was skipped, see {@link PageCountMode#NONE}.
+     */
+    public static final int TOTAL_NOT_COUNTED = -1;
+
     private final int totalFilteredRecords;
     private final List<E> pageItems;
 
@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+
+/**
+ * How the total number of matching records of a {@link Page} is determined.
+ */
+public enum PageCountMode {
+
+    /**
+     * Counts the matching records for every page.
+     */
+    EXACT,
+    /**
+     * Reuses a recently counted total for the same query (regardless of the requested page), so that paging through a
+     * large list only pays for the count once; the total may lag behind concurrent changes.
+     */
+    CACHED,
+    /**
+     * Does not count at all, the total is reported as {@link Page#TOTAL_NOT_COUNTED}.
+     */
+    NONE;
+
+    public static final String PARAMETER_NAME = "countMode";
+
+    public static PageCountMode fromParameter(final String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        for (final PageCountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new UnrecognizedQueryParamException(PARAMETER_NAME, value, "exact", "cached", "none");
+    }
+}
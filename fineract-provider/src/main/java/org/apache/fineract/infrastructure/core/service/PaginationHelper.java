@@ -18,8 +18,14 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,14 +38,34 @@ public class PaginationHelper {
 
     private final DatabaseSpecificSQLGenerator sqlGenerator;
     private final DatabaseTypeResolver databaseTypeResolver;
+    private final long countCacheTtlInMillis;
+    private final int countCacheMaxEntries;
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
 
     @Autowired
-    public PaginationHelper(DatabaseSpecificSQLGenerator sqlGenerator, DatabaseTypeResolver databaseTypeResolver) {
+    public PaginationHelper(DatabaseSpecificSQLGenerator sqlGenerator, DatabaseTypeResolver databaseTypeResolver,
+            FineractProperties fineractProperties) {
         this.sqlGenerator = sqlGenerator;
         this.databaseTypeResolver = databaseTypeResolver;
+        this.countCacheTtlInMillis = TimeUnit.SECONDS.toMillis(fineractProperties.getPagination().getCountCacheTtlInSeconds());
+        this.countCacheMaxEntries = fineractProperties.getPagination().getCountCacheMaxEntries();
     }
 
     public <E> Page<E> fetchPage(final JdbcTemplate jt, final String sqlFetchRows, final Object[] args, final RowMapper<E> rowMapper) {
+        return fetchPage(jt, sqlFetchRows, args, rowMapper, PageCountMode.EXACT);
+    }
+
+    public <E> Page<E> fetchPage(final JdbcTemplate jt, final String sqlFetchRows, final Object[] args, final RowMapper<E> rowMapper,
+            final PageCountMode countMode) {
+        final String countCacheKey = PageCountMode.CACHED.equals(countMode) ? countCacheKey(sqlGenerator.withoutLimit(sqlFetchRows), args)
+                : null;
+        final Integer cachedCount = countCacheKey == null ? null : getCachedCount(countCacheKey);
+
+        if (PageCountMode.NONE.equals(countMode) || cachedCount != null) {
+            // no count follows, so MySQL need not compute FOUND_ROWS either
+            final List<E> items = jt.query(withoutFoundRows(sqlFetchRows), rowMapper, args); // NOSONAR
+            return new Page<>(items, cachedCount == null ? Page.TOTAL_NOT_COUNTED : cachedCount);
+        }
 
         final List<E> items = jt.query(sqlFetchRows, rowMapper, args); // NOSONAR
 
@@ -51,10 +77,39 @@ public class PaginationHelper {
         } else {
             totalFilteredRecords = jt.queryForObject(sqlCountRows, Integer.class, args); // NOSONAR
         }
+        if (countCacheKey != null) {
+            putCachedCount(countCacheKey, totalFilteredRecords);
+        }
 
         return new Page<>(items, totalFilteredRecords);
     }
 
+    /**
+     * Fetches a keyset page: <code>sqlFetchRows</code> selects the rows past the cursor, while <code>sqlCountRows</code>
+     * with <code>countArgs</code> is the same statement without the keyset condition, ordering and limit. The total is
+     * counted on the latter, so it covers the whole list and every page of it shares one cached total.
+     */
+    public <E> Page<E> fetchPage(final JdbcTemplate jt, final String sqlFetchRows, final Object[] args, final String sqlCountRows,
+            final Object[] countArgs, final RowMapper<E> rowMapper, final PageCountMode countMode) {
+        final String countCacheKey = PageCountMode.CACHED.equals(countMode) ? countCacheKey(sqlCountRows, countArgs) : null;
+        final Integer cachedCount = countCacheKey == null ? null : getCachedCount(countCacheKey);
+
+        // FOUND_ROWS would only count the rows past the cursor, so MySQL need not compute it
+        final List<E> items = jt.query(withoutFoundRows(sqlFetchRows), rowMapper, args); // NOSONAR
+        if (PageCountMode.NONE.equals(countMode) || cachedCount != null) {
+            return new Page<>(items, cachedCount == null ? Page.TOTAL_NOT_COUNTED : cachedCount);
+        }
+
+        final Integer totalFilteredRecords = jt.queryForObject(sqlGenerator.countQueryResult(withoutFoundRows(sqlCountRows)), // NOSONAR
+                Integer.class, countArgs);
+        final int total = ObjectUtils.defaultIfNull(totalFilteredRecords, 0);
+        if (countCacheKey != null) {
+            putCachedCount(countCacheKey, total);
+        }
+
+        return new Page<>(items, total);
+    }
+
     public <E> Page<Long> fetchPage(JdbcTemplate jdbcTemplate, String sql, Class<Long> type) {
         final List<Long> items = jdbcTemplate.queryForList(sql, type);
 
@@ -64,4 +119,55 @@ public class PaginationHelper {
 
         return new Page<>(items, ObjectUtils.defaultIfNull(totalFilteredRecords, 0));
     }
+
+    private String withoutFoundRows(final String sql) {
+        if (!databaseTypeResolver.isMySQL()) {
+            return sql;
+        }
+        return sql.replaceFirst(sqlGenerator.calcFoundRows(), "");
+    }
+
+    /**
+     * Every page of the same query (same statement apart from its limit or keyset cursor, same arguments) shares one
+     * total.
+     */
+    private String countCacheKey(final String sql, final Object[] args) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String tenantIdentifier = tenant == null ? "" : tenant.getTenantIdentifier();
+        return tenantIdentifier + '|' + sql + '|' + Arrays.deepToString(args);
+    }
+
+    private Integer getCachedCount(final String key) {
+        final CachedCount cached = this.countCache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt < System.currentTimeMillis()) {
+            this.countCache.remove(key, cached);
+            return null;
+        }
+        return cached.count;
+    }
+
+    private void putCachedCount(final String key, final int count) {
+        if (this.countCache.size() >= this.countCacheMaxEntries) {
+            final long now = System.currentTimeMillis();
+            this.countCache.values().removeIf(cached -> cached.expiresAt < now);
+            if (this.countCache.size() >= this.countCacheMaxEntries) {
+                this.countCache.clear();
+            }
+        }
+        this.countCache.put(key, new CachedCount(count, System.currentTimeMillis() + this.countCacheTtlInMillis));
+    }
+
+    private static final class CachedCount {
+
+        private final int count;
+        private final long expiresAt;
+
+        private CachedCount(final int count, final long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
@@ -50,6 +50,10 @@ public final class SearchParameters {
     private final Long categoryId;
     private final boolean isSelfUser;
 
+    // keyset paging and total count
+    private final Long afterId;
+    private final PageCountMode countMode;
+
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
         final Long staffId = null;
@@ -269,6 +273,8 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
         this.status = null;
+        this.afterId = null;
+        this.countMode = PageCountMode.EXACT;
 
     }
 
@@ -298,6 +304,8 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
         this.status = status;
+        this.afterId = null;
+        this.countMode = PageCountMode.EXACT;
 
     }
 
@@ -327,6 +335,8 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
         this.status = null;
+        this.afterId = null;
+        this.countMode = PageCountMode.EXACT;
     }
 
     private SearchParameters(final Long provisioningEntryId, final Long officeId, final Long productId, final Long categoryId,
@@ -353,6 +363,8 @@ public final class SearchParameters {
         this.categoryId = categoryId;
         this.isSelfUser = false;
         this.status = null;
+        this.afterId = null;
+        this.countMode = PageCountMode.EXACT;
 
     }
 
@@ -382,7 +394,45 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = false;
         this.status = null;
+        this.afterId = null;
+        this.countMode = PageCountMode.EXACT;
+
+    }
+
+    private SearchParameters(final SearchParameters source, final Long afterId, final PageCountMode countMode) {
+        this.sqlSearch = source.sqlSearch;
+        this.officeId = source.officeId;
+        this.externalId = source.externalId;
+        this.name = source.name;
+        this.hierarchy = source.hierarchy;
+        this.firstname = source.firstname;
+        this.lastname = source.lastname;
+        this.status = source.status;
+        this.offset = source.offset;
+        this.limit = source.limit;
+        this.orderBy = source.orderBy;
+        this.sortOrder = source.sortOrder;
+        this.accountNo = source.accountNo;
+        this.currencyCode = source.currencyCode;
+        this.staffId = source.staffId;
+        this.loanId = source.loanId;
+        this.savingsId = source.savingsId;
+        this.orphansOnly = source.orphansOnly;
+        this.provisioningEntryId = source.provisioningEntryId;
+        this.productId = source.productId;
+        this.categoryId = source.categoryId;
+        this.isSelfUser = source.isSelfUser;
+        this.afterId = afterId;
+        this.countMode = countMode == null ? PageCountMode.EXACT : countMode;
+    }
 
+    /**
+     * Keyset paging: when <code>afterId</code> is passed the rows are ordered by id (descending if so requested) and
+     * only the rows past that id are returned, the offset is ignored. An <code>afterId</code> of 0 starts from the
+     * first row in either direction.
+     */
+    public SearchParameters withPaging(final Long afterId, final PageCountMode countMode) {
+        return new SearchParameters(this, afterId, countMode);
     }
 
     public boolean isOrderByRequested() {
@@ -422,7 +472,39 @@ public final class SearchParameters {
     }
 
     public boolean isOffset() {
-        return this.offset != null;
+        return this.offset != null && !isAfterIdPassed();
+    }
+
+    public boolean isAfterIdPassed() {
+        return this.afterId != null;
+    }
+
+    public Long getAfterId() {
+        return this.afterId;
+    }
+
+    public boolean isAfterIdBound() {
+        return this.afterId != null && this.afterId > 0;
+    }
+
+    public boolean isSortOrderDescending() {
+        return "desc".equalsIgnoreCase(StringUtils.trim(this.sortOrder));
+    }
+
+    public PageCountMode getCountMode() {
+        return this.countMode;
+    }
+
+    /**
+     * Condition (with one argument, the <code>afterId</code>) selecting the rows past the keyset cursor, only needed if
+     * {@link #isAfterIdBound()}.
+     */
+    public String keysetConditionSql(final String idColumn) {
+        return idColumn + (isSortOrderDescending() ? " < ?" : " > ?");
+    }
+
+    public String keysetOrderBySql(final String idColumn) {
+        return " order by " + idColumn + (isSortOrderDescending() ? " desc" : " asc");
     }
 
     public boolean isScopedByOfficeHierarchy() {
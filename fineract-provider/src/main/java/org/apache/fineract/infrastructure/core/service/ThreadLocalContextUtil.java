@@ -108,6 +108,24 @@ public final class ThreadLocalContextUtil {
         return new FineractContext(getDataSourceContext(), getTenant(), getAuthToken(), getBusinessDates(), getActionContext());
     }
 
+    /**
+     * Returns the context of the current thread, or null if no tenant or business dates were initialised on it.
+     */
+    public static FineractContext getContextIfPresent() {
+        if (getTenant() == null || businessDateContext.get() == null) {
+            return null;
+        }
+        return getContext();
+    }
+
+    public static void reset() {
+        contextHolder.remove();
+        tenantContext.remove();
+        authTokenContext.remove();
+        businessDateContext.remove();
+        actionContext.remove();
+    }
+
     public static void init(final FineractContext fineractContext) {
         Assert.notNull(fineractContext, "FineractContext cannot be null during synchronisation!");
         setDataSourceContext(fineractContext.getContextHolder());
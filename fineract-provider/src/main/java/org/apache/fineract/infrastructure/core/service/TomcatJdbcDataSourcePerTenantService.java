@@ -18,9 +18,18 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import java.util.HashMap;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,14 +41,26 @@ import org.springframework.stereotype.Service;
  * {@link ThreadLocal} variable for this request.
  *
  * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request.
+ *
+ * Pools are kept in a concurrent registry: a request for a tenant whose pool already exists does not take any lock.
+ * When the connection settings of a tenant change, a pool whose size changed only is resized in place, while any other
+ * change replaces the pool and retires the old one once its borrowed connections had time to be returned.
  */
+@Slf4j
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private static final long RETIRED_POOL_CLOSE_DELAY_SECONDS = 60;
+
+    private final Map<Long, TenantPool> tenantToDataSourceMap = new ConcurrentHashMap<>();
     private final DataSource tenantDataSource;
 
     private final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory;
+    private final ScheduledExecutorService retiredPoolCloser = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "tenant-pool-closer");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @Autowired
     public TomcatJdbcDataSourcePerTenantService(final @Qualifier("hikariTenantDataSource") DataSource tenantDataSource,
@@ -50,26 +71,155 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
     @Override
     public DataSource retrieveDataSource() {
-        // default to tenant database datasource
-        DataSource tenantDataSource = this.tenantDataSource;
-
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to the
-                // appropriate datasource for that tenant.
-                DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                if (possibleDS != null) {
-                    tenantDataSource = possibleDS;
-                } else {
-                    tenantDataSource = dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
-                }
+        if (tenant == null) {
+            // default to tenant database datasource
+            return this.tenantDataSource;
+        }
+        final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
+        final TenantPool pool = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+        // the tenant details may be reloaded on every request, so the settings are compared rather than the instances
+        if (pool != null && (pool.connection == tenantConnection || pool.settings.equals(new PoolSettings(tenantConnection)))) {
+            return pool.dataSource;
+        }
+        final TenantPool refreshed = this.tenantToDataSourceMap.compute(tenantConnection.getConnectionId(),
+                (id, existing) -> refresh(existing, tenantConnection));
+        return refreshed.dataSource;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        this.retiredPoolCloser.shutdownNow();
+        this.tenantToDataSourceMap.values().forEach(pool -> close(pool.dataSource));
+        this.tenantToDataSourceMap.clear();
+    }
+
+    private TenantPool refresh(final TenantPool existing, final FineractPlatformTenantConnection tenantConnection) {
+        final PoolSettings settings = new PoolSettings(tenantConnection);
+        if (existing == null) {
+            return new TenantPool(tenantConnection, settings, 0,
+                    this.dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection));
+        }
+        if (existing.connection == tenantConnection || existing.settings.equals(settings)) {
+            return new TenantPool(tenantConnection, settings, existing.generation, existing.dataSource);
+        }
+        if (existing.settings.sameTarget(settings) && existing.dataSource instanceof HikariDataSource) {
+            log.info("Resizing connection pool of tenant connection {} to minimum idle {} and maximum size {}",
+                    tenantConnection.getConnectionId(), settings.minimumIdle, settings.maximumPoolSize);
+            final HikariConfigMXBean poolConfig = ((HikariDataSource) existing.dataSource).getHikariConfigMXBean();
+            // grow the upper bound first so that the minimum never exceeds it
+            if (settings.maximumPoolSize >= poolConfig.getMaximumPoolSize()) {
+                poolConfig.setMaximumPoolSize(settings.maximumPoolSize);
+                poolConfig.setMinimumIdle(settings.minimumIdle);
+            } else {
+                poolConfig.setMinimumIdle(settings.minimumIdle);
+                poolConfig.setMaximumPoolSize(settings.maximumPoolSize);
+            }
+            return new TenantPool(tenantConnection, settings, existing.generation, existing.dataSource);
+        }
+        log.info("Connection settings of tenant connection {} changed, replacing its connection pool", tenantConnection.getConnectionId());
+        final int generation = existing.generation + 1;
+        final DataSource dataSource = this.dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection, generation);
+        retire(existing.dataSource);
+        return new TenantPool(tenantConnection, settings, generation, dataSource);
+    }
+
+    private void retire(final DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            final HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            if (pool != null) {
+                // idle connections are closed now, borrowed ones as soon as they are returned
+                pool.softEvictConnections();
+            }
+        }
+        try {
+            this.retiredPoolCloser.schedule(() -> close(dataSource), RETIRED_POOL_CLOSE_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (RuntimeException e) {
+            close(dataSource);
+        }
+    }
+
+    private void close(final DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            try {
+                ((HikariDataSource) dataSource).close();
+            } catch (RuntimeException e) {
+                log.warn("Failed to close connection pool {}", ((HikariDataSource) dataSource).getPoolName(), e);
             }
         }
+    }
+
+    private static final class TenantPool {
+
+        private final FineractPlatformTenantConnection connection;
+        private final PoolSettings settings;
+        private final int generation;
+        private final DataSource dataSource;
+
+        private TenantPool(final FineractPlatformTenantConnection connection, final PoolSettings settings, final int generation,
+                final DataSource dataSource) {
+            this.connection = connection;
+            this.settings = settings;
+            this.generation = generation;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * The tenant connection settings a pool is built from.
+     */
+    @EqualsAndHashCode
+    private static final class PoolSettings {
+
+        private final Target target;
+        private final int minimumIdle;
+        private final int maximumPoolSize;
+
+        private PoolSettings(final FineractPlatformTenantConnection connection) {
+            this.target = new Target(connection);
+            this.minimumIdle = connection.getInitialSize();
+            this.maximumPoolSize = connection.getMaxActive();
+        }
 
-        return tenantDataSource;
+        private boolean sameTarget(final PoolSettings other) {
+            return this.target.equals(other.target);
+        }
+    }
+
+    /**
+     * The settings that cannot be changed on a running pool.
+     */
+    @EqualsAndHashCode
+    private static final class Target {
+
+        private final String schemaServer;
+        private final String schemaServerPort;
+        private final String schemaName;
+        private final String schemaUsername;
+        private final String schemaPassword;
+        private final String schemaConnectionParameters;
+        private final String readOnlySchemaServer;
+        private final String readOnlySchemaServerPort;
+        private final String readOnlySchemaName;
+        private final String readOnlySchemaUsername;
+        private final String readOnlySchemaPassword;
+        private final String readOnlySchemaConnectionParameters;
+        private final long validationInterval;
+
+        private Target(final FineractPlatformTenantConnection connection) {
+            this.schemaServer = connection.getSchemaServer();
+            this.schemaServerPort = connection.getSchemaServerPort();
+            this.schemaName = connection.getSchemaName();
+            this.schemaUsername = connection.getSchemaUsername();
+            this.schemaPassword = connection.getSchemaPassword();
+            this.schemaConnectionParameters = connection.getSchemaConnectionParameters();
+            this.readOnlySchemaServer = connection.getReadOnlySchemaServer();
+            this.readOnlySchemaServerPort = connection.getReadOnlySchemaServerPort();
+            this.readOnlySchemaName = connection.getReadOnlySchemaName();
+            this.readOnlySchemaUsername = connection.getReadOnlySchemaUsername();
+            this.readOnlySchemaPassword = connection.getReadOnlySchemaPassword();
+            this.readOnlySchemaConnectionParameters = connection.getReadOnlySchemaConnectionParameters();
+            this.validationInterval = connection.getValidationInterval();
+        }
     }
 }
@@ -20,6 +20,8 @@ package org.apache.fineract.infrastructure.core.service.database;
 
 import static java.lang.String.format;
 
+import java.util.Collections;
+import java.util.regex.Pattern;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -27,6 +29,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class DatabaseSpecificSQLGenerator {
 
+    private static final Pattern TRAILING_LIMIT = Pattern.compile("\\s+limit\\s+\\d+(\\s*,\\s*\\d+|\\s+offset\\s+\\d+)?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
     private final DatabaseTypeResolver databaseTypeResolver;
 
     @Autowired
@@ -80,10 +85,19 @@ public class DatabaseSpecificSQLGenerator {
         if (databaseTypeResolver.isMySQL()) {
             return "SELECT FOUND_ROWS()";
         } else {
-            return countQueryResult(sql);
+            // the page's own limit must not cap the total
+            return countQueryResult(withoutLimit(sql));
         }
     }
 
+    /**
+     * Strips a trailing limit clause, as rendered by {@link #limit(int, int)} or a plain "limit x offset y", from the
+     * statement.
+     */
+    public String withoutLimit(String sql) {
+        return TRAILING_LIMIT.matcher(sql).replaceFirst("");
+    }
+
     public String countQueryResult(String sql) {
         return format("SELECT COUNT(*) FROM (%s) AS temp", sql);
     }
@@ -168,4 +182,20 @@ public class DatabaseSpecificSQLGenerator {
             throw new IllegalStateException("Database type is not supported for current schema " + databaseTypeResolver.databaseType());
         }
     }
+
+    /**
+     * Insert statement (with one placeholder per column) skipping rows whose key exists already.
+     */
+    public String insertIfAbsent(String tableName, String... columns) {
+        final String columnList = String.join(", ", columns);
+        final String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        if (databaseTypeResolver.isMySQL()) {
+            return format("INSERT INTO %s (%s) VALUES (%s) ON DUPLICATE KEY UPDATE %s = %s", tableName, columnList, placeholders,
+                    columns[0], columns[0]);
+        } else if (databaseTypeResolver.isPostgreSQL()) {
+            return format("INSERT INTO %s (%s) VALUES (%s) ON CONFLICT DO NOTHING", tableName, columnList, placeholders);
+        } else {
+            throw new IllegalStateException("Database type is not supported for insert if absent " + databaseTypeResolver.databaseType());
+        }
+    }
 }
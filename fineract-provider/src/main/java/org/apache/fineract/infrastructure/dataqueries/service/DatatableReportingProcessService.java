@@ -31,6 +31,7 @@ import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer
 import org.apache.fineract.infrastructure.dataqueries.api.RunreportsApiResource;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportExportFormat;
 import org.apache.fineract.infrastructure.report.annotation.ReportService;
 import org.apache.fineract.infrastructure.report.service.ReportingProcessService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,6 +59,7 @@ public class DatatableReportingProcessService implements ReportingProcessService
                 queryParams.getOrDefault(RunreportsApiResource.IS_SELF_SERVICE_USER_REPORT_PARAMETER, List.of("false")).get(0));
         final boolean prettyPrint = ApiParameterHelper.prettyPrint(queryParams);
         final boolean exportCsv = ApiParameterHelper.exportCsv(queryParams);
+        final boolean exportJsonLines = ApiParameterHelper.exportJsonLines(queryParams);
         final boolean exportPdf = ApiParameterHelper.exportPdf(queryParams);
         final String parameterTypeValue = ApiParameterHelper.parameterType(queryParams) ? "parameter" : "report";
 
@@ -77,7 +79,7 @@ public class DatatableReportingProcessService implements ReportingProcessService
         }
 
         // JSON format
-        if (!exportCsv) {
+        if (!exportCsv && !exportJsonLines) {
             final Map<String, String> reportParams = getReportParams(queryParams);
 
             final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
@@ -99,12 +101,15 @@ public class DatatableReportingProcessService implements ReportingProcessService
             return Response.ok().entity(json).type(MediaType.APPLICATION_JSON).build();
         }
 
-        // CSV format
+        // CSV or JSON lines format, streamed
+        final ReportExportFormat format = exportCsv ? ReportExportFormat.CSV : ReportExportFormat.JSON_LINES;
+        final boolean gzip = ApiParameterHelper.gzip(queryParams);
         final Map<String, String> reportParams = getReportParams(queryParams);
-        final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportCSV(reportName, parameterTypeValue, reportParams,
-                isSelfServiceUserReport);
+        final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportStream(reportName, parameterTypeValue,
+                reportParams, isSelfServiceUserReport, format, gzip);
 
-        return Response.ok().entity(result).type("text/csv")
-                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
+        final String fileName = reportName.replaceAll(" ", "") + format.getFileExtension() + (gzip ? ".gz" : "");
+        return Response.ok().entity(result).type(gzip ? "application/gzip" : format.getMediaType())
+                .header("Content-Disposition", "attachment;filename=" + fileName).build();
     }
 }
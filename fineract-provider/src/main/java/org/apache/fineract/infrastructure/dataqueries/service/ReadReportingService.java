@@ -25,6 +25,7 @@ import java.util.Map;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportExportFormat;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportParameterData;
 import org.apache.fineract.useradministration.domain.AppUser;
 
@@ -44,6 +45,12 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
 
+    /**
+     * Streams the report rows straight from the database cursor to the response, without holding the result set in memory.
+     */
+    StreamingOutput retrieveReportStream(String name, String type, Map<String, String> extractedQueryParams,
+            boolean isSelfServiceUserReport, ReportExportFormat format, boolean gzip);
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams,
             boolean isSelfServiceUserReport);
 
@@ -18,15 +18,18 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import com.google.gson.JsonPrimitive;
 import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -36,6 +39,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 import javax.ws.rs.core.StreamingOutput;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -45,6 +49,7 @@ import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityEx
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportExportFormat;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportParameterData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportParameterJoinData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
@@ -67,6 +72,8 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ReadReportingServiceImpl implements ReadReportingService {
 
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
@@ -76,77 +83,125 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
+        return retrieveReportStream(name, type, queryParams, isSelfServiceUserReport, ReportExportFormat.CSV, false);
+    }
+
+    @Override
+    public StreamingOutput retrieveReportStream(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final ReportExportFormat format, final boolean gzip) {
+        // resolved up front, so that an unknown report or parameter is still reported as a regular error response
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
         return out -> {
-            try {
+            final GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, STREAM_BUFFER_SIZE) : null;
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipOut : out, StandardCharsets.UTF_8),
+                    STREAM_BUFFER_SIZE);
+            final long startTime = System.currentTimeMillis();
+            final GenericResultsetStreamHandler handler = ReportExportFormat.JSON_LINES.equals(format) ? new JsonLinesWriter(writer)
+                    : new CsvWriter(writer);
+            this.genericDataService.streamGenericResultSet(sql, handler);
+            writer.flush();
+            if (gzipOut != null) {
+                gzipOut.finish();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("FINISHING Report/Request Name: {} - {} streamed as {}     Elapsed Time: {}",
+                        LogParameterEscapeUtil.escapeLogParameter(name), type.replaceAll("[\n\r\t]", "_"), format,
+                        System.currentTimeMillis() - startTime);
+            }
+        };
+    }
 
-                final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                final StringBuilder sb = generateCsvFileBuffer(result);
+    private static boolean isNumeric(final String columnType) {
+        return columnType.equals("DECIMAL") || columnType.equals("DOUBLE") || columnType.equals("BIGINT") || columnType.equals("SMALLINT")
+                || columnType.equals("INT");
+    }
 
-                final InputStream in = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
+    private final class CsvWriter implements GenericResultsetStreamHandler {
 
-                final byte[] outputByte = new byte[4096];
-                Integer readLen = in.read(outputByte, 0, 4096);
+        private static final String DOUBLE_QUOTE = "\"";
+        private static final String TWO_DOUBLE_QUOTES = DOUBLE_QUOTE + DOUBLE_QUOTE;
 
-                while (readLen != -1) {
-                    out.write(outputByte, 0, readLen);
-                    readLen = in.read(outputByte, 0, 4096);
-                }
-                // in.close();
-                // out.flush();
-                // out.close();
-            } catch (final Exception e) {
-                throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
-            }
-        };
-    }
+        private final Writer writer;
+        private List<ResultsetColumnHeaderData> columnHeaders;
 
-    private StringBuilder generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuilder writer = new StringBuilder();
+        private CsvWriter(final Writer writer) {
+            this.writer = writer;
+        }
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        log.info("NO. of Columns: {}", columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
+        @Override
+        public void handleColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            this.columnHeaders = columnHeaders;
+            log.info("NO. of Columns: {}", columnHeaders.size());
+            for (int i = 0; i < columnHeaders.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write('"' + columnHeaders.get(i).getColumnName() + '"');
             }
+            writer.write('\n');
         }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        log.info("NO. of Rows: {}", data.size());
-        for (ResultsetRowData element : data) {
-            row = element.getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
+
+        @Override
+        public void handleRow(final List<String> row) throws IOException {
+            for (int j = 0; j < row.size(); j++) {
+                if (j > 0) {
+                    writer.write(',');
+                }
+                final String currVal = row.get(j);
                 if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
+                    if (isNumeric(columnHeaders.get(j).getColumnType())) {
+                        writer.write(currVal);
                     } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                        writer.write('"' + genericDataService.replace(currVal, DOUBLE_QUOTE, TWO_DOUBLE_QUOTES) + '"');
                     }
+                }
+            }
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * One JSON object per row and line, keyed by the column names.
+     */
+    private static final class JsonLinesWriter implements GenericResultsetStreamHandler {
+
+        private final Writer writer;
+        private List<ResultsetColumnHeaderData> columnHeaders;
+        private List<String> quotedColumnNames;
 
+        private JsonLinesWriter(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void handleColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) {
+            this.columnHeaders = columnHeaders;
+            this.quotedColumnNames = new ArrayList<>(columnHeaders.size());
+            for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+                this.quotedColumnNames.add(new JsonPrimitive(columnHeader.getColumnName()).toString());
+            }
+        }
+
+        @Override
+        public void handleRow(final List<String> row) throws IOException {
+            writer.write('{');
+            for (int j = 0; j < row.size(); j++) {
+                if (j > 0) {
+                    writer.write(',');
                 }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
+                writer.write(quotedColumnNames.get(j));
+                writer.write(':');
+                final String currVal = row.get(j);
+                if (currVal == null) {
+                    writer.write("null");
+                } else if (isNumeric(columnHeaders.get(j).getColumnType())) {
+                    writer.write(currVal);
+                } else {
+                    writer.write(new JsonPrimitive(currVal).toString());
                 }
             }
-            writer.append('\n');
+            writer.write("}\n");
         }
-
-        return writer;
     }
 
     @Override
@@ -18,10 +18,10 @@
  */
 package org.apache.fineract.infrastructure.documentmanagement.api;
 
+import com.google.common.io.ByteSource;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.Base64;
 import javax.ws.rs.Consumes;
@@ -34,8 +34,13 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.UploadRequest;
@@ -44,18 +49,17 @@ import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSer
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils.ImageFileExtension;
 import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
-import org.apache.fineract.infrastructure.documentmanagement.data.ImageResizer;
-import org.apache.fineract.infrastructure.documentmanagement.exception.ContentManagementException;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
 import org.apache.fineract.infrastructure.documentmanagement.exception.InvalidEntityTypeForImageManagementException;
 import org.apache.fineract.infrastructure.documentmanagement.service.ImageReadPlatformService;
 import org.apache.fineract.infrastructure.documentmanagement.service.ImageWritePlatformService;
+import org.apache.fineract.infrastructure.documentmanagement.service.ResizedImageCache;
+import org.apache.fineract.infrastructure.documentmanagement.service.ResizedImageCache.ResizedImage;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.portfolio.client.data.ClientData;
 import org.glassfish.jersey.media.multipart.FormDataBodyPart;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -65,25 +69,23 @@ import org.springframework.stereotype.Component;
 @Path("{entity}/{entityId}/images")
 public class ImagesApiResource {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ImagesApiResource.class);
-
     private final PlatformSecurityContext context;
     private final ImageReadPlatformService imageReadPlatformService;
     private final ImageWritePlatformService imageWritePlatformService;
     private final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer;
     private final FileUploadValidator fileUploadValidator;
-    private final ImageResizer imageResizer;
+    private final ResizedImageCache resizedImageCache;
 
     @Autowired
     public ImagesApiResource(final PlatformSecurityContext context, final ImageReadPlatformService readPlatformService,
             final ImageWritePlatformService imageWritePlatformService, final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer,
-            final FileUploadValidator fileUploadValidator, final ImageResizer imageResizer) {
+            final FileUploadValidator fileUploadValidator, final ResizedImageCache resizedImageCache) {
         this.context = context;
         this.imageReadPlatformService = readPlatformService;
         this.imageWritePlatformService = imageWritePlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.fileUploadValidator = fileUploadValidator;
-        this.imageResizer = imageResizer;
+        this.resizedImageCache = resizedImageCache;
     }
 
     /**
@@ -131,6 +133,10 @@ public class ImagesApiResource {
     /**
      * Returns a images, either as Base64 encoded text/plain or as inline or attachment with image MIME type as
      * Content-Type.
+     *
+     * Resized variants are served from the {@link ResizedImageCache}. Responses carry an entity tag (and the time the
+     * variant was generated as Last-Modified), so a client revalidating its copy gets a 304 without a body, and without
+     * the image being read.
      */
     @GET
     @Consumes(MediaType.APPLICATION_JSON)
@@ -138,7 +144,7 @@ public class ImagesApiResource {
     // octet-stream)
     public Response retrieveImage(@PathParam("entity") final String entityName, @PathParam("entityId") final Long entityId,
             @QueryParam("maxWidth") final Integer maxWidth, @QueryParam("maxHeight") final Integer maxHeight,
-            @QueryParam("output") final String output, @HeaderParam("Accept") String acceptHeader) {
+            @QueryParam("output") final String output, @HeaderParam("Accept") String acceptHeader, @Context final Request request) {
         validateEntityTypeforImage(entityName);
         if (EntityTypeForImages.CLIENTS.toString().equalsIgnoreCase(entityName)) {
             this.context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
@@ -146,15 +152,33 @@ public class ImagesApiResource {
             this.context.authenticatedUser().validateHasReadPermission("STAFFIMAGE");
         }
 
-        final FileData imageData = this.imageReadPlatformService.retrieveImage(entityName, entityId);
-        final FileData resizedImage = imageResizer.resize(imageData, maxWidth, maxHeight);
+        final ImageData storedImage = this.imageReadPlatformService.retrieveImageData(entityName, entityId);
+        final FileData imageData = this.imageReadPlatformService.retrieveImage(storedImage);
+        final ResizedImage resizedImage = this.resizedImageCache.resize(entityName, entityId, storedImage, imageData, maxWidth,
+                maxHeight);
 
         // If client wants (Accept header) octet-stream, or output="octet" or "inline_octet", then send that instead of
         // text
-        if ("application/octet-stream".equalsIgnoreCase(acceptHeader)
-                || (output != null && (output.equals("octet") || output.equals("inline_octet")))) {
-            return ContentResources.fileDataToResponse(resizedImage, resizedImage.name() + ImageFileExtension.JPEG,
-                    "inline_octet".equals(output) ? "inline" : "attachment");
+        final boolean octet = "application/octet-stream".equalsIgnoreCase(acceptHeader)
+                || (output != null && (output.equals("octet") || output.equals("inline_octet")));
+        // the octet and the Base64 text representation of an image differ, and so do their tags
+        final EntityTag entityTag = new EntityTag(resizedImage.getEntityTag() + (octet ? "-octet" : "-text"));
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        final ResponseBuilder notModified = resizedImage.getLastModified() == null ? request.evaluatePreconditions(entityTag)
+                : request.evaluatePreconditions(resizedImage.getLastModified(), entityTag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+
+        if (octet) {
+            final FileData resizedImageData = new FileData(ByteSource.wrap(resizedImage.getBytes()), imageData.name(),
+                    imageData.contentType());
+            final Response response = ContentResources.fileDataToResponse(resizedImageData,
+                    resizedImageData.name() + ImageFileExtension.JPEG, "inline_octet".equals(output) ? "inline" : "attachment");
+            return Response.fromResponse(response).tag(entityTag).lastModified(resizedImage.getLastModified()).cacheControl(cacheControl)
+                    .build();
         }
 
         // Else return response with Base64 encoded
@@ -166,19 +190,9 @@ public class ImagesApiResource {
             imageDataURISuffix = ContentRepositoryUtils.ImageDataURIsuffix.PNG.getValue();
         }
 
-        try {
-            byte[] resizedImageBytes = resizedImage.getByteSource().read();
-            if (resizedImageBytes != null) {
-                final String clientImageAsBase64Text = imageDataURISuffix + Base64.getMimeEncoder().encodeToString(resizedImageBytes);
-                return Response.ok(clientImageAsBase64Text, MediaType.TEXT_PLAIN_TYPE).build();
-            } else {
-                LOG.error("resizedImageBytes is null for entityName={}, entityId={}, maxWidth={}, maxHeight={}", entityName, entityId,
-                        maxWidth, maxHeight);
-                return Response.serverError().build();
-            }
-        } catch (IOException e) {
-            throw new ContentManagementException(imageData.name(), e.getMessage(), e);
-        }
+        final String clientImageAsBase64Text = imageDataURISuffix + Base64.getMimeEncoder().encodeToString(resizedImage.getBytes());
+        return Response.ok(clientImageAsBase64Text, MediaType.TEXT_PLAIN_TYPE).tag(entityTag).lastModified(resizedImage.getLastModified())
+                .cacheControl(cacheControl).build();
     }
 
     /**
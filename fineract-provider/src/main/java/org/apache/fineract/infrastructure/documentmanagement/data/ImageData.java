@@ -24,14 +24,19 @@ import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
 
 public class ImageData {
 
+    private final Long id;
     private final String location;
     private final StorageType storageType;
+    private final int revision;
     private final String entityDisplayName;
     private final ContentRepositoryUtils.ImageMIMEtype contentType;
 
-    public ImageData(final String location, final StorageType storageType, final String entityDisplayName) {
+    public ImageData(final Long id, final String location, final StorageType storageType, final int revision,
+            final String entityDisplayName) {
+        this.id = id;
         this.location = location;
         this.storageType = storageType;
+        this.revision = revision;
         this.entityDisplayName = entityDisplayName;
         this.contentType = ContentRepositoryUtils.ImageMIMEtype
                 .fromFileExtension(ContentRepositoryUtils.imageExtensionFromFileName(location));
@@ -45,10 +50,18 @@ public class ImageData {
         return this.storageType;
     }
 
+    public Long getId() {
+        return this.id;
+    }
+
     public String location() {
         return this.location;
     }
 
+    public int getRevision() {
+        return this.revision;
+    }
+
     public String getEntityDisplayName() {
         return this.entityDisplayName;
     }
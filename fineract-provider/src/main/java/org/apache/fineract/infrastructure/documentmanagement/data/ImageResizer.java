@@ -41,21 +41,14 @@ public class ImageResizer {
     private static final Logger LOG = LoggerFactory.getLogger(ImageResizer.class);
 
     public FileData resize(FileData fileData, Integer maxWidth, Integer maxHeight) {
-        if (maxWidth == null && maxHeight != null) {
+        if (maxWidth == null) {
             return fileData;
         }
-        try (InputStream is = fileData.getByteSource().openBufferedStream()) {
-            Optional<InputStream> optResizedIS = resizeImage(ContentRepositoryUtils.imageExtensionFromFileName(fileData.name()), is,
-                    maxWidth != null ? maxWidth : Integer.MAX_VALUE, maxHeight != null ? maxHeight : Integer.MAX_VALUE);
-            if (optResizedIS.isPresent()) {
-                FileData resizedImage = new FileData(new ByteSource() {
-
-                    @Override
-                    public InputStream openStream() throws IOException {
-                        return optResizedIS.get(); // NOSONAR
-                    }
-                }, fileData.name(), fileData.contentType());
-                return resizedImage;
+        try {
+            Optional<byte[]> optResized = resize(fileData.getByteSource().read(),
+                    ContentRepositoryUtils.imageExtensionFromFileName(fileData.name()), maxWidth, maxHeight);
+            if (optResized.isPresent()) {
+                return new FileData(ByteSource.wrap(optResized.get()), fileData.name(), fileData.contentType());
             }
             return fileData;
         } catch (IOException e) {
@@ -64,7 +57,18 @@ public class ImageResizer {
         }
     }
 
-    private Optional<InputStream> resizeImage(ImageFileExtension fileExtension, InputStream in, int maxWidth, int maxHeight)
+    /**
+     * Scales the image down to fit into maxWidth x maxHeight (a null bound does not limit that dimension).
+     *
+     * @return the encoded scaled image, or empty if the image already fits
+     */
+    public Optional<byte[]> resize(byte[] image, ImageFileExtension fileExtension, Integer maxWidth, Integer maxHeight)
+            throws IOException {
+        return resizeImage(fileExtension, new ByteArrayInputStream(image), maxWidth != null ? maxWidth : Integer.MAX_VALUE,
+                maxHeight != null ? maxHeight : Integer.MAX_VALUE);
+    }
+
+    private Optional<byte[]> resizeImage(ImageFileExtension fileExtension, InputStream in, int maxWidth, int maxHeight)
             throws IOException {
         BufferedImage src = ImageIO.read(in);
         if (src.getWidth() <= maxWidth && src.getHeight() <= maxHeight) {
@@ -88,6 +92,6 @@ public class ImageResizer {
 
         ByteArrayOutputStream os = new ByteArrayOutputStream();
         ImageIO.write(target, fileExtension != null ? fileExtension.getValueWithoutDot() : "jpeg", os);
-        return Optional.of(new ByteArrayInputStream(os.toByteArray()));
+        return Optional.of(os.toByteArray());
     }
 }
@@ -33,6 +33,12 @@ public final class Image extends AbstractPersistableCustom {
     @Column(name = "storage_type_enum")
     private Integer storageType;
 
+    /**
+     * Incremented whenever the image is replaced, as the location of a replaced image may well be the same.
+     */
+    @Column(name = "revision", nullable = false)
+    private int revision;
+
     public Image(final String location, final StorageType storageType) {
         this.location = location;
         this.storageType = storageType.getValue();
@@ -50,6 +56,10 @@ public final class Image extends AbstractPersistableCustom {
         return this.storageType;
     }
 
+    public int getRevision() {
+        return this.revision;
+    }
+
     public void setLocation(final String location) {
         this.location = location;
     }
@@ -58,4 +68,10 @@ public final class Image extends AbstractPersistableCustom {
         this.storageType = storageType;
     }
 
+    public void replace(final String location, final StorageType storageType) {
+        this.location = location;
+        this.storageType = storageType.getValue();
+        this.revision++;
+    }
+
 }
@@ -19,9 +19,20 @@
 package org.apache.fineract.infrastructure.documentmanagement.service;
 
 import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
 
 public interface ImageReadPlatformService {
 
     FileData retrieveImage(String entityType, Long entityId);
 
+    /**
+     * Looks up the stored image of the entity without fetching its content.
+     */
+    ImageData retrieveImageData(String entityType, Long entityId);
+
+    /**
+     * The content of the image, which is only read from the content repository once its byte source is read.
+     */
+    FileData retrieveImage(ImageData imageData);
+
 }
@@ -65,7 +65,7 @@ public class ImageReadPlatformServiceImpl implements ImageReadPlatformService {
 
         public String schema(String entityType) {
             StringBuilder builder = new StringBuilder(
-                    "image.id as id, image.location as location, image.storage_type_enum as storageType ");
+                    "image.id as id, image.location as location, image.storage_type_enum as storageType, image.revision as revision ");
             if (EntityTypeForImages.CLIENTS.toString().equalsIgnoreCase(entityType)) {
                 builder.append(" from m_image image , m_client client " + " where client.image_id = image.id and client.id=?");
             } else if (EntityTypeForImages.STAFF.toString().equalsIgnoreCase(entityType)) {
@@ -76,15 +76,22 @@ public class ImageReadPlatformServiceImpl implements ImageReadPlatformService {
 
         @Override
         public ImageData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
             final String location = rs.getString("location");
             final Integer storageTypeInt = JdbcSupport.getInteger(rs, "storageType");
             StorageType storageType = storageTypeInt != null ? StorageType.fromInt(storageTypeInt) : null;
-            return new ImageData(location, storageType, this.entityDisplayName);
+            final int revision = rs.getInt("revision");
+            return new ImageData(id, location, storageType, revision, this.entityDisplayName);
         }
     }
 
     @Override
     public FileData retrieveImage(String entityType, final Long entityId) {
+        return retrieveImage(retrieveImageData(entityType, entityId));
+    }
+
+    @Override
+    public ImageData retrieveImageData(String entityType, final Long entityId) {
         try {
             String displayName;
             if (EntityTypeForImages.CLIENTS.toString().equalsIgnoreCase(entityType)) {
@@ -100,11 +107,15 @@ public class ImageReadPlatformServiceImpl implements ImageReadPlatformService {
 
             final String sql = "select " + imageMapper.schema(entityType);
 
-            final ImageData imageData = this.jdbcTemplate.queryForObject(sql, imageMapper, entityId); // NOSONAR
-            final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(imageData.storageType());
-            return contentRepository.fetchImage(imageData);
+            return this.jdbcTemplate.queryForObject(sql, imageMapper, entityId); // NOSONAR
         } catch (final EmptyResultDataAccessException e) {
             throw new ImageNotFoundException("clients", entityId, e);
         }
     }
+
+    @Override
+    public FileData retrieveImage(final ImageData imageData) {
+        final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(imageData.storageType());
+        return contentRepository.fetchImage(imageData);
+    }
 }
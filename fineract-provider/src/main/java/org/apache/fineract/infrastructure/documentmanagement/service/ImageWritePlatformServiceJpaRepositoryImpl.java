@@ -158,8 +158,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
         if (image == null) {
             image = new Image(imageLocation, storageType);
         } else {
-            image.setLocation(imageLocation);
-            image.setStorageType(storageType.getValue());
+            image.replace(imageLocation, storageType);
         }
         return image;
     }
@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.service;
+
+import com.google.common.io.ByteSource;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils.ImageFileExtension;
+import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageResizer;
+import org.apache.fineract.infrastructure.documentmanagement.exception.ContentManagementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node local LRU cache of the resized variants of images, bounded by the total size of the cached variants
+ * (fineract.images.resized-cache-max-bytes, 0 disables the cache).
+ *
+ * Variants are keyed by the owning entity, the stored image and its revision, which is incremented whenever the image
+ * is replaced, so replacing an image never serves a stale variant and no invalidation is needed: the variants of
+ * replaced images are simply evicted over time. The same identity serves as the entity tag, so the original image is
+ * only read to generate a missing variant or to actually send it.
+ */
+@Component
+public class ResizedImageCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResizedImageCache.class);
+
+    private final ImageResizer imageResizer;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    @Autowired
+    public ResizedImageCache(final ImageResizer imageResizer, final FineractProperties fineractProperties) {
+        this.imageResizer = imageResizer;
+        this.maxBytes = fineractProperties.getImages().getResizedCacheMaxBytes();
+    }
+
+    /**
+     * Returns the image scaled down to fit into maxWidth x maxHeight, or the original image if it already fits or no
+     * maxWidth is given.
+     */
+    public ResizedImage resize(final String entityType, final Long entityId, final ImageData image, final FileData original,
+            final Integer maxWidth, final Integer maxHeight) {
+        final String imageTag = entityType.toLowerCase(Locale.ROOT) + "-" + entityId + "-" + image.getId() + "-" + image.getRevision();
+        if (maxWidth == null) {
+            return new ResizedImage(original.getByteSource(), original.name(), imageTag, null);
+        }
+
+        final ImageFileExtension fileExtension = ContentRepositoryUtils.imageExtensionFromFileName(image.location());
+        final String key = key(imageTag, image.location(), maxWidth, maxHeight, fileExtension);
+        ByteSource originalContent = original.getByteSource();
+        Entry entry = get(key);
+        if (entry == null) {
+            final byte[] originalBytes = read(originalContent, original.name());
+            originalContent = ByteSource.wrap(originalBytes);
+            entry = new Entry(resize(originalBytes, fileExtension, maxWidth, maxHeight), new Date());
+            put(key, entry);
+        }
+        if (entry.bytes == null) {
+            return new ResizedImage(originalContent, original.name(), imageTag, null);
+        }
+        return new ResizedImage(ByteSource.wrap(entry.bytes), original.name(), imageTag + "-" + maxWidth + "x" + maxHeight,
+                entry.generatedOn);
+    }
+
+    static String key(final String imageTag, final String location, final Integer maxWidth, final Integer maxHeight,
+            final ImageFileExtension fileExtension) {
+        return imageTag + "|" + location + "|" + maxWidth + "x" + maxHeight + "|" + fileExtension;
+    }
+
+    synchronized long getCachedBytes() {
+        return this.cachedBytes;
+    }
+
+    synchronized boolean contains(final String key) {
+        return this.entries.containsKey(key);
+    }
+
+    private static byte[] read(final ByteSource content, final String name) {
+        try {
+            return content.read();
+        } catch (IOException e) {
+            throw new ContentManagementException(name, e.getMessage(), e);
+        }
+    }
+
+    private byte[] resize(final byte[] originalBytes, final ImageFileExtension fileExtension, final Integer maxWidth,
+            final Integer maxHeight) {
+        try {
+            final Optional<byte[]> resized = this.imageResizer.resize(originalBytes, fileExtension, maxWidth, maxHeight);
+            return resized.orElse(null);
+        } catch (IOException e) {
+            LOG.warn("resize() failed, returning original image: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private synchronized Entry get(final String key) {
+        return this.entries.get(key);
+    }
+
+    private synchronized void put(final String key, final Entry entry) {
+        final long size = entry.size(key);
+        if (size > this.maxBytes) {
+            return;
+        }
+        final Entry previous = this.entries.put(key, entry);
+        this.cachedBytes += size - (previous == null ? 0 : previous.size(key));
+        final Iterator<Map.Entry<String, Entry>> eldest = this.entries.entrySet().iterator();
+        while (this.cachedBytes > this.maxBytes && eldest.hasNext()) {
+            final Map.Entry<String, Entry> evicted = eldest.next();
+            this.cachedBytes -= evicted.getValue().size(evicted.getKey());
+            eldest.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        // null if the original already fits, which is remembered as well so that it is not decoded again
+        private final byte[] bytes;
+        private final Date generatedOn;
+
+        private Entry(final byte[] bytes, final Date generatedOn) {
+            this.bytes = bytes;
+            this.generatedOn = generatedOn;
+        }
+
+        private long size(final String key) {
+            return key.length() + (this.bytes == null ? 0 : this.bytes.length);
+        }
+    }
+
+    public static final class ResizedImage {
+
+        private final ByteSource content;
+        private final String name;
+        private final String entityTag;
+        private final Date lastModified;
+
+        private ResizedImage(final ByteSource content, final String name, final String entityTag, final Date lastModified) {
+            this.content = content;
+            this.name = name;
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Reads the image, which for the original image means reading it from the content repository.
+         */
+        public byte[] getBytes() {
+            return read(this.content, this.name);
+        }
+
+        public String getEntityTag() {
+            return this.entityTag;
+        }
+
+        /**
+         * The time the variant was generated, null for the original image.
+         */
+        public Date getLastModified() {
+            return this.lastModified;
+        }
+    }
+}
@@ -46,6 +46,8 @@ public final class HookApiConstants {
 
     public static final String contentTypeName = "Content Type";
 
+    public static final String batchSizeName = "Batch Size";
+
     public static final String smsProviderName = "SMS Provider";
 
     public static final String smsProviderAccountIdName = "SMS Provider Account Id";
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.domain;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+
+/**
+ * Outbox entry of one event to be delivered to a web hook. It is written in the transaction of the command raising the
+ * event and deleted once the endpoint acknowledged it. A failed delivery is retried with an exponential backoff until
+ * the maximum number of attempts is reached, after which it stays in the {@link HookDeliveryStatus#DEAD} state.
+ */
+@Getter
+@Entity
+@Table(name = "m_hook_delivery")
+public class HookDelivery extends AbstractPersistableCustom {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Column(name = "hook_id", nullable = false)
+    private Long hookId;
+
+    @Column(name = "payload_url", nullable = false, length = 1000)
+    private String payloadUrl;
+
+    @Column(name = "content_type", nullable = false, length = 10)
+    private String contentType;
+
+    @Column(name = "batch_size", nullable = false)
+    private Integer batchSize;
+
+    @Column(name = "entity_name", nullable = false, length = 100)
+    private String entityName;
+
+    @Column(name = "action_name", nullable = false, length = 100)
+    private String actionName;
+
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private HookDeliveryStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private LocalDateTime nextAttemptTime;
+
+    @Column(name = "owner_node_id")
+    private String ownerNodeId;
+
+    @Column(name = "lease_time")
+    private LocalDateTime leaseTime;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(name = "created_time", nullable = false)
+    private LocalDateTime createdTime;
+
+    protected HookDelivery() {}
+
+    private HookDelivery(final Long hookId, final String payloadUrl, final String contentType, final Integer batchSize,
+            final String entityName, final String actionName, final String payload, final LocalDateTime now) {
+        this.hookId = hookId;
+        this.payloadUrl = payloadUrl;
+        this.contentType = contentType;
+        this.batchSize = batchSize;
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.payload = payload;
+        this.status = HookDeliveryStatus.PENDING;
+        this.attempts = 0;
+        this.nextAttemptTime = now;
+        this.createdTime = now;
+    }
+
+    public static HookDelivery instance(final Long hookId, final String payloadUrl, final String contentType, final Integer batchSize,
+            final String entityName, final String actionName, final String payload, final LocalDateTime now) {
+        return new HookDelivery(hookId, payloadUrl, contentType, batchSize, entityName, actionName, payload, now);
+    }
+
+    public boolean isJson() {
+        return StringUtils.containsIgnoreCase(this.contentType, "json");
+    }
+
+    public boolean isLeasedBy(final String nodeId) {
+        return this.status == HookDeliveryStatus.SENDING && nodeId.equals(this.ownerNodeId);
+    }
+
+    public void retryAt(final LocalDateTime nextAttemptTime, final String error) {
+        this.status = HookDeliveryStatus.PENDING;
+        this.nextAttemptTime = nextAttemptTime;
+        this.ownerNodeId = null;
+        this.leaseTime = null;
+        this.lastError = StringUtils.abbreviate(error, MAX_ERROR_LENGTH);
+    }
+
+    public void markDead(final String error) {
+        this.status = HookDeliveryStatus.DEAD;
+        this.ownerNodeId = null;
+        this.leaseTime = null;
+        this.lastError = StringUtils.abbreviate(error, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.domain;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface HookDeliveryRepository extends JpaRepository<HookDelivery, Long>, JpaSpecificationExecutor<HookDelivery> {
+
+    String LEASABLE_CONDITION = "((d.status = org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus.PENDING"
+            + " and d.nextAttemptTime <= :now)"
+            + " or (d.status = org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus.SENDING"
+            + " and d.leaseTime < :expiredBefore))";
+
+    @Query("select d.id from HookDelivery d where " + LEASABLE_CONDITION + " order by d.id")
+    List<Long> findLeasableIds(@Param("now") LocalDateTime now, @Param("expiredBefore") LocalDateTime expiredBefore, Pageable pageable);
+
+    /**
+     * Leases the delivery for the given node. Returns 0 when another node has leased it in the meantime.
+     */
+    @Modifying
+    @Query("update HookDelivery d set d.status = org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus.SENDING,"
+            + " d.ownerNodeId = :nodeId, d.leaseTime = :now, d.attempts = d.attempts + 1 where d.id = :id and " + LEASABLE_CONDITION)
+    int lease(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("now") LocalDateTime now,
+            @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    /**
+     * Deletes the deliveries still leased by the given node; a delivery whose lease expired and was taken over by another
+     * node is left alone.
+     */
+    @Modifying
+    @Query("delete from HookDelivery d where d.id in :ids and d.ownerNodeId = :nodeId"
+            + " and d.status = org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus.SENDING")
+    int deleteLeasedByIds(@Param("ids") Collection<Long> ids, @Param("nodeId") String nodeId);
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.fineract.infrastructure.hooks.listener;
 
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
+
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -56,6 +58,10 @@ public class FineractHookListener implements HookListener {
                 hookEventSource.getActionName());
 
         for (final Hook hook : hooks) {
+            if (webTemplateName.equals(hook.getHookTemplate().getName())) {
+                // web hooks were recorded in the delivery outbox by the command itself
+                continue;
+            }
             final HookProcessor processor = this.hookProcessorProvider.getProcessor(hook);
             try {
                 processor.process(hook, payload, entityName, actionName, fineractContext);
@@ -23,10 +23,14 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +48,9 @@ public final class ProcessorHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProcessorHelper.class);
 
+    public static final int CONNECT_TIMEOUT_IN_SECONDS = 10;
+    public static final int READ_TIMEOUT_IN_SECONDS = 30;
+
     @SuppressWarnings("unused")
     private static final X509TrustManager insecureX509TrustManager = new X509TrustManager() {
 
@@ -67,12 +74,22 @@ public final class ProcessorHelper {
     private final boolean insecureHttpClient = Boolean.getBoolean("fineract.insecureHttpClient");
     private final SSLContext insecureSSLContext;
 
+    /**
+     * Client shared by the web hook deliveries; its keep-alive connection pool lets consecutive deliveries to an endpoint
+     * reuse the same (TLS) connection.
+     */
+    private final OkHttpClient pooledClient;
+    private final Map<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+
     public ProcessorHelper() throws KeyManagementException, NoSuchAlgorithmException {
         if (insecureHttpClient) {
             insecureSSLContext = createInsecureSSLContext();
         } else {
             insecureSSLContext = null;
         }
+        pooledClient = createClient().newBuilder().connectionPool(new ConnectionPool(20, 5, TimeUnit.MINUTES))
+                .connectTimeout(CONNECT_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS).readTimeout(READ_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)
+                .build();
     }
 
     private OkHttpClient createClient() {
@@ -112,8 +129,18 @@ public final class ProcessorHelper {
         };
     }
 
+    /**
+     * Returns the web hook service of the endpoint, created once and backed by the pooled client.
+     */
+    public WebHookService getWebHookService(final String url) {
+        return webHookServices.computeIfAbsent(url, key -> createWebHookService(key, pooledClient));
+    }
+
     public WebHookService createWebHookService(final String url) {
-        final OkHttpClient client = createClient();
+        return createWebHookService(url, createClient());
+    }
+
+    private WebHookService createWebHookService(final String url, final OkHttpClient client) {
         final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
         retrofitBuilder.baseUrl(url);
         retrofitBuilder.client(client);
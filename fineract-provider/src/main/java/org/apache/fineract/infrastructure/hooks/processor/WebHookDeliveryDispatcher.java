@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.HookDelivery;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the web hook deliveries recorded in the outbox of every tenant.
+ *
+ * On nodes with write mode enabled the outbox is polled periodically. The leased deliveries are grouped by endpoint and
+ * event; JSON deliveries of hooks configured with a batch size above one are sent together as a JSON array. A delivery
+ * is removed from the outbox once the endpoint accepted it, otherwise it is retried with a backoff until it ends up as a
+ * dead letter.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebHookDeliveryDispatcher implements ApplicationListener<ContextClosedEvent> {
+
+    private final FineractProperties fineractProperties;
+    private final TenantDetailsService tenantDetailsService;
+    private final HookDeliveryService hookDeliveryService;
+    private final WebHookProcessor webHookProcessor;
+
+    private ScheduledExecutorService poller;
+    private ExecutorService workers;
+
+    @PostConstruct
+    public void start() {
+        if (!fineractProperties.getMode().isWriteEnabled()) {
+            return;
+        }
+        final FineractProperties.FineractHookDeliveryProperties properties = fineractProperties.getHookDelivery();
+        this.workers = Executors.newFixedThreadPool(properties.getThreadCount());
+        this.poller = Executors.newSingleThreadScheduledExecutor();
+        this.poller.scheduleWithFixedDelay(this::poll, properties.getPollIntervalInMillis(), properties.getPollIntervalInMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("Web hook delivery dispatcher started with {} thread(s)", properties.getThreadCount());
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.poller != null) {
+            this.poller.shutdownNow();
+            this.workers.shutdownNow();
+        }
+    }
+
+    private void poll() {
+        try {
+            for (final FineractPlatformTenant tenant : tenantDetailsService.findAllTenants()) {
+                final List<HookDelivery> deliveries;
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    deliveries = hookDeliveryService.leaseDueDeliveries();
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+                if (!deliveries.isEmpty()) {
+                    final List<Callable<Void>> requests = batch(deliveries).stream().map(batch -> (Callable<Void>) () -> {
+                        deliver(tenant, batch);
+                        return null;
+                    }).collect(Collectors.toList());
+                    // the next tenant (and poll) waits for these requests, so the leases never outgrow the worker pool
+                    workers.invokeAll(requests);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // an exception must not escape, it would cancel the polling
+            log.error("Polling the web hook delivery outbox failed", e);
+        }
+    }
+
+    /**
+     * Groups the deliveries sent in one request, keeping the order in which the events were recorded.
+     */
+    private static List<List<HookDelivery>> batch(final List<HookDelivery> deliveries) {
+        final Map<String, List<HookDelivery>> byEndpoint = new LinkedHashMap<>();
+        for (final HookDelivery delivery : deliveries) {
+            final String key = String.join("|", delivery.getPayloadUrl(), delivery.getContentType(), delivery.getEntityName(),
+                    delivery.getActionName());
+            byEndpoint.computeIfAbsent(key, k -> new ArrayList<>()).add(delivery);
+        }
+        final List<List<HookDelivery>> batches = new ArrayList<>();
+        for (final List<HookDelivery> group : byEndpoint.values()) {
+            final HookDelivery first = group.get(0);
+            final int batchSize = first.isJson() ? first.getBatchSize() : 1;
+            for (int i = 0; i < group.size(); i += batchSize) {
+                batches.add(group.subList(i, Math.min(group.size(), i + batchSize)));
+            }
+        }
+        return batches;
+    }
+
+    private void deliver(final FineractPlatformTenant tenant, final List<HookDelivery> batch) {
+        final List<Long> ids = batch.stream().map(HookDelivery::getId).collect(Collectors.toList());
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            try {
+                webHookProcessor.deliver(tenant.getTenantIdentifier(), batch);
+            } catch (Exception e) {
+                log.warn("Delivery of {} {} {} event(s) to {} failed", batch.size(), batch.get(0).getEntityName(),
+                        batch.get(0).getActionName(), batch.get(0).getPayloadUrl(), e);
+                hookDeliveryService.retryOrDeadLetter(ids, e.toString());
+                return;
+            }
+            hookDeliveryService.acknowledge(ids);
+        } catch (Exception e) {
+            log.error("Updating the outbox after the delivery of {} event(s) to {} failed", batch.size(), batch.get(0).getPayloadUrl(), e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+}
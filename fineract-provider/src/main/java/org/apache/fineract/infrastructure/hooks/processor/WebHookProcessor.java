@@ -18,69 +18,72 @@
  */
 package org.apache.fineract.infrastructure.hooks.processor;
 
-import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
-import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
-
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.core.domain.FineractContext;
 import org.apache.fineract.infrastructure.hooks.domain.Hook;
-import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
+import org.apache.fineract.infrastructure.hooks.domain.HookDelivery;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
 import org.springframework.stereotype.Service;
-import retrofit2.Callback;
+import retrofit2.Call;
+import retrofit2.Response;
 
+/**
+ * Web hooks are delivered through the {@link HookDeliveryService} outbox: processing an event only records the delivery,
+ * the {@link WebHookDeliveryDispatcher} sends it.
+ */
 @Service
 @RequiredArgsConstructor
 public class WebHookProcessor implements HookProcessor {
 
     private final ProcessorHelper processorHelper;
+    private final HookDeliveryService hookDeliveryService;
 
     @Override
     public void process(final Hook hook, final String payload, final String entityName, final String actionName,
             final FineractContext context) {
-
-        final Set<HookConfiguration> config = hook.getHookConfig();
-
-        String url = "";
-        String contentType = "";
-
-        for (final HookConfiguration conf : config) {
-            final String fieldName = conf.getFieldName();
-            if (fieldName.equals(payloadURLName)) {
-                url = conf.getFieldValue();
-            }
-            if (fieldName.equals(contentTypeName)) {
-                contentType = conf.getFieldValue();
-            }
-        }
-
-        sendRequest(url, contentType, payload, entityName, actionName, context);
+        hookDeliveryService.enqueueInNewTransaction(hook, entityName, actionName, payload);
     }
 
+    /**
+     * Sends the deliveries, which share the same endpoint, content type and event, in a single request: a JSON array for
+     * more than one delivery, the payload itself otherwise.
+     */
     @SuppressWarnings("unchecked")
-    private void sendRequest(final String url, final String contentType, final String payload, final String entityName,
-            final String actionName, final FineractContext context) {
-
+    public void deliver(final String tenantIdentifier, final List<HookDelivery> deliveries) throws IOException {
+        final HookDelivery first = deliveries.get(0);
         final String fineractEndpointUrl = System.getProperty("baseUrl");
-        final WebHookService service = processorHelper.createWebHookService(url);
-
-        @SuppressWarnings("rawtypes")
-        final Callback callback = processorHelper.createCallback(url);
+        final WebHookService service = processorHelper.getWebHookService(first.getPayloadUrl());
 
-        if (contentType.equalsIgnoreCase("json") || contentType.contains("json")) {
-            final JsonObject json = JsonParser.parseString(payload).getAsJsonObject();
-            service.sendJsonRequest(entityName, actionName, context.getTenantContext().getTenantIdentifier(), fineractEndpointUrl, json)
-                    .enqueue(callback);
+        final Call<Void> call;
+        if (first.isJson()) {
+            if (deliveries.size() == 1) {
+                final JsonObject json = JsonParser.parseString(first.getPayload()).getAsJsonObject();
+                call = service.sendJsonRequest(first.getEntityName(), first.getActionName(), tenantIdentifier, fineractEndpointUrl, json);
+            } else {
+                final JsonArray json = new JsonArray(deliveries.size());
+                for (final HookDelivery delivery : deliveries) {
+                    json.add(JsonParser.parseString(delivery.getPayload()));
+                }
+                call = service.sendJsonBatchRequest(first.getEntityName(), first.getActionName(), tenantIdentifier, fineractEndpointUrl,
+                        json);
+            }
         } else {
             Map<String, String> map = new HashMap<>();
-            map = new Gson().fromJson(payload, map.getClass());
-            service.sendFormRequest(entityName, actionName, context.getTenantContext().getTenantIdentifier(), fineractEndpointUrl, map)
-                    .enqueue(callback);
+            map = new Gson().fromJson(first.getPayload(), map.getClass());
+            call = service.sendFormRequest(first.getEntityName(), first.getActionName(), tenantIdentifier, fineractEndpointUrl, map);
+        }
+
+        final Response<Void> response = call.execute();
+        if (!response.isSuccessful()) {
+            throw new IOException("URL: " + first.getPayloadUrl() + " - Status: " + response.code());
         }
     }
 }
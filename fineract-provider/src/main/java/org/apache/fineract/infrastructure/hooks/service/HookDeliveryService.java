@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookDelivery;
+
+/**
+ * Outbox of the web hook deliveries of the current tenant.
+ */
+public interface HookDeliveryService {
+
+    /**
+     * Writes a delivery for every active web hook listening to the event within the transaction of the caller, so the
+     * deliveries are committed or rolled back together with the change they report.
+     */
+    void enqueue(String entityName, String actionName, String payload);
+
+    /**
+     * Same as {@link #enqueue(String, String, String)} for events whose own transaction is rolled back (failed
+     * commands).
+     */
+    void enqueueInNewTransaction(String entityName, String actionName, String payload);
+
+    void enqueueInNewTransaction(Hook hook, String entityName, String actionName, String payload);
+
+    /**
+     * Leases the deliveries due now (or abandoned by a node which died while sending them) for this node.
+     */
+    List<HookDelivery> leaseDueDeliveries();
+
+    void acknowledge(Collection<Long> deliveryIds);
+
+    /**
+     * Schedules the next attempt of the deliveries with an exponential backoff, or moves them to the dead letter state
+     * once they ran out of attempts.
+     */
+    void retryOrDeadLetter(Collection<Long> deliveryIds, String error);
+}
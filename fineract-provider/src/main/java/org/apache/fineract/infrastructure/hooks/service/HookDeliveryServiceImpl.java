@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.batchSizeName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
+import org.apache.fineract.infrastructure.hooks.domain.HookDelivery;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryRepository;
+import org.apache.fineract.infrastructure.hooks.processor.ProcessorHelper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HookDeliveryServiceImpl implements HookDeliveryService {
+
+    private final HookReadPlatformService hookReadPlatformService;
+    private final HookDeliveryRepository hookDeliveryRepository;
+    private final FineractProperties fineractProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(final String entityName, final String actionName, final String payload) {
+        enqueueForHooks(entityName, actionName, payload);
+    }
+
+    private void enqueueForHooks(final String entityName, final String actionName, final String payload) {
+        for (final Hook hook : this.hookReadPlatformService.retrieveHooksByEvent(entityName, actionName)) {
+            if (webTemplateName.equals(hook.getHookTemplate().getName())) {
+                enqueue(hook, entityName, actionName, payload);
+            }
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueInNewTransaction(final String entityName, final String actionName, final String payload) {
+        enqueueForHooks(entityName, actionName, payload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueInNewTransaction(final Hook hook, final String entityName, final String actionName, final String payload) {
+        enqueue(hook, entityName, actionName, payload);
+    }
+
+    private void enqueue(final Hook hook, final String entityName, final String actionName, final String payload) {
+        String url = null;
+        String contentType = null;
+        String batchSize = null;
+        for (final HookConfiguration conf : hook.getHookConfig()) {
+            if (payloadURLName.equals(conf.getFieldName())) {
+                url = conf.getFieldValue();
+            } else if (contentTypeName.equals(conf.getFieldName())) {
+                contentType = conf.getFieldValue();
+            } else if (batchSizeName.equals(conf.getFieldName())) {
+                batchSize = conf.getFieldValue();
+            }
+        }
+        if (StringUtils.isBlank(url) || StringUtils.isBlank(contentType)) {
+            log.warn("Hook {} has no payload URL or content type, event {} {} is not delivered", hook.getId(), entityName, actionName);
+            return;
+        }
+        this.hookDeliveryRepository.save(HookDelivery.instance(hook.getId(), url, contentType, parseBatchSize(batchSize), entityName,
+                actionName, payload, DateUtils.getLocalDateTimeOfSystem()));
+    }
+
+    private static Integer parseBatchSize(final String batchSize) {
+        if (StringUtils.isBlank(batchSize)) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(batchSize.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    @Override
+    public List<HookDelivery> leaseDueDeliveries() {
+        final FineractProperties.FineractHookDeliveryProperties properties = this.fineractProperties.getHookDelivery();
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final LocalDateTime expiredBefore = now.minusSeconds(properties.getLeaseTimeoutInSeconds());
+        final List<Long> candidates = this.hookDeliveryRepository.findLeasableIds(now, expiredBefore,
+                PageRequest.of(0, leaseSize(properties)));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        final List<Long> leased = new ArrayList<>(candidates.size());
+        this.transactionTemplate.executeWithoutResult(status -> {
+            for (final Long id : candidates) {
+                if (this.hookDeliveryRepository.lease(id, this.fineractProperties.getNodeId(), now, expiredBefore) == 1) {
+                    leased.add(id);
+                }
+            }
+        });
+        return leased.isEmpty() ? List.of() : this.hookDeliveryRepository.findAllById(leased);
+    }
+
+    /**
+     * Number of deliveries leased at a time: every request may take up to the connect and read timeouts and the workers
+     * send thread-count requests at a time, so only as many rounds are leased as fit into the lease timeout, keeping one
+     * round as margin for the outbox updates.
+     */
+    static int leaseSize(final FineractProperties.FineractHookDeliveryProperties properties) {
+        final int requestTimeout = ProcessorHelper.CONNECT_TIMEOUT_IN_SECONDS + ProcessorHelper.READ_TIMEOUT_IN_SECONDS;
+        final int rounds = Math.max(1, properties.getLeaseTimeoutInSeconds() / requestTimeout - 1);
+        return Math.max(1, Math.min(properties.getLeaseLimit(), properties.getThreadCount() * rounds));
+    }
+
+    @Override
+    @Transactional
+    public void acknowledge(final Collection<Long> deliveryIds) {
+        this.hookDeliveryRepository.deleteLeasedByIds(deliveryIds, this.fineractProperties.getNodeId());
+    }
+
+    @Override
+    @Transactional
+    public void retryOrDeadLetter(final Collection<Long> deliveryIds, final String error) {
+        final FineractProperties.FineractHookDeliveryProperties properties = this.fineractProperties.getHookDelivery();
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        for (final HookDelivery delivery : this.hookDeliveryRepository.findAllById(deliveryIds)) {
+            if (!delivery.isLeasedBy(this.fineractProperties.getNodeId())) {
+                // the lease expired and the delivery was taken over by another node
+                continue;
+            }
+            if (delivery.getAttempts() >= properties.getMaxAttempts()) {
+                log.error("Delivery {} of hook {} to {} failed {} times, moving it to the dead letters: {}", delivery.getId(),
+                        delivery.getHookId(), delivery.getPayloadUrl(), delivery.getAttempts(), error);
+                delivery.markDead(error);
+            } else {
+                // initial backoff doubled with every further attempt, capped at the max backoff
+                final int exponent = Math.max(0, Math.min(delivery.getAttempts() - 1, 30));
+                final long backoff = Math.min(properties.getMaxBackoffInSeconds(), properties.getInitialBackoffInSeconds() << exponent);
+                delivery.retryAt(now.plusSeconds(backoff), error);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.hooks.service;
 
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.actionNameParamName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.batchSizeName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.configParamName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.entityNameParamName;
@@ -266,6 +267,11 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
                 }
             }
 
+            if (conf.getFieldName().equals(batchSizeName) && !isPositiveInteger(fieldValue)) {
+                final String errorMessage = "batch.size.must.be.a.positive.integer";
+                baseDataValidator.reset().failWithCodeNoParameterAddedToErrorCode(errorMessage);
+            }
+
             if (conf.getFieldName().equals(payloadURLName)) {
                 try {
                     final WebHookService service = processorHelper.createWebHookService(fieldValue);
@@ -303,6 +309,14 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
         }
     }
 
+    private static boolean isPositiveInteger(final String value) {
+        try {
+            return value != null && Integer.parseInt(value.trim()) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     private void handleHookDataIntegrityIssues(final JsonCommand command, final Throwable realCause, final Exception dve) {
         if (realCause.getMessage().contains("hook_name")) {
             final String name = command.stringValueOfParameterNamed("name");
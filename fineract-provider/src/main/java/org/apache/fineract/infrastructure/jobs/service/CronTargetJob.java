@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.lang.reflect.InvocationTargetException;
+import lombok.Setter;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.scheduling.quartz.JobMethodInvocationFailedException;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.util.MethodInvoker;
+
+/**
+ * Job used when the schedulers run on the clustered JDBC job store. Its persisted job data only holds the id of the
+ * scheduled job, so that any batch manager node can fire it; the {@link CronTarget} method and its job parameters are
+ * resolved on the node which executes it.
+ */
+@Setter
+@DisallowConcurrentExecution
+public class CronTargetJob extends QuartzJobBean {
+
+    // populated from the scheduler context
+    private JobRegisterServiceImpl jobRegisterService;
+
+    // populated from the job data map
+    private Long jobId;
+
+    @Override
+    protected void executeInternal(final JobExecutionContext context) throws JobExecutionException {
+        final MethodInvoker methodInvoker;
+        try {
+            methodInvoker = this.jobRegisterService.createMethodInvoker(this.jobId);
+        } catch (final Exception e) {
+            throw new JobExecutionException("Could not resolve the job with id:" + this.jobId, e, false);
+        }
+        try {
+            methodInvoker.invoke();
+        } catch (final InvocationTargetException e) {
+            if (e.getTargetException() instanceof JobExecutionException) {
+                throw (JobExecutionException) e.getTargetException();
+            }
+            throw new JobMethodInvocationFailedException(methodInvoker, e.getTargetException());
+        } catch (final Exception e) {
+            throw new JobMethodInvocationFailedException(methodInvoker, e);
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.jobs.service;
 
 import com.google.common.base.Splitter;
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,12 +27,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.PostConstruct;
 import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser.ClassMethodNamesPair;
 import org.apache.fineract.infrastructure.jobs.domain.JobParameter;
@@ -41,6 +46,7 @@ import org.apache.fineract.infrastructure.jobs.domain.SchedulerDetail;
 import org.apache.fineract.infrastructure.jobs.exception.JobNodeIdMismatchingException;
 import org.apache.fineract.infrastructure.jobs.exception.JobNotFoundException;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.quartz.JobBuilder;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
@@ -49,9 +55,12 @@ import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 import org.quartz.TriggerListener;
+import org.quartz.impl.jdbcjobstore.PostgreSQLDelegate;
+import org.quartz.impl.jdbcjobstore.StdJDBCDelegate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.support.ArgumentConvertingMethodInvoker;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
@@ -59,16 +68,24 @@ import org.springframework.scheduling.quartz.CronTriggerFactoryBean;
 import org.springframework.scheduling.quartz.MethodInvokingJobDetailFactoryBean;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MethodInvoker;
 
 /**
  * Service class to create and load batch jobs to Scheduler using {@link SchedulerFactoryBean}
  * ,{@link MethodInvokingJobDetailFactoryBean} and {@link CronTriggerFactoryBean}
+ *
+ * Each tenant (and scheduler group) gets one pooled scheduler, which also runs the manually triggered jobs. When
+ * fineract.quartz.clustered is enabled the schedulers use the clustered JDBC job store in the tenant database, so that
+ * any batch manager node can fire a trigger and the jobs of a failed node are recovered by the others.
  */
 @Service
 public class JobRegisterServiceImpl implements JobRegisterService, ApplicationListener<ContextClosedEvent> {
 
     private static final Logger LOG = LoggerFactory.getLogger(JobRegisterServiceImpl.class);
 
+    // key under which CronTriggerFactoryBean adds the job detail to the trigger's job data
+    private static final String JOB_DETAIL_KEY = "jobDetail";
+
     @Autowired
     private ApplicationContext applicationContext;
 
@@ -87,10 +104,13 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     @Autowired
     private JobParameterRepository jobParameterRepository;
 
-    private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
+    @Autowired
+    private RoutingDataSourceServiceFactory dataSourceServiceFactory;
+
+    @Autowired
+    private DatabaseTypeResolver databaseTypeResolver;
 
-    // This cannot be injected as Autowired due to circular dependency
-    private SchedulerStopListener schedulerStopListener = new SchedulerStopListener(this);
+    private final Map<String, Scheduler> schedulers = new ConcurrentHashMap<>(4);
 
     @Autowired
     private FineractProperties fineractProperties;
@@ -104,8 +124,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         final List<FineractPlatformTenant> allTenants = this.tenantDetailsService.findAllTenants();
         for (final FineractPlatformTenant tenant : allTenants) {
             ThreadLocalContextUtil.setTenant(tenant);
-            final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService
-                    .retrieveAllJobs(fineractProperties.getNodeId());
+            final List<ScheduledJobDetail> scheduledJobDetails = retrieveSchedulableJobs();
             for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
                 scheduleJob(jobDetails);
                 jobDetails.updateTriggerMisfired(false);
@@ -127,21 +146,13 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             }
             jobDataMap.put(SchedulerServiceConstants.TRIGGER_TYPE_REFERENCE, triggerType);
             jobDataMap.put(SchedulerServiceConstants.TENANT_IDENTIFIER, ThreadLocalContextUtil.getTenant().getTenantIdentifier());
-            final String key = scheduledJobDetail.getJobKey();
-            final JobKey jobKey = constructJobKey(key);
-            final String schedulerName = getSchedulerName(scheduledJobDetail);
-            final Scheduler scheduler = this.schedulers.get(schedulerName);
-            if (scheduler == null || !scheduler.checkExists(jobKey)) {
-                final JobDetail jobDetail = createJobDetail(scheduledJobDetail);
-                final String tempSchedulerName = "temp" + scheduledJobDetail.getId();
-                final Scheduler tempScheduler = createScheduler(tempSchedulerName, 1, schedulerJobListener, schedulerStopListener);
-                tempScheduler.addJob(jobDetail, true);
-                jobDataMap.put(SchedulerServiceConstants.SCHEDULER_NAME, tempSchedulerName);
-                this.schedulers.put(tempSchedulerName, tempScheduler);
-                tempScheduler.triggerJob(jobDetail.getKey(), jobDataMap);
-            } else {
-                scheduler.triggerJob(jobKey, jobDataMap);
+            final JobKey jobKey = createJobKey(scheduledJobDetail);
+            final Scheduler scheduler = getScheduler(scheduledJobDetail);
+            if (!scheduler.checkExists(jobKey)) {
+                // inactive jobs are not scheduled, register them as durable jobs with the pooled scheduler
+                scheduler.addJob(createJobDetail(scheduledJobDetail), true);
             }
+            scheduler.triggerJob(jobKey, jobDataMap);
 
         } catch (final Exception e) {
             final String msg = "Job execution failed for job with id:" + scheduledJobDetail.getId();
@@ -185,8 +196,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             schedulerDetail.updateSuspendedState(false);
             this.schedularWritePlatformService.updateSchedulerDetail(schedulerDetail);
             if (schedulerDetail.isExecuteInstructionForMisfiredJobs()) {
-                final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService
-                        .retrieveAllJobs(fineractProperties.getNodeId());
+                final List<ScheduledJobDetail> scheduledJobDetails = retrieveSchedulableJobs();
                 for (final ScheduledJobDetail jobDetail : scheduledJobDetails) {
                     if (jobDetail.isTriggerMisfired() || jobDetail.getIsMismatchedJob()) {
                         if (jobDetail.isActiveSchedular()) {
@@ -221,7 +231,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     public void rescheduleJob(final Long jobId) {
         final ScheduledJobDetail scheduledJobDetail = this.schedularWritePlatformService.findByJobId(jobId);
         final String nodeIdStored = scheduledJobDetail.getNodeId().toString();
-        if (nodeIdStored.equals(fineractProperties.getNodeId()) || nodeIdStored.equals("0")) {
+        if (isRunnableOnThisNode(nodeIdStored)) {
             rescheduleJob(scheduledJobDetail);
         } else {
             scheduledJobDetail.setIsMismatchedJob(true);
@@ -238,7 +248,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         }
         final String nodeIdStored = scheduledJobDetail.getNodeId().toString();
 
-        if (nodeIdStored.equals(fineractProperties.getNodeId()) || nodeIdStored.equals("0")) {
+        if (isRunnableOnThisNode(nodeIdStored)) {
             executeJob(scheduledJobDetail, null);
             scheduledJobDetail.setIsMismatchedJob(false);
             this.schedularWritePlatformService.saveOrUpdate(scheduledJobDetail);
@@ -264,17 +274,41 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         this.stopAllSchedulers();
     }
 
+    private boolean isClustered() {
+        return fineractProperties.getQuartz().isClustered();
+    }
+
+    /**
+     * With the clustered job store every batch manager node can run every job, so the node id of the job is ignored.
+     */
+    private boolean isRunnableOnThisNode(final String nodeIdStored) {
+        return isClustered() || nodeIdStored.equals(fineractProperties.getNodeId()) || nodeIdStored.equals("0");
+    }
+
+    private List<ScheduledJobDetail> retrieveSchedulableJobs() {
+        if (isClustered()) {
+            return this.schedularWritePlatformService.retrieveAllJobs();
+        }
+        return this.schedularWritePlatformService.retrieveAllJobs(fineractProperties.getNodeId());
+    }
+
     private void scheduleJob(final ScheduledJobDetail scheduledJobDetails) {
         if (!scheduledJobDetails.isActiveSchedular()) {
             scheduledJobDetails.updateNextRunTime(null);
             scheduledJobDetails.updateCurrentlyRunningStatus(false);
+            removeStoredJob(scheduledJobDetails);
             return;
         }
         try {
             final JobDetail jobDetail = createJobDetail(scheduledJobDetails);
             final Trigger trigger = createTrigger(scheduledJobDetails, jobDetail);
             final Scheduler scheduler = getScheduler(scheduledJobDetails);
-            scheduler.scheduleJob(jobDetail, trigger);
+            if (isClustered()) {
+                // the job and its trigger may have already been stored by another node
+                scheduler.scheduleJob(jobDetail, Set.of(trigger), true);
+            } else {
+                scheduler.scheduleJob(jobDetail, trigger);
+            }
             scheduledJobDetails.updateJobKey(getJobKeyAsString(jobDetail.getKey()));
             scheduledJobDetails.updateNextRunTime(trigger.getNextFireTime());
             scheduledJobDetails.updateErrorLog(null);
@@ -287,6 +321,20 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         scheduledJobDetails.updateCurrentlyRunningStatus(false);
     }
 
+    /**
+     * Jobs stored by the clustered job store outlive the application, so a deactivated job has to be removed from it.
+     */
+    private void removeStoredJob(final ScheduledJobDetail scheduledJobDetail) {
+        if (!isClustered()) {
+            return;
+        }
+        try {
+            getScheduler(scheduledJobDetail).deleteJob(createJobKey(scheduledJobDetail));
+        } catch (final Exception e) {
+            LOG.error("Could not remove job: {}", scheduledJobDetail.getJobName(), e);
+        }
+    }
+
     @Override
     public void stopAllSchedulers() {
         for (Scheduler scheduler : this.schedulers.values()) {
@@ -302,19 +350,32 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         final String schedulername = getSchedulerName(scheduledJobDetail);
         Scheduler scheduler = this.schedulers.get(schedulername);
         if (scheduler == null) {
-            int noOfThreads = SchedulerServiceConstants.DEFAULT_THREAD_COUNT;
-            if (scheduledJobDetail.getSchedulerGroup() > 0) {
-                noOfThreads = SchedulerServiceConstants.GROUP_THREAD_COUNT;
+            synchronized (this.schedulers) {
+                scheduler = this.schedulers.get(schedulername);
+                if (scheduler == null) {
+                    scheduler = createScheduler(schedulername, getThreadCount(scheduledJobDetail), schedulerJobListener);
+                    this.schedulers.put(schedulername, scheduler);
+                }
             }
-            scheduler = createScheduler(schedulername, noOfThreads, schedulerJobListener);
-            this.schedulers.put(schedulername, scheduler);
         }
         return scheduler;
     }
 
+    private int getThreadCount(final ScheduledJobDetail scheduledJobDetail) {
+        if (scheduledJobDetail.getSchedulerGroup() > 0) {
+            final int groupThreadCount = fineractProperties.getQuartz().getGroupThreadCount();
+            return groupThreadCount > 0 ? groupThreadCount : SchedulerServiceConstants.GROUP_THREAD_COUNT;
+        }
+        final int threadCount = fineractProperties.getQuartz().getThreadCount();
+        return threadCount > 0 ? threadCount : SchedulerServiceConstants.DEFAULT_THREAD_COUNT;
+    }
+
     @Override
     public void stopScheduler(final String name) {
         final Scheduler scheduler = this.schedulers.remove(name);
+        if (scheduler == null) {
+            return;
+        }
         try {
             scheduler.shutdown();
         } catch (final SchedulerException e) {
@@ -340,6 +401,22 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         schedulerFactoryBean.setGlobalTriggerListeners(globalTriggerListeners);
         final Properties quartzProperties = new Properties();
         quartzProperties.put(SchedulerFactoryBean.PROP_THREAD_COUNT, Integer.toString(noOfThreads));
+        final long misfireThreshold = fineractProperties.getQuartz().getMisfireThresholdInMillis();
+        if (misfireThreshold > 0) {
+            quartzProperties.put("org.quartz.jobStore.misfireThreshold", Long.toString(misfireThreshold));
+        }
+        if (isClustered()) {
+            // the scheduler name is shared by all nodes, the instance id tells them apart
+            schedulerFactoryBean.setDataSource(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+            schedulerFactoryBean.setSchedulerContextAsMap(Map.of(SchedulerServiceConstants.JOB_REGISTER_SERVICE, this));
+            quartzProperties.put("org.quartz.scheduler.instanceId", "AUTO");
+            quartzProperties.put("org.quartz.jobStore.isClustered", "true");
+            quartzProperties.put("org.quartz.jobStore.clusterCheckinInterval",
+                    Long.toString(fineractProperties.getQuartz().getClusterCheckinIntervalInMillis()));
+            quartzProperties.put("org.quartz.jobStore.useProperties", "true");
+            quartzProperties.put("org.quartz.jobStore.driverDelegateClass",
+                    databaseTypeResolver.isPostgreSQL() ? PostgreSQLDelegate.class.getName() : StdJDBCDelegate.class.getName());
+        }
         schedulerFactoryBean.setQuartzProperties(quartzProperties);
         schedulerFactoryBean.afterPropertiesSet();
         schedulerFactoryBean.start();
@@ -347,19 +424,21 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     }
 
     private JobDetail createJobDetail(final ScheduledJobDetail scheduledJobDetail) throws Exception {
-        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        final ClassMethodNamesPair jobDetails = CronMethodParser.findTargetMethodDetails(scheduledJobDetail.getJobName());
-        if (jobDetails == null) {
-            throw new IllegalArgumentException(
-                    "Code has no @CronTarget with this job name (@see JobName); seems like DB/code are not in line: "
-                            + scheduledJobDetail.getJobName());
+        final JobKey jobKey = createJobKey(scheduledJobDetail);
+        if (isClustered()) {
+            // fail fast on a missing target, the job itself resolves it again when it is fired
+            createMethodInvoker(scheduledJobDetail);
+            return JobBuilder.newJob(CronTargetJob.class).withIdentity(jobKey)
+                    .usingJobData(SchedulerServiceConstants.JOB_ID, scheduledJobDetail.getId().toString()).storeDurably()
+                    .requestRecovery().build();
         }
+        final ClassMethodNamesPair jobDetails = findTargetMethodDetails(scheduledJobDetail);
         final Object targetObject = getBeanObject(Class.forName(jobDetails.className));
         final MethodInvokingJobDetailFactoryBean jobDetailFactoryBean = new MethodInvokingJobDetailFactoryBean();
-        jobDetailFactoryBean.setName(scheduledJobDetail.getJobName() + "JobDetail" + tenant.getId());
+        jobDetailFactoryBean.setName(jobKey.getName());
         jobDetailFactoryBean.setTargetObject(targetObject);
         jobDetailFactoryBean.setTargetMethod(jobDetails.methodName);
-        jobDetailFactoryBean.setGroup(scheduledJobDetail.getGroupName());
+        jobDetailFactoryBean.setGroup(jobKey.getGroup());
         jobDetailFactoryBean.setConcurrent(false);
         Map<String, String> jobParameterMap = getJobParameter(scheduledJobDetail);
         if (!jobParameterMap.isEmpty()) {
@@ -369,6 +448,42 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         return jobDetailFactoryBean.getObject();
     }
 
+    MethodInvoker createMethodInvoker(final Long jobId) throws Exception {
+        final ScheduledJobDetail scheduledJobDetail = this.schedularWritePlatformService.findByJobId(jobId);
+        if (scheduledJobDetail == null) {
+            throw new JobNotFoundException(String.valueOf(jobId));
+        }
+        return createMethodInvoker(scheduledJobDetail);
+    }
+
+    private MethodInvoker createMethodInvoker(final ScheduledJobDetail scheduledJobDetail) throws Exception {
+        final ClassMethodNamesPair jobDetails = findTargetMethodDetails(scheduledJobDetail);
+        final ArgumentConvertingMethodInvoker methodInvoker = new ArgumentConvertingMethodInvoker();
+        methodInvoker.setTargetObject(getBeanObject(Class.forName(jobDetails.className)));
+        methodInvoker.setTargetMethod(jobDetails.methodName);
+        Map<String, String> jobParameterMap = getJobParameter(scheduledJobDetail);
+        if (!jobParameterMap.isEmpty()) {
+            methodInvoker.setArguments(jobParameterMap);
+        }
+        methodInvoker.prepare();
+        return methodInvoker;
+    }
+
+    private ClassMethodNamesPair findTargetMethodDetails(final ScheduledJobDetail scheduledJobDetail) throws IOException {
+        final ClassMethodNamesPair jobDetails = CronMethodParser.findTargetMethodDetails(scheduledJobDetail.getJobName());
+        if (jobDetails == null) {
+            throw new IllegalArgumentException(
+                    "Code has no @CronTarget with this job name (@see JobName); seems like DB/code are not in line: "
+                            + scheduledJobDetail.getJobName());
+        }
+        return jobDetails;
+    }
+
+    private JobKey createJobKey(final ScheduledJobDetail scheduledJobDetail) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return new JobKey(scheduledJobDetail.getJobName() + "JobDetail" + tenant.getId(), scheduledJobDetail.getGroupName());
+    }
+
     public Map<String, String> getJobParameter(ScheduledJobDetail scheduledJobDetail) {
         List<JobParameter> jobParameterList = jobParameterRepository.findJobParametersByJobId(scheduledJobDetail.getId());
         Map<String, String> jobParameterMap = new HashMap<>();
@@ -421,7 +536,12 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         cronTriggerFactoryBean.setCronExpression(scheduledJobDetails.getCronExpression());
         cronTriggerFactoryBean.setPriority(scheduledJobDetails.getTaskPriority());
         cronTriggerFactoryBean.afterPropertiesSet();
-        return cronTriggerFactoryBean.getObject();
+        final Trigger trigger = cronTriggerFactoryBean.getObject();
+        if (isClustered()) {
+            // the job store persists the job data as properties, the job detail is referenced by its key anyway
+            trigger.getJobDataMap().remove(JOB_DETAIL_KEY);
+        }
+        return trigger;
     }
 
     private String getStackTraceAsString(final Throwable throwable) {
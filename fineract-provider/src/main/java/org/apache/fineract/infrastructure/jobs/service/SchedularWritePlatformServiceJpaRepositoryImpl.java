@@ -57,6 +57,11 @@ public class SchedularWritePlatformServiceJpaRepositoryImpl implements Schedular
         this.dataValidator = dataValidator;
     }
 
+    @Override
+    public List<ScheduledJobDetail> retrieveAllJobs() {
+        return this.scheduledJobDetailsRepository.findAll();
+    }
+
     @Override
     public List<ScheduledJobDetail> retrieveAllJobs(final String nodeId) {
         return this.scheduledJobDetailsRepository.findAllJobs(Integer.parseInt(nodeId));
@@ -36,6 +36,7 @@ public interface SchedulerServiceConstants {
     String SCHEDULER_GROUP = "group";
     int DEFAULT_THREAD_COUNT = 7;
     int GROUP_THREAD_COUNT = 1;
-    String SCHEDULER_NAME = "schedulerName";
+    String JOB_ID = "jobId";
+    String JOB_REGISTER_SERVICE = "jobRegisterService";
 
 }
@@ -18,9 +18,7 @@
  */
 package org.apache.fineract.notification.service;
 
-import static java.util.stream.Collectors.toSet;
-
-import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -60,8 +58,7 @@ import org.apache.fineract.portfolio.savings.domain.RecurringDepositAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccount;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.apache.fineract.useradministration.service.AppUserReadPlatformService;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -72,7 +69,7 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
     private final BusinessEventNotifierService businessEventNotifierService;
     private final PlatformSecurityContext context;
     private final NotificationEventPublisher notificationEventPublisher;
-    private final AppUserRepository appUserRepository;
+    private final AppUserReadPlatformService appUserReadPlatformService;
 
     @PostConstruct
     public void addListeners() {
@@ -323,8 +320,7 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
     }
 
     private Set<Long> getNotifiableUserIds(Long officeId, String permission) {
-        Collection<AppUser> users = appUserRepository.findByOfficeId(officeId);
-        Collection<AppUser> usersWithPermission = users.stream().filter(aU -> aU.hasAnyPermission(permission, "ALL_FUNCTIONS")).toList();
-        return usersWithPermission.stream().map(AppUser::getId).collect(toSet());
+        // the cached set is shared, the event listener removes users from the set it receives
+        return new HashSet<>(appUserReadPlatformService.retrieveUserIdsWithPermission(officeId, permission));
     }
 }
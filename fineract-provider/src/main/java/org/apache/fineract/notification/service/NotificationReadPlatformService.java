@@ -26,6 +26,8 @@ public interface NotificationReadPlatformService {
 
     boolean hasUnreadNotifications(Long appUserId);
 
+    void updateUnreadNotificationsFlag(Long appUserId, boolean hasNotifications);
+
     Page<NotificationData> getAllUnreadNotifications(SearchParameters searchParameters);
 
     Page<NotificationData> getAllNotifications(SearchParameters searchParameters);
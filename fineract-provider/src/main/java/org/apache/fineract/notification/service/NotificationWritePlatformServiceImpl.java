@@ -39,6 +39,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
     private final NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper;
     private final AppUserRepository appUserRepository;
     private final NotificationMapperWritePlatformService notificationMapperWritePlatformService;
+    private final NotificationReadPlatformService notificationReadPlatformService;
 
     @Override
     public Long notify(Long userId, String objectType, Long objectIdentifier, String action, Long actorId, String notificationContent,
@@ -57,6 +58,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
                 DateUtils.getLocalDateTimeOfSystem());
 
         this.notificationMapperWritePlatformService.create(notificationMapper);
+        this.notificationReadPlatformService.updateUnreadNotificationsFlag(userId, true);
         return notificationMapper.getId();
     }
 
@@ -88,6 +90,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
                     this.notificationGeneratorReadRepositoryWrapper.findById(generatedNotificationId), appUser, false,
                     DateUtils.getLocalDateTimeOfSystem());
             this.notificationMapperWritePlatformService.create(notificationMapper);
+            this.notificationReadPlatformService.updateUnreadNotificationsFlag(userId, true);
             mappedIds.add(notificationMapper.getId());
         }
         return mappedIds;
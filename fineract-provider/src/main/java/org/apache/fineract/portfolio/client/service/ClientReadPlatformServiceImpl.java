@@ -40,6 +40,7 @@ import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PageCountMode;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
@@ -189,6 +190,8 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         sqlBuilder.append(this.clientMapper.schema());
         sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
 
+        String sqlCountRows = null;
+        Object[] countArgs = null;
         if (searchParameters != null) {
             if (searchParameters.isSelfUser()) {
                 sqlBuilder.append(
@@ -202,7 +205,18 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
                 sqlBuilder.append(" and (").append(extraCriteria).append(")");
             }
 
-            if (searchParameters.isOrderByRequested()) {
+            // the total of a keyset page counts the whole list, not only the rows past the cursor
+            sqlCountRows = sqlBuilder.toString();
+            countArgs = paramList.toArray();
+
+            if (searchParameters.isAfterIdBound()) {
+                sqlBuilder.append(" and ").append(searchParameters.keysetConditionSql("c.id"));
+                paramList.add(searchParameters.getAfterId());
+            }
+
+            if (searchParameters.isAfterIdPassed()) {
+                sqlBuilder.append(searchParameters.keysetOrderBySql("c.id"));
+            } else if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
                 if (searchParameters.isSortOrderProvided()) {
@@ -220,7 +234,13 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
                 }
             }
         }
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(), this.clientMapper);
+        final PageCountMode countMode = searchParameters == null ? PageCountMode.EXACT : searchParameters.getCountMode();
+        if (searchParameters != null && searchParameters.isAfterIdPassed()) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(), sqlCountRows, countArgs,
+                    this.clientMapper, countMode);
+        }
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(), this.clientMapper,
+                countMode);
     }
 
     private String buildSqlStringFromClientCriteria(String schemaSql, final SearchParameters searchParameters, List<Object> paramList) {
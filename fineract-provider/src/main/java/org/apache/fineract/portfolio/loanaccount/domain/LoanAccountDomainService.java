@@ -23,6 +23,7 @@ import java.time.LocalDate;
 import java.util.Map;
 import java.util.Set;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionBusinessEvent;
 import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
 import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
 
@@ -68,6 +69,20 @@ public interface LoanAccountDomainService {
 
     void saveLoanWithDataIntegrityViolationChecks(Loan loan);
 
+    /**
+     * First half of one repayment of a bulk repayment (collection sheet): applies the repayment to the loan in memory
+     * and persists its transaction without flushing. The caller flushes the repayments of all loans at once, then
+     * completes each one with {@link #completeBulkRepayment}.
+     */
+    PendingLoanRepayment applyBulkRepayment(Loan loan, LocalDate transactionDate, BigDecimal transactionAmount, PaymentDetail paymentDetail,
+            String noteText, HolidayDetailDTO holidayDetailDto, Boolean isHolidayValidationDone);
+
+    /**
+     * Second half of a bulk repayment, once its transaction is flushed: posts its note, journal entries and accruals.
+     * Returns its post business event for the caller to notify together with those of the other repayments.
+     */
+    LoanTransactionBusinessEvent completeBulkRepayment(PendingLoanRepayment repayment);
+
     Map<String, Object> foreCloseLoan(Loan loan, LocalDate foreClourseDate, String noteText);
 
     /**
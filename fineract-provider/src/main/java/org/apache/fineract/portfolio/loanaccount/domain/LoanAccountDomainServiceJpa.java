@@ -156,7 +156,44 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
             final PaymentDetail paymentDetail, final String noteText, final String txnExternalId, final boolean isRecoveryRepayment,
             boolean isAccountTransfer, HolidayDetailDTO holidayDetailDto, Boolean isHolidayValidationDone,
             final boolean isLoanToLoanTransfer) {
-        AppUser currentUser = getAppUserIfPresent();
+        final PendingLoanRepayment repayment = applyRepayment(repaymentTransactionType, loan, transactionDate, transactionAmount,
+                paymentDetail, noteText, txnExternalId, isRecoveryRepayment, holidayDetailDto, isHolidayValidationDone, true);
+
+        postRepayment(repayment, isAccountTransfer, isLoanToLoanTransfer);
+
+        businessEventNotifierService.notifyPostBusinessEvent(getTransactionRepaymentTypeBusinessEvent(repaymentTransactionType,
+                isRecoveryRepayment, repayment.getTransaction()));
+
+        finishRepayment(repayment, builderResult);
+
+        return repayment.getTransaction();
+    }
+
+    @Transactional
+    @Override
+    public PendingLoanRepayment applyBulkRepayment(final Loan loan, final LocalDate transactionDate, final BigDecimal transactionAmount,
+            final PaymentDetail paymentDetail, final String noteText, final HolidayDetailDTO holidayDetailDto,
+            final Boolean isHolidayValidationDone) {
+        return applyRepayment(LoanTransactionType.REPAYMENT, loan, transactionDate, transactionAmount, paymentDetail, noteText, null, false,
+                holidayDetailDto, isHolidayValidationDone, false);
+    }
+
+    @Transactional
+    @Override
+    public LoanTransactionBusinessEvent completeBulkRepayment(final PendingLoanRepayment repayment) {
+        postRepayment(repayment, false, false);
+        finishRepayment(repayment, new CommandProcessingResultBuilder());
+        return getTransactionRepaymentTypeBusinessEvent(repayment.getRepaymentTransactionType(), repayment.isRecoveryRepayment(),
+                repayment.getTransaction());
+    }
+
+    /**
+     * Applies the repayment to the loan and saves the loan with its new and changed transactions, flushed or not.
+     */
+    private PendingLoanRepayment applyRepayment(final LoanTransactionType repaymentTransactionType, final Loan loan,
+            final LocalDate transactionDate, final BigDecimal transactionAmount, final PaymentDetail paymentDetail, final String noteText,
+            final String txnExternalId, final boolean isRecoveryRepayment, final HolidayDetailDTO holidayDetailDto,
+            final Boolean isHolidayValidationDone, final boolean flush) {
         checkClientOrGroupActive(loan);
 
         LoanBusinessEvent repaymentEvent = getLoanRepaymentTypeBusinessEvent(repaymentTransactionType, isRecoveryRepayment, loan);
@@ -195,7 +232,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
                 defaultLoanLifecycleStateMachine(), existingTransactionIds, existingReversedTransactionIds, isRecoveryRepayment,
                 scheduleGeneratorDTO, isHolidayValidationDone);
 
-        saveLoanTransactionWithDataIntegrityViolationChecks(newRepaymentTransaction);
+        saveLoanTransactionWithDataIntegrityViolationChecks(newRepaymentTransaction, flush);
 
         /***
          * TODO Vishwas Batch save is giving me a HibernateOptimisticLockingFailureException, looping and saving for the
@@ -203,29 +240,44 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
          * before the latest payment recorded against the loan)
          ***/
 
-        saveAndFlushLoanWithDataIntegrityViolationChecks(loan);
+        if (flush) {
+            saveAndFlushLoanWithDataIntegrityViolationChecks(loan);
+        } else {
+            saveLoanWithDataIntegrityViolationChecks(loan);
+        }
 
         if (changedTransactionDetail != null) {
             for (Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
-                saveLoanTransactionWithDataIntegrityViolationChecks(mapEntry.getValue());
+                saveLoanTransactionWithDataIntegrityViolationChecks(mapEntry.getValue(), flush);
                 // update loan with references to the newly created transactions
                 loan.addLoanTransaction(mapEntry.getValue());
                 updateLoanTransaction(mapEntry.getKey(), mapEntry.getValue());
             }
         }
 
-        if (StringUtils.isNotBlank(noteText)) {
-            final Note note = Note.loanTransactionNote(loan, newRepaymentTransaction, noteText);
+        return new PendingLoanRepayment(repaymentTransactionType, isRecoveryRepayment, loan, newRepaymentTransaction,
+                existingTransactionIds, existingReversedTransactionIds, noteText, flush);
+    }
+
+    /**
+     * Posts the note, journal entries and accruals of an applied repayment, which needs the ids of its transactions.
+     */
+    private void postRepayment(final PendingLoanRepayment repayment, final boolean isAccountTransfer, final boolean isLoanToLoanTransfer) {
+        final Loan loan = repayment.getLoan();
+        if (StringUtils.isNotBlank(repayment.getNoteText())) {
+            final Note note = Note.loanTransactionNote(loan, repayment.getTransaction(), repayment.getNoteText());
             this.noteRepository.save(note);
         }
 
-        postJournalEntries(loan, existingTransactionIds, existingReversedTransactionIds, isAccountTransfer, isLoanToLoanTransfer);
+        postJournalEntries(loan, repayment.getExistingTransactionIds(), repayment.getExistingReversedTransactionIds(), isAccountTransfer,
+                isLoanToLoanTransfer);
 
         recalculateAccruals(loan);
+    }
 
-        LoanTransactionBusinessEvent transactionRepaymentEvent = getTransactionRepaymentTypeBusinessEvent(repaymentTransactionType,
-                isRecoveryRepayment, newRepaymentTransaction);
-        businessEventNotifierService.notifyPostBusinessEvent(transactionRepaymentEvent);
+    private void finishRepayment(final PendingLoanRepayment repayment, final CommandProcessingResultBuilder builderResult) {
+        final Loan loan = repayment.getLoan();
+        final LoanTransaction newRepaymentTransaction = repayment.getTransaction();
 
         // disable all active standing orders linked to this loan if status
         // changes to closed
@@ -254,7 +306,11 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
                             } else {
                                 postDatedChecks.setStatus(PostDatedChecksStatus.POST_DATED_CHECKS_PENDING);
                             }
-                            this.postDatedChecksRepository.saveAndFlush(postDatedChecks);
+                            if (repayment.isFlushed()) {
+                                this.postDatedChecksRepository.saveAndFlush(postDatedChecks);
+                            } else {
+                                this.postDatedChecksRepository.save(postDatedChecks);
+                            }
                         } else {
                             break;
                         }
@@ -262,8 +318,6 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
                 }
             }
         }
-
-        return newRepaymentTransaction;
     }
 
     private LoanBusinessEvent getLoanRepaymentTypeBusinessEvent(LoanTransactionType repaymentTransactionType, boolean isRecoveryRepayment,
@@ -301,8 +355,16 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
     }
 
     private void saveLoanTransactionWithDataIntegrityViolationChecks(LoanTransaction newRepaymentTransaction) {
+        saveLoanTransactionWithDataIntegrityViolationChecks(newRepaymentTransaction, true);
+    }
+
+    private void saveLoanTransactionWithDataIntegrityViolationChecks(final LoanTransaction newRepaymentTransaction, final boolean flush) {
         try {
-            this.loanTransactionRepository.saveAndFlush(newRepaymentTransaction);
+            if (flush) {
+                this.loanTransactionRepository.saveAndFlush(newRepaymentTransaction);
+            } else {
+                this.loanTransactionRepository.save(newRepaymentTransaction);
+            }
         } catch (final JpaSystemException | DataIntegrityViolationException e) {
             final Throwable realCause = e.getCause();
             final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
@@ -21,9 +21,12 @@ package org.apache.fineract.portfolio.loanaccount.domain;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan> {
@@ -73,6 +76,10 @@ public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificat
 
     String FIND_BY_ACCOUNT_NUMBER = "select loan from Loan loan where loan.accountNumber = :accountNumber";
 
+    String FIND_VERSION_BY_ID = "select loan.version from Loan loan where loan.id = :loanId";
+
+    String FIND_BY_IDS = "select loan from Loan loan where loan.id in :loanIds";
+
     @Query(FIND_GROUP_LOANS_DISBURSED_AFTER)
     List<Loan> getGroupLoansDisbursedAfter(@Param("disbursementDate") LocalDate disbursementDate, @Param("groupId") Long groupId,
             @Param("loanType") Integer loanType);
@@ -161,6 +168,25 @@ public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificat
     @Query(FIND_BY_ACCOUNT_NUMBER)
     Loan findLoanAccountByAccountNumber(@Param("accountNumber") String accountNumber);
 
+    @Query(FIND_VERSION_BY_ID)
+    Optional<Integer> findVersionById(@Param("loanId") Long loanId);
+
+    /**
+     * Loads the loans together with the collections of {@link Loan#initializeLazyCollections()}, each collection with
+     * one query for all loans.
+     */
+    @Query(FIND_BY_IDS)
+    @QueryHints({ @QueryHint(name = "eclipselink.batch.type", value = "IN"), @QueryHint(name = "eclipselink.batch", value = "loan.charges"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.trancheCharges"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.repaymentScheduleInstallments"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.loanTransactions"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.disbursementDetails"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.loanTermVariations"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.collateral"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.loanOfficerHistory"),
+            @QueryHint(name = "eclipselink.batch", value = "loan.loanCollateralManagements") })
+    List<Loan> findAllByIdsWithLazyCollections(@Param("loanIds") Collection<Long> loanIds);
+
     boolean existsByExternalId(@Param("externalId") String externalId);
 
 }
@@ -58,6 +58,22 @@ public class LoanRepositoryWrapper {
         return loan;
     }
 
+    /**
+     * Loads the loans with their lazy collections in a few batched queries instead of a set of queries per loan, for
+     * bulk operations which go through many loans in one transaction.
+     */
+    @Transactional(readOnly = true)
+    public List<Loan> findAllWithLazyCollections(final Collection<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final List<Loan> loans = this.repository.findAllByIdsWithLazyCollections(loanIds);
+        for (final Loan loan : loans) {
+            loan.initializeLazyCollections();
+        }
+        return loans;
+    }
+
     // Root Entities are enough
     public Collection<Loan> findActiveLoansByLoanIdAndGroupId(Long clientId, Long groupId) {
         final Collection<Integer> loanStatuses = new ArrayList<>(Arrays.asList(LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(),
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.domain;
+
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A repayment applied to its loan in memory whose journal entries, accruals and post business event are still to
+ * follow, see {@link LoanAccountDomainService#applyBulkRepayment}.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class PendingLoanRepayment {
+
+    private final LoanTransactionType repaymentTransactionType;
+    private final boolean recoveryRepayment;
+    private final Loan loan;
+    private final LoanTransaction transaction;
+    private final List<Long> existingTransactionIds;
+    private final List<Long> existingReversedTransactionIds;
+    private final String noteText;
+    // whether the changes are flushed one repayment at a time, as outside of a bulk repayment
+    private final boolean flushed;
+}
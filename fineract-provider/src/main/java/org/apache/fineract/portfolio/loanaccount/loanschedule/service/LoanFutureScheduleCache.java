@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanSchedulePeriodData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node local cache of the future schedules projected for loans with interest recalculation. An entry is only valid for
+ * the loan version and business date it was computed at: every change of the loan bumps its version and the
+ * projection starts from the business date, so stale entries are never returned and are simply replaced.
+ */
+@Component
+public class LoanFutureScheduleCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoanFutureScheduleCache(final FineractProperties fineractProperties) {
+        this.maxEntries = fineractProperties.getLoanSchedule().getFutureScheduleCacheMaxEntries();
+    }
+
+    /**
+     * Returns the cached entry for the loan, or null if there is none for its current version and business date.
+     */
+    public Entry get(final Long loanId, final int loanVersion, final LocalDate businessDate) {
+        final Entry entry = this.entries.get(key(loanId));
+        if (entry == null || entry.loanVersion != loanVersion || !entry.businessDate.equals(businessDate)) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Caches the future periods of the loan, null if the loan has no future schedule to project.
+     */
+    public void put(final Long loanId, final int loanVersion, final LocalDate businessDate,
+            final Collection<LoanSchedulePeriodData> futurePeriods) {
+        if (this.maxEntries <= 0) {
+            return;
+        }
+        if (this.entries.size() >= this.maxEntries) {
+            // a reset keeps the cache bounded without the bookkeeping of an access order
+            this.entries.clear();
+        }
+        this.entries.put(key(loanId), new Entry(loanVersion, businessDate, futurePeriods));
+    }
+
+    private static String key(final Long loanId) {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier() + "|" + loanId;
+    }
+
+    public static final class Entry {
+
+        private final int loanVersion;
+        private final LocalDate businessDate;
+        private final Collection<LoanSchedulePeriodData> futurePeriods;
+
+        private Entry(final int loanVersion, final LocalDate businessDate, final Collection<LoanSchedulePeriodData> futurePeriods) {
+            this.loanVersion = loanVersion;
+            this.businessDate = businessDate;
+            this.futurePeriods = futurePeriods;
+        }
+
+        public Collection<LoanSchedulePeriodData> getFuturePeriods() {
+            return this.futurePeriods;
+        }
+    }
+}
@@ -22,8 +22,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.api.JsonQuery;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
@@ -41,6 +43,7 @@ import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanDisbursementDetails;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleTransactionProcessorFactory;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepository;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanSchedulePeriodData;
@@ -75,6 +78,8 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
     private final ConfigurationDomainService configurationDomainService;
     private final CurrencyReadPlatformService currencyReadPlatformService;
     private final LoanUtilService loanUtilService;
+    private final LoanRepository loanRepository;
+    private final LoanFutureScheduleCache futureScheduleCache;
 
     @Autowired
     public LoanScheduleCalculationPlatformServiceImpl(final CalculateLoanScheduleQueryFromApiJsonHelper fromApiJsonDeserializer,
@@ -84,7 +89,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
             final LoanAssembler loanAssembler,
             final LoanRepaymentScheduleTransactionProcessorFactory loanRepaymentScheduleTransactionProcessorFactory,
             final ConfigurationDomainService configurationDomainService, final CurrencyReadPlatformService currencyReadPlatformService,
-            final LoanUtilService loanUtilService) {
+            final LoanUtilService loanUtilService, final LoanRepository loanRepository, final LoanFutureScheduleCache futureScheduleCache) {
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.loanScheduleAssembler = loanScheduleAssembler;
         this.fromJsonHelper = fromJsonHelper;
@@ -97,6 +102,8 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         this.configurationDomainService = configurationDomainService;
         this.currencyReadPlatformService = currencyReadPlatformService;
         this.loanUtilService = loanUtilService;
+        this.loanRepository = loanRepository;
+        this.futureScheduleCache = futureScheduleCache;
     }
 
     @Override
@@ -142,15 +149,34 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
     @Override
     public void updateFutureSchedule(LoanScheduleData loanScheduleData, final Long loanId) {
 
+        final LocalDate today = DateUtils.getBusinessLocalDate();
+        final Optional<Integer> loanVersion = this.loanRepository.findVersionById(loanId);
+        if (loanVersion.isPresent()) {
+            final LoanFutureScheduleCache.Entry cached = this.futureScheduleCache.get(loanId, loanVersion.get(), today);
+            if (cached != null) {
+                if (cached.getFuturePeriods() != null) {
+                    loanScheduleData.updateFuturePeriods(cached.getFuturePeriods());
+                }
+                return;
+            }
+        }
+
         final Loan loan = this.loanAssembler.assembleFrom(loanId);
+        final Collection<LoanSchedulePeriodData> futurePeriods = calculateFutureSchedule(loan, today);
+        // without a version (no such loan, or not versioned yet) there is nothing to validate an entry against
+        loanVersion.ifPresent(version -> this.futureScheduleCache.put(loanId, version, today, futurePeriods));
+        if (futurePeriods != null) {
+            loanScheduleData.updateFuturePeriods(futurePeriods);
+        }
+    }
 
-        LocalDate today = DateUtils.getBusinessLocalDate();
+    private Collection<LoanSchedulePeriodData> calculateFutureSchedule(final Loan loan, final LocalDate today) {
         final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor = loanRepaymentScheduleTransactionProcessorFactory
                 .determineProcessor(loan.transactionProcessingStrategy());
 
         if (!loan.repaymentScheduleDetail().isInterestRecalculationEnabled() || loan.isNpa() || !loan.status().isActive()
                 || !loanRepaymentScheduleTransactionProcessor.isInterestFirstRepaymentScheduleTransactionProcessor()) {
-            return;
+            return null;
         }
 
         if (loan.loanProduct().isMultiDisburseLoan()) {
@@ -158,7 +184,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
             BigDecimal principalRepaid = loan.getLoanSummary().getTotalPrincipalRepaid();
             BigDecimal principalWrittenOff = loan.getLoanSummary().getTotalPrincipalWrittenOff();
             if (disbursedAmount.subtract(principalWrittenOff).subtract(principalRepaid).compareTo(BigDecimal.ZERO) <= 0) {
-                return;
+                return null;
             }
         }
         MonetaryCurrency currency = loan.getCurrency();
@@ -203,7 +229,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
             }
 
         }
-        loanScheduleData.updateFuturePeriods(futureInstallments);
+        return Collections.unmodifiableList(futureInstallments);
     }
 
     @Override
@@ -22,58 +22,89 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.fineract.infrastructure.core.exception.MultiException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
+import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Runs the loan accrual jobs.
+ *
+ * Loans are read page by page in loan id order. Every page is split into batches of <code>batch-size</code> loans which
+ * are processed by <code>thread-pool-size</code> threads, each batch in one transaction. When a batch fails, its loans
+ * are processed one by one so that a single broken loan does not block the rest of the batch. The optional
+ * <code>officeId</code> job parameter only narrows a run down to the loans of that office hierarchy, batches are not
+ * formed per office.
+ *
+ * {@link #addPeriodicAccruals(LocalDate)} is called by the periodic accrual command and runs within its transaction, so
+ * it reads the loans page by page as well but posts them on the calling thread.
+ */
 @Service
 public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformService {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoanAccrualPlatformServiceImpl.class);
 
+    private static final String THREAD_POOL_SIZE_PARAMETER = "thread-pool-size";
+    private static final String BATCH_SIZE_PARAMETER = "batch-size";
+    private static final String OFFICE_ID_PARAMETER = "officeId";
+
+    private static final int DEFAULT_THREAD_POOL_SIZE = 1;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final OfficeReadPlatformService officeReadPlatformService;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService,
+            final OfficeReadPlatformService officeReadPlatformService, final TransactionTemplate transactionTemplate) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.officeReadPlatformService = officeReadPlatformService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_ACCRUAL_ENTRIES)
     public void addAccrualAccounting() throws JobExecutionException {
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retriveScheduleAccrualData();
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
+        addAccrualAccounting(new HashMap<>());
+    }
 
-        List<Throwable> errors = new ArrayList<>();
-        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
-            try {
-                this.loanAccrualWritePlatformService.addAccrualAccounting(mapEntry.getKey(), mapEntry.getValue());
-            } catch (Exception e) {
-                LOG.error("Failed to add accural transaction for loan {}", mapEntry.getKey(), e);
-                errors.add(e);
-            }
-        }
+    @Override
+    @CronTarget(jobName = JobName.ADD_ACCRUAL_ENTRIES)
+    public void addAccrualAccounting(final Map<String, String> jobParameters) throws JobExecutionException {
+        final AccrualJobSettings settings = readSettings(jobParameters);
+        final List<Throwable> errors = processLoans(JobName.ADD_ACCRUAL_ENTRIES, settings,
+                (afterLoanId, maxLoans) -> this.loanReadPlatformService.retriveScheduleAccrualLoanIds(afterLoanId, maxLoans,
+                        settings.officeHierarchy),
+                loanIds -> groupByLoan(this.loanReadPlatformService.retriveScheduleAccrualData(loanIds)),
+                this.loanAccrualWritePlatformService::addAccrualAccounting);
         if (!errors.isEmpty()) {
             throw new JobExecutionException(errors);
         }
@@ -82,34 +113,53 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
     public void addPeriodicAccruals() throws JobExecutionException {
-        try {
-            addPeriodicAccruals(DateUtils.getBusinessLocalDate());
-        } catch (MultiException e) {
-            throw new JobExecutionException(e);
-        }
+        addPeriodicAccruals(new HashMap<>());
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
+    public void addPeriodicAccruals(final Map<String, String> jobParameters) throws JobExecutionException {
+        addPeriodicAccruals(DateUtils.getBusinessLocalDate(), readSettings(jobParameters));
     }
 
     @Override
     public void addPeriodicAccruals(final LocalDate tilldate) throws JobExecutionException {
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate);
-        addPeriodicAccruals(tilldate, loanScheduleAccrualDatas);
+        final List<Throwable> errors = new ArrayList<>();
+        List<Long> loanIds = this.loanReadPlatformService.retrivePeriodicAccrualLoanIds(tilldate, 0L, DEFAULT_BATCH_SIZE, null);
+        while (!loanIds.isEmpty()) {
+            errors.addAll(addPeriodicAccrualsLoanByLoan(tilldate,
+                    groupByLoan(this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate, loanIds))));
+            loanIds = this.loanReadPlatformService.retrivePeriodicAccrualLoanIds(tilldate, loanIds.get(loanIds.size() - 1),
+                    DEFAULT_BATCH_SIZE, null);
+        }
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private void addPeriodicAccruals(final LocalDate tilldate, final AccrualJobSettings settings) throws JobExecutionException {
+        final List<Throwable> errors = processLoans(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, settings,
+                (afterLoanId, maxLoans) -> this.loanReadPlatformService.retrivePeriodicAccrualLoanIds(tilldate, afterLoanId, maxLoans,
+                        settings.officeHierarchy),
+                loanIds -> groupByLoan(this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate, loanIds)),
+                (loanId, accrualDatas) -> this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, loanId, accrualDatas));
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
     }
 
     @Override
     public void addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas)
             throws JobExecutionException {
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
+        final List<Throwable> errors = addPeriodicAccrualsLoanByLoan(tilldate, groupByLoan(loanScheduleAccrualDatas));
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
         }
+    }
 
-        List<Throwable> errors = new ArrayList<>();
+    private List<Throwable> addPeriodicAccrualsLoanByLoan(final LocalDate tilldate,
+            final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap) {
+        final List<Throwable> errors = new ArrayList<>();
         for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
             try {
                 this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, mapEntry.getKey(), mapEntry.getValue());
@@ -118,28 +168,152 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
                 errors.add(e);
             }
         }
-        if (!errors.isEmpty()) {
-            throw new JobExecutionException(errors);
-        }
+        return errors;
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS)
     public void addPeriodicAccrualsForLoansWithIncomePostedAsTransactions() throws JobExecutionException {
-        Collection<Long> loanIds = this.loanReadPlatformService.retrieveLoanIdsWithPendingIncomePostingTransactions();
-        if (loanIds != null && loanIds.size() > 0) {
-            List<Throwable> errors = new ArrayList<>();
-            for (Long loanId : loanIds) {
+        addPeriodicAccrualsForLoansWithIncomePostedAsTransactions(new HashMap<>());
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS)
+    public void addPeriodicAccrualsForLoansWithIncomePostedAsTransactions(final Map<String, String> jobParameters)
+            throws JobExecutionException {
+        final AccrualJobSettings settings = readSettings(jobParameters);
+        final List<Throwable> errors = processLoans(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS,
+                settings,
+                (afterLoanId, maxLoans) -> this.loanReadPlatformService.retrieveLoanIdsWithPendingIncomePostingTransactions(afterLoanId,
+                        maxLoans, settings.officeHierarchy),
+                loanIds -> {
+                    final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new LinkedHashMap<>();
+                    loanIds.forEach(loanId -> loanDataMap.put(loanId, new ArrayList<>()));
+                    return loanDataMap;
+                }, (loanId, accrualDatas) -> this.loanAccrualWritePlatformService.addIncomeAndAccrualTransactions(loanId));
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private List<Throwable> processLoans(final JobName jobName, final AccrualJobSettings settings,
+            final BiFunction<Long, Integer, List<Long>> loanIdReader,
+            final Function<List<Long>, Map<Long, Collection<LoanScheduleAccrualData>>> accrualDataLoader, final LoanAccrualAction action) {
+        final int pageSize = settings.batchSize * settings.threadPoolSize;
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final List<Throwable> errors = new ArrayList<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(settings.threadPoolSize);
+        try {
+            long processedLoans = 0;
+            List<Long> loanIds = loanIdReader.apply(0L, pageSize);
+            while (!loanIds.isEmpty()) {
+                final List<Callable<List<Throwable>>> workers = new ArrayList<>();
+                for (int fromIndex = 0; fromIndex < loanIds.size(); fromIndex += settings.batchSize) {
+                    final List<Long> batch = loanIds.subList(fromIndex, Math.min(fromIndex + settings.batchSize, loanIds.size()));
+                    workers.add(() -> {
+                        ThreadLocalContextUtil.init(context);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        try {
+                            return processBatch(jobName, batch, accrualDataLoader, action);
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                            ThreadLocalContextUtil.clearTenant();
+                            ThreadLocalContextUtil.clearDataSourceContext();
+                        }
+                    });
+                }
+                for (final Future<List<Throwable>> response : executorService.invokeAll(workers)) {
+                    errors.addAll(response.get());
+                }
+                processedLoans += loanIds.size();
+                LOG.info("{}: processed {} loan(s), {} failure(s) so far", jobName, processedLoans, errors.size());
+                loanIds = loanIdReader.apply(loanIds.get(loanIds.size() - 1), pageSize);
+            }
+        } catch (InterruptedException e) {
+            LOG.error("Interrupted while executing {}", jobName, e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } catch (ExecutionException e) {
+            LOG.error("Execution exception while executing {}", jobName, e);
+            errors.add(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+        return errors;
+    }
+
+    private List<Throwable> processBatch(final JobName jobName, final List<Long> loanIds,
+            final Function<List<Long>, Map<Long, Collection<LoanScheduleAccrualData>>> accrualDataLoader, final LoanAccrualAction action) {
+        final List<Throwable> errors = new ArrayList<>();
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = accrualDataLoader.apply(loanIds);
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> loanDataMap.forEach((loanId, accrualDatas) -> {
                 try {
-                    this.loanAccrualWritePlatformService.addIncomeAndAccrualTransactions(loanId);
+                    action.execute(loanId, accrualDatas);
+                } catch (RuntimeException e) {
+                    throw e;
                 } catch (Exception e) {
-                    LOG.error("Failed to add income and accrual transaction for loan {}", loanId, e);
+                    throw new PlatformInternalServerException("error.msg.loan.accrual.failed", "Failed to add accrual for loan " + loanId,
+                            loanId, e);
+                }
+            }));
+        } catch (Exception batchException) {
+            LOG.warn("{}: batch ending with loan {} failed, processing its loans one by one", jobName, loanIds.get(loanIds.size() - 1),
+                    batchException);
+            for (final Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
+                try {
+                    action.execute(mapEntry.getKey(), mapEntry.getValue());
+                } catch (Exception e) {
+                    LOG.error("{}: failed to add accrual for loan {}", jobName, mapEntry.getKey(), e);
                     errors.add(e);
                 }
             }
-            if (!errors.isEmpty()) {
-                throw new JobExecutionException(errors);
+        }
+        return errors;
+    }
+
+    private Map<Long, Collection<LoanScheduleAccrualData>> groupByLoan(final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new LinkedHashMap<>();
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            loanDataMap.computeIfAbsent(accrualData.getLoanId(), loanId -> new ArrayList<>()).add(accrualData);
+        }
+        return loanDataMap;
+    }
+
+    private AccrualJobSettings readSettings(final Map<String, String> jobParameters) {
+        final Map<String, String> parameters = jobParameters == null ? new HashMap<>() : jobParameters;
+        final int threadPoolSize = Integer.parseInt(parameters.getOrDefault(THREAD_POOL_SIZE_PARAMETER, "" + DEFAULT_THREAD_POOL_SIZE));
+        final int batchSize = Integer.parseInt(parameters.getOrDefault(BATCH_SIZE_PARAMETER, "" + DEFAULT_BATCH_SIZE));
+        String officeHierarchy = null;
+        final String officeId = parameters.get(OFFICE_ID_PARAMETER);
+        if (officeId != null) {
+            final Long officeIdLong = Long.valueOf(officeId);
+            final OfficeData office = this.officeReadPlatformService.retrieveOffice(officeIdLong);
+            if (office == null) {
+                throw new OfficeNotFoundException(officeIdLong);
             }
+            officeHierarchy = office.getHierarchy() + "%";
+        }
+        return new AccrualJobSettings(Math.max(threadPoolSize, 1), Math.max(batchSize, 1), officeHierarchy);
+    }
+
+    @FunctionalInterface
+    private interface LoanAccrualAction {
+
+        void execute(Long loanId, Collection<LoanScheduleAccrualData> accrualDatas) throws Exception;
+    }
+
+    private static final class AccrualJobSettings {
+
+        private final int threadPoolSize;
+        private final int batchSize;
+        private final String officeHierarchy;
+
+        private AccrualJobSettings(final int threadPoolSize, final int batchSize, final String officeHierarchy) {
+            this.threadPoolSize = threadPoolSize;
+            this.batchSize = batchSize;
+            this.officeHierarchy = officeHierarchy;
         }
     }
 }
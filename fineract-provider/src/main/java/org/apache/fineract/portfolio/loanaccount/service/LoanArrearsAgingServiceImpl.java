@@ -24,9 +24,13 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -58,17 +62,33 @@ import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanScheduleP
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Maintains m_loan_arrears_aging.
+ *
+ * Besides the immediate update on loan events, every loan touched by one of those events is recorded in
+ * m_loan_arrears_aging_dirty. In incremental mode the nightly job only recalculates those loans, the loans with an
+ * installment that became overdue since the last run and the stale rows of loans which are no longer active. The rows
+ * are replaced in place, so the table is never empty while the job is running.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
 
+    public static final String INCREMENTAL_PARAMETER = "incremental";
+
+    private static final int INCREMENTAL_CHUNK_SIZE = 500;
+    private static final Long CHECKPOINT_ID = 1L;
+
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final BusinessEventNotifierService businessEventNotifierService;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
 
@@ -97,37 +117,13 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
     public void updateLoanArrearsAgeingDetails() {
 
+        final Map<Long, Long> dirtyLoanIds = retrieveDirtyLoanIds();
         this.jdbcTemplate.execute("truncate table m_loan_arrears_aging");
 
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
-        final String principalOverdueCalculationSql = "SUM(COALESCE(mr.principal_amount, 0) - coalesce(mr.principal_completed_derived, 0) - coalesce(mr.principal_writtenoff_derived, 0))";
-        final String interestOverdueCalculationSql = "SUM(COALESCE(mr.interest_amount, 0) - coalesce(mr.interest_writtenoff_derived, 0) - coalesce(mr.interest_waived_derived, 0) - "
-                + "coalesce(mr.interest_completed_derived, 0))";
-        final String feeChargesOverdueCalculationSql = "SUM(COALESCE(mr.fee_charges_amount, 0) - coalesce(mr.fee_charges_writtenoff_derived, 0) - "
-                + "coalesce(mr.fee_charges_waived_derived, 0) - coalesce(mr.fee_charges_completed_derived, 0))";
-        final String penaltyChargesOverdueCalculationSql = "SUM(COALESCE(mr.penalty_charges_amount, 0) - coalesce(mr.penalty_charges_writtenoff_derived, 0) - "
-                + "coalesce(mr.penalty_charges_waived_derived, 0) - coalesce(mr.penalty_charges_completed_derived, 0))";
-
         updateSqlBuilder.append(
                 "INSERT INTO m_loan_arrears_aging(loan_id,principal_overdue_derived,interest_overdue_derived,fee_charges_overdue_derived,penalty_charges_overdue_derived,total_overdue_derived,overdue_since_date_derived)");
-        updateSqlBuilder.append("select ml.id as loanId,");
-        updateSqlBuilder.append(principalOverdueCalculationSql + " as principal_overdue_derived,");
-        updateSqlBuilder.append(interestOverdueCalculationSql + " as interest_overdue_derived,");
-        updateSqlBuilder.append(feeChargesOverdueCalculationSql + " as fee_charges_overdue_derived,");
-        updateSqlBuilder.append(penaltyChargesOverdueCalculationSql + " as penalty_charges_overdue_derived,");
-        updateSqlBuilder.append(principalOverdueCalculationSql + "+" + interestOverdueCalculationSql + "+");
-        updateSqlBuilder.append(feeChargesOverdueCalculationSql + "+" + penaltyChargesOverdueCalculationSql + " as total_overdue_derived,");
-        updateSqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
-        updateSqlBuilder.append(" FROM m_loan ml ");
-        updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        updateSqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
-        updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
-        updateSqlBuilder.append(" and mr.completed_derived is false ");
-        updateSqlBuilder.append(" and mr.duedate < ")
-                .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "COALESCE(ml.grace_on_arrears_ageing, 0)", "day"))
-                .append(" ");
-        updateSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = false or prd.arrears_based_on_original_schedule is null) ");
-        updateSqlBuilder.append(" GROUP BY ml.id");
+        updateSqlBuilder.append(arrearsAgeingSelect(""));
 
         List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
         insertStatements.add(0, updateSqlBuilder.toString());
@@ -136,10 +132,172 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         for (int i : results) {
             result += i;
         }
+        completeRun(dirtyLoanIds.keySet(), DateUtils.getBusinessLocalDate());
 
         log.info("{}: Records affected by updateLoanArrearsAgeingDetails: {}", ThreadLocalContextUtil.getTenant().getName(), result);
     }
 
+    @Transactional
+    @Override
+    @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
+    public void updateLoanArrearsAgeingDetails(final Map<String, String> jobParameters) {
+        if (Boolean.parseBoolean(jobParameters.get(INCREMENTAL_PARAMETER))) {
+            updateLoanArrearsAgeingDetailsIncrementally();
+        } else {
+            updateLoanArrearsAgeingDetails();
+        }
+    }
+
+    private void updateLoanArrearsAgeingDetailsIncrementally() {
+        final LocalDate businessDate = DateUtils.getBusinessLocalDate();
+        final List<LocalDate> checkpoints = this.jdbcTemplate.queryForList(
+                "select processed_till_date from m_loan_arrears_aging_checkpoint where id = ?", LocalDate.class, CHECKPOINT_ID);
+        final LocalDate processedTillDate = checkpoints.isEmpty() ? null : checkpoints.get(0);
+        final Map<Long, Long> dirtyLoanIds = retrieveDirtyLoanIds();
+
+        final Set<Long> loanIds = new TreeSet<>();
+        final String gracePeriodSql = "COALESCE(ml.grace_on_arrears_ageing, 0)";
+        final StringBuilder overdueLoansSql = new StringBuilder(400);
+        overdueLoansSql.append("select distinct ml.id from m_loan ml ");
+        overdueLoansSql.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        overdueLoansSql.append(" WHERE ml.loan_status_id = 300 and mr.completed_derived is false ");
+        overdueLoansSql.append(" and mr.duedate < ")
+                .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), gracePeriodSql, "day"));
+        if (processedTillDate == null) {
+            // no previous run to start from: every loan in arrears and every existing row is recalculated
+            loanIds.addAll(this.jdbcTemplate.queryForList(overdueLoansSql.toString(), Long.class));
+            loanIds.addAll(this.jdbcTemplate.queryForList("select loan_id from m_loan_arrears_aging", Long.class));
+        } else {
+            loanIds.addAll(dirtyLoanIds.values());
+            if (processedTillDate.isBefore(businessDate)) {
+                // installments which became overdue since the previous run
+                overdueLoansSql.append(" and mr.duedate >= ").append(sqlGenerator.subDate("?", gracePeriodSql, "day"));
+                loanIds.addAll(this.jdbcTemplate.queryForList(overdueLoansSql.toString(), Long.class, processedTillDate));
+            }
+            loanIds.addAll(this.jdbcTemplate.queryForList(
+                    "select mla.loan_id from m_loan_arrears_aging mla join m_loan ml on ml.id = mla.loan_id where ml.loan_status_id <> 300",
+                    Long.class));
+        }
+
+        final List<Long> loanIdList = new ArrayList<>(loanIds);
+        int result = 0;
+        for (int fromIndex = 0; fromIndex < loanIdList.size(); fromIndex += INCREMENTAL_CHUNK_SIZE) {
+            result += recalculateLoanArrearsAgeing(
+                    loanIdList.subList(fromIndex, Math.min(fromIndex + INCREMENTAL_CHUNK_SIZE, loanIdList.size())));
+        }
+        completeRun(dirtyLoanIds.keySet(), businessDate);
+
+        log.info("{}: Loans recalculated by updateLoanArrearsAgeingDetails: {}, records written: {}",
+                ThreadLocalContextUtil.getTenant().getName(), loanIdList.size(), result);
+    }
+
+    private int recalculateLoanArrearsAgeing(final List<Long> loanIds) {
+        final Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("loanIds", loanIds);
+
+        final List<ArrearsAgeing> arrearsAgeings = this.namedParameterJdbcTemplate
+                .query(arrearsAgeingSelect(" and ml.id in (:loanIds) "), paramMap, (rs, rowNum) -> {
+                    final BigDecimal principalOverdue = rs.getBigDecimal("principal_overdue_derived");
+                    final BigDecimal interestOverdue = rs.getBigDecimal("interest_overdue_derived");
+                    final BigDecimal feeOverdue = rs.getBigDecimal("fee_charges_overdue_derived");
+                    final BigDecimal penaltyOverdue = rs.getBigDecimal("penalty_charges_overdue_derived");
+                    return new ArrearsAgeing(rs.getLong("loanId"), principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
+                            JdbcSupport.getLocalDate(rs, "overdue_since_date_derived"));
+                });
+
+        final StringBuilder originalScheduleLoansSql = new StringBuilder(400);
+        originalScheduleLoansSql.append("select distinct ml.id FROM m_loan ml ");
+        originalScheduleLoansSql.append("inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
+        originalScheduleLoansSql.append(" and prd.arrears_based_on_original_schedule = true ");
+        originalScheduleLoansSql.append("WHERE ml.loan_status_id = 300 and ml.id in (:loanIds)");
+        final List<Long> originalScheduleLoanIds = this.namedParameterJdbcTemplate.queryForList(originalScheduleLoansSql.toString(),
+                paramMap, Long.class);
+        if (!originalScheduleLoanIds.isEmpty()) {
+            String loanIdsAsString = originalScheduleLoanIds.toString();
+            loanIdsAsString = loanIdsAsString.substring(1, loanIdsAsString.length() - 1);
+            OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanIdsAsString, sqlGenerator);
+            Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
+                    originalScheduleExtractor);
+            updateSchheduleWithPaidDetail(scheduleDate, getLoanSummary(loanIdsAsString));
+            arrearsAgeings.addAll(calculateArrearsWithOriginalSchedule(scheduleDate));
+        }
+
+        // replaced within the job transaction, readers keep seeing the previous rows until it commits
+        this.namedParameterJdbcTemplate.update("DELETE FROM m_loan_arrears_aging WHERE loan_id in (:loanIds)", paramMap);
+        final String insertSql = "INSERT INTO m_loan_arrears_aging(loan_id,principal_overdue_derived,interest_overdue_derived,"
+                + "fee_charges_overdue_derived,penalty_charges_overdue_derived,total_overdue_derived,overdue_since_date_derived) "
+                + "VALUES(?,?,?,?,?,?,?)";
+        this.jdbcTemplate.batchUpdate(insertSql, arrearsAgeings, arrearsAgeings.size(), (ps, arrearsAgeing) -> {
+            ps.setLong(1, arrearsAgeing.loanId);
+            ps.setBigDecimal(2, arrearsAgeing.principalOverdue);
+            ps.setBigDecimal(3, arrearsAgeing.interestOverdue);
+            ps.setBigDecimal(4, arrearsAgeing.feeOverdue);
+            ps.setBigDecimal(5, arrearsAgeing.penaltyOverdue);
+            ps.setBigDecimal(6, arrearsAgeing.totalOverdue());
+            ps.setObject(7, arrearsAgeing.overdueSince);
+        });
+        return arrearsAgeings.size();
+    }
+
+    /**
+     * Returns the loan ids of the dirty rows visible now, keyed by the id of the row. Rows of transactions which commit
+     * later may still get lower ids, so only the rows read here are removed once the run completes.
+     */
+    private Map<Long, Long> retrieveDirtyLoanIds() {
+        final Map<Long, Long> dirtyLoanIds = new LinkedHashMap<>();
+        this.jdbcTemplate.query("select id, loan_id from m_loan_arrears_aging_dirty", (RowCallbackHandler) rs -> {
+            dirtyLoanIds.put(rs.getLong("id"), rs.getLong("loan_id"));
+        });
+        return dirtyLoanIds;
+    }
+
+    private void completeRun(final Collection<Long> dirtyIds, final LocalDate businessDate) {
+        final List<Long> dirtyIdList = new ArrayList<>(dirtyIds);
+        for (int fromIndex = 0; fromIndex < dirtyIdList.size(); fromIndex += INCREMENTAL_CHUNK_SIZE) {
+            final Map<String, Object> paramMap = new HashMap<>(1);
+            paramMap.put("ids", dirtyIdList.subList(fromIndex, Math.min(fromIndex + INCREMENTAL_CHUNK_SIZE, dirtyIdList.size())));
+            this.namedParameterJdbcTemplate.update("DELETE FROM m_loan_arrears_aging_dirty WHERE id in (:ids)", paramMap);
+        }
+        final int updated = this.jdbcTemplate.update("UPDATE m_loan_arrears_aging_checkpoint SET processed_till_date = ? WHERE id = ?",
+                businessDate, CHECKPOINT_ID);
+        if (updated == 0) {
+            this.jdbcTemplate.update("INSERT INTO m_loan_arrears_aging_checkpoint(id, processed_till_date) VALUES(?,?)", CHECKPOINT_ID,
+                    businessDate);
+        }
+    }
+
+    private String arrearsAgeingSelect(final String additionalCondition) {
+        final StringBuilder selectSqlBuilder = new StringBuilder(900);
+        final String principalOverdueCalculationSql = "SUM(COALESCE(mr.principal_amount, 0) - coalesce(mr.principal_completed_derived, 0) - coalesce(mr.principal_writtenoff_derived, 0))";
+        final String interestOverdueCalculationSql = "SUM(COALESCE(mr.interest_amount, 0) - coalesce(mr.interest_writtenoff_derived, 0) - coalesce(mr.interest_waived_derived, 0) - "
+                + "coalesce(mr.interest_completed_derived, 0))";
+        final String feeChargesOverdueCalculationSql = "SUM(COALESCE(mr.fee_charges_amount, 0) - coalesce(mr.fee_charges_writtenoff_derived, 0) - "
+                + "coalesce(mr.fee_charges_waived_derived, 0) - coalesce(mr.fee_charges_completed_derived, 0))";
+        final String penaltyChargesOverdueCalculationSql = "SUM(COALESCE(mr.penalty_charges_amount, 0) - coalesce(mr.penalty_charges_writtenoff_derived, 0) - "
+                + "coalesce(mr.penalty_charges_waived_derived, 0) - coalesce(mr.penalty_charges_completed_derived, 0))";
+
+        selectSqlBuilder.append("select ml.id as loanId,");
+        selectSqlBuilder.append(principalOverdueCalculationSql + " as principal_overdue_derived,");
+        selectSqlBuilder.append(interestOverdueCalculationSql + " as interest_overdue_derived,");
+        selectSqlBuilder.append(feeChargesOverdueCalculationSql + " as fee_charges_overdue_derived,");
+        selectSqlBuilder.append(penaltyChargesOverdueCalculationSql + " as penalty_charges_overdue_derived,");
+        selectSqlBuilder.append(principalOverdueCalculationSql + "+" + interestOverdueCalculationSql + "+");
+        selectSqlBuilder.append(feeChargesOverdueCalculationSql + "+" + penaltyChargesOverdueCalculationSql + " as total_overdue_derived,");
+        selectSqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
+        selectSqlBuilder.append(" FROM m_loan ml ");
+        selectSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        selectSqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
+        selectSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
+        selectSqlBuilder.append(" and mr.completed_derived is false ");
+        selectSqlBuilder.append(" and mr.duedate < ")
+                .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "COALESCE(ml.grace_on_arrears_ageing, 0)", "day"))
+                .append(" ");
+        selectSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = false or prd.arrears_based_on_original_schedule is null) ");
+        selectSqlBuilder.append(additionalCondition);
+        selectSqlBuilder.append(" GROUP BY ml.id");
+        return selectSqlBuilder.toString();
+    }
+
     @Override
     public void updateLoanArrearsAgeingDetailsWithOriginalSchedule(final Loan loan) {
         int count = this.jdbcTemplate.queryForObject("select count(mla.loan_id) from m_loan_arrears_aging mla where mla.loan_id =?",
@@ -272,6 +430,21 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
 
     private void createInsertStatements(List<String> insertStatement, Map<Long, List<LoanSchedulePeriodData>> scheduleDate,
             boolean isInsertStatement) {
+        for (ArrearsAgeing arrearsAgeing : calculateArrearsWithOriginalSchedule(scheduleDate)) {
+            String sqlStatement = null;
+            if (isInsertStatement) {
+                sqlStatement = constructInsertStatement(arrearsAgeing.loanId, arrearsAgeing.principalOverdue, arrearsAgeing.interestOverdue,
+                        arrearsAgeing.feeOverdue, arrearsAgeing.penaltyOverdue, arrearsAgeing.overdueSince);
+            } else {
+                sqlStatement = constructUpdateStatement(arrearsAgeing.loanId, arrearsAgeing.principalOverdue, arrearsAgeing.interestOverdue,
+                        arrearsAgeing.feeOverdue, arrearsAgeing.penaltyOverdue, arrearsAgeing.overdueSince);
+            }
+            insertStatement.add(sqlStatement);
+        }
+    }
+
+    private List<ArrearsAgeing> calculateArrearsWithOriginalSchedule(Map<Long, List<LoanSchedulePeriodData>> scheduleDate) {
+        final List<ArrearsAgeing> arrearsAgeings = new ArrayList<>();
         for (Map.Entry<Long, List<LoanSchedulePeriodData>> entry : scheduleDate.entrySet()) {
             final Long loanId = entry.getKey();
             BigDecimal principalOverdue = BigDecimal.ZERO;
@@ -296,18 +469,10 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
                 }
             }
             if (principalOverdue.compareTo(BigDecimal.ZERO) > 0) {
-                String sqlStatement = null;
-                if (isInsertStatement) {
-                    sqlStatement = constructInsertStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                } else {
-                    sqlStatement = constructUpdateStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                }
-                insertStatement.add(sqlStatement);
+                arrearsAgeings.add(new ArrearsAgeing(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue, overDueSince));
             }
-
         }
+        return arrearsAgeings;
     }
 
     private String constructInsertStatement(final Long loanId, BigDecimal principalOverdue, BigDecimal interestOverdue,
@@ -479,7 +644,38 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         }
     }
 
+    private static final class ArrearsAgeing {
+
+        private final Long loanId;
+        private final BigDecimal principalOverdue;
+        private final BigDecimal interestOverdue;
+        private final BigDecimal feeOverdue;
+        private final BigDecimal penaltyOverdue;
+        private final LocalDate overdueSince;
+
+        ArrearsAgeing(final Long loanId, final BigDecimal principalOverdue, final BigDecimal interestOverdue, final BigDecimal feeOverdue,
+                final BigDecimal penaltyOverdue, final LocalDate overdueSince) {
+            this.loanId = loanId;
+            this.principalOverdue = principalOverdue;
+            this.interestOverdue = interestOverdue;
+            this.feeOverdue = feeOverdue;
+            this.penaltyOverdue = penaltyOverdue;
+            this.overdueSince = overdueSince;
+        }
+
+        BigDecimal totalOverdue() {
+            return principalOverdue.add(interestOverdue).add(feeOverdue).add(penaltyOverdue);
+        }
+    }
+
+    private void markLoanForArrearsAgeing(Loan loan) {
+        if (loan != null && loan.getId() != null) {
+            this.jdbcTemplate.update("INSERT INTO m_loan_arrears_aging_dirty(loan_id) VALUES(?)", loan.getId());
+        }
+    }
+
     private void handleArrearsForLoan(Loan loan) {
+        markLoanForArrearsAgeing(loan);
         if (loan != null && loan.isOpen() && loan.repaymentScheduleDetail().isInterestRecalculationEnabled()
                 && loan.loanProduct().isArrearsBasedOnOriginalSchedule()) {
             updateLoanArrearsAgeingDetailsWithOriginalSchedule(loan);
@@ -597,6 +793,7 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         @Override
         public void onBusinessEvent(LoanDisbursalBusinessEvent event) {
             Loan loan = event.get();
+            markLoanForArrearsAgeing(loan);
             updateLoanArrearsAgeingDetails(loan);
         }
     }
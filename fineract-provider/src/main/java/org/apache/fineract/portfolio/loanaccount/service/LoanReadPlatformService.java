@@ -22,6 +22,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.organisation.staff.data.StaffData;
@@ -92,6 +93,17 @@ public interface LoanReadPlatformService {
      */
     Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(Long penaltyWaitPeriod, Boolean backdatePenalties);
 
+    /*
+     * Same as retrieveAllLoansWithOverdueInstallments, restricted to a single loan.
+     */
+    Collection<OverdueLoanScheduleData> retrieveOverdueInstallmentsForLoan(Long loanId, Long penaltyWaitPeriod, Boolean backdatePenalties);
+
+    /*
+     * Same as retrieveAllLoansWithOverdueInstallments, restricted to the given loans and grouped by loan id.
+     */
+    Map<Long, List<OverdueLoanScheduleData>> retrieveOverdueInstallmentsForLoans(Collection<Long> loanIds, Long penaltyWaitPeriod,
+            Boolean backdatePenalties);
+
     Integer retriveLoanCounter(Long groupId, Integer loanType, Long productId);
 
     Integer retriveLoanCounter(Long clientId, Long productId);
@@ -104,12 +116,20 @@ public interface LoanReadPlatformService {
 
     Collection<LoanScheduleAccrualData> retriveScheduleAccrualData();
 
+    List<Long> retriveScheduleAccrualLoanIds(Long afterLoanId, int maxLoans, String officeHierarchy);
+
+    Collection<LoanScheduleAccrualData> retriveScheduleAccrualData(Collection<Long> loanIds);
+
     LoanTransactionData retrieveRecoveryPaymentTemplate(Long loanId);
 
     LoanTransactionData retrieveLoanWriteoffTemplate(Long loanId);
 
     Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate);
 
+    List<Long> retrivePeriodicAccrualLoanIds(LocalDate tillDate, Long afterLoanId, int maxLoans, String officeHierarchy);
+
+    Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate, Collection<Long> loanIds);
+
     Collection<Long> fetchLoansForInterestRecalculation();
 
     List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy);
@@ -134,6 +154,8 @@ public interface LoanReadPlatformService {
 
     Collection<Long> retrieveLoanIdsWithPendingIncomePostingTransactions();
 
+    List<Long> retrieveLoanIdsWithPendingIncomePostingTransactions(Long afterLoanId, int maxLoans, String officeHierarchy);
+
     LoanTransactionData retrieveLoanForeclosureTemplate(Long loanId, LocalDate transactionDate);
 
     LoanAccountData retrieveLoanByLoanAccount(String loanAccountNumber);
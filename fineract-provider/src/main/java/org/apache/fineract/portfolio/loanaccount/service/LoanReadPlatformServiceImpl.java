@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.accounting.common.AccountingRuleType;
 import org.apache.fineract.infrastructure.codes.data.CodeValueData;
@@ -41,6 +42,7 @@ import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PageCountMode;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
@@ -124,6 +126,7 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -312,6 +315,8 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         extraCriterias.add(hierarchySearchString);
         extraCriterias.add(hierarchySearchString);
 
+        String sqlCountRows = null;
+        Object[] countArgs = null;
         if (searchParameters != null) {
 
             String sqlQueryCriteria = searchParameters.getSqlSearch();
@@ -339,7 +344,19 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 arrayPos = arrayPos + 1;
             }
 
-            if (searchParameters.isOrderByRequested()) {
+            // the total of a keyset page counts the whole list, not only the rows past the cursor
+            sqlCountRows = sqlBuilder.toString();
+            countArgs = extraCriterias.toArray();
+
+            if (searchParameters.isAfterIdBound()) {
+                sqlBuilder.append(" and ").append(searchParameters.keysetConditionSql("l.id"));
+                extraCriterias.add(searchParameters.getAfterId());
+                arrayPos = arrayPos + 1;
+            }
+
+            if (searchParameters.isAfterIdPassed()) {
+                sqlBuilder.append(searchParameters.keysetOrderBySql("l.id"));
+            } else if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
 
@@ -360,7 +377,13 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
         final Object[] objectArray = extraCriterias.toArray();
         final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, this.loaanLoanMapper);
+        final PageCountMode countMode = searchParameters == null ? PageCountMode.EXACT : searchParameters.getCountMode();
+        if (searchParameters != null && searchParameters.isAfterIdPassed()) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, sqlCountRows, countArgs,
+                    this.loaanLoanMapper, countMode);
+        }
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, this.loaanLoanMapper,
+                countMode);
     }
 
     @Override
@@ -1528,22 +1551,54 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     public Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(final Long penaltyWaitPeriod,
             final Boolean backdatePenalties) {
         final MusoniOverdueLoanScheduleMapper rm = new MusoniOverdueLoanScheduleMapper();
+        final String sql = "select " + rm.schema() + overdueInstallmentsCondition(backdatePenalties);
+        return this.jdbcTemplate.query(sql, rm, overdueInstallmentsParameters(penaltyWaitPeriod, backdatePenalties)); // NOSONAR
+    }
 
+    @Override
+    public Collection<OverdueLoanScheduleData> retrieveOverdueInstallmentsForLoan(final Long loanId, final Long penaltyWaitPeriod,
+            final Boolean backdatePenalties) {
+        final MusoniOverdueLoanScheduleMapper rm = new MusoniOverdueLoanScheduleMapper();
+        final String sql = "select " + rm.schema() + overdueInstallmentsCondition(backdatePenalties) + " and ml.id = ? ";
+        final List<Object> params = new ArrayList<>(Arrays.asList(overdueInstallmentsParameters(penaltyWaitPeriod, backdatePenalties)));
+        params.add(loanId);
+        return this.jdbcTemplate.query(sql, rm, params.toArray()); // NOSONAR
+    }
+
+    @Override
+    public Map<Long, List<OverdueLoanScheduleData>> retrieveOverdueInstallmentsForLoans(final Collection<Long> loanIds,
+            final Long penaltyWaitPeriod, final Boolean backdatePenalties) {
+        if (loanIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        final MusoniOverdueLoanScheduleMapper rm = new MusoniOverdueLoanScheduleMapper();
+        final String sql = "select " + rm.schema() + overdueInstallmentsCondition(backdatePenalties).replace("?", ":penaltyWaitPeriod")
+                + " and ml.id in (:loanIds) ";
+        final MapSqlParameterSource params = new MapSqlParameterSource().addValue("penaltyWaitPeriod", penaltyWaitPeriod)
+                .addValue("loanIds", loanIds);
+        return this.namedParameterJdbcTemplate.query(sql, params, rm).stream() // NOSONAR
+                .collect(Collectors.groupingBy(OverdueLoanScheduleData::getLoanId));
+    }
+
+    private String overdueInstallmentsCondition(final Boolean backdatePenalties) {
         final StringBuilder sqlBuilder = new StringBuilder(400);
-        sqlBuilder.append("select ").append(rm.schema())
-                .append(" where " + sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "?", "day") + " > ls.duedate ")
+        sqlBuilder.append(" where " + sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "?", "day") + " > ls.duedate ")
                 .append(" and ls.completed_derived <> true and mc.charge_applies_to_enum =1 ")
                 .append(" and ls.recalculated_interest_component <> true ")
                 .append(" and mc.charge_time_enum = 9 and ml.loan_status_id = 300 ");
+        if (!backdatePenalties) {
+            // Only apply for duedate = yesterday (so that we don't apply
+            // penalties on the duedate itself)
+            sqlBuilder.append(" and ls.duedate >= " + sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "(? + 1)", "day"));
+        }
+        return sqlBuilder.toString();
+    }
 
+    private Object[] overdueInstallmentsParameters(final Long penaltyWaitPeriod, final Boolean backdatePenalties) {
         if (backdatePenalties) {
-            return this.jdbcTemplate.query(sqlBuilder.toString(), rm, penaltyWaitPeriod);
+            return new Object[] { penaltyWaitPeriod };
         }
-        // Only apply for duedate = yesterday (so that we don't apply
-        // penalties on the duedate itself)
-        sqlBuilder.append(" and ls.duedate >= " + sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "(? + 1)", "day"));
-
-        return this.jdbcTemplate.query(sqlBuilder.toString(), rm, penaltyWaitPeriod, penaltyWaitPeriod);
+        return new Object[] { penaltyWaitPeriod, penaltyWaitPeriod };
     }
 
     @SuppressWarnings("deprecation")
@@ -1641,9 +1696,40 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     public Collection<LoanScheduleAccrualData> retriveScheduleAccrualData() {
 
         LoanScheduleAccrualMapper mapper = new LoanScheduleAccrualMapper();
+        final Map<String, Object> paramMap = new HashMap<>(4);
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select ").append(mapper.schema()).append(scheduleAccrualCondition(paramMap));
+        sqlBuilder.append(" order by loan.id,ls.duedate ");
+
+        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+    }
+
+    @Override
+    public List<Long> retriveScheduleAccrualLoanIds(final Long afterLoanId, final int maxLoans, final String officeHierarchy) {
+        final Map<String, Object> paramMap = new HashMap<>(6);
+        final String condition = scheduleAccrualCondition(paramMap);
+        return retrieveAccrualLoanIds(condition, paramMap, afterLoanId, maxLoans, officeHierarchy);
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retriveScheduleAccrualData(final Collection<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LoanScheduleAccrualMapper mapper = new LoanScheduleAccrualMapper();
+        final Map<String, Object> paramMap = new HashMap<>(5);
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select ").append(mapper.schema()).append(scheduleAccrualCondition(paramMap));
+        sqlBuilder.append(" and loan.id in (:loanIds) order by loan.id,ls.duedate ");
+        paramMap.put("loanIds", loanIds);
+
+        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+    }
+
+    private String scheduleAccrualCondition(final Map<String, Object> paramMap) {
         LocalDate organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
         final StringBuilder sqlBuilder = new StringBuilder(400);
-        sqlBuilder.append("select ").append(mapper.schema()).append(
+        sqlBuilder.append(
                 " where (recaldet.is_compounding_to_be_posted_as_transaction is null or recaldet.is_compounding_to_be_posted_as_transaction = false) ")
                 .append(" and (((ls.fee_charges_amount <> COALESCE(ls.accrual_fee_charges_derived, 0))")
                 .append(" or ( ls.penalty_charges_amount <> COALESCE(ls.accrual_penalty_charges_derived, 0))")
@@ -1652,40 +1738,91 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         if (organisationStartDate != null) {
             sqlBuilder.append(" and ls.duedate > :organisationStartDate ");
         }
-        sqlBuilder.append(" order by loan.id,ls.duedate ");
-        Map<String, Object> paramMap = new HashMap<>(3);
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("organisationStartDate", (organisationStartDate == null) ? DateUtils.getBusinessLocalDate() : organisationStartDate);
         paramMap.put("currentDate", DateUtils.getBusinessLocalDate());
+        return sqlBuilder.toString();
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate) {
+
+        LoanSchedulePeriodicAccrualMapper mapper = new LoanSchedulePeriodicAccrualMapper();
+        final Map<String, Object> paramMap = new HashMap<>(4);
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select ").append(mapper.schema()).append(periodicAccrualCondition(tillDate, paramMap));
+        sqlBuilder.append(" order by loan.id,ls.duedate ");
 
         return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
     }
 
     @Override
-    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate) {
+    public List<Long> retrivePeriodicAccrualLoanIds(final LocalDate tillDate, final Long afterLoanId, final int maxLoans,
+            final String officeHierarchy) {
+        final Map<String, Object> paramMap = new HashMap<>(6);
+        final String condition = periodicAccrualCondition(tillDate, paramMap);
+        return retrieveAccrualLoanIds(condition, paramMap, afterLoanId, maxLoans, officeHierarchy);
+    }
 
+    @Override
+    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate, final Collection<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return Collections.emptyList();
+        }
         LoanSchedulePeriodicAccrualMapper mapper = new LoanSchedulePeriodicAccrualMapper();
+        final Map<String, Object> paramMap = new HashMap<>(5);
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select ").append(mapper.schema()).append(periodicAccrualCondition(tillDate, paramMap));
+        sqlBuilder.append(" and loan.id in (:loanIds) order by loan.id,ls.duedate ");
+        paramMap.put("loanIds", loanIds);
+
+        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+    }
+
+    private String periodicAccrualCondition(final LocalDate tillDate, final Map<String, Object> paramMap) {
         LocalDate organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
         final StringBuilder sqlBuilder = new StringBuilder(400);
-        sqlBuilder.append("select ").append(mapper.schema()).append(
+        sqlBuilder.append(
                 " where  (recaldet.is_compounding_to_be_posted_as_transaction is null or recaldet.is_compounding_to_be_posted_as_transaction = false) ")
                 .append(" and (((ls.fee_charges_amount <> COALESCE(ls.accrual_fee_charges_derived, 0))")
                 .append(" or (ls.penalty_charges_amount <> COALESCE(ls.accrual_penalty_charges_derived, 0))")
                 .append(" or (ls.interest_amount <> COALESCE(ls.accrual_interest_derived, 0)))")
                 .append(" and loan.loan_status_id=:active and mpl.accounting_type=:type and (loan.closedon_date <= :tillDate or loan.closedon_date is null)")
                 .append(" and loan.is_npa=false and (ls.duedate <= :tillDate or (ls.duedate > :tillDate and ls.fromdate < :tillDate))) ");
-        Map<String, Object> paramMap = new HashMap<>(4);
         if (organisationStartDate != null) {
             sqlBuilder.append(" and ls.duedate > :organisationStartDate ");
             paramMap.put("organisationStartDate", organisationStartDate);
         }
-        sqlBuilder.append(" order by loan.id,ls.duedate ");
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("tillDate", tillDate);
+        return sqlBuilder.toString();
+    }
 
-        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+    /**
+     * Next page of distinct loan ids matching the given accrual condition, optionally restricted to an office hierarchy.
+     */
+    private List<Long> retrieveAccrualLoanIds(final String condition, final Map<String, Object> paramMap, final Long afterLoanId,
+            final int maxLoans, final String officeHierarchy) {
+        final StringBuilder sqlBuilder = new StringBuilder(600);
+        sqlBuilder.append("select distinct loan.id from m_loan_repayment_schedule ls ");
+        sqlBuilder.append(" join m_loan loan on loan.id = ls.loan_id ");
+        sqlBuilder.append(" left join m_product_loan mpl on mpl.id = loan.product_id ");
+        sqlBuilder.append(" left join m_loan_recalculation_details as recaldet on loan.id = recaldet.loan_id ");
+        if (officeHierarchy != null) {
+            sqlBuilder.append(" left join m_client mc on mc.id = loan.client_id ").append(" left join m_group mg on mg.id = loan.group_id ");
+            sqlBuilder.append(" join m_office o on o.id = (CASE WHEN loan.client_id is null THEN mg.office_id ELSE mc.office_id END) ");
+        }
+        sqlBuilder.append(condition).append(" and loan.id > :afterLoanId ");
+        if (officeHierarchy != null) {
+            sqlBuilder.append(" and o.hierarchy like :officeHierarchy ");
+            paramMap.put("officeHierarchy", officeHierarchy);
+        }
+        sqlBuilder.append(" order by loan.id ").append(sqlGenerator.limit(maxLoans));
+        paramMap.put("afterLoanId", afterLoanId);
+
+        return this.namedParameterJdbcTemplate.queryForList(sqlBuilder.toString(), paramMap, Long.class);
     }
 
     private static final class LoanSchedulePeriodicAccrualMapper implements RowMapper<LoanScheduleAccrualData> {
@@ -2170,9 +2307,36 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
     }
 
+    @Override
+    public List<Long> retrieveLoanIdsWithPendingIncomePostingTransactions(final Long afterLoanId, final int maxLoans,
+            final String officeHierarchy) {
+        final StringBuilder sqlBuilder = new StringBuilder(pendingIncomePostingLoanIdsQuery());
+        final List<Object> params = new ArrayList<>();
+        params.add(DateUtils.getBusinessLocalDate());
+        sqlBuilder.append(" and loan.id > ? ");
+        params.add(afterLoanId);
+        if (officeHierarchy != null) {
+            sqlBuilder.append(" and exists (select 1 from m_office o left join m_client mc on mc.id = loan.client_id ")
+                    .append(" left join m_group mg on mg.id = loan.group_id ")
+                    .append(" where o.id = (CASE WHEN loan.client_id is null THEN mg.office_id ELSE mc.office_id END) ")
+                    .append(" and o.hierarchy like ?) ");
+            params.add(officeHierarchy);
+        }
+        sqlBuilder.append(" order by loan.id ").append(sqlGenerator.limit(maxLoans));
+        return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, params.toArray());
+    }
+
     @Override
     public Collection<Long> retrieveLoanIdsWithPendingIncomePostingTransactions() {
         LocalDate currentdate = DateUtils.getBusinessLocalDate();
+        try {
+            return this.jdbcTemplate.queryForList(pendingIncomePostingLoanIdsQuery(), new Object[] { currentdate }, Long.class);
+        } catch (final EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    private String pendingIncomePostingLoanIdsQuery() {
         StringBuilder sqlBuilder = new StringBuilder().append(" select distinct loan.id ").append(" from m_loan as loan ").append(
                 " inner join m_loan_recalculation_details as recdet on (recdet.loan_id = loan.id and recdet.is_compounding_to_be_posted_as_transaction is not null and recdet.is_compounding_to_be_posted_as_transaction = true) ")
                 .append(" inner join m_loan_repayment_schedule as repsch on repsch.loan_id = loan.id ")
@@ -2181,11 +2345,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 .append(" where loan.loan_status_id = 300 ").append(" and loan.is_npa = false ")
                 .append(" and adddet.effective_date is not null ").append(" and trans.transaction_date is null ")
                 .append(" and adddet.effective_date < ? ");
-        try {
-            return this.jdbcTemplate.queryForList(sqlBuilder.toString(), new Object[] { currentdate }, Long.class);
-        } catch (final EmptyResultDataAccessException e) {
-            return null;
-        }
+        return sqlBuilder.toString();
     }
 
     @Override
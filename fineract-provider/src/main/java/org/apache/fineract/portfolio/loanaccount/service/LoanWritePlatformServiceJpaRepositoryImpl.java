@@ -34,6 +34,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -108,6 +111,7 @@ import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanDelete
 import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanUpdateChargeBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanWaiveChargeBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanWaiveChargeUndoBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanUndoWrittenOffBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanWaiveInterestBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanWrittenOffPostBusinessEvent;
@@ -181,6 +185,7 @@ import org.apache.fineract.portfolio.loanaccount.domain.LoanTrancheDisbursementC
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionRepository;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionType;
+import org.apache.fineract.portfolio.loanaccount.domain.PendingLoanRepayment;
 import org.apache.fineract.portfolio.loanaccount.exception.DateMismatchException;
 import org.apache.fineract.portfolio.loanaccount.exception.ExceedingTrancheCountException;
 import org.apache.fineract.portfolio.loanaccount.exception.InstallmentNotFoundException;
@@ -270,6 +275,9 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     private final RepaymentWithPostDatedChecksAssembler repaymentWithPostDatedChecksAssembler;
     private final PostDatedChecksRepository postDatedChecksRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
         final List<LoanStatus> allowedLoanStatuses = Arrays.asList(LoanStatus.values());
         return new DefaultLoanLifecycleStateMachine(allowedLoanStatuses);
@@ -952,13 +960,11 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
 
         final SingleRepaymentCommand[] repaymentCommand = bulkRepaymentCommand.getLoanTransactions();
         final Map<String, Object> changes = new LinkedHashMap<>();
-        final boolean isRecoveryRepayment = false;
 
         if (repaymentCommand == null) {
             return changes;
         }
         List<Long> transactionIds = new ArrayList<>();
-        boolean isAccountTransfer = false;
         HolidayDetailDTO holidayDetailDTO = null;
         Boolean isHolidayValidationDone = false;
         final boolean allowTransactionsOnHoliday = this.configurationDomainService.allowTransactionsOnHolidayEnabled();
@@ -982,20 +988,58 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             }
 
         }
+        // a collection sheet covers the loans of a whole center, load them with their collections in a few batched
+        // queries, the repayments below then find them in the persistence context instead of loading each one again
+        final List<Long> loanIds = new ArrayList<>();
         for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             if (singleLoanRepaymentCommand != null) {
-                final Loan loan = this.loanAssembler.assembleFrom(singleLoanRepaymentCommand.getLoanId());
-                final PaymentDetail paymentDetail = singleLoanRepaymentCommand.getPaymentDetail();
-                if (paymentDetail != null && paymentDetail.getId() == null) {
-                    this.paymentDetailWritePlatformService.persistPaymentDetail(paymentDetail);
+                loanIds.add(singleLoanRepaymentCommand.getLoanId());
+            }
+        }
+        this.loanRepositoryWrapper.findAllWithLazyCollections(loanIds);
+
+        // the repayments are applied to the loans in memory, without a flush per loan (or before each query, which
+        // would go through every loan of the sheet again), and written together once all loans are done. Applying a
+        // repayment only reads the state of its own loan, which no other repayment of the sheet has changed yet.
+        final List<PendingLoanRepayment> repayments = new ArrayList<>();
+        final Set<Long> appliedLoanIds = new HashSet<>();
+        final FlushModeType flushMode = this.entityManager.getFlushMode();
+        this.entityManager.setFlushMode(FlushModeType.COMMIT);
+        try {
+            for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
+                if (singleLoanRepaymentCommand != null) {
+                    if (!appliedLoanIds.add(singleLoanRepaymentCommand.getLoanId())) {
+                        // a second repayment of the same loan needs the first one written, with its transaction id
+                        this.entityManager.flush();
+                    }
+                    final Loan loan = this.loanAssembler.assembleFrom(singleLoanRepaymentCommand.getLoanId());
+                    final PaymentDetail paymentDetail = singleLoanRepaymentCommand.getPaymentDetail();
+                    if (paymentDetail != null && paymentDetail.getId() == null) {
+                        this.paymentDetailWritePlatformService.persistPaymentDetail(paymentDetail);
+                    }
+                    repayments.add(this.loanAccountDomainService.applyBulkRepayment(loan, bulkRepaymentCommand.getTransactionDate(),
+                            singleLoanRepaymentCommand.getTransactionAmount(), paymentDetail, bulkRepaymentCommand.getNote(),
+                            holidayDetailDTO, isHolidayValidationDone));
                 }
-                final CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder();
-                LoanTransaction loanTransaction = this.loanAccountDomainService.makeRepayment(LoanTransactionType.REPAYMENT, loan,
-                        commandProcessingResultBuilder, bulkRepaymentCommand.getTransactionDate(),
-                        singleLoanRepaymentCommand.getTransactionAmount(), paymentDetail, bulkRepaymentCommand.getNote(), null,
-                        isRecoveryRepayment, isAccountTransfer, holidayDetailDTO, isHolidayValidationDone);
-                transactionIds.add(loanTransaction.getId());
             }
+            // one flush for the transactions and installments of the whole sheet, which also assigns the transaction ids
+            // the journal entries refer to
+            this.entityManager.flush();
+        } finally {
+            this.entityManager.setFlushMode(flushMode);
+        }
+
+        // posted one repayment after the other in the flush mode of the caller, and written before the next one, as the
+        // journal entries and accruals are partly read back with plain JDBC, which doesn't see unflushed changes (the
+        // journal entries themselves are accumulated until the commit)
+        final List<LoanTransactionBusinessEvent> postEvents = new ArrayList<>(repayments.size());
+        for (final PendingLoanRepayment repayment : repayments) {
+            postEvents.add(this.loanAccountDomainService.completeBulkRepayment(repayment));
+            this.entityManager.flush();
+            transactionIds.add(repayment.getTransaction().getId());
+        }
+        for (final LoanTransactionBusinessEvent postEvent : postEvents) {
+            this.businessEventNotifierService.notifyPostBusinessEvent(postEvent);
         }
         changes.put("loanTransactions", transactionIds);
         return changes;
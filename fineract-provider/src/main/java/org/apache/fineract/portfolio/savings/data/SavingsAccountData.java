@@ -39,6 +39,7 @@ import org.apache.fineract.portfolio.charge.data.ChargeData;
 import org.apache.fineract.portfolio.client.data.ClientData;
 import org.apache.fineract.portfolio.group.data.GroupGeneralData;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountInterestCheckpoint;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionSummaryWrapper;
 import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
 import org.apache.fineract.portfolio.tax.data.TaxGroupData;
@@ -118,6 +119,8 @@ public final class SavingsAccountData implements Serializable {
 
     private transient SavingsAccountTransactionData lastSavingsAccountTransaction;
 
+    private transient SavingsAccountInterestCheckpoint interestCheckpoint;
+
     private List<DatatableData> datatables = null;
 
     // import field
@@ -1114,4 +1117,15 @@ public final class SavingsAccountData implements Serializable {
     public void setLastSavingsAccountTransaction(SavingsAccountTransactionData lastSavingsAccountTransaction) {
         this.lastSavingsAccountTransaction = lastSavingsAccountTransaction;
     }
+
+    public SavingsAccountInterestCheckpoint getInterestCheckpoint() {
+        if (this.interestCheckpoint == null) {
+            this.interestCheckpoint = SavingsAccountInterestCheckpoint.empty();
+        }
+        return this.interestCheckpoint;
+    }
+
+    public void setInterestCheckpoint(final SavingsAccountInterestCheckpoint interestCheckpoint) {
+        this.interestCheckpoint = interestCheckpoint;
+    }
 }
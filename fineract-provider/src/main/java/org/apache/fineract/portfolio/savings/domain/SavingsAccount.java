@@ -301,6 +301,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
     @Embedded
     protected SavingsAccountSummary summary;
 
+    @Embedded
+    protected SavingsAccountInterestCheckpoint interestCheckpoint;
+
     @OrderBy(value = "dateOf, createdDate, id")
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "savingsAccount", orphanRemoval = true, fetch = FetchType.LAZY)
     protected List<SavingsAccountTransaction> transactions = new ArrayList<>();
@@ -625,17 +628,76 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
             // update existing transactions so derived balance fields are
             // correct.
-            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, backdatedTxnsAllowedTill, postReversals);
+            final SavingsAccountInterestCheckpoint checkpoint = findUsableInterestCheckpoint(interestPostingUpToDate, postInterestOnDate,
+                    backdatedTxnsAllowedTill);
+            if (checkpoint != null) {
+                recalculateDailyBalancesAfterCheckpoint(checkpoint.getCheckpointDate(), interestPostingUpToDate, postReversals);
+            } else {
+                recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, backdatedTxnsAllowedTill, postReversals);
+            }
         }
 
         if (!backdatedTxnsAllowedTill) {
             this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+            if (depositAccountType().isSavingsDeposit()) {
+                updateInterestCheckpoint(postingPeriods, interestPostingUpToDate);
+            }
         } else {
             this.summary.updateSummaryWithPivotConfig(this.currency, this.savingsAccountTransactionSummaryWrapper, null,
                     this.savingsAccountTransactions);
         }
     }
 
+    /**
+     * Moves the interest checkpoint to the end of the last posting period that is complete and posted as of the given date.
+     * Must be called once the interest posting transactions of the periods are in place.
+     */
+    private void updateInterestCheckpoint(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate) {
+        // the total earned includes the periods preceding postingPeriods when they were calculated from a checkpoint
+        Money interestEarnedToDate = Money.of(this.currency, this.summary.getTotalInterestEarned());
+        for (int i = postingPeriods.size() - 1; i >= 0; i--) {
+            final PostingPeriod postingPeriod = postingPeriods.get(i);
+            if (postingPeriod.getPeriodInterval().endDate().isBefore(interestPostingUpToDate)
+                    && !postingPeriod.dateOfPostingTransaction().isAfter(interestPostingUpToDate)) {
+                interestCheckpoint().update(postingPeriod, interestEarnedToDate, this.transactions);
+                return;
+            }
+            final Money interestEarned = postingPeriod.interest();
+            if (interestEarned != null) {
+                interestEarnedToDate = interestEarnedToDate.minus(interestEarned);
+            }
+        }
+    }
+
+    /**
+     * Returns the interest checkpoint when interest up to the given date can be calculated by resuming from it, or null
+     * when the full account history has to be replayed. Only savings deposits outside of the pivot date configuration
+     * (which already limits the replayed history) keep a checkpoint.
+     */
+    protected SavingsAccountInterestCheckpoint findUsableInterestCheckpoint(final LocalDate upToInterestCalculationDate,
+            final LocalDate postInterestOnDate, final boolean backdatedTxnsAllowedTill) {
+        if (backdatedTxnsAllowedTill || !depositAccountType().isSavingsDeposit()) {
+            return null;
+        }
+        final SavingsAccountInterestCheckpoint checkpoint = interestCheckpoint();
+        if (!checkpoint.isUsableFor(upToInterestCalculationDate, this.transactions)) {
+            return null;
+        }
+        final LocalDate checkpointDate = checkpoint.getCheckpointDate();
+        if (getStartInterestCalculationDate().isAfter(checkpointDate)
+                || (postInterestOnDate != null && !postInterestOnDate.minusDays(1).isAfter(checkpointDate))) {
+            return null;
+        }
+        return checkpoint;
+    }
+
+    private SavingsAccountInterestCheckpoint interestCheckpoint() {
+        if (this.interestCheckpoint == null) {
+            this.interestCheckpoint = SavingsAccountInterestCheckpoint.empty();
+        }
+        return this.interestCheckpoint;
+    }
+
     protected List<SavingsAccountTransaction> findWithHoldTransactions() {
         final List<SavingsAccountTransaction> withholdTransactions = new ArrayList<>();
         List<SavingsAccountTransaction> trans = getTransactions();
@@ -820,10 +882,17 @@ public class SavingsAccount extends AbstractPersistableCustom {
             openingAccountBalance = Money.zero(this.currency);
         }
 
+        // resume from the interest checkpoint when nothing changed behind it
+        final SavingsAccountInterestCheckpoint checkpoint = findUsableInterestCheckpoint(upToInterestCalculationDate, postInterestOnDate,
+                backdatedTxnsAllowedTill);
+
         // update existing transactions so derived balance fields are
         // correct.
-
-        recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate, backdatedTxnsAllowedTill, postReversals);
+        if (checkpoint != null) {
+            recalculateDailyBalancesAfterCheckpoint(checkpoint.getCheckpointDate(), upToInterestCalculationDate, postReversals);
+        } else {
+            recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate, backdatedTxnsAllowedTill, postReversals);
+        }
 
         // 1. default to calculate interest based on entire history OR
         // 2. determine latest 'posting period' and find interest credited to
@@ -846,14 +915,18 @@ public class SavingsAccount extends AbstractPersistableCustom {
         if (postInterestOnDate != null) {
             postedAsOnDates.add(postInterestOnDate);
         }
-        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
-                postedAsOnDates);
+        final LocalDate postingPeriodsStartDate = checkpoint != null ? checkpoint.getCheckpointDate().plusDays(1)
+                : getStartInterestCalculationDate();
+        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(postingPeriodsStartDate,
+                upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth, postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (this.startInterestCalculationDate != null && !this.getStartInterestCalculationDate().equals(this.getActivationLocalDate())) {
+        if (checkpoint != null) {
+            periodStartingBalance = checkpoint.getClosingBalance(this.currency);
+        } else if (this.startInterestCalculationDate != null
+                && !this.getStartInterestCalculationDate().equals(this.getActivationLocalDate())) {
             LocalDate startInterestCalculationDate = this.startInterestCalculationDate;
             SavingsAccountTransaction transaction = null;
             if (backdatedTxnsAllowedTill) {
@@ -878,6 +951,16 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
+        // transactions do not change while the posting periods are built, order them once
+        List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
+        if (checkpoint != null) {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactionsAfter(checkpoint.getCheckpointDate());
+        } else if (backdatedTxnsAllowedTill) {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
+        } else {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
+        }
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             boolean isUserPosting = false;
@@ -885,29 +968,27 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 isUserPosting = true;
             }
 
-            PostingPeriod postingPeriod = null;
-            List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
-            if (backdatedTxnsAllowedTill) {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
-            } else {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
-            }
-
-            postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedNonInterestPostingTransactions,
-                    this.currency, compoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYearType.getValue(),
-                    upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
-                    isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
-                    isUserPosting, financialYearBeginningMonth);
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
+                    interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
+                    isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
+                    overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth);
 
             periodStartingBalance = postingPeriod.closingBalance();
 
             allPostingPeriods.add(postingPeriod);
         }
 
-        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
-
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        if (checkpoint != null) {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount(), checkpoint.compoundInterestValues());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods,
+                    checkpoint.getInterestEarned(this.currency));
+        } else {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        }
 
         if (backdatedTxnsAllowedTill) {
             this.summary.updateSummaryWithPivotConfig(this.currency, this.savingsAccountTransactionSummaryWrapper, null,
@@ -943,6 +1024,31 @@ public class SavingsAccount extends AbstractPersistableCustom {
         return orderedNonInterestPostingTransactions;
     }
 
+    /**
+     * Non interest posting transactions whose balance still counts after the given date: the ones dated after it plus the
+     * last one on or before it, whose balance carries over into the next posting period.
+     */
+    protected List<SavingsAccountTransaction> retreiveOrderedNonInterestPostingTransactionsAfter(final LocalDate date) {
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = new ArrayList<>();
+        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+        SavingsAccountTransaction lastTransactionOnDate = null;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                    && transaction.isNotReversed() && !transaction.isReversalTransaction()) {
+                if (transaction.transactionLocalDate().isAfter(date)) {
+                    orderedNonInterestPostingTransactions.add(transaction);
+                } else if (lastTransactionOnDate == null || transactionComparator.compare(transaction, lastTransactionOnDate) > 0) {
+                    lastTransactionOnDate = transaction;
+                }
+            }
+        }
+        if (lastTransactionOnDate != null) {
+            orderedNonInterestPostingTransactions.add(lastTransactionOnDate);
+        }
+        orderedNonInterestPostingTransactions.sort(transactionComparator);
+        return orderedNonInterestPostingTransactions;
+    }
+
     protected List<SavingsAccountTransaction> retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig() {
         final List<SavingsAccountTransaction> listOfTransactionsSorted = retrieveSortedTransactions();
 
@@ -977,8 +1083,6 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
     protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate,
             final boolean backdatedTxnsAllowedTill, boolean postReversals) {
-        Money runningBalance = openingAccountBalance.copy();
-
         List<SavingsAccountTransaction> accountTransactionsSorted = null;
 
         if (backdatedTxnsAllowedTill) {
@@ -987,6 +1091,68 @@ public class SavingsAccount extends AbstractPersistableCustom {
             accountTransactionsSorted = retreiveListOfTransactions();
         }
 
+        if (recalculateRunningBalances(openingAccountBalance, accountTransactionsSorted, backdatedTxnsAllowedTill, postReversals)) {
+            if (backdatedTxnsAllowedTill) {
+                accountTransactionsSorted = retrieveSortedTransactions();
+            } else {
+                accountTransactionsSorted = retreiveListOfTransactions();
+            }
+        }
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
+    }
+
+    /**
+     * Same as {@link #recalculateDailyBalances(Money, LocalDate, boolean, boolean)} for the transactions after the interest
+     * checkpoint only: running balances continue from the last transaction on or before the checkpoint, and the balance of
+     * the last non interest posting transaction on or before it is extended up to the first transaction after it.
+     */
+    protected void recalculateDailyBalancesAfterCheckpoint(final LocalDate checkpointDate, final LocalDate interestPostingUpToDate,
+            boolean postReversals) {
+        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+        SavingsAccountTransaction lastTransaction = null;
+        SavingsAccountTransaction lastBalanceTransaction = null;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.transactionLocalDate().isAfter(checkpointDate) || transaction.isReversed()
+                    || transaction.isReversalTransaction()) {
+                continue;
+            }
+            if (lastTransaction == null || transactionComparator.compare(transaction, lastTransaction) > 0) {
+                lastTransaction = transaction;
+            }
+            if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                    && (lastBalanceTransaction == null || transactionComparator.compare(transaction, lastBalanceTransaction) > 0)) {
+                lastBalanceTransaction = transaction;
+            }
+        }
+
+        final Money openingAccountBalance = lastTransaction == null ? Money.zero(this.currency)
+                : lastTransaction.getRunningBalance(this.currency);
+        List<SavingsAccountTransaction> accountTransactionsSorted = retrieveSortedTransactionsAfter(checkpointDate);
+        if (recalculateRunningBalances(openingAccountBalance, accountTransactionsSorted, false, postReversals)) {
+            accountTransactionsSorted = retrieveSortedTransactionsAfter(checkpointDate);
+        }
+        if (lastBalanceTransaction != null) {
+            accountTransactionsSorted.add(0, lastBalanceTransaction);
+        }
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
+    }
+
+    private List<SavingsAccountTransaction> retrieveSortedTransactionsAfter(final LocalDate date) {
+        final List<SavingsAccountTransaction> listOfTransactionsSorted = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.transactionLocalDate().isAfter(date)) {
+                listOfTransactionsSorted.add(transaction);
+            }
+        }
+        listOfTransactionsSorted.sort(new SavingsAccountTransactionComparator());
+        return listOfTransactionsSorted;
+    }
+
+    private boolean recalculateRunningBalances(final Money openingAccountBalance,
+            final List<SavingsAccountTransaction> accountTransactionsSorted, final boolean backdatedTxnsAllowedTill,
+            boolean postReversals) {
+        Money runningBalance = openingAccountBalance.copy();
+
         boolean isTransactionsModified = false;
         for (final SavingsAccountTransaction transaction : accountTransactionsSorted) {
             if (transaction.isReversed() || transaction.isReversalTransaction()) {
@@ -1054,15 +1220,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
             }
         }
-
-        if (isTransactionsModified) {
-            if (backdatedTxnsAllowedTill) {
-                accountTransactionsSorted = retrieveSortedTransactions();
-            } else {
-                accountTransactionsSorted = retreiveListOfTransactions();
-            }
-        }
-        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
+        return isTransactionsModified;
     }
 
     protected void resetAccountTransactionsEndOfDayBalances(final List<SavingsAccountTransaction> accountTransactionsSorted,
@@ -1213,6 +1371,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
     public void setStartInterestCalculationDate(LocalDate startInterestCalculationDate) {
         this.startInterestCalculationDate = startInterestCalculationDate;
+        interestCheckpoint().clear();
     }
 
     public SavingsAccountTransaction withdraw(final SavingsAccountTransactionDTO transactionDTO, final boolean applyWithdrawFee,
@@ -1825,6 +1984,10 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 baseDataValidator.reset().parameter(withHoldTaxParamName).failWithCode("not.supported.for.this.account");
             }
         }
+        if (!actualChanges.isEmpty()) {
+            // interest behind the checkpoint was calculated with the previous terms
+            interestCheckpoint().clear();
+        }
         validateLockinDetails(baseDataValidator);
         esnureOverdraftLimitsSetForOverdraftAccounts();
     }
@@ -1956,6 +2119,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
     public void update(final SavingsProduct product) {
         this.product = product;
         this.minBalanceForInterestCalculation = product.minBalanceForInterestCalculation();
+        interestCheckpoint().clear();
     }
 
     public void update(final Staff savingsOfficer) {
@@ -2405,6 +2569,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
         validateAttemptToUndoTransferRelatedTransactions(transactionToUndo);
         validateActivityNotBeforeClientOrGroupTransferDate(SavingsEvent.SAVINGS_UNDO_TRANSACTION, transactionToUndo.transactionLocalDate());
         transactionToUndo.reverse();
+        interestCheckpoint().invalidateFrom(transactionToUndo.transactionLocalDate());
         if (transactionToUndo.isChargeTransaction() || transactionToUndo.isWaiveCharge()) {
             // undo charge
             final Set<SavingsAccountChargePaidBy> chargesPaidBy = transactionToUndo.getSavingsAccountChargesPaid();
@@ -2435,6 +2600,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
         validateAttemptToUndoTransferRelatedTransactions(transactionToUndo);
         validateActivityNotBeforeClientOrGroupTransferDate(SavingsEvent.SAVINGS_UNDO_TRANSACTION, transactionToUndo.transactionLocalDate());
         transactionToUndo.reverse();
+        interestCheckpoint().invalidateFrom(transactionToUndo.transactionLocalDate());
         if (transactionToUndo.isChargeTransaction() || transactionToUndo.isWaiveCharge()) {
             // undo charge
             final Set<SavingsAccountChargePaidBy> chargesPaidBy = transactionToUndo.getSavingsAccountChargesPaid();
@@ -2458,6 +2624,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
         validateAttemptToUndoTransferRelatedTransactions(transactionToUndo);
         validateActivityNotBeforeClientOrGroupTransferDate(SavingsEvent.SAVINGS_UNDO_TRANSACTION, transactionToUndo.transactionLocalDate());
         transactionToUndo.reverse();
+        interestCheckpoint().invalidateFrom(transactionToUndo.transactionLocalDate());
         if (transactionToUndo.isChargeTransaction() || transactionToUndo.isWaiveCharge()) {
             // undo charge
             final Set<SavingsAccountChargePaidBy> chargesPaidBy = transactionToUndo.getSavingsAccountChargesPaid();
@@ -2942,10 +3109,22 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
     public void addTransaction(final SavingsAccountTransaction transaction) {
         this.transactions.add(transaction);
+        invalidateInterestCheckpointFor(transaction);
     }
 
     public void addTransactionToExisting(final SavingsAccountTransaction transaction) {
         this.savingsAccountTransactions.add(transaction);
+        invalidateInterestCheckpointFor(transaction);
+    }
+
+    /**
+     * Backdated transactions clear the interest checkpoint. Interest postings and their withhold tax are left out as
+     * interest posting itself adds them on the posting date, which may be the last day of the checkpointed period.
+     */
+    private void invalidateInterestCheckpointFor(final SavingsAccountTransaction transaction) {
+        if (!(transaction.isInterestPosting() || transaction.isWithHoldTaxAndNotReversed())) {
+            interestCheckpoint().invalidateFrom(transaction.transactionLocalDate());
+        }
     }
 
     public void setStatus(final Integer status) {
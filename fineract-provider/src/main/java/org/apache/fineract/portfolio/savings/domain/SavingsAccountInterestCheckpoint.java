@@ -0,0 +1,256 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestValues;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+
+/**
+ * {@link SavingsAccountInterestCheckpoint} captures the interest calculation state of a {@link SavingsAccount} at the
+ * end of its last posted interest posting period, so that later calculations only replay the periods after it.
+ *
+ * The checkpoint also records a fingerprint (count, total and day weighted total) of the transactions dated on or
+ * before it. A transaction added or reversed behind the checkpoint changes the fingerprint, and the account falls back
+ * to calculating interest over its full history. Changes which alter the interest of the periods behind the checkpoint
+ * without touching its transactions (interest parameters, product or start date) clear it.
+ *
+ * The nightly interest posting job works on {@link SavingsAccountTransactionData}, hence the data variants of the
+ * methods below.
+ */
+@Embeddable
+public final class SavingsAccountInterestCheckpoint {
+
+    @Column(name = "interest_checkpoint_date")
+    private LocalDate checkpointDate;
+
+    @Column(name = "interest_checkpoint_closing_balance", scale = 6, precision = 19)
+    private BigDecimal closingBalance;
+
+    @Column(name = "interest_checkpoint_compounded_interest", scale = 18, precision = 38)
+    private BigDecimal compoundedInterest;
+
+    @Column(name = "interest_checkpoint_uncompounded_interest", scale = 18, precision = 38)
+    private BigDecimal uncompoundedInterest;
+
+    @Column(name = "interest_checkpoint_interest_earned", scale = 6, precision = 19)
+    private BigDecimal interestEarned;
+
+    @Column(name = "interest_checkpoint_transaction_count")
+    private Integer transactionCount;
+
+    @Column(name = "interest_checkpoint_transaction_total", scale = 6, precision = 19)
+    private BigDecimal transactionTotal;
+
+    @Column(name = "interest_checkpoint_transaction_day_total", scale = 6, precision = 38)
+    private BigDecimal transactionDayTotal;
+
+    protected SavingsAccountInterestCheckpoint() {
+        //
+    }
+
+    public static SavingsAccountInterestCheckpoint empty() {
+        return new SavingsAccountInterestCheckpoint();
+    }
+
+    public static SavingsAccountInterestCheckpoint instance(final LocalDate checkpointDate, final BigDecimal closingBalance,
+            final BigDecimal compoundedInterest, final BigDecimal uncompoundedInterest, final BigDecimal interestEarned,
+            final Integer transactionCount, final BigDecimal transactionTotal, final BigDecimal transactionDayTotal) {
+        final SavingsAccountInterestCheckpoint checkpoint = new SavingsAccountInterestCheckpoint();
+        if (checkpointDate != null) {
+            checkpoint.checkpointDate = checkpointDate;
+            checkpoint.closingBalance = closingBalance;
+            checkpoint.compoundedInterest = compoundedInterest;
+            checkpoint.uncompoundedInterest = uncompoundedInterest;
+            checkpoint.interestEarned = interestEarned;
+            checkpoint.transactionCount = transactionCount;
+            checkpoint.transactionTotal = transactionTotal;
+            checkpoint.transactionDayTotal = transactionDayTotal;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Whether interest up to the given date can be calculated by resuming from this checkpoint.
+     */
+    public boolean isUsableFor(final LocalDate upToInterestCalculationDate, final Collection<SavingsAccountTransaction> transactions) {
+        return isBefore(upToInterestCalculationDate) && matches(Fingerprint.of(transactions, this.checkpointDate));
+    }
+
+    public boolean isUsableForTransactionData(final LocalDate upToInterestCalculationDate,
+            final Collection<SavingsAccountTransactionData> transactions) {
+        return isBefore(upToInterestCalculationDate) && matches(Fingerprint.ofTransactionData(transactions, this.checkpointDate));
+    }
+
+    public void update(final PostingPeriod postingPeriod, final Money interestEarnedToDate,
+            final Collection<SavingsAccountTransaction> transactions) {
+        update(postingPeriod, interestEarnedToDate);
+        updateFingerprint(Fingerprint.of(transactions, this.checkpointDate));
+    }
+
+    public void updateFromTransactionData(final PostingPeriod postingPeriod, final Money interestEarnedToDate,
+            final Collection<SavingsAccountTransactionData> transactions) {
+        update(postingPeriod, interestEarnedToDate);
+        updateFingerprint(Fingerprint.ofTransactionData(transactions, this.checkpointDate));
+    }
+
+    /**
+     * Clears the checkpoint when the given date lies on or before it.
+     */
+    public void invalidateFrom(final LocalDate date) {
+        if (this.checkpointDate != null && !date.isAfter(this.checkpointDate)) {
+            clear();
+        }
+    }
+
+    public void clear() {
+        this.checkpointDate = null;
+        this.closingBalance = null;
+        this.compoundedInterest = null;
+        this.uncompoundedInterest = null;
+        this.interestEarned = null;
+        this.transactionCount = null;
+        this.transactionTotal = null;
+        this.transactionDayTotal = null;
+    }
+
+    private boolean isBefore(final LocalDate date) {
+        return this.checkpointDate != null && this.checkpointDate.isBefore(date);
+    }
+
+    private boolean matches(final Fingerprint fingerprint) {
+        return Integer.valueOf(fingerprint.count).equals(this.transactionCount) && fingerprint.total.compareTo(this.transactionTotal) == 0
+                && fingerprint.dayTotal.compareTo(this.transactionDayTotal) == 0;
+    }
+
+    private void update(final PostingPeriod postingPeriod, final Money interestEarnedToDate) {
+        this.checkpointDate = postingPeriod.getPeriodInterval().endDate();
+        this.closingBalance = postingPeriod.closingBalance().getAmount();
+        this.compoundedInterest = postingPeriod.getCompoundedInterestCarriedForward();
+        this.uncompoundedInterest = postingPeriod.getUncompoundedInterestCarriedForward();
+        this.interestEarned = interestEarnedToDate.getAmount();
+    }
+
+    private void updateFingerprint(final Fingerprint fingerprint) {
+        this.transactionCount = fingerprint.count;
+        this.transactionTotal = fingerprint.total;
+        this.transactionDayTotal = fingerprint.dayTotal;
+    }
+
+    public LocalDate getCheckpointDate() {
+        return this.checkpointDate;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return this.closingBalance;
+    }
+
+    public BigDecimal getCompoundedInterest() {
+        return this.compoundedInterest;
+    }
+
+    public BigDecimal getUncompoundedInterest() {
+        return this.uncompoundedInterest;
+    }
+
+    public BigDecimal getInterestEarned() {
+        return this.interestEarned;
+    }
+
+    public Integer getTransactionCount() {
+        return this.transactionCount;
+    }
+
+    public BigDecimal getTransactionTotal() {
+        return this.transactionTotal;
+    }
+
+    public BigDecimal getTransactionDayTotal() {
+        return this.transactionDayTotal;
+    }
+
+    public Money getClosingBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.closingBalance);
+    }
+
+    public Money getInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.interestEarned);
+    }
+
+    public CompoundInterestValues compoundInterestValues() {
+        return new CompoundInterestValues(this.compoundedInterest, this.uncompoundedInterest);
+    }
+
+    private static final class Fingerprint {
+
+        private int count;
+        private BigDecimal total = BigDecimal.ZERO;
+        private BigDecimal dayTotal = BigDecimal.ZERO;
+
+        private static Fingerprint of(final Collection<SavingsAccountTransaction> transactions, final LocalDate upToDate) {
+            final Fingerprint fingerprint = new Fingerprint();
+            for (final SavingsAccountTransaction transaction : transactions) {
+                if (transaction.isReversed() || transaction.isReversalTransaction()
+                        || transaction.transactionLocalDate().isAfter(upToDate)) {
+                    continue;
+                }
+                BigDecimal amount = transaction.getAmount();
+                if (transaction.isDebit() || transaction.isAmountOnHold()) {
+                    amount = amount.negate();
+                } else if (!(transaction.isCredit() || transaction.isAmountRelease())) {
+                    amount = BigDecimal.ZERO;
+                }
+                fingerprint.add(amount, transaction.transactionLocalDate());
+            }
+            return fingerprint;
+        }
+
+        private static Fingerprint ofTransactionData(final Collection<SavingsAccountTransactionData> transactions,
+                final LocalDate upToDate) {
+            final Fingerprint fingerprint = new Fingerprint();
+            for (final SavingsAccountTransactionData transaction : transactions) {
+                if (transaction.isReversed() || transaction.isReversalTransaction()
+                        || transaction.getTransactionLocalDate().isAfter(upToDate)) {
+                    continue;
+                }
+                BigDecimal amount = transaction.getAmount();
+                if (transaction.isDebit() || transaction.isAmountOnHold()) {
+                    amount = amount.negate();
+                } else if (!(transaction.isCredit() || transaction.isAmountRelease())) {
+                    amount = BigDecimal.ZERO;
+                }
+                fingerprint.add(amount, transaction.getTransactionLocalDate());
+            }
+            return fingerprint;
+        }
+
+        private void add(final BigDecimal amount, final LocalDate transactionDate) {
+            this.count++;
+            this.total = this.total.add(amount);
+            this.dayTotal = this.dayTotal.add(amount.multiply(BigDecimal.valueOf(transactionDate.toEpochDay())));
+        }
+    }
+}
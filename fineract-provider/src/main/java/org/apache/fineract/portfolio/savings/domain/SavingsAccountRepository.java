@@ -18,14 +18,17 @@
  */
 package org.apache.fineract.portfolio.savings.domain;
 
+import java.util.Collection;
 import java.util.List;
 import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 //Use SavingsAccountRepositoryWrapper.
@@ -53,6 +56,12 @@ public interface SavingsAccountRepository extends JpaRepository<SavingsAccount,
     @Query("select sa from SavingsAccount sa where sa.client.id is null and sa.group.id = :groupId")
     List<SavingsAccount> findByGroupId(@Param("groupId") Long groupId);
 
+    @Query("select sa from SavingsAccount sa where sa.id in :accountIds")
+    @QueryHints({ @QueryHint(name = "eclipselink.batch.type", value = "IN"),
+            @QueryHint(name = "eclipselink.batch", value = "sa.transactions"), @QueryHint(name = "eclipselink.batch", value = "sa.charges"),
+            @QueryHint(name = "eclipselink.batch", value = "sa.savingsOfficerHistory") })
+    List<SavingsAccount> findAllByIdsWithLazyCollections(@Param("accountIds") Collection<Long> accountIds);
+
     @Query("select sa from SavingsAccount sa where sa.id = :accountId and sa.depositType = :depositAccountTypeId")
     SavingsAccount findByIdAndDepositAccountType(@Param("accountId") Long accountId,
             @Param("depositAccountTypeId") Integer depositAccountTypeId);
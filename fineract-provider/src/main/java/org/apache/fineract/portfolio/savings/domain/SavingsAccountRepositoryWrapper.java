@@ -19,6 +19,8 @@
 package org.apache.fineract.portfolio.savings.domain;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountNotFoundException;
@@ -79,6 +81,20 @@ public class SavingsAccountRepositoryWrapper {
         return account;
     }
 
+    /**
+     * Loads the accounts with their lazy collections in a few batched queries instead of a set of queries per account,
+     * for bulk operations which go through many accounts in one transaction.
+     */
+    @Transactional(readOnly = true)
+    public List<SavingsAccount> findAllWithLazyCollections(final Collection<Long> savingsIds) {
+        if (savingsIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final List<SavingsAccount> accounts = this.repository.findAllByIdsWithLazyCollections(savingsIds);
+        loadLazyCollections(accounts);
+        return accounts;
+    }
+
     @Transactional(readOnly = true)
     public SavingsAccount findOneWithNotFoundDetection(final Long savingsId, final DepositAccountType depositAccountType) {
         final SavingsAccount account = this.repository.findByIdAndDepositAccountType(savingsId, depositAccountType.getValue());
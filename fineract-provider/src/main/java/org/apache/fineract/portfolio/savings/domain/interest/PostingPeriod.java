@@ -48,6 +48,9 @@ public final class PostingPeriod {
     private final LocalDate dateOfPostingTransaction;
     private BigDecimal interestEarnedUnrounded;
     private Money interestEarnedRounded;
+    // compounding state handed over to the next posting period
+    private BigDecimal compoundedInterestCarriedForward = BigDecimal.ZERO;
+    private BigDecimal uncompoundedInterestCarriedForward = BigDecimal.ZERO;
 
     // opening/closing details
     private final Money openingBalance;
@@ -314,6 +317,19 @@ public final class PostingPeriod {
         return this.interestEarnedRounded;
     }
 
+    public void carryForwardInterest(final CompoundInterestValues compoundInterestValues) {
+        this.compoundedInterestCarriedForward = compoundInterestValues.getcompoundedInterest();
+        this.uncompoundedInterestCarriedForward = compoundInterestValues.getuncompoundedInterest();
+    }
+
+    public BigDecimal getCompoundedInterestCarriedForward() {
+        return this.compoundedInterestCarriedForward;
+    }
+
+    public BigDecimal getUncompoundedInterestCarriedForward() {
+        return this.uncompoundedInterestCarriedForward;
+    }
+
     private static List<CompoundingPeriod> compoundingPeriodsInPostingPeriod(final LocalDateInterval postingPeriodInterval,
             final SavingsCompoundingInterestPeriodType interestPeriodType, final List<EndOfDayBalance> allEndOfDayBalances,
             final LocalDate upToInterestCalculationDate, int financialYearBeginningMonth) {
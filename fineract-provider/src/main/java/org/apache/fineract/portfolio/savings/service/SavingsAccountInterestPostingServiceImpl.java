@@ -40,6 +40,7 @@ import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountChargesPaidByData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountInterestCheckpoint;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionDataComparator;
 import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
@@ -172,12 +173,21 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
 
             // update existing transactions so derived balance fields are
             // correct.
-            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, backdatedTxnsAllowedTill, savingsAccountData);
+            final SavingsAccountInterestCheckpoint checkpoint = findUsableInterestCheckpoint(interestPostingUpToDate, postInterestOnDate,
+                    backdatedTxnsAllowedTill, savingsAccountData);
+            if (checkpoint != null) {
+                recalculateDailyBalancesAfterCheckpoint(checkpoint.getCheckpointDate(), interestPostingUpToDate, savingsAccountData);
+            } else {
+                recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, backdatedTxnsAllowedTill, savingsAccountData);
+            }
         }
 
         if (!backdatedTxnsAllowedTill) {
             savingsAccountData.getSummary().updateSummary(savingsAccountData.currency(),
                     savingsAccountData.getSavingsAccountTransactionSummaryWrapper(), savingsAccountData.getSavingsAccountTransactionData());
+            if (depositAccountType(savingsAccountData).isSavingsDeposit()) {
+                updateInterestCheckpoint(postingPeriods, interestPostingUpToDate, savingsAccountData);
+            }
         } else {
             savingsAccountData.getSummary().updateSummaryWithPivotConfig(savingsAccountData.currency(),
                     savingsAccountData.getSavingsAccountTransactionSummaryWrapper(), null,
@@ -187,6 +197,50 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
         return savingsAccountData;
     }
 
+    /**
+     * Same as the interest checkpoint handling of {@link org.apache.fineract.portfolio.savings.domain.SavingsAccount},
+     * the checkpoint moves to the end of the last posting period that is complete and posted as of the given date.
+     */
+    private void updateInterestCheckpoint(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate,
+            final SavingsAccountData savingsAccountData) {
+        // the total earned includes the periods preceding postingPeriods when they were calculated from a checkpoint
+        Money interestEarnedToDate = Money.of(savingsAccountData.currency(), savingsAccountData.getSummary().getTotalInterestEarned());
+        for (int i = postingPeriods.size() - 1; i >= 0; i--) {
+            final PostingPeriod postingPeriod = postingPeriods.get(i);
+            if (postingPeriod.getPeriodInterval().endDate().isBefore(interestPostingUpToDate)
+                    && !postingPeriod.dateOfPostingTransaction().isAfter(interestPostingUpToDate)) {
+                savingsAccountData.getInterestCheckpoint().updateFromTransactionData(postingPeriod, interestEarnedToDate,
+                        savingsAccountData.getTransactions());
+                return;
+            }
+            final Money interestEarned = postingPeriod.interest();
+            if (interestEarned != null) {
+                interestEarnedToDate = interestEarnedToDate.minus(interestEarned);
+            }
+        }
+    }
+
+    /**
+     * Returns the interest checkpoint when interest up to the given date can be calculated by resuming from it, or null
+     * when the full account history has to be replayed.
+     */
+    protected SavingsAccountInterestCheckpoint findUsableInterestCheckpoint(final LocalDate upToInterestCalculationDate,
+            final LocalDate postInterestOnDate, final boolean backdatedTxnsAllowedTill, final SavingsAccountData savingsAccountData) {
+        if (backdatedTxnsAllowedTill || !depositAccountType(savingsAccountData).isSavingsDeposit()) {
+            return null;
+        }
+        final SavingsAccountInterestCheckpoint checkpoint = savingsAccountData.getInterestCheckpoint();
+        if (!checkpoint.isUsableForTransactionData(upToInterestCalculationDate, savingsAccountData.getTransactions())) {
+            return null;
+        }
+        final LocalDate checkpointDate = checkpoint.getCheckpointDate();
+        if (savingsAccountData.getStartInterestCalculationDate().isAfter(checkpointDate)
+                || (postInterestOnDate != null && !postInterestOnDate.minusDays(1).isAfter(checkpointDate))) {
+            return null;
+        }
+        return checkpoint;
+    }
+
     protected SavingsAccountTransactionData findTransactionFor(final LocalDate postingDate,
             final List<SavingsAccountTransactionData> transactions) {
         SavingsAccountTransactionData transaction = null;
@@ -214,9 +268,17 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
             openingAccountBalance = Money.zero(savingsAccountData.currency());
         }
 
+        // resume from the interest checkpoint when nothing changed behind it
+        final SavingsAccountInterestCheckpoint checkpoint = findUsableInterestCheckpoint(upToInterestCalculationDate, postInterestOnDate,
+                backdatedTxnsAllowedTill, savingsAccountData);
+
         // update existing transactions so derived balance fields are
         // correct.
-        recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate, backdatedTxnsAllowedTill, savingsAccountData);
+        if (checkpoint != null) {
+            recalculateDailyBalancesAfterCheckpoint(checkpoint.getCheckpointDate(), upToInterestCalculationDate, savingsAccountData);
+        } else {
+            recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate, backdatedTxnsAllowedTill, savingsAccountData);
+        }
 
         // 1. default to calculate interest based on entire history OR
         // 2. determine latest 'posting period' and find interest credited to
@@ -237,14 +299,17 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
         if (postInterestOnDate != null) {
             postedAsOnDates.add(postInterestOnDate);
         }
-        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                savingsAccountData.getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType,
-                financialYearBeginningMonth, postedAsOnDates);
+        final LocalDate postingPeriodsStartDate = checkpoint != null ? checkpoint.getCheckpointDate().plusDays(1)
+                : savingsAccountData.getStartInterestCalculationDate();
+        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(postingPeriodsStartDate,
+                upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth, postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (savingsAccountData.getStartInterestCalculationDate() != null
+        if (checkpoint != null) {
+            periodStartingBalance = Money.of(savingsAccountData.currency(), checkpoint.getClosingBalance());
+        } else if (savingsAccountData.getStartInterestCalculationDate() != null
                 && !savingsAccountData.getStartInterestCalculationDate().equals(savingsAccountData.getActivationLocalDate())) {
             final SavingsAccountTransactionData transaction = retrieveLastTransactions(savingsAccountData);
 
@@ -269,6 +334,10 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
         final Money minOverdraftForInterestCalculation = Money.of(savingsAccountData.currency(),
                 savingsAccountData.getMinOverdraftForInterestCalculation());
         final MonetaryCurrency monetaryCurrency = MonetaryCurrency.fromCurrencyData(savingsAccountData.currency());
+        // transactions do not change while the posting periods are built, order them once
+        final List<SavingsAccountTransactionData> orderedNonInterestPostingTransactions = checkpoint != null
+                ? retreiveOrderedNonInterestPostingTransactionsAfter(checkpoint.getCheckpointDate(), savingsAccountData)
+                : retreiveOrderedNonInterestPostingTransactions(savingsAccountData);
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
@@ -277,7 +346,7 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
                 isUserPosting = true;
             }
             final PostingPeriod postingPeriod = PostingPeriod.createFromDTO(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(savingsAccountData), monetaryCurrency, compoundingPeriodType,
+                    orderedNonInterestPostingTransactions, monetaryCurrency, compoundingPeriodType,
                     interestCalculationType, interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate,
                     interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
                     isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
@@ -288,10 +357,16 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
             allPostingPeriods.add(postingPeriod);
         }
 
-        this.savingsHelper.calculateInterestForAllPostingPeriods(monetaryCurrency, allPostingPeriods,
-                getLockedInUntilLocalDate(savingsAccountData), false);
-
-        savingsAccountData.getSummary().updateFromInterestPeriodSummaries(monetaryCurrency, allPostingPeriods);
+        if (checkpoint != null) {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(monetaryCurrency, allPostingPeriods,
+                    getLockedInUntilLocalDate(savingsAccountData), false, checkpoint.compoundInterestValues());
+            savingsAccountData.getSummary().updateFromInterestPeriodSummaries(monetaryCurrency, allPostingPeriods,
+                    checkpoint.getInterestEarned(monetaryCurrency));
+        } else {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(monetaryCurrency, allPostingPeriods,
+                    getLockedInUntilLocalDate(savingsAccountData), false);
+            savingsAccountData.getSummary().updateFromInterestPeriodSummaries(monetaryCurrency, allPostingPeriods);
+        }
 
         if (backdatedTxnsAllowedTill) {
             savingsAccountData.getSummary().updateSummaryWithPivotConfig(savingsAccountData.currency(),
@@ -319,6 +394,32 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
         return orderedNonInterestPostingTransactions;
     }
 
+    /**
+     * Non interest posting transactions whose balance still counts after the given date: the ones dated after it plus the
+     * last one on or before it, whose balance carries over into the next posting period.
+     */
+    private List<SavingsAccountTransactionData> retreiveOrderedNonInterestPostingTransactionsAfter(final LocalDate date,
+            final SavingsAccountData savingsAccountData) {
+        final List<SavingsAccountTransactionData> orderedNonInterestPostingTransactions = new ArrayList<>();
+        final SavingsAccountTransactionDataComparator transactionComparator = new SavingsAccountTransactionDataComparator();
+        SavingsAccountTransactionData lastTransactionOnDate = null;
+        for (final SavingsAccountTransactionData transaction : savingsAccountData.getTransactions()) {
+            if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                    && transaction.isNotReversed() && !transaction.isReversalTransaction()) {
+                if (transaction.getTransactionLocalDate().isAfter(date)) {
+                    orderedNonInterestPostingTransactions.add(transaction);
+                } else if (lastTransactionOnDate == null || transactionComparator.compare(transaction, lastTransactionOnDate) > 0) {
+                    lastTransactionOnDate = transaction;
+                }
+            }
+        }
+        if (lastTransactionOnDate != null) {
+            orderedNonInterestPostingTransactions.add(lastTransactionOnDate);
+        }
+        orderedNonInterestPostingTransactions.sort(transactionComparator);
+        return orderedNonInterestPostingTransactions;
+    }
+
     private List<SavingsAccountTransactionData> retreiveListOfTransactions(final SavingsAccountData savingsAccountData) {
         final List<SavingsAccountTransactionData> listOfTransactionsSorted = new ArrayList<>();
         listOfTransactionsSorted.addAll(savingsAccountData.getTransactions());
@@ -404,11 +505,68 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
     protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate,
             final boolean backdatedTxnsAllowedTill, final SavingsAccountData savingsAccountData) {
 
+        List<SavingsAccountTransactionData> accountTransactionsSorted = retreiveListOfTransactions(savingsAccountData);
+        if (recalculateRunningBalances(openingAccountBalance, accountTransactionsSorted, savingsAccountData)) {
+            accountTransactionsSorted = retreiveListOfTransactions(savingsAccountData);
+        }
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate, savingsAccountData);
+    }
+
+    /**
+     * Same as {@link #recalculateDailyBalances(Money, LocalDate, boolean, SavingsAccountData)} for the transactions after
+     * the interest checkpoint only: running balances continue from the last transaction on or before the checkpoint, and
+     * the balance of the last non interest posting transaction on or before it is extended up to the first transaction
+     * after it.
+     */
+    protected void recalculateDailyBalancesAfterCheckpoint(final LocalDate checkpointDate, final LocalDate interestPostingUpToDate,
+            final SavingsAccountData savingsAccountData) {
+        final SavingsAccountTransactionDataComparator transactionComparator = new SavingsAccountTransactionDataComparator();
+        SavingsAccountTransactionData lastTransaction = null;
+        SavingsAccountTransactionData lastBalanceTransaction = null;
+        for (final SavingsAccountTransactionData transaction : savingsAccountData.getTransactions()) {
+            if (transaction.getTransactionLocalDate().isAfter(checkpointDate) || transaction.isReversed()
+                    || transaction.isReversalTransaction()) {
+                continue;
+            }
+            if (lastTransaction == null || transactionComparator.compare(transaction, lastTransaction) > 0) {
+                lastTransaction = transaction;
+            }
+            if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                    && (lastBalanceTransaction == null || transactionComparator.compare(transaction, lastBalanceTransaction) > 0)) {
+                lastBalanceTransaction = transaction;
+            }
+        }
+
+        final Money openingAccountBalance = lastTransaction == null ? Money.zero(savingsAccountData.currency())
+                : lastTransaction.getRunningBalance(savingsAccountData.currency());
+        List<SavingsAccountTransactionData> accountTransactionsSorted = retrieveSortedTransactionsAfter(checkpointDate,
+                savingsAccountData);
+        if (recalculateRunningBalances(openingAccountBalance, accountTransactionsSorted, savingsAccountData)) {
+            accountTransactionsSorted = retrieveSortedTransactionsAfter(checkpointDate, savingsAccountData);
+        }
+        if (lastBalanceTransaction != null) {
+            accountTransactionsSorted.add(0, lastBalanceTransaction);
+        }
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate, savingsAccountData);
+    }
+
+    private List<SavingsAccountTransactionData> retrieveSortedTransactionsAfter(final LocalDate date,
+            final SavingsAccountData savingsAccountData) {
+        final List<SavingsAccountTransactionData> listOfTransactionsSorted = new ArrayList<>();
+        for (final SavingsAccountTransactionData transaction : savingsAccountData.getTransactions()) {
+            if (transaction.getTransactionLocalDate().isAfter(date)) {
+                listOfTransactionsSorted.add(transaction);
+            }
+        }
+        listOfTransactionsSorted.sort(new SavingsAccountTransactionDataComparator());
+        return listOfTransactionsSorted;
+    }
+
+    private boolean recalculateRunningBalances(final Money openingAccountBalance,
+            final List<SavingsAccountTransactionData> accountTransactionsSorted, final SavingsAccountData savingsAccountData) {
         Money runningBalance = openingAccountBalance.copy();
 
-        List<SavingsAccountTransactionData> accountTransactionsSorted = retreiveListOfTransactions(savingsAccountData);
         boolean isTransactionsModified = false;
-
         for (final SavingsAccountTransactionData transaction : accountTransactionsSorted) {
             if (transaction.isReversed() || transaction.isReversalTransaction()) {
                 transaction.zeroBalanceFields();
@@ -464,10 +622,7 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
             }
         }
 
-        if (isTransactionsModified) {
-            accountTransactionsSorted = retreiveListOfTransactions(savingsAccountData);
-        }
-        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate, savingsAccountData);
+        return isTransactionsModified;
     }
 
     public void addTransactionToExisting(final SavingsAccountTransactionData transaction, final SavingsAccountData savingsAccountData) {
@@ -36,6 +36,7 @@ import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PageCountMode;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
@@ -74,6 +75,7 @@ import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionEnumD
 import org.apache.fineract.portfolio.savings.data.SavingsProductData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountChargesPaidByData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountInterestCheckpoint;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountSubStatusEnum;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountNotFoundException;
@@ -191,9 +193,11 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
         sqlBuilder.append(" join m_office o on o.id = c.office_id");
         sqlBuilder.append(" where o.hierarchy like ?");
 
-        final Object[] objectArray = new Object[2];
+        final Object[] objectArray = new Object[3];
         objectArray[0] = hierarchySearchString;
         int arrayPos = 1;
+        String sqlCountRows = null;
+        Object[] countArgs = null;
         if (searchParameters != null) {
             String sqlQueryCriteria = searchParameters.getSqlSearch();
             if (StringUtils.isNotBlank(sqlQueryCriteria)) {
@@ -212,7 +216,17 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
                 objectArray[arrayPos] = searchParameters.getOfficeId();
                 arrayPos = arrayPos + 1;
             }
-            if (searchParameters.isOrderByRequested()) {
+            // the total of a keyset page counts the whole list, not only the rows past the cursor
+            sqlCountRows = sqlBuilder.toString();
+            countArgs = Arrays.copyOf(objectArray, arrayPos);
+            if (searchParameters.isAfterIdBound()) {
+                sqlBuilder.append(" and ").append(searchParameters.keysetConditionSql("sa.id"));
+                objectArray[arrayPos] = searchParameters.getAfterId();
+                arrayPos = arrayPos + 1;
+            }
+            if (searchParameters.isAfterIdPassed()) {
+                sqlBuilder.append(searchParameters.keysetOrderBySql("sa.id"));
+            } else if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
 
@@ -232,7 +246,13 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
             }
         }
         final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, this.savingAccountMapper);
+        final PageCountMode countMode = searchParameters == null ? PageCountMode.EXACT : searchParameters.getCountMode();
+        if (searchParameters != null && searchParameters.isAfterIdPassed()) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, sqlCountRows, countArgs,
+                    this.savingAccountMapper, countMode);
+        }
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, this.savingAccountMapper,
+                countMode);
     }
 
     @Override
@@ -336,6 +356,14 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
             sqlBuilder.append("sa.last_interest_calculation_date as lastInterestCalculationDate, ");
             sqlBuilder.append("sa.total_savings_amount_on_hold as onHoldAmount, ");
             sqlBuilder.append("sa.interest_posted_till_date as interestPostedTillDate, ");
+            sqlBuilder.append("sa.interest_checkpoint_date as interestCheckpointDate, ");
+            sqlBuilder.append("sa.interest_checkpoint_closing_balance as interestCheckpointClosingBalance, ");
+            sqlBuilder.append("sa.interest_checkpoint_compounded_interest as interestCheckpointCompoundedInterest, ");
+            sqlBuilder.append("sa.interest_checkpoint_uncompounded_interest as interestCheckpointUncompoundedInterest, ");
+            sqlBuilder.append("sa.interest_checkpoint_interest_earned as interestCheckpointInterestEarned, ");
+            sqlBuilder.append("sa.interest_checkpoint_transaction_count as interestCheckpointTransactionCount, ");
+            sqlBuilder.append("sa.interest_checkpoint_transaction_total as interestCheckpointTransactionTotal, ");
+            sqlBuilder.append("sa.interest_checkpoint_transaction_day_total as interestCheckpointTransactionDayTotal, ");
             sqlBuilder.append("tg.id as taxGroupId, ");
             sqlBuilder.append("(select COALESCE(max(sat.transaction_date),sa.activatedon_date) ");
             sqlBuilder.append("from m_savings_account_transaction as sat ");
@@ -590,6 +618,14 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
                     savingsAccountData.setSavingsProduct(savingsProductData);
                     savingsAccountData.setGlAccountIdForInterestOnSavings(glAccountIdForInterestOnSavings);
                     savingsAccountData.setGlAccountIdForSavingsControl(glAccountIdForSavingsControl);
+                    savingsAccountData.setInterestCheckpoint(SavingsAccountInterestCheckpoint.instance(
+                            JdbcSupport.getLocalDate(rs, "interestCheckpointDate"), rs.getBigDecimal("interestCheckpointClosingBalance"),
+                            rs.getBigDecimal("interestCheckpointCompoundedInterest"),
+                            rs.getBigDecimal("interestCheckpointUncompoundedInterest"),
+                            rs.getBigDecimal("interestCheckpointInterestEarned"),
+                            JdbcSupport.getInteger(rs, "interestCheckpointTransactionCount"),
+                            rs.getBigDecimal("interestCheckpointTransactionTotal"),
+                            rs.getBigDecimal("interestCheckpointTransactionDayTotal")));
                 }
 
                 if (!transMap.containsValue(transactionId)) {
@@ -43,6 +43,7 @@ import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountSummaryData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountInterestCheckpoint;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -256,6 +257,7 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
         List<String> transRefNo = new ArrayList<>();
         for (SavingsAccountData savingsAccountData : savingsAccountDataList) {
             SavingsAccountSummaryData savingsAccountSummaryData = savingsAccountData.getSummary();
+            SavingsAccountInterestCheckpoint interestCheckpoint = savingsAccountData.getInterestCheckpoint();
             paramsForSavingsSummary.add(new Object[] { savingsAccountSummaryData.getTotalDeposits(),
                     savingsAccountSummaryData.getTotalWithdrawals(), savingsAccountSummaryData.getTotalInterestEarned(),
                     savingsAccountSummaryData.getTotalInterestPosted(), savingsAccountSummaryData.getTotalWithdrawalFees(),
@@ -269,7 +271,14 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
                                     .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant())
                             : Date.from(savingsAccountSummaryData.getLastInterestCalculationDate()
                                     .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                    savingsAccountData.getId() });
+                    interestCheckpoint.getCheckpointDate() != null
+                            ? Date.from(
+                                    interestCheckpoint.getCheckpointDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant())
+                            : null,
+                    interestCheckpoint.getClosingBalance(), interestCheckpoint.getCompoundedInterest(),
+                    interestCheckpoint.getUncompoundedInterest(), interestCheckpoint.getInterestEarned(),
+                    interestCheckpoint.getTransactionCount(), interestCheckpoint.getTransactionTotal(),
+                    interestCheckpoint.getTransactionDayTotal(), savingsAccountData.getId() });
             List<SavingsAccountTransactionData> savingsAccountTransactionDataList = savingsAccountData.getSavingsAccountTransactionData();
             LocalDateTime currentDate = DateUtils.getLocalDateTimeOfTenant();
             for (SavingsAccountTransactionData savingsAccountTransactionData : savingsAccountTransactionDataList) {
@@ -338,7 +347,11 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
         query.append("total_interest_earned_derived=?, total_interest_posted_derived=?, total_withdrawal_fees_derived=?, ");
         query.append("total_fees_charge_derived=?, total_penalty_charge_derived=?, total_annual_fees_derived=?, ");
         query.append("account_balance_derived=?, total_overdraft_interest_derived=?, total_withhold_tax_derived=?, ");
-        query.append("last_interest_calculation_date=?, interest_posted_till_date=? where id=? ");
+        query.append("last_interest_calculation_date=?, interest_posted_till_date=?, ");
+        query.append("interest_checkpoint_date=?, interest_checkpoint_closing_balance=?, interest_checkpoint_compounded_interest=?, ");
+        query.append("interest_checkpoint_uncompounded_interest=?, interest_checkpoint_interest_earned=?, ");
+        query.append("interest_checkpoint_transaction_count=?, interest_checkpoint_transaction_total=?, ");
+        query.append("interest_checkpoint_transaction_day_total=? where id=? ");
         return query.toString();
     }
 
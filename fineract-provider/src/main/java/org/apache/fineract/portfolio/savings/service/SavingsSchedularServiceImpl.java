@@ -20,18 +20,24 @@ package org.apache.fineract.portfolio.savings.service;
 
 import static org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType.ACTIVE;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.LocalDate;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -47,6 +53,7 @@ import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
 import org.springframework.context.ApplicationContext;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
 
@@ -55,6 +62,18 @@ import org.springframework.transaction.support.TransactionTemplate;
 @RequiredArgsConstructor
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
+    public static final String INTEREST_POSTING_METRIC_NAME = "fineract.savings.interest-posting";
+
+    private static final String THREAD_POOL_SIZE_PARAMETER = "thread-pool-size";
+    private static final String BATCH_SIZE_PARAMETER = "batch-size";
+    private static final String QUEUE_CAPACITY_PARAMETER = "queue-capacity";
+    private static final int DEFAULT_THREAD_POOL_SIZE = 10;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_QUEUED_BATCHES_PER_THREAD = 2;
+    private static final long ENQUEUE_TIMEOUT_IN_SECONDS = 1;
+    // marker handed to each worker once the reader has exhausted the savings accounts
+    private static final List<SavingsAccountData> END_OF_DATA = Collections.unmodifiableList(new ArrayList<>());
+
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
@@ -63,184 +82,264 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
     private final ConfigurationDomainService configurationDomainService;
     private final JdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
-    private Queue<List<SavingsAccountData>> queue = new ArrayDeque<>();
-    private int queueSize = 1;
+    private final MeterRegistry meterRegistry;
+
+    // shared by all runs, each run submits thread-pool-size workers; idle threads expire after a minute
+    private final ExecutorService workerPool = Executors.newCachedThreadPool(new CustomizableThreadFactory("savings-interest-posting-"));
+
+    @PreDestroy
+    public void shutdown() {
+        this.workerPool.shutdownNow();
+    }
 
     @Override
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     public void postInterestForAccounts(Map<String, String> jobParameters) throws JobExecutionException {
 
-        final int threadPoolSize = Integer.parseInt(jobParameters.get("thread-pool-size"));
-        final int batchSize = Integer.parseInt(jobParameters.get("batch-size"));
+        final int threadPoolSize = Math
+                .max(Integer.parseInt(jobParameters.getOrDefault(THREAD_POOL_SIZE_PARAMETER, "" + DEFAULT_THREAD_POOL_SIZE)), 1);
+        final int batchSize = Math.max(Integer.parseInt(jobParameters.getOrDefault(BATCH_SIZE_PARAMETER, "" + DEFAULT_BATCH_SIZE)), 1);
         final int pageSize = batchSize * threadPoolSize;
-        Long maxSavingsIdInList = 0L;
-        // initialise the executor service with fetched configurations
-        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+        final int queueCapacity = Integer
+                .parseInt(jobParameters.getOrDefault(QUEUE_CAPACITY_PARAMETER, "" + threadPoolSize * DEFAULT_QUEUED_BATCHES_PER_THREAD));
         final boolean backdatedTxnsAllowedTill = this.configurationDomainService.retrievePivotDateConfig();
+        final FineractContext context = ThreadLocalContextUtil.getContext();
 
-        long start = System.currentTimeMillis();
-
-        log.info("Reading Savings Account Data!");
-        List<SavingsAccountData> savingsAccounts = this.savingAccountReadPlatformService
-                .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxSavingsIdInList);
+        // all pipeline state is local to this run, so concurrent runs for different tenants never share a queue; the
+        // pool threads only run the workers of one run at a time
+        final BlockingQueue<List<SavingsAccountData>> batches = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        final InterestPostingProgress progress = new InterestPostingProgress(this.meterRegistry,
+                context.getTenantContext() == null ? null : context.getTenantContext().getTenantIdentifier());
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final List<Future<?>> workers = new ArrayList<>(threadPoolSize);
+        final AtomicInteger liveWorkers = new AtomicInteger(threadPoolSize);
 
-        if (savingsAccounts != null && savingsAccounts.size() > 0) {
-            savingsAccounts = Collections.synchronizedList(savingsAccounts);
-            long finish = System.currentTimeMillis();
-            log.info("Done fetching Data within {} milliseconds", finish - start);
-            if (savingsAccounts != null) {
-                queue.add(savingsAccounts);
+        long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < threadPoolSize; i++) {
+                workers.add(this.workerPool.submit(() -> {
+                    try {
+                        postBatches(batches, context, backdatedTxnsAllowedTill, progress, errors);
+                    } finally {
+                        liveWorkers.decrementAndGet();
+                    }
+                }));
             }
-
-            if (!CollectionUtils.isEmpty(queue)) {
-                do {
-                    int totalFilteredRecords = savingsAccounts.size();
-                    log.info("Starting Interest posting - total records - {}", totalFilteredRecords);
-                    List<SavingsAccountData> queueElement = queue.element();
-                    maxSavingsIdInList = queueElement.get(queueElement.size() - 1).getId();
-                    postInterest(queue.remove(), threadPoolSize, batchSize, executorService, backdatedTxnsAllowedTill, pageSize,
-                            maxSavingsIdInList);
-                } while (!CollectionUtils.isEmpty(queue));
+            try {
+                readBatches(batches, liveWorkers, backdatedTxnsAllowedTill, pageSize, batchSize, progress);
+            } catch (RuntimeException e) {
+                log.error("Reading savings accounts for interest posting failed after {} pages", progress.pagesRead.get(), e);
+                errors.add(e);
+            }
+            for (int i = 0; i < threadPoolSize; i++) {
+                if (!enqueue(batches, END_OF_DATA, liveWorkers)) {
+                    break;
+                }
             }
-            // shutdown the executor when done
-            executorService.shutdownNow();
+            for (Future<?> worker : workers) {
+                awaitWorker(worker, progress, errors);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while posting interest for savings accounts", e);
+            errors.add(e);
+        } finally {
+            // stops the workers still running after a failure of the reader or an interruption
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+
+        log.info("Interest posting for savings finished within {} milliseconds - {}", System.currentTimeMillis() - start, progress);
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
         }
     }
 
-    private void postInterest(List<SavingsAccountData> savingsAccounts, int threadPoolSize, int batchSize, ExecutorService executorService,
-            final boolean backdatedTxnsAllowedTill, final int pageSize, Long maxSavingsIdInList) {
-        List<Callable<Void>> posters = new ArrayList<>();
-        int fromIndex = 0;
-        // get the size of current paginated dataset
-        int size = savingsAccounts.size();
-        // calculate the batch size
-        batchSize = (int) Math.ceil((double) size / threadPoolSize);
+    /**
+     * Reads the postable savings accounts page by page (keyset on the account id) and hands them to the workers in
+     * batches. Blocks while the queue is full, so a slow posting stage holds back the reader instead of letting
+     * fetched pages pile up in memory.
+     */
+    private void readBatches(final BlockingQueue<List<SavingsAccountData>> batches, final AtomicInteger liveWorkers,
+            final boolean backdatedTxnsAllowedTill, final int pageSize, final int batchSize, final InterestPostingProgress progress)
+            throws InterruptedException {
+        Long maxSavingsIdInList = 0L;
+        while (true) {
+            long startRead = System.currentTimeMillis();
+            List<SavingsAccountData> savingsAccounts = this.savingAccountReadPlatformService
+                    .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxSavingsIdInList);
+            if (CollectionUtils.isEmpty(savingsAccounts)) {
+                return;
+            }
+            maxSavingsIdInList = savingsAccounts.get(savingsAccounts.size() - 1).getId();
+            int page = progress.pageRead();
+            log.info("Read page {} with {} savings accounts up to id {} within {} milliseconds", page, savingsAccounts.size(),
+                    maxSavingsIdInList, System.currentTimeMillis() - startRead);
 
-        if (batchSize == 0) {
-            return;
+            for (List<SavingsAccountData> batch : splitIntoBatches(savingsAccounts, batchSize)) {
+                if (!enqueue(batches, batch, liveWorkers)) {
+                    throw new IllegalStateException("All interest posting workers stopped, " + progress);
+                }
+                progress.batchQueued();
+            }
         }
+    }
 
-        int toIndex = (batchSize > size - 1) ? size : batchSize;
-        while (toIndex < size && savingsAccounts.get(toIndex - 1).getId().equals(savingsAccounts.get(toIndex).getId())) {
-            toIndex++;
+    private static void awaitWorker(final Future<?> worker, final InterestPostingProgress progress, final List<Throwable> errors)
+            throws InterruptedException {
+        while (true) {
+            try {
+                worker.get(1, TimeUnit.MINUTES);
+                return;
+            } catch (TimeoutException e) {
+                log.info("Waiting for interest posting workers to finish - {}", progress);
+            } catch (ExecutionException e) {
+                errors.add(e.getCause());
+                return;
+            }
         }
-        boolean lastBatch = false;
-        int loopCount = size / batchSize + 1;
-
-        FineractContext context = ThreadLocalContextUtil.getContext();
-        Long finalMaxSavingsIdInList = maxSavingsIdInList;
+    }
 
-        Callable<Void> fetchData = () -> {
-            ThreadLocalContextUtil.init(context);
-            Long maxId = finalMaxSavingsIdInList;
-            if (!queue.isEmpty()) {
-                maxId = Math.max(finalMaxSavingsIdInList, queue.element().get(queue.element().size() - 1).getId());
+    /**
+     * Waits until the queue takes the batch. Returns false instead of blocking forever when no worker is left to drain
+     * the queue.
+     */
+    static boolean enqueue(final BlockingQueue<List<SavingsAccountData>> batches, final List<SavingsAccountData> batch,
+            final AtomicInteger liveWorkers) throws InterruptedException {
+        while (!batches.offer(batch, ENQUEUE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+            if (liveWorkers.get() == 0) {
+                return false;
             }
+        }
+        return true;
+    }
 
-            while (queue.size() <= queueSize) {
-                log.info("Fetching while threads are running!");
-                List<SavingsAccountData> savingsAccountDataList = Collections.synchronizedList(this.savingAccountReadPlatformService
-                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxId));
-                if (savingsAccountDataList == null || savingsAccountDataList.isEmpty()) {
-                    break;
+    private void postBatches(final BlockingQueue<List<SavingsAccountData>> batches, final FineractContext context,
+            final boolean backdatedTxnsAllowedTill, final InterestPostingProgress progress, final List<Throwable> errors) {
+        ThreadLocalContextUtil.init(context);
+        try {
+            List<SavingsAccountData> batch = batches.take();
+            while (batch != END_OF_DATA) {
+                try {
+                    // the poster writes its whole batch with JDBC batch statements once interest is calculated
+                    createPoster(batch, context, backdatedTxnsAllowedTill).call();
+                    progress.batchPosted(batch.size());
+                } catch (JobExecutionException e) {
+                    progress.batchFailed(batch.size());
+                    errors.addAll(e.getCauses());
+                } catch (Throwable e) {
+                    // a worker must keep draining the queue, otherwise the reader blocks on a full queue
+                    log.error("Interest posting failed for a batch of {} savings accounts", batch.size(), e);
+                    progress.batchFailed(batch.size());
+                    errors.add(e);
                 }
-                maxId = savingsAccountDataList.get(savingsAccountDataList.size() - 1).getId();
-                queue.add(savingsAccountDataList);
-            }
-            return null;
-        };
-        posters.add(fetchData);
-
-        for (long i = 0; i < loopCount; i++) {
-            List<SavingsAccountData> subList = safeSubList(savingsAccounts, fromIndex, toIndex);
-            SavingsSchedularInterestPoster poster = (SavingsSchedularInterestPoster) this.applicationContext
-                    .getBean("savingsSchedularInterestPoster");
-            poster.setSavingAccounts(subList);
-            poster.setContext(ThreadLocalContextUtil.getContext());
-            poster.setSavingsAccountWritePlatformService(savingsAccountWritePlatformService);
-            poster.setSavingsAccountReadPlatformService(savingAccountReadPlatformService);
-            poster.setSavingsAccountRepository(savingsAccountRepository);
-            poster.setSavingAccountAssembler(savingAccountAssembler);
-            poster.setJdbcTemplate(jdbcTemplate);
-            poster.setBackdatedTxnsAllowedTill(backdatedTxnsAllowedTill);
-            poster.setTransactionTemplate(transactionTemplate);
-            poster.setConfigurationDomainService(configurationDomainService);
-
-            posters.add(poster);
-
-            if (lastBatch) {
-                break;
+                batch = batches.take();
             }
-            if (toIndex + batchSize > size - 1) {
-                lastBatch = true;
-            }
-            fromIndex = fromIndex + (toIndex - fromIndex);
-            toIndex = (toIndex + batchSize > size - 1) ? size : toIndex + batchSize;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interest posting worker interrupted", e);
+            errors.add(e);
+        } finally {
+            // the pool thread is reused by the next run, possibly of another tenant
+            ThreadLocalContextUtil.reset();
+        }
+    }
+
+    private SavingsSchedularInterestPoster createPoster(final List<SavingsAccountData> savingsAccounts, final FineractContext context,
+            final boolean backdatedTxnsAllowedTill) {
+        SavingsSchedularInterestPoster poster = (SavingsSchedularInterestPoster) this.applicationContext
+                .getBean("savingsSchedularInterestPoster");
+        poster.setSavingAccounts(savingsAccounts);
+        poster.setContext(context);
+        poster.setSavingsAccountWritePlatformService(savingsAccountWritePlatformService);
+        poster.setSavingsAccountReadPlatformService(savingAccountReadPlatformService);
+        poster.setSavingsAccountRepository(savingsAccountRepository);
+        poster.setSavingAccountAssembler(savingAccountAssembler);
+        poster.setJdbcTemplate(jdbcTemplate);
+        poster.setBackdatedTxnsAllowedTill(backdatedTxnsAllowedTill);
+        poster.setTransactionTemplate(transactionTemplate);
+        poster.setConfigurationDomainService(configurationDomainService);
+        return poster;
+    }
+
+    // break the page into batches, never splitting the rows of one savings account across two batches
+    static List<List<SavingsAccountData>> splitIntoBatches(final List<SavingsAccountData> savingsAccounts, final int batchSize) {
+        final List<List<SavingsAccountData>> batches = new ArrayList<>();
+        final int size = savingsAccounts.size();
+        final int maxBatchSize = Math.max(batchSize, 1);
+        int fromIndex = 0;
+        while (fromIndex < size) {
+            int toIndex = Math.min(fromIndex + maxBatchSize, size);
             while (toIndex < size && savingsAccounts.get(toIndex - 1).getId().equals(savingsAccounts.get(toIndex).getId())) {
                 toIndex++;
             }
+            batches.add(new ArrayList<>(savingsAccounts.subList(fromIndex, toIndex)));
+            fromIndex = toIndex;
         }
+        return batches;
+    }
 
-        try {
-            List<Future<Void>> responses = executorService.invokeAll(posters);
-            Long maxId = maxSavingsIdInList;
-            if (!queue.isEmpty()) {
-                maxId = Math.max(maxSavingsIdInList, queue.element().get(queue.element().size() - 1).getId());
-            }
+    /**
+     * Progress of one run, logged by the run and counted per tenant in the meter registry as
+     * fineract.savings.interest-posting.pages, .batches.posted, .batches.failed, .accounts.posted and .accounts.failed.
+     */
+    private static final class InterestPostingProgress {
 
-            while (queue.size() <= queueSize) {
-                log.info("Fetching while threads are running!..:: this is not supposed to run........");
-                savingsAccounts = Collections.synchronizedList(this.savingAccountReadPlatformService
-                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxId));
-                if (savingsAccounts == null || savingsAccounts.isEmpty()) {
-                    break;
-                }
-                maxId = savingsAccounts.get(savingsAccounts.size() - 1).getId();
-                log.info("Add to the Queue");
-                queue.add(savingsAccounts);
-            }
+        private final AtomicInteger pagesRead = new AtomicInteger();
+        private final AtomicInteger batchesQueued = new AtomicInteger();
+        private final AtomicInteger batchesPosted = new AtomicInteger();
+        private final AtomicInteger batchesFailed = new AtomicInteger();
+        private final AtomicLong accountsPosted = new AtomicLong();
+        private final AtomicLong accountsFailed = new AtomicLong();
+        private final Counter pagesCounter;
+        private final Counter batchesPostedCounter;
+        private final Counter batchesFailedCounter;
+        private final Counter accountsPostedCounter;
+        private final Counter accountsFailedCounter;
 
-            checkCompletion(responses);
-            log.info("Queue size {}", queue.size());
-        } catch (InterruptedException e1) {
-            log.error("Interrupted while postInterest", e1);
+        private InterestPostingProgress(final MeterRegistry meterRegistry, final String tenantIdentifier) {
+            final String tenant = tenantIdentifier == null ? "unknown" : tenantIdentifier;
+            this.pagesCounter = Counter.builder(INTEREST_POSTING_METRIC_NAME + ".pages").tag("tenant", tenant)
+                    .description("Pages of savings accounts read for interest posting").register(meterRegistry);
+            this.batchesPostedCounter = Counter.builder(INTEREST_POSTING_METRIC_NAME + ".batches.posted").tag("tenant", tenant)
+                    .register(meterRegistry);
+            this.batchesFailedCounter = Counter.builder(INTEREST_POSTING_METRIC_NAME + ".batches.failed").tag("tenant", tenant)
+                    .register(meterRegistry);
+            this.accountsPostedCounter = Counter.builder(INTEREST_POSTING_METRIC_NAME + ".accounts.posted").tag("tenant", tenant)
+                    .register(meterRegistry);
+            this.accountsFailedCounter = Counter.builder(INTEREST_POSTING_METRIC_NAME + ".accounts.failed").tag("tenant", tenant)
+                    .register(meterRegistry);
         }
-    }
 
-    // break the lists into sub lists
-    public <T> List<T> safeSubList(List<T> list, int fromIndex, int toIndex) {
-        int size = list.size();
-        if (fromIndex >= size || toIndex <= 0 || fromIndex >= toIndex) {
-            return Collections.emptyList();
+        private int pageRead() {
+            pagesCounter.increment();
+            return pagesRead.incrementAndGet();
         }
 
-        fromIndex = Math.max(0, fromIndex);
-        toIndex = Math.min(size, toIndex);
+        private void batchQueued() {
+            batchesQueued.incrementAndGet();
+        }
 
-        return list.subList(fromIndex, toIndex);
-    }
+        private void batchPosted(int accounts) {
+            batchesPosted.incrementAndGet();
+            accountsPosted.addAndGet(accounts);
+            batchesPostedCounter.increment();
+            accountsPostedCounter.increment(accounts);
+        }
 
-    // checks the execution of task by each thread in the executor service
-    private void checkCompletion(List<Future<Void>> responses) {
-        try {
-            for (Future f : responses) {
-                f.get();
-            }
-            boolean allThreadsExecuted = false;
-            int noOfThreadsExecuted = 0;
-            for (Future<Void> future : responses) {
-                if (future.isDone()) {
-                    noOfThreadsExecuted++;
-                }
-            }
-            allThreadsExecuted = noOfThreadsExecuted == responses.size();
-            if (!allThreadsExecuted) {
-                log.error("All threads could not execute.");
-            }
-        } catch (InterruptedException e1) {
-            log.error("Interrupted while interest posting entries", e1);
-        } catch (ExecutionException e2) {
-            log.error("Execution exception while interest posting entries", e2);
+        private void batchFailed(int accounts) {
+            batchesFailed.incrementAndGet();
+            accountsFailed.addAndGet(accounts);
+            batchesFailedCounter.increment();
+            accountsFailedCounter.increment(accounts);
+        }
+
+        @Override
+        public String toString() {
+            return "pages read: " + pagesRead.get() + ", batches queued: " + batchesQueued.get() + ", batches posted: "
+                    + batchesPosted.get() + ", batches failed: " + batchesFailed.get() + ", accounts posted: " + accountsPosted.get()
+                    + ", accounts failed: " + accountsFailed.get();
         }
     }
 
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits searchable values into the tokens of the search index: the whole (lower cased) value, for exact matches, and
+ * every suffix of at least {@link #MIN_TOKEN_LENGTH} characters of each of its words. A prefix lookup on the suffixes
+ * finds any value containing the probed word, so the index yields a superset of the rows a "like '%term%'" predicate
+ * would match.
+ */
+final class SearchIndexTokenizer {
+
+    static final int MIN_TOKEN_LENGTH = 3;
+    static final int MAX_TOKEN_LENGTH = 100;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SearchIndexTokenizer() {}
+
+    static Set<String> tokenize(final Collection<String> values) {
+        final Set<String> tokens = new LinkedHashSet<>();
+        for (final String value : values) {
+            final String normalized = normalize(value);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            tokens.add(truncate(normalized));
+            for (final String word : normalized.split(" ")) {
+                if (word.length() <= MIN_TOKEN_LENGTH) {
+                    tokens.add(word);
+                    continue;
+                }
+                for (int i = 0; i + MIN_TOKEN_LENGTH <= word.length(); i++) {
+                    tokens.add(truncate(word.substring(i)));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * The token an exact match is looked up by.
+     */
+    static String exactToken(final String query) {
+        return truncate(normalize(query));
+    }
+
+    /**
+     * The word of the query the index is probed with by prefix: its longest, as the most selective one. Returns null if
+     * that word is too short to be found through the suffix tokens.
+     */
+    static String probeWord(final String query) {
+        String longest = "";
+        for (final String word : normalize(query).split(" ")) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        return longest.length() < MIN_TOKEN_LENGTH ? null : truncate(longest);
+    }
+
+    private static String normalize(final String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    private static String truncate(final String token) {
+        return token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token;
+    }
+}
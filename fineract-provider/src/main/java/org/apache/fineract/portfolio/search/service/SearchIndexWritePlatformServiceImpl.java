@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.businessevent.domain.client.ClientCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.deposit.FixedDepositAccountCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.deposit.RecurringDepositAccountCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.group.CentersCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.group.GroupsCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanCreatedBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.savings.SavingsCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.share.ShareAccountCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.search.data.SearchIndexEntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class SearchIndexWritePlatformServiceImpl implements SearchIndexWritePlatformService {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final TransactionTemplate requiresNewTransactionTemplate;
+
+    @Autowired
+    public SearchIndexWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate, final DatabaseSpecificSQLGenerator sqlGenerator,
+            final BusinessEventNotifierService businessEventNotifierService, final PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlGenerator = sqlGenerator;
+        this.businessEventNotifierService = businessEventNotifierService;
+        this.requiresNewTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void addListeners() {
+        this.businessEventNotifierService.addPostBusinessEventListener(ClientCreateBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.CLIENT, event.get().getId()));
+        this.businessEventNotifierService.addPostBusinessEventListener(GroupsCreateBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.GROUP, event.get().getGroupId()));
+        this.businessEventNotifierService.addPostBusinessEventListener(CentersCreateBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.GROUP, event.get().getGroupId()));
+        this.businessEventNotifierService.addPostBusinessEventListener(LoanCreatedBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.LOAN, event.get().getId()));
+        this.businessEventNotifierService.addPostBusinessEventListener(SavingsCreateBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.SAVING, event.get().getId()));
+        this.businessEventNotifierService.addPostBusinessEventListener(FixedDepositAccountCreateBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.SAVING, event.get().getId()));
+        this.businessEventNotifierService.addPostBusinessEventListener(RecurringDepositAccountCreateBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.SAVING, event.get().getId()));
+        this.businessEventNotifierService.addPostBusinessEventListener(ShareAccountCreateBusinessEvent.class,
+                event -> reindexAfterCommit(SearchIndexEntityType.SHARE, event.get().getId()));
+    }
+
+    @Override
+    public void reindexAfterCommit(final SearchIndexEntityType entityType, final Long entityId) {
+        if (entityId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reindex(entityType, entityId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                reindex(entityType, entityId);
+            }
+        });
+    }
+
+    private void reindex(final SearchIndexEntityType entityType, final Long entityId) {
+        try {
+            this.requiresNewTransactionTemplate.executeWithoutResult(status -> {
+                this.jdbcTemplate.update("delete from m_search_index where entity_type = ? and entity_id = ?", entityType.name(),
+                        entityId);
+                final List<Object[]> batchArgs = new ArrayList<>();
+                this.jdbcTemplate.query(selectSql(entityType) + " where id = ?", (ResultSet rs) -> {
+                    addTokens(entityType, rs, batchArgs);
+                }, entityId);
+                if (!batchArgs.isEmpty()) {
+                    this.jdbcTemplate.batchUpdate(insertTokenSql(), batchArgs);
+                }
+            });
+        } catch (RuntimeException e) {
+            // the entity itself is committed already; it is only found again once the Rebuild Search Index job (inactive by
+            // default) runs
+            log.error("Failed to update the search index for {} {}", entityType, entityId, e);
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_SEARCH_INDEX)
+    public void rebuildSearchIndex() {
+        for (final SearchIndexEntityType entityType : SearchIndexEntityType.values()) {
+            final long startTime = System.currentTimeMillis();
+            long lastId = 0L;
+            int indexed = 0;
+            int fetched;
+            do {
+                final long afterId = lastId;
+                final List<Long> ids = this.requiresNewTransactionTemplate.execute(status -> rebuildBatch(entityType, afterId));
+                fetched = ids.size();
+                if (fetched > 0) {
+                    lastId = ids.get(fetched - 1);
+                    indexed += fetched;
+                }
+            } while (fetched == REBUILD_BATCH_SIZE);
+            log.info("Rebuilt search index of {} {} entities in {} ms", indexed, entityType, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Replaces the tokens of the next batch of entities past <code>afterId</code> in one transaction, so searches keep
+     * finding them while the index is rebuilt. The range deleted also covers entities removed since the last run, the
+     * last batch everything past it. Tokens a concurrent reindex has inserted meanwhile are skipped.
+     */
+    List<Long> rebuildBatch(final SearchIndexEntityType entityType, final long afterId) {
+        final List<Object[]> batchArgs = new ArrayList<>();
+        final List<Long> ids = this.jdbcTemplate.query(
+                selectSql(entityType) + " where id > ? order by id " + this.sqlGenerator.limit(REBUILD_BATCH_SIZE), (rs, rowNum) -> {
+                    addTokens(entityType, rs, batchArgs);
+                    return rs.getLong(1);
+                }, afterId);
+        if (ids.size() == REBUILD_BATCH_SIZE) {
+            this.jdbcTemplate.update("delete from m_search_index where entity_type = ? and entity_id > ? and entity_id <= ?",
+                    entityType.name(), afterId, ids.get(ids.size() - 1));
+        } else {
+            this.jdbcTemplate.update("delete from m_search_index where entity_type = ? and entity_id > ?", entityType.name(), afterId);
+        }
+        if (!batchArgs.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(insertTokenSql(), batchArgs);
+        }
+        return ids;
+    }
+
+    private String insertTokenSql() {
+        return this.sqlGenerator.insertIfAbsent("m_search_index", "entity_type", "entity_id", "token");
+    }
+
+    private static String selectSql(final SearchIndexEntityType entityType) {
+        return "select id, " + entityType.getSearchableColumns() + " from " + entityType.getTableName();
+    }
+
+    private static void addTokens(final SearchIndexEntityType entityType, final ResultSet rs, final List<Object[]> batchArgs)
+            throws SQLException {
+        final long entityId = rs.getLong(1);
+        final int columnCount = rs.getMetaData().getColumnCount();
+        final List<String> values = new ArrayList<>(columnCount - 1);
+        for (int i = 2; i <= columnCount; i++) {
+            values.add(rs.getString(i));
+        }
+        for (final String token : SearchIndexTokenizer.tokenize(values)) {
+            batchArgs.add(new Object[] { entityType.name(), entityId, token });
+        }
+    }
+}
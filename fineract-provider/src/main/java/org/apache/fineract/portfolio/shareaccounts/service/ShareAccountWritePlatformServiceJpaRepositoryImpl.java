@@ -47,6 +47,8 @@ import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifier
 import org.apache.fineract.portfolio.client.domain.AccountNumberGenerator;
 import org.apache.fineract.portfolio.note.domain.Note;
 import org.apache.fineract.portfolio.note.domain.NoteRepository;
+import org.apache.fineract.portfolio.search.data.SearchIndexEntityType;
+import org.apache.fineract.portfolio.search.service.SearchIndexWritePlatformService;
 import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountTransactionEnumData;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccount;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccountChargePaidBy;
@@ -79,12 +81,15 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
 
     private final BusinessEventNotifierService businessEventNotifierService;
 
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
+
     @Autowired
     public ShareAccountWritePlatformServiceJpaRepositoryImpl(final ShareAccountDataSerializer accountDataSerializer,
             final ShareAccountRepositoryWrapper shareAccountRepository, final ShareProductRepositoryWrapper shareProductRepository,
             final AccountNumberGenerator accountNumberGenerator, final AccountNumberFormatRepositoryWrapper accountNumberFormatRepository,
             final JournalEntryWritePlatformService journalEntryWritePlatformService, final NoteRepository noteRepository,
-            final BusinessEventNotifierService businessEventNotifierService) {
+            final BusinessEventNotifierService businessEventNotifierService,
+            final SearchIndexWritePlatformService searchIndexWritePlatformService) {
         this.accountDataSerializer = accountDataSerializer;
         this.shareAccountRepository = shareAccountRepository;
         this.shareProductRepository = shareProductRepository;
@@ -93,6 +98,7 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
         this.journalEntryWritePlatformService = journalEntryWritePlatformService;
         this.noteRepository = noteRepository;
         this.businessEventNotifierService = businessEventNotifierService;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
     }
 
     @Override
@@ -193,6 +199,7 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
             Map<String, Object> changes = this.accountDataSerializer.validateAndUpdate(jsonCommand, account);
             if (!changes.isEmpty()) {
                 this.shareAccountRepository.save(account);
+                this.searchIndexWritePlatformService.reindexAfterCommit(SearchIndexEntityType.SHARE, accountId);
             }
             // since we are reverting all journal entries we need to add journal
             // entries for application request
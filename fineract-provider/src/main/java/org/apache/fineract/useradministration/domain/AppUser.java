@@ -22,9 +22,11 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import javax.persistence.CascadeType;
@@ -37,6 +39,7 @@ import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -119,6 +122,13 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER, mappedBy = "appUser")
     private Set<AppUserClientMapping> appUserClientMappings = new HashSet<>();
 
+    /**
+     * The upper cased codes of all permissions granted through the roles, built on the first permission check. Cached
+     * users are evicted by the user, role and permission write services, so it never outlives a change of them.
+     */
+    @Transient
+    private volatile Set<String> permissionCodes;
+
     @Column(name = "cannot_change_password", nullable = true)
     private Boolean cannotChangePassword;
 
@@ -221,6 +231,7 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
         if (!allRoles.isEmpty()) {
             this.roles.clear();
             this.roles = allRoles;
+            this.permissionCodes = null;
         }
     }
 
@@ -365,6 +376,7 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
         this.firstTimeLoginRemaining = true;
         this.username = getId() + "_DELETED_" + this.username;
         this.roles.clear();
+        this.permissionCodes = null;
     }
 
     public boolean isDeleted() {
@@ -538,14 +550,7 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
      * @return whether the user has the specified permission
      */
     public boolean hasSpecificPermissionTo(final String permissionCode) {
-        boolean hasPermission = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo(permissionCode)) {
-                hasPermission = true;
-                break;
-            }
-        }
-        return hasPermission;
+        return permissionCodes().contains(permissionCode.toUpperCase(Locale.ROOT));
     }
 
     public void validateHasReadPermission(final String resourceType) {
@@ -576,27 +581,26 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
     }
 
     private boolean hasPermissionTo(final String permissionCode) {
-        boolean hasPermission = hasAllFunctionsPermission();
-        if (!hasPermission) {
-            for (final Role role : this.roles) {
-                if (role.hasPermissionTo(permissionCode)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
-        }
-        return hasPermission;
+        return hasAllFunctionsPermission() || hasSpecificPermissionTo(permissionCode);
     }
 
     private boolean hasAllFunctionsPermission() {
-        boolean match = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo("ALL_FUNCTIONS")) {
-                match = true;
-                break;
+        return permissionCodes().contains("ALL_FUNCTIONS");
+    }
+
+    private Set<String> permissionCodes() {
+        Set<String> codes = this.permissionCodes;
+        if (codes == null) {
+            codes = new HashSet<>();
+            for (final Role role : this.roles) {
+                for (final Permission permission : role.getPermissions()) {
+                    codes.add(permission.getCode().toUpperCase(Locale.ROOT));
+                }
             }
+            codes = Collections.unmodifiableSet(codes);
+            this.permissionCodes = codes;
         }
-        return match;
+        return codes;
     }
 
     public boolean hasIdOf(final Long userId) {
@@ -21,6 +21,7 @@ package org.apache.fineract.useradministration.domain;
 import org.apache.fineract.infrastructure.core.service.PlatformEmailService;
 import org.apache.fineract.infrastructure.security.service.PlatformPasswordEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,6 +40,7 @@ public class JpaUserDomainService implements UserDomainService {
         this.emailService = emailService;
     }
 
+    @CacheEvict(value = "usersByOfficePermission", allEntries = true)
     @Transactional
     @Override
     public void create(final AppUser appUser, final Boolean sendPasswordToEmail) {
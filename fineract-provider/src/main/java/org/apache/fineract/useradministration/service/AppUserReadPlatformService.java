@@ -19,6 +19,7 @@
 package org.apache.fineract.useradministration.service;
 
 import java.util.Collection;
+import java.util.Set;
 import org.apache.fineract.useradministration.data.AppUserData;
 
 public interface AppUserReadPlatformService {
@@ -32,4 +33,9 @@ public interface AppUserReadPlatformService {
     AppUserData retrieveUser(Long userId);
 
     boolean isUsernameExist(String username);
+
+    /**
+     * The ids of the users of the office who have the permission, directly or through ALL_FUNCTIONS.
+     */
+    Set<Long> retrieveUserIdsWithPermission(Long officeId, String permissionCode);
 }
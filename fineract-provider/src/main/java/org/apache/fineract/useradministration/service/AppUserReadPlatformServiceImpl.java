@@ -23,6 +23,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
@@ -224,4 +225,13 @@ public class AppUserReadPlatformServiceImpl implements AppUserReadPlatformServic
         }
         return true;
     }
+
+    @Override
+    @Cacheable(value = "usersByOfficePermission", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#officeId+'|'+#permissionCode)")
+    public Set<Long> retrieveUserIdsWithPermission(final Long officeId, final String permissionCode) {
+        final String sql = "select distinct u.id from m_appuser u join m_appuser_role ur on ur.appuser_id = u.id"
+                + " join m_role_permission rp on rp.role_id = ur.role_id join m_permission p on p.id = rp.permission_id"
+                + " where u.office_id = ? and u.is_deleted=false and (upper(p.code) = ? or p.code = 'ALL_FUNCTIONS')";
+        return Set.copyOf(this.jdbcTemplate.queryForList(sql, Long.class, officeId, permissionCode.toUpperCase(Locale.ROOT)));
+    }
 }
@@ -57,6 +57,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
     private final RoleDataValidator roleCommandFromApiJsonDeserializer;
     private final PermissionsCommandFromApiJsonDeserializer permissionsFromApiJsonDeserializer;
 
+    @CacheEvict(value = "usersByOfficePermission", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult createRole(final JsonCommand command) {
@@ -105,7 +106,8 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
         log.error("Error occured.", dve);
     }
 
-    @Caching(evict = { @CacheEvict(value = "users", allEntries = true), @CacheEvict(value = "usersByUsername", allEntries = true) })
+    @Caching(evict = { @CacheEvict(value = "users", allEntries = true), @CacheEvict(value = "usersByUsername", allEntries = true),
+            @CacheEvict(value = "usersByOfficePermission", allEntries = true) })
     @Transactional
     @Override
     public CommandProcessingResult updateRole(final Long roleId, final JsonCommand command) {
@@ -141,7 +143,8 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
         }
     }
 
-    @Caching(evict = { @CacheEvict(value = "users", allEntries = true), @CacheEvict(value = "usersByUsername", allEntries = true) })
+    @Caching(evict = { @CacheEvict(value = "users", allEntries = true), @CacheEvict(value = "usersByUsername", allEntries = true),
+            @CacheEvict(value = "usersByOfficePermission", allEntries = true) })
     @Transactional
     @Override
     public CommandProcessingResult updateRolePermissions(final Long roleId, final JsonCommand command) {
@@ -193,6 +196,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
     /**
      * Method for Delete Role
      */
+    @CacheEvict(value = "usersByOfficePermission", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult deleteRole(Long roleId) {
@@ -222,6 +226,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
     /**
      * Method for disabling the role
      */
+    @CacheEvict(value = "usersByOfficePermission", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult disableRole(Long roleId) {
@@ -256,6 +261,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
     /**
      * Method for Enabling the role
      */
+    @CacheEvict(value = "usersByOfficePermission", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult enableRole(Long roleId) {
@@ -0,0 +1,266 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JournalEntryAccumulatorTest {
+
+    @Mock
+    private JournalEntryRepository glJournalEntryRepository;
+
+    @InjectMocks
+    private JournalEntryAccumulator underTest;
+
+    private TestTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        this.transactionManager = new TestTransactionManager();
+    }
+
+    @Test
+    public void testBalancedLegsOfSeveralCurrenciesCommit() {
+        // when
+        assertDoesNotThrow(() -> transaction(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(status -> {
+            underTest.add(debit("USD", "100.00"));
+            underTest.add(credit("USD", "100.00"));
+            underTest.add(debit("EUR", "50"));
+            underTest.add(credit("EUR", "20"));
+            underTest.add(credit("EUR", "30.00"));
+        }));
+
+        // then
+        assertEquals(1, this.transactionManager.commits);
+        verify(glJournalEntryRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void testUnbalancedCurrencyFailsTheCommit() {
+        // when
+        final PlatformDataIntegrityException thrown = assertThrows(PlatformDataIntegrityException.class,
+                () -> transaction(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(status -> {
+                    underTest.add(debit("USD", "100"));
+                    underTest.add(credit("USD", "100"));
+                    underTest.add(debit("EUR", "50"));
+                    underTest.add(credit("EUR", "40"));
+                }));
+
+        // then
+        assertEquals("error.msg.journalentry.legs.not.balanced", thrown.getGlobalisationMessageCode());
+        assertEquals(0, this.transactionManager.commits);
+        assertEquals(1, this.transactionManager.rollbacks);
+    }
+
+    @Test
+    public void testCreditsWithoutDebitsFailTheCommit() {
+        assertThrows(PlatformDataIntegrityException.class,
+                () -> transaction(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(status -> {
+                    underTest.add(credit("USD", "10"));
+                }));
+    }
+
+    @Test
+    public void testAddWithoutActiveSynchronizationFlushesRightAway() {
+        // given
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+        final JournalEntry debit = debit("USD", "100");
+
+        // when
+        underTest.add(debit);
+
+        // then
+        verify(glJournalEntryRepository).saveAndFlush(debit);
+        verify(glJournalEntryRepository, never()).save(debit);
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+    }
+
+    @Test
+    public void testLegsOfSuspendedTransactionAreCheckedOnTheirOwn() {
+        // when
+        assertDoesNotThrow(() -> transaction(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(outer -> {
+            underTest.add(debit("USD", "100"));
+            // the outer transaction is unbalanced while the inner one commits
+            transaction(TransactionDefinition.PROPAGATION_REQUIRES_NEW).executeWithoutResult(inner -> {
+                underTest.add(debit("EUR", "10"));
+                underTest.add(credit("EUR", "10"));
+            });
+            underTest.add(credit("USD", "100"));
+        }));
+
+        // then
+        assertEquals(2, this.transactionManager.commits);
+    }
+
+    @Test
+    public void testUnbalancedInnerTransactionFailsWithoutTheOuterLegs() {
+        // when
+        assertDoesNotThrow(() -> transaction(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(outer -> {
+            underTest.add(debit("USD", "100"));
+            assertThrows(PlatformDataIntegrityException.class,
+                    () -> transaction(TransactionDefinition.PROPAGATION_REQUIRES_NEW).executeWithoutResult(inner -> {
+                        // balances the outer legs, but belongs to the inner transaction
+                        underTest.add(credit("USD", "100"));
+                    }));
+            underTest.add(credit("USD", "100"));
+        }));
+
+        // then
+        assertEquals(1, this.transactionManager.commits);
+        assertEquals(1, this.transactionManager.rollbacks);
+    }
+
+    @Test
+    public void testNestedTransactionLegsAreCheckedWithTheOuterTransaction() {
+        // when
+        assertDoesNotThrow(() -> transaction(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(outer -> {
+            underTest.add(debit("USD", "100"));
+            // a nested transaction commits with the outer one, so its legs are part of the outer check
+            transaction(TransactionDefinition.PROPAGATION_NESTED).executeWithoutResult(nested -> underTest.add(credit("USD", "60")));
+            underTest.add(credit("USD", "40"));
+        }));
+
+        // then
+        assertEquals(2, this.transactionManager.commits);
+    }
+
+    @Test
+    public void testUnbalancedNestedTransactionFailsTheOuterCommit() {
+        assertThrows(PlatformDataIntegrityException.class,
+                () -> transaction(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(outer -> {
+                    underTest.add(debit("USD", "100"));
+                    underTest.add(credit("USD", "100"));
+                    transaction(TransactionDefinition.PROPAGATION_NESTED)
+                            .executeWithoutResult(nested -> underTest.add(debit("USD", "5")));
+                }));
+    }
+
+    private TransactionTemplate transaction(final int propagation) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+        transactionTemplate.setPropagationBehavior(propagation);
+        return transactionTemplate;
+    }
+
+    private static JournalEntry debit(final String currencyCode, final String amount) {
+        return journalEntry(true, currencyCode, amount);
+    }
+
+    private static JournalEntry credit(final String currencyCode, final String amount) {
+        return journalEntry(false, currencyCode, amount);
+    }
+
+    private static JournalEntry journalEntry(final boolean debit, final String currencyCode, final String amount) {
+        final JournalEntry journalEntry = mock(JournalEntry.class);
+        given(journalEntry.isDebitEntry()).willReturn(debit);
+        given(journalEntry.getCurrencyCode()).willReturn(currencyCode);
+        given(journalEntry.getAmount()).willReturn(new BigDecimal(amount));
+        return journalEntry;
+    }
+
+    /**
+     * Keeps a stack of physical transactions, so transactions can be suspended and nested without a database.
+     */
+    private static final class TestTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final Deque<Object> transactions = new ArrayDeque<>();
+        private int commits;
+        private int rollbacks;
+
+        TestTransactionManager() {
+            setNestedTransactionAllowed(true);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(final Object transaction) {
+            return !this.transactions.isEmpty();
+        }
+
+        @Override
+        protected boolean useSavepointForNestedTransaction() {
+            return false;
+        }
+
+        @Override
+        protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+            this.transactions.push(transaction);
+        }
+
+        @Override
+        protected Object doSuspend(final Object transaction) {
+            return this.transactions.pop();
+        }
+
+        @Override
+        protected void doResume(final Object transaction, final Object suspendedResources) {
+            this.transactions.push(suspendedResources);
+        }
+
+        @Override
+        protected void doCommit(final DefaultTransactionStatus status) {
+            this.transactions.pop();
+            this.commits++;
+        }
+
+        @Override
+        protected void doRollback(final DefaultTransactionStatus status) {
+            this.transactions.pop();
+            this.rollbacks++;
+        }
+
+        @Override
+        protected void doSetRollbackOnly(final DefaultTransactionStatus status) {
+            // the outermost transaction rolls back
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JournalEntryRunningBalanceUpdateServiceTest {
+
+    private static final LocalDate ENTRY_DATE = LocalDate.of(2022, 6, 1);
+    private static final Map<Long, BigDecimal> OFFICE_OPENING_BALANCES = Map.of(1L, new BigDecimal("600"), 2L, new BigDecimal("400"));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OfficeRepositoryWrapper officeRepositoryWrapper;
+
+    @Mock
+    private JournalEntryDataValidator dataValidator;
+
+    @Mock
+    private FromJsonHelper fromApiJsonHelper;
+
+    @Mock
+    private DatabaseSpecificSQLGenerator sqlGenerator;
+
+    @InjectMocks
+    private JournalEntryRunningBalanceUpdateServiceImpl underTest;
+
+    private final List<Object[]> organizationUpdates = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        given(jdbcTemplate.queryForObject(anyString(), eq(LocalDate.class))).willReturn(ENTRY_DATE);
+        given(jdbcTemplate.queryForList(contains("organization_running_balance"), eq(BigDecimal.class), (Object[]) any()))
+                .willReturn(List.of(new BigDecimal("1000")));
+        given(jdbcTemplate.queryForList(contains("office_running_balance"), eq(BigDecimal.class), (Object[]) any()))
+                .willAnswer(invocation -> List.of(OFFICE_OPENING_BALANCES.get(invocation.<Long>getArgument(2))));
+        doAnswer(invocation -> {
+            organizationUpdates.addAll(invocation.<List<Object[]>>getArgument(1));
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(contains("organization_running_balance=?"), anyList());
+    }
+
+    @Test
+    public void testOrganizationAndOfficeRunningBalancesAcrossOffices() {
+        // given: one asset account with entries of two offices
+        givenEntries(new Object[][] { { 11L, 1L, JournalEntryType.DEBIT, "100" }, { 12L, 2L, JournalEntryType.DEBIT, "50" },
+                { 13L, 1L, JournalEntryType.CREDIT, "30" } });
+
+        // when
+        underTest.updateRunningBalance();
+
+        // then
+        assertEquals(3, organizationUpdates.size());
+        assertArrayEquals(new Object[] { new BigDecimal("1100"), new BigDecimal("700"), 11L }, organizationUpdates.get(0));
+        assertArrayEquals(new Object[] { new BigDecimal("1150"), new BigDecimal("450"), 12L }, organizationUpdates.get(1));
+        assertArrayEquals(new Object[] { new BigDecimal("1120"), new BigDecimal("670"), 13L }, organizationUpdates.get(2));
+    }
+
+    @Test
+    public void testNoEntriesToUpdate() {
+        // given
+        givenEntries(new Object[0][]);
+
+        // when
+        underTest.updateRunningBalance();
+
+        // then
+        assertEquals(0, organizationUpdates.size());
+    }
+
+    private void givenEntries(final Object[][] rows) {
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), (Object[]) any())).willAnswer(invocation -> {
+            final RowMapper<?> mapper = invocation.getArgument(1);
+            final List<Object> entries = new ArrayList<>();
+            for (int i = 0; i < rows.length; i++) {
+                final ResultSet rs = mock(ResultSet.class);
+                given(rs.getLong("id")).willReturn((Long) rows[i][0]);
+                given(rs.getLong("accountId")).willReturn(1L);
+                given(rs.getLong("officeId")).willReturn((Long) rows[i][1]);
+                given(rs.getDate("entryDate")).willReturn(Date.valueOf(ENTRY_DATE));
+                given(rs.findColumn("entryType")).willReturn(1);
+                given(rs.getInt(1)).willReturn(((JournalEntryType) rows[i][2]).getValue());
+                given(rs.findColumn("classification")).willReturn(2);
+                given(rs.getInt(2)).willReturn(GLAccountType.ASSET.getValue());
+                given(rs.getBigDecimal("amount")).willReturn(new BigDecimal((String) rows[i][3]));
+                entries.add(mapper.mapRow(rs, i));
+            }
+            return entries;
+        }).willReturn(List.of());
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.batch.command.CommandStrategy;
+import org.apache.fineract.batch.command.CommandStrategyProvider;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.portfolio.loanaccount.exception.LoanNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BatchApiServiceImplTest {
+
+    @Mock
+    private CommandStrategyProvider strategyProvider;
+    @Mock
+    private ResolutionHelper resolutionHelper;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private UriInfo uriInfo;
+
+    private BatchApiServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractProperties.FineractBatchApiProperties batchApiProperties = new FineractProperties.FineractBatchApiProperties();
+        batchApiProperties.setThreadCount(4);
+        batchApiProperties.setQueueCapacity(10);
+        batchApiProperties.setMaxConcurrencyPerBatch(4);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setBatchApi(batchApiProperties);
+        underTest = new BatchApiServiceImpl(strategyProvider, resolutionHelper, transactionTemplate, fineractProperties);
+        underTest.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        underTest.stop();
+    }
+
+    @Test
+    public void testRootsOnTheSameAccountAreGroupedInOrder() {
+        // given
+        final List<BatchRequestNode> roots = List.of(node(1L, "loans/7/transactions?command=repayment"),
+                node(2L, "savingsaccounts/7/transactions?command=deposit"), node(3L, "/loans/7"), node(4L, "clients"),
+                node(5L, "loans/8/charges"), node(6L, "clients"));
+
+        // when
+        final List<List<BatchRequestNode>> groups = BatchApiServiceImpl.groupByTargetAccount(roots);
+
+        // then
+        assertThat(groups).extracting(group -> group.stream().map(root -> root.getRequest().getRequestId()).toList())
+                .containsExactly(List.of(1L, 3L), List.of(2L), List.of(4L), List.of(5L), List.of(6L));
+    }
+
+    @Test
+    public void testRootsOnTheSameLoanNeverRunConcurrently() {
+        // given
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CommandStrategy strategy = (request, uriInfo) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return okResponse(request);
+        };
+        given(strategyProvider.getCommandStrategy(any())).willReturn(strategy);
+        final List<BatchRequestNode> roots = List.of(node(1L, "loans/1/transactions?command=repayment"),
+                node(2L, "loans/1/transactions?command=repayment"), node(3L, "loans/1/transactions?command=repayment"));
+        given(resolutionHelper.getDependingRequests(any())).willReturn(roots);
+
+        // when
+        final List<BatchResponse> responses = underTest.handleBatchRequestsWithoutEnclosingTransaction(requests(roots), uriInfo, true);
+
+        // then
+        assertThat(responses).extracting(BatchResponse::getRequestId).containsExactly(1L, 2L, 3L);
+        assertThat(responses).extracting(BatchResponse::getStatusCode).containsOnly(200);
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRootsOnDifferentLoansRunConcurrently() {
+        // given
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final CommandStrategy strategy = (request, uriInfo) -> {
+            bothStarted.countDown();
+            try {
+                // only returns in time when the other root runs at the same time
+                return bothStarted.await(5, TimeUnit.SECONDS) ? okResponse(request) : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        };
+        given(strategyProvider.getCommandStrategy(any())).willReturn(strategy);
+        final List<BatchRequestNode> roots = List.of(node(1L, "loans/1/transactions?command=repayment"),
+                node(2L, "loans/2/transactions?command=repayment"));
+        given(resolutionHelper.getDependingRequests(any())).willReturn(roots);
+
+        // when
+        final List<BatchResponse> responses = underTest.handleBatchRequestsWithoutEnclosingTransaction(requests(roots), uriInfo, true);
+
+        // then
+        assertThat(responses).extracting(BatchResponse::getStatusCode).containsExactly(200, 200);
+    }
+
+    @Test
+    public void testFailingRootIsMappedLikeAFailingStrategy() {
+        // given
+        final CommandStrategy strategy = (request, uriInfo) -> okResponse(request);
+        given(strategyProvider.getCommandStrategy(any())).willReturn(strategy).willThrow(new LoanNotFoundException(2L));
+        final List<BatchRequestNode> roots = List.of(node(1L, "loans/1"), node(2L, "loans/2"));
+        given(resolutionHelper.getDependingRequests(any())).willReturn(roots);
+
+        // when
+        final List<BatchResponse> responses = underTest.handleBatchRequestsWithoutEnclosingTransaction(requests(roots), uriInfo, true);
+
+        // then
+        assertThat(responses).hasSize(2);
+        final BatchResponse failed = responses.stream().filter(response -> response.getStatusCode() != 200).findFirst().orElseThrow();
+        assertThat(failed.getStatusCode()).isEqualTo(404);
+        assertThat(failed.getBody()).contains("error.msg.loan.id.invalid");
+    }
+
+    private static BatchRequestNode node(final Long requestId, final String relativeUrl) {
+        final BatchRequest request = new BatchRequest();
+        request.setRequestId(requestId);
+        request.setRelativeUrl(relativeUrl);
+        request.setMethod(HttpMethod.POST);
+        final BatchRequestNode node = new BatchRequestNode();
+        node.setRequest(request);
+        return node;
+    }
+
+    private static List<BatchRequest> requests(final List<BatchRequestNode> roots) {
+        final List<BatchRequest> requests = new ArrayList<>();
+        roots.forEach(root -> requests.add(root.getRequest()));
+        return requests;
+    }
+
+    private static BatchResponse okResponse(final BatchRequest request) {
+        final BatchResponse response = new BatchResponse();
+        response.setRequestId(request.getRequestId());
+        response.setStatusCode(200);
+        response.setBody("{}");
+        return response;
+    }
+}
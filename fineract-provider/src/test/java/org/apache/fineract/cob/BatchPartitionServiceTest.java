@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpoint;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpointRepository;
+import org.apache.fineract.cob.domain.BatchPartitionStatus;
+import org.apache.fineract.cob.exception.BatchPartitionLeaseLostException;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractPartitionedJobProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BatchPartitionServiceTest {
+
+    private static final LocalDate COB_DATE = LocalDate.of(2022, 6, 30);
+
+    @InjectMocks
+    private BatchPartitionServiceImpl batchPartitionService;
+
+    @Mock
+    private BatchPartitionCheckpointRepository checkpointRepository;
+
+    @Mock
+    private FineractProperties fineractProperties;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        FineractPartitionedJobProperties partitionedJobProperties = new FineractPartitionedJobProperties();
+        partitionedJobProperties.setRemoteEnabled(true);
+        partitionedJobProperties.setLeaseTimeoutInSeconds(60);
+        partitionedJobProperties.setMaxAttempts(3);
+        partitionedJobProperties.setAwaitTimeoutInSeconds(3600);
+        given(fineractProperties.getPartitionedJob()).willReturn(partitionedJobProperties);
+        given(fineractProperties.getNodeId()).willReturn("2");
+        given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void partitionLeasedByAnotherNodeIsSkipped() {
+        BatchPartitionCheckpoint first = checkpoint(1L, c -> {});
+        BatchPartitionCheckpoint second = checkpoint(2L, c -> {});
+        given(checkpointRepository.findLeasable(eq("JOB"), any(), eq(3), any())).willReturn(List.of(first, second));
+        given(checkpointRepository.lease(eq(1L), eq("2"), any(), any(), eq(3))).willReturn(0);
+        given(checkpointRepository.lease(eq(2L), eq("2"), any(), any(), eq(3))).willReturn(1);
+        given(checkpointRepository.findById(2L)).willReturn(Optional.of(second));
+
+        assertEquals(second, batchPartitionService.leaseNextPartition("JOB"));
+    }
+
+    @Test
+    public void nothingIsLeasedWhenQueueIsEmpty() {
+        given(checkpointRepository.findLeasable(eq("JOB"), any(), eq(3), any())).willReturn(List.of());
+
+        assertNull(batchPartitionService.leaseNextPartition("JOB"));
+    }
+
+    @Test
+    public void failedPartitionsAreReportedOnceAllAreFinished() throws InterruptedException {
+        BatchPartitionCheckpoint completed = checkpoint(1L, c -> {
+            given(c.isFinished(any(), eq(3))).willReturn(true);
+            given(c.isCompleted()).willReturn(true);
+        });
+        BatchPartitionCheckpoint failed = checkpoint(2L, c -> given(c.isFinished(any(), eq(3))).willReturn(true));
+        given(checkpointRepository.findAllByJobNameAndBusinessDateOrderByPartitionNo("JOB", COB_DATE))
+                .willReturn(List.of(completed, failed));
+
+        assertEquals(1, batchPartitionService.awaitPartitions("JOB", COB_DATE).size());
+    }
+
+    @Test
+    public void awaitingPartitionsStopsAfterTheTimeout() throws InterruptedException {
+        fineractProperties.getPartitionedJob().setAwaitTimeoutInSeconds(0);
+        BatchPartitionCheckpoint completed = checkpoint(1L, c -> {
+            given(c.isFinished(any(), eq(3))).willReturn(true);
+            given(c.isCompleted()).willReturn(true);
+        });
+        BatchPartitionCheckpoint running = checkpoint(2L, c -> given(c.isFinished(any(), eq(3))).willReturn(false));
+        given(checkpointRepository.findAllByJobNameAndBusinessDateOrderByPartitionNo("JOB", COB_DATE))
+                .willReturn(List.of(completed, running));
+
+        List<Throwable> errors = batchPartitionService.awaitPartitions("JOB", COB_DATE);
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage().contains("did not finish"));
+    }
+
+    @Test
+    public void failedPartitionIsOnlyFinishedWithoutAttemptsLeft() {
+        BatchPartitionCheckpoint checkpoint = BatchPartitionCheckpoint.instance("JOB", COB_DATE, 1, 1L, 10L);
+        ReflectionTestUtils.setField(checkpoint, "status", BatchPartitionStatus.FAILED);
+        ReflectionTestUtils.setField(checkpoint, "attempts", 2);
+
+        assertFalse(checkpoint.isFinished(LocalDateTime.now(ZoneId.systemDefault()), 3));
+
+        ReflectionTestUtils.setField(checkpoint, "attempts", 3);
+
+        assertTrue(checkpoint.isFinished(LocalDateTime.now(ZoneId.systemDefault()), 3));
+    }
+
+    @Test
+    public void progressOfPartitionOwnedByAnotherNodeIsRejected() {
+        BatchPartitionCheckpoint checkpoint = checkpoint(1L, c -> given(c.getOwnerNodeId()).willReturn("2"));
+        given(checkpointRepository.updateOwnedProgress(eq(1L), eq("2"), eq(100L), eq(BatchPartitionStatus.STARTED), any())).willReturn(0);
+
+        assertThrows(BatchPartitionLeaseLostException.class,
+                () -> batchPartitionService.updateProgress(checkpoint, 100L, BatchPartitionStatus.STARTED));
+    }
+
+    @Test
+    public void progressOfOwnedPartitionIsUpdated() {
+        BatchPartitionCheckpoint checkpoint = checkpoint(1L, c -> given(c.getOwnerNodeId()).willReturn("2"));
+        given(checkpointRepository.updateOwnedProgress(eq(1L), eq("2"), eq(100L), eq(BatchPartitionStatus.STARTED), any())).willReturn(1);
+
+        batchPartitionService.updateProgress(checkpoint, 100L, BatchPartitionStatus.STARTED);
+
+        verify(checkpointRepository).updateOwnedProgress(eq(1L), eq("2"), eq(100L), eq(BatchPartitionStatus.STARTED), any());
+    }
+
+    private BatchPartitionCheckpoint checkpoint(Long id, Consumer<BatchPartitionCheckpoint> customizer) {
+        BatchPartitionCheckpoint checkpoint = Mockito.mock(BatchPartitionCheckpoint.class);
+        given(checkpoint.getId()).willReturn(id);
+        given(checkpoint.getPartitionNo()).willReturn(id.intValue());
+        customizer.accept(checkpoint);
+        return checkpoint;
+    }
+}
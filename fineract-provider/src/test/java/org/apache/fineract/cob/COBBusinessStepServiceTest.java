@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.cob.domain.BatchBusinessStep;
+import org.apache.fineract.cob.domain.BatchBusinessStepRepository;
+import org.apache.fineract.cob.loan.LoanCOBBusinessStep;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationContext;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class COBBusinessStepServiceTest {
+
+    @InjectMocks
+    private COBBusinessStepServiceImpl businessStepService;
+
+    @Mock
+    private BatchBusinessStepRepository batchBusinessStepRepository;
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private LoanCOBBusinessStep firstStep;
+
+    @Mock
+    private LoanCOBBusinessStep secondStep;
+
+    @BeforeEach
+    public void setUp() {
+        given(firstStep.getEnumStyledName()).willReturn("FIRST");
+        given(secondStep.getEnumStyledName()).willReturn("SECOND");
+        given(applicationContext.getBeansOfType(LoanCOBBusinessStep.class)).willReturn(Map.of("first", firstStep, "second", secondStep));
+    }
+
+    @Test
+    public void businessStepsAreReturnedInConfiguredOrder() {
+        given(batchBusinessStepRepository.findAllByJobNameOrderByStepOrder("JOB")).willReturn(List.of(step("SECOND"), step("FIRST")));
+
+        List<LoanCOBBusinessStep> businessSteps = businessStepService.getBusinessSteps(LoanCOBBusinessStep.class, "JOB");
+
+        assertEquals(List.of(secondStep, firstStep), businessSteps);
+    }
+
+    @Test
+    public void unknownBusinessStepIsRejected() {
+        given(batchBusinessStepRepository.findAllByJobNameOrderByStepOrder("JOB")).willReturn(List.of(step("UNKNOWN")));
+
+        assertThrows(PlatformInternalServerException.class, () -> businessStepService.getBusinessSteps(LoanCOBBusinessStep.class, "JOB"));
+    }
+
+    @Test
+    public void runChainsTheBusinessSteps() {
+        Loan loan = Mockito.mock(Loan.class);
+        Loan changedLoan = Mockito.mock(Loan.class);
+        given(firstStep.execute(loan)).willReturn(changedLoan);
+        given(secondStep.execute(changedLoan)).willReturn(changedLoan);
+
+        Loan result = businessStepService.run(List.of(firstStep, secondStep), loan);
+
+        assertEquals(changedLoan, result);
+        InOrder inOrder = inOrder(firstStep, secondStep);
+        inOrder.verify(firstStep).execute(loan);
+        inOrder.verify(secondStep).execute(changedLoan);
+    }
+
+    private BatchBusinessStep step(String stepName) {
+        BatchBusinessStep batchBusinessStep = Mockito.mock(BatchBusinessStep.class);
+        given(batchBusinessStep.getStepName()).willReturn(stepName);
+        return batchBusinessStep;
+    }
+}
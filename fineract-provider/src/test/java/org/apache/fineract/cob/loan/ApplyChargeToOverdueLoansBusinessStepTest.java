@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.service.LoanWritePlatformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ApplyChargeToOverdueLoansBusinessStepTest {
+
+    @InjectMocks
+    private ApplyChargeToOverdueLoansBusinessStep businessStep;
+
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+
+    @Mock
+    private LoanReadPlatformService loanReadPlatformService;
+
+    @Mock
+    private LoanWritePlatformService loanWritePlatformService;
+
+    @Mock
+    private Loan loan;
+
+    @BeforeEach
+    public void setUp() {
+        given(configurationDomainService.retrievePenaltyWaitPeriod()).willReturn(2L);
+        given(configurationDomainService.isBackdatePenaltiesEnabled()).willReturn(true);
+        given(loan.getId()).willReturn(1L);
+    }
+
+    @Test
+    public void onlyOverdueInstallmentsOfTheLoanAreRead() {
+        List<OverdueLoanScheduleData> overdueInstallments = List.of(Mockito.mock(OverdueLoanScheduleData.class));
+        given(loanReadPlatformService.retrieveOverdueInstallmentsForLoan(1L, 2L, true)).willReturn(overdueInstallments);
+
+        businessStep.execute(loan);
+
+        verify(loanReadPlatformService, never()).retrieveAllLoansWithOverdueInstallments(anyLong(), any());
+        verify(loanWritePlatformService).applyOverdueChargesForLoan(1L, overdueInstallments);
+    }
+
+    @Test
+    public void prefetchedOverdueInstallmentsAreUsed() {
+        List<OverdueLoanScheduleData> overdueInstallments = List.of(Mockito.mock(OverdueLoanScheduleData.class));
+        given(loanReadPlatformService.retrieveOverdueInstallmentsForLoans(List.of(1L, 2L), 2L, true))
+                .willReturn(Map.of(1L, overdueInstallments));
+
+        businessStep.prefetch(List.of(1L, 2L));
+        try {
+            businessStep.execute(loan);
+        } finally {
+            businessStep.clearPrefetched();
+        }
+
+        verify(loanReadPlatformService, never()).retrieveOverdueInstallmentsForLoan(anyLong(), anyLong(), any());
+        verify(loanWritePlatformService).applyOverdueChargesForLoan(1L, overdueInstallments);
+    }
+
+    @Test
+    public void loanWithoutOverdueInstallmentsIsSkipped() {
+        given(loanReadPlatformService.retrieveOverdueInstallmentsForLoan(1L, 2L, true)).willReturn(List.of());
+
+        businessStep.execute(loan);
+
+        verify(loanWritePlatformService, never()).applyOverdueChargesForLoan(anyLong(), any());
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.fineract.cob.BatchPartitionService;
+import org.apache.fineract.cob.COBBusinessStepService;
+import org.apache.fineract.cob.domain.BatchPartitionCheckpoint;
+import org.apache.fineract.cob.domain.BatchPartitionFailedItem;
+import org.apache.fineract.cob.domain.BatchPartitionFailedItemRepository;
+import org.apache.fineract.cob.domain.BatchPartitionStatus;
+import org.apache.fineract.cob.exception.BatchPartitionLeaseLostException;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameterRepository;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanCOBJobServiceTest {
+
+    private static final Long CHECKPOINT_ID = 7L;
+
+    @InjectMocks
+    private LoanCOBJobServiceImpl loanCOBJobService;
+
+    @Mock
+    private COBBusinessStepService cobBusinessStepService;
+
+    @Mock
+    private LoanCOBPartitioner loanCOBPartitioner;
+
+    @Mock
+    private BatchPartitionService batchPartitionService;
+
+    @Mock
+    private BatchPartitionFailedItemRepository failedItemRepository;
+
+    @Mock
+    private LoanRepositoryWrapper loanRepositoryWrapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JobParameterRepository jobParameterRepository;
+
+    @Mock
+    private LoanCOBBusinessStep businessStep;
+
+    private final List<Long> failedLoanIds = new ArrayList<>();
+
+    private final List<Long> processedLoanIds = new ArrayList<>();
+
+    private BatchPartitionCheckpoint checkpoint;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        checkpoint = BatchPartitionCheckpoint.instance(LoanCOBJobServiceImpl.JOB_NAME, LocalDate.of(2022, 6, 30), 1, 1L, 4L);
+        ReflectionTestUtils.setField(checkpoint, "id", CHECKPOINT_ID);
+        Mockito.doAnswer(invocation -> {
+            ReflectionTestUtils.setField(checkpoint, "lastProcessedId", invocation.getArgument(1));
+            ReflectionTestUtils.setField(checkpoint, "status", invocation.getArgument(2));
+            return null;
+        }).when(batchPartitionService).updateProgress(eq(checkpoint), anyLong(), any());
+        given(cobBusinessStepService.getBusinessSteps(LoanCOBBusinessStep.class, LoanCOBJobServiceImpl.JOB_NAME))
+                .willReturn(List.of(businessStep));
+        given(jobParameterRepository.findJobParametersByJobName(any())).willReturn(List.of());
+        Mockito.doAnswer(invocation -> {
+            int processedBefore = processedLoanIds.size();
+            try {
+                ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            } catch (RuntimeException e) {
+                // rollback
+                processedLoanIds.subList(processedBefore, processedLoanIds.size()).clear();
+                throw e;
+            }
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        given(loanCOBPartitioner.readChunk(anyLong(), eq(4L), anyInt())).willAnswer(invocation -> {
+            Long afterId = invocation.getArgument(0);
+            return afterId < 4L ? List.of(1L, 2L, 3L, 4L).subList(afterId.intValue(), 4) : List.of();
+        });
+        given(loanRepositoryWrapper.findOneWithNotFoundDetection(anyLong())).willAnswer(invocation -> {
+            Loan loan = Mockito.mock(Loan.class);
+            given(loan.getId()).willReturn(invocation.getArgument(0));
+            return loan;
+        });
+        // in-memory failed item table
+        given(failedItemRepository.findItemIds(CHECKPOINT_ID)).willAnswer(invocation -> new ArrayList<>(failedLoanIds));
+        given(failedItemRepository.existsByCheckpointIdAndItemId(eq(CHECKPOINT_ID), anyLong()))
+                .willAnswer(invocation -> failedLoanIds.contains(invocation.<Long>getArgument(1)));
+        given(failedItemRepository.save(any())).willAnswer(invocation -> {
+            failedLoanIds.add(invocation.<BatchPartitionFailedItem>getArgument(0).getItemId());
+            return invocation.getArgument(0);
+        });
+        given(failedItemRepository.deleteItem(eq(CHECKPOINT_ID), anyLong()))
+                .willAnswer(invocation -> failedLoanIds.remove(invocation.<Long>getArgument(1)) ? 1 : 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void loanFailingInTheMiddleOfAChunkIsRetriedOnRestart() {
+        failLoan(2L);
+
+        List<Throwable> errors = loanCOBJobService.processPartition(checkpoint);
+
+        assertEquals(1, errors.size());
+        assertEquals(BatchPartitionStatus.FAILED, checkpoint.getStatus());
+        assertEquals(4L, checkpoint.getLastProcessedId());
+        assertEquals(List.of(2L), failedLoanIds);
+        assertEquals(List.of(1L, 3L, 4L), processedLoanIds);
+
+        // the loan is fixed, the restart resumes after the checkpoint and retries the failed loan only
+        processedLoanIds.clear();
+        succeed();
+
+        errors = loanCOBJobService.processPartition(checkpoint);
+
+        assertTrue(errors.isEmpty());
+        assertEquals(BatchPartitionStatus.COMPLETED, checkpoint.getStatus());
+        assertTrue(failedLoanIds.isEmpty());
+        assertEquals(List.of(2L), processedLoanIds);
+    }
+
+    @Test
+    public void partitionTakenOverByAnotherNodeIsNotFinished() {
+        succeed();
+        Mockito.doThrow(new BatchPartitionLeaseLostException(1, LoanCOBJobServiceImpl.JOB_NAME, "2")).when(batchPartitionService)
+                .updateProgress(eq(checkpoint), anyLong(), any());
+
+        List<Throwable> errors = loanCOBJobService.processPartition(checkpoint);
+
+        assertTrue(errors.isEmpty());
+        assertEquals(BatchPartitionStatus.PENDING, checkpoint.getStatus());
+        // the chunk was rolled back and is not replayed loan by loan
+        assertTrue(processedLoanIds.isEmpty());
+        verify(batchPartitionService, times(1)).updateProgress(eq(checkpoint), anyLong(), any());
+    }
+
+    @Test
+    public void partitionStaysFailedWhileTheRetriedLoanKeepsFailing() {
+        failLoan(2L);
+        loanCOBJobService.processPartition(checkpoint);
+        processedLoanIds.clear();
+
+        List<Throwable> errors = loanCOBJobService.processPartition(checkpoint);
+
+        assertEquals(1, errors.size());
+        assertEquals(BatchPartitionStatus.FAILED, checkpoint.getStatus());
+        assertEquals(List.of(2L), failedLoanIds);
+        assertTrue(processedLoanIds.isEmpty());
+        verify(failedItemRepository, times(1)).save(any());
+    }
+
+    private void failLoan(Long failingLoanId) {
+        given(cobBusinessStepService.run(any(), any())).willAnswer(invocation -> {
+            Loan loan = invocation.getArgument(1);
+            if (failingLoanId.equals(loan.getId())) {
+                throw new IllegalStateException("Loan " + failingLoanId + " is broken");
+            }
+            processedLoanIds.add(loan.getId());
+            return loan;
+        });
+    }
+
+    private void succeed() {
+        given(cobBusinessStepService.run(any(), any())).willAnswer(invocation -> {
+            Loan loan = invocation.getArgument(1);
+            processedLoanIds.add(loan.getId());
+            return loan;
+        });
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.commands.domain.CommandSourceRepository;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotApprovedByCheckerException;
+import org.apache.fineract.commands.handler.NewCommandSourceHandler;
+import org.apache.fineract.commands.provider.CommandHandlerProvider;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
+import org.apache.fineract.infrastructure.hooks.domain.HookDelivery;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryRepository;
+import org.apache.fineract.infrastructure.hooks.domain.HookTemplate;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryServiceImpl;
+import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the command in a transaction of a {@link TestTransactionManager}, the web hook deliveries only reach the
+ * delivery table once that transaction commits.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SynchronousCommandProcessingServiceTest {
+
+    private static final CommandWrapper WRAPPER = CommandWrapper.wrap("CREATE", "CLIENT", null, null);
+
+    @Mock
+    private PlatformSecurityContext context;
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
+
+    @Mock
+    private ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer;
+
+    @Mock
+    private CommandSourceRepository commandSourceRepository;
+
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+
+    @Mock
+    private CommandHandlerProvider commandHandlerProvider;
+
+    @Mock
+    private NewCommandSourceHandler handler;
+
+    @Mock
+    private HookReadPlatformService hookReadPlatformService;
+
+    @Mock
+    private HookDeliveryRepository hookDeliveryRepository;
+
+    private final List<HookDelivery> deliveryTable = new ArrayList<>();
+    private TransactionTemplate transactionTemplate;
+    private SynchronousCommandProcessingService underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 12))));
+        this.transactionTemplate = new TransactionTemplate(new TestTransactionManager());
+
+        final AppUser user = mock(AppUser.class);
+        given(context.authenticatedUser()).willReturn(user);
+        given(context.authenticatedUser(any(CommandWrapper.class))).willReturn(user);
+        given(toApiResultJsonSerializer.serialize(any())).willReturn("{\"clientId\":1}");
+        given(commandHandlerProvider.getHandler("CLIENT", "CREATE")).willReturn(handler);
+        given(handler.processCommand(any())).willReturn(new CommandProcessingResultBuilder().withEntityId(1L).withClientId(1L).build());
+        given(hookReadPlatformService.retrieveHooksByEvent("CLIENT", "CREATE")).willReturn(List.of(webHook()));
+        // a delivery saved within a transaction is only visible in the table once that transaction commits
+        given(hookDeliveryRepository.save(any(HookDelivery.class))).willAnswer(invocation -> {
+            final HookDelivery delivery = invocation.getArgument(0);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    deliveryTable.add(delivery);
+                }
+            });
+            return delivery;
+        });
+
+        final FineractProperties fineractProperties = new FineractProperties();
+        final HookDeliveryServiceImpl hookDeliveryService = new HookDeliveryServiceImpl(hookReadPlatformService, hookDeliveryRepository,
+                fineractProperties, this.transactionTemplate);
+        underTest = new SynchronousCommandProcessingService(context, applicationContext, toApiJsonSerializer, toApiResultJsonSerializer,
+                commandSourceRepository, configurationDomainService, commandHandlerProvider, hookDeliveryService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testCommittedCommandRecordsTheDelivery() {
+        // when
+        this.transactionTemplate.executeWithoutResult(status -> underTest.processAndLogCommand(WRAPPER, command(), false));
+
+        // then
+        assertEquals(1, this.deliveryTable.size());
+        assertEquals("http://localhost/hook", this.deliveryTable.get(0).getPayloadUrl());
+        assertEquals("{\"clientId\":1}", this.deliveryTable.get(0).getPayload());
+    }
+
+    @Test
+    public void testRolledBackCommandRecordsNoDelivery() {
+        // when
+        this.transactionTemplate.executeWithoutResult(status -> {
+            underTest.processAndLogCommand(WRAPPER, command(), false);
+            // the command fails after the event was published, e.g. on a constraint checked at commit
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertTrue(this.deliveryTable.isEmpty());
+    }
+
+    @Test
+    public void testCommandAwaitingApprovalRecordsNoDelivery() {
+        // given
+        given(configurationDomainService.isMakerCheckerEnabledForTask(anyString())).willReturn(true);
+
+        // when
+        assertThrows(RollbackTransactionAsCommandIsNotApprovedByCheckerException.class, () -> this.transactionTemplate
+                .executeWithoutResult(status -> underTest.processAndLogCommand(WRAPPER, command(), false)));
+
+        // then
+        assertTrue(this.deliveryTable.isEmpty());
+    }
+
+    @Test
+    public void testDeliveryWhichCannotBeRecordedRollsBackTheCommand() {
+        // given
+        given(hookDeliveryRepository.save(any(HookDelivery.class))).willThrow(new IllegalStateException("outbox unavailable"));
+
+        // when
+        assertThrows(IllegalStateException.class, () -> this.transactionTemplate
+                .executeWithoutResult(status -> underTest.processAndLogCommand(WRAPPER, command(), false)));
+
+        // then
+        assertTrue(this.deliveryTable.isEmpty());
+    }
+
+    private static JsonCommand command() {
+        return JsonCommand.from("{\"firstname\":\"Jane\"}");
+    }
+
+    private static Hook webHook() {
+        final HookTemplate template = mock(HookTemplate.class);
+        given(template.getName()).willReturn(webTemplateName);
+        final Hook hook = mock(Hook.class);
+        given(hook.getHookTemplate()).willReturn(template);
+        final Set<HookConfiguration> config = new HashSet<>();
+        config.add(HookConfiguration.createNewWithoutHook("string", payloadURLName, "http://localhost/hook"));
+        config.add(HookConfiguration.createNewWithoutHook("string", contentTypeName, "json"));
+        given(hook.getHookConfig()).willReturn(config);
+        return hook;
+    }
+
+    /**
+     * A single transaction at a time without a database, enough for the synchronizations to run on commit only.
+     */
+    private static final class TestTransactionManager extends AbstractPlatformTransactionManager {
+
+        private boolean active;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(final Object transaction) {
+            return this.active;
+        }
+
+        @Override
+        protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+            this.active = true;
+        }
+
+        @Override
+        protected void doCommit(final DefaultTransactionStatus status) {
+            this.active = false;
+        }
+
+        @Override
+        protected void doRollback(final DefaultTransactionStatus status) {
+            this.active = false;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class ImportRowExecutorTest {
+
+    private ImportRowExecutor importRowExecutor;
+
+    @AfterEach
+    public void tearDown() {
+        if (this.importRowExecutor != null) {
+            this.importRowExecutor.stop();
+        }
+    }
+
+    @Test
+    public void testSingleThreadProcessesRowsOnCallingThread() {
+        // given
+        this.importRowExecutor = executor(1, 10);
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        // when
+        final List<Integer> results = this.importRowExecutor.processRows(25, i -> {
+            threads.add(Thread.currentThread());
+            return i * 2;
+        });
+
+        // then
+        assertEquals(IntStream.range(0, 25).map(i -> i * 2).boxed().collect(Collectors.toList()), results);
+        assertEquals(Set.of(Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void testParallelResultsAreInRowOrder() {
+        // given
+        this.importRowExecutor = executor(4, 3);
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        // when
+        final List<String> results = this.importRowExecutor.processRows(50, i -> {
+            threads.add(Thread.currentThread());
+            return "row-" + i;
+        });
+
+        // then
+        assertEquals(IntStream.range(0, 50).mapToObj(i -> "row-" + i).collect(Collectors.toList()), results);
+        assertTrue(threads.stream().anyMatch(thread -> thread.getName().startsWith("fineract-bulk-import-")));
+    }
+
+    @Test
+    public void testRowsWithinOneChunkStayOnCallingThread() {
+        // given
+        this.importRowExecutor = executor(4, 10);
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        // when
+        final List<Integer> results = this.importRowExecutor.processRows(10, i -> {
+            threads.add(Thread.currentThread());
+            return i;
+        });
+
+        // then
+        assertEquals(10, results.size());
+        assertEquals(Set.of(Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void testFailureOfChunkIsRethrown() {
+        // given
+        this.importRowExecutor = executor(4, 2);
+        final IllegalArgumentException failure = new IllegalArgumentException("row 7");
+
+        // when
+        final IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> this.importRowExecutor.processRows(20, i -> {
+                    if (i == 7) {
+                        throw failure;
+                    }
+                    return i;
+                }));
+
+        // then
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    public void testBatchSizeIsOneChunkPerThread() {
+        this.importRowExecutor = executor(4, 3);
+        assertEquals(12, this.importRowExecutor.getBatchSize());
+    }
+
+    @Test
+    public void testBatchSizeIsAtLeastOneRow() {
+        this.importRowExecutor = executor(0, 0);
+        assertEquals(1, this.importRowExecutor.getBatchSize());
+    }
+
+    private static ImportRowExecutor executor(final int threadCount, final int chunkSize) {
+        final FineractProperties.FineractBulkImportProperties bulkImportProperties = new FineractProperties.FineractBulkImportProperties();
+        bulkImportProperties.setThreadCount(threadCount);
+        bulkImportProperties.setQueueCapacity(threadCount);
+        bulkImportProperties.setChunkSize(chunkSize);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setBulkImport(bulkImportProperties);
+        final ImportRowExecutor executor = new ImportRowExecutor(fineractProperties);
+        executor.start();
+        return executor;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StreamingImportWorkbookTest {
+
+    private static final String MAIN_SHEET_NAME = TemplatePopulateImportConstants.LOANS_SHEET_NAME;
+    private static final int STATUS_COLUMN = 3;
+
+    private File upload;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.upload = Files.createTempFile("streaming-import-test-", ".xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(this.upload.toPath())) {
+            final Sheet mainSheet = workbook.createSheet(MAIN_SHEET_NAME);
+            final Row header = mainSheet.createRow(TemplatePopulateImportConstants.ROWHEADER_INDEX);
+            header.createCell(0).setCellValue("Client");
+            header.createCell(1).setCellValue("Staff");
+            header.createCell(2).setCellValue("Submitted On");
+            final CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd MMMM yyyy"));
+            for (int i = 1; i <= 3; i++) {
+                final Row entry = mainSheet.createRow(i);
+                entry.createCell(0).setCellValue("Client " + i);
+                entry.createCell(1).setCellValue("Jane Doe");
+                final Cell submittedOn = entry.createCell(2);
+                submittedOn.setCellValue(LocalDate.of(2022, 1, i));
+                submittedOn.setCellStyle(dateStyle);
+            }
+            // a row after the entries, e.g. the hints of a template, which is no entry
+            mainSheet.createRow(6).createCell(0).setCellValue("Note");
+
+            final Sheet staffSheet = workbook.createSheet(TemplatePopulateImportConstants.STAFF_SHEET_NAME);
+            final Row staff = staffSheet.createRow(1);
+            staff.createCell(0).setCellValue("Head Office");
+            staff.createCell(1).setCellValue("Jane Doe");
+            staff.createCell(2).setCellValue(42);
+            workbook.write(out);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.upload.toPath());
+    }
+
+    @Test
+    public void testCountEntriesStopsAtFirstRowWithoutPrimaryColumn() throws IOException {
+        assertEquals(3, StreamingImportWorkbook.countEntries(this.upload, 0));
+    }
+
+    @Test
+    public void testLookupSheetsResolveIdsByName() throws IOException {
+        try (StreamingImportWorkbook workbook = StreamingImportWorkbook.open(this.upload, 10)) {
+            // when
+            final Map<String, ImportLookupSheet> lookupSheets = workbook.readLookupSheets(MAIN_SHEET_NAME);
+
+            // then
+            assertEquals(1, lookupSheets.size());
+            final ImportLookupSheet staff = lookupSheets.get(TemplatePopulateImportConstants.STAFF_SHEET_NAME);
+            assertEquals(42L, staff.getIdByName("Jane Doe"));
+            assertEquals(0L, staff.getIdByName("John Doe"));
+            assertEquals(0L, staff.getIdByName(null));
+        }
+    }
+
+    @Test
+    public void testReadSheetHandsOverHeaderAndEntries() throws IOException {
+        // given
+        final List<Integer> headers = new ArrayList<>();
+        final List<Integer> entries = new ArrayList<>();
+        final List<String> clients = new ArrayList<>();
+        final AtomicInteger entriesWhenOver = new AtomicInteger(-1);
+
+        try (StreamingImportWorkbook workbook = StreamingImportWorkbook.open(this.upload, 10)) {
+            // when
+            workbook.readSheet(MAIN_SHEET_NAME, 0, header -> headers.add(header.getRowNum()), entry -> {
+                entries.add(entry.getRowNum());
+                clients.add(entry.getCell(0).getStringCellValue());
+                assertTrue(DateUtil.isCellDateFormatted(entry.getCell(2)));
+                assertEquals(LocalDate.of(2022, 1, entry.getRowNum()), entry.getCell(2).getLocalDateTimeCellValue().toLocalDate());
+            }, () -> entriesWhenOver.set(entries.size()));
+        }
+
+        // then
+        assertEquals(List.of(0), headers);
+        assertEquals(List.of(1, 2, 3), entries);
+        assertEquals(List.of("Client 1", "Client 2", "Client 3"), clients);
+        assertEquals(3, entriesWhenOver.get());
+    }
+
+    @Test
+    public void testResultHoldsUploadAndImportStatus() throws IOException {
+        // given
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (StreamingImportWorkbook workbook = StreamingImportWorkbook.open(this.upload, 10)) {
+            workbook.readLookupSheets(MAIN_SHEET_NAME);
+
+            // when
+            workbook.readSheet(MAIN_SHEET_NAME, 0, header -> header.createCell(STATUS_COLUMN).setCellValue("Status"),
+                    entry -> entry.createCell(STATUS_COLUMN).setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED), () -> {});
+            workbook.write(result);
+        }
+
+        // then
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result.toByteArray()))) {
+            assertEquals(MAIN_SHEET_NAME, workbook.getSheetName(0));
+            assertEquals(TemplatePopulateImportConstants.STAFF_SHEET_NAME, workbook.getSheetName(1));
+            final Sheet mainSheet = workbook.getSheet(MAIN_SHEET_NAME);
+            assertEquals("Status", mainSheet.getRow(0).getCell(STATUS_COLUMN).getStringCellValue());
+            for (int i = 1; i <= 3; i++) {
+                assertEquals("Client " + i, mainSheet.getRow(i).getCell(0).getStringCellValue());
+                assertEquals(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED,
+                        mainSheet.getRow(i).getCell(STATUS_COLUMN).getStringCellValue());
+            }
+            assertNull(mainSheet.getRow(6).getCell(STATUS_COLUMN));
+            assertEquals("Note", mainSheet.getRow(6).getCell(0).getStringCellValue());
+            final Sheet staffSheet = workbook.getSheet(TemplatePopulateImportConstants.STAFF_SHEET_NAME);
+            assertEquals(42.0, staffSheet.getRow(1).getCell(2).getNumericCellValue());
+        }
+    }
+}
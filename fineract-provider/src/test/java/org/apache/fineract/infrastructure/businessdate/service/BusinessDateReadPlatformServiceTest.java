@@ -20,25 +20,42 @@ package org.apache.fineract.infrastructure.businessdate.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.businessdate.data.BusinessDateData;
 import org.apache.fineract.infrastructure.businessdate.domain.BusinessDate;
 import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateRepository;
 import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
 import org.apache.fineract.infrastructure.businessdate.exception.BusinessDateNotFoundException;
 import org.apache.fineract.infrastructure.businessdate.mapper.BusinessDateMapper;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationData;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationTransport;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -53,6 +70,38 @@ public class BusinessDateReadPlatformServiceTest {
     @Mock
     private BusinessDateMapper mapper;
 
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+
+    @Mock
+    private CacheInvalidationTransport invalidationTransport;
+
+    @Captor
+    private ArgumentCaptor<Consumer<CacheInvalidationData>> invalidationListener;
+
+    @Captor
+    private ArgumentCaptor<CacheInvalidationData> publishedInvalidation;
+
+    private final List<BusinessDate> storedDates = List.of();
+    private LocalDate storedBusinessDate;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        given(configurationDomainService.isBusinessDateEnabled()).willReturn(true);
+        given(repository.findAll()).willReturn(storedDates);
+        storedBusinessDate = LocalDate.of(2022, 6, 1);
+        given(mapper.map(storedDates)).willAnswer(invocation -> storedBusinessDates());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.reset();
+    }
+
     @Test
     public void notFoundByTypeNonexistentType() {
         BusinessDateNotFoundException businessDateNotFoundException = assertThrows(BusinessDateNotFoundException.class,
@@ -93,4 +142,96 @@ public class BusinessDateReadPlatformServiceTest {
         verify(repository, times(1)).findByType(BusinessDateType.BUSINESS_DATE);
         verify(mapper, times(1)).map(result.get());
     }
+
+    @Test
+    public void businessDatesAreServedFromTheSnapshot() {
+        assertEquals(LocalDate.of(2022, 6, 1), businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE));
+        assertEquals(LocalDate.of(2022, 6, 1), businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE));
+
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    public void invalidationOutsideTransactionEvictsAndPublishes() {
+        // given
+        businessDateReadPlatformService.getBusinessDates();
+        storedBusinessDate = LocalDate.of(2022, 6, 2);
+
+        // when
+        businessDateReadPlatformService.invalidateBusinessDates();
+
+        // then
+        assertEquals(LocalDate.of(2022, 6, 2), businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE));
+        verify(repository, times(2)).findAll();
+        verify(invalidationTransport).publish(publishedInvalidation.capture());
+        assertEquals("businessDates", publishedInvalidation.getValue().getCacheName());
+        assertEquals("default", publishedInvalidation.getValue().getKey());
+    }
+
+    @Test
+    public void invalidationInTransactionEvictsAgainAndPublishesAfterCommit() {
+        // given
+        businessDateReadPlatformService.getBusinessDates();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        businessDateReadPlatformService.invalidateBusinessDates();
+        // a request reads the dates before the change commits and snapshots the old ones
+        businessDateReadPlatformService.getBusinessDates();
+        verify(invalidationTransport, never()).publish(any());
+        storedBusinessDate = LocalDate.of(2022, 6, 2);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        // then
+        assertEquals(LocalDate.of(2022, 6, 2), businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE));
+        verify(repository, times(3)).findAll();
+        verify(invalidationTransport).publish(any());
+    }
+
+    @Test
+    public void invalidationFromOtherNodeEvictsTheSnapshot() {
+        // given
+        businessDateReadPlatformService.subscribe();
+        verify(invalidationTransport).subscribe(invalidationListener.capture());
+        businessDateReadPlatformService.getBusinessDates();
+        storedBusinessDate = LocalDate.of(2022, 6, 2);
+
+        // when
+        invalidationListener.getValue().accept(CacheInvalidationData.evict("otherCache", "default"));
+        assertEquals(LocalDate.of(2022, 6, 1), businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE));
+        invalidationListener.getValue().accept(CacheInvalidationData.evict("businessDates", "default"));
+
+        // then
+        assertEquals(LocalDate.of(2022, 6, 2), businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE));
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    public void loadRacingWithInvalidationDoesNotInstallStaleDates() {
+        // given
+        final AtomicInteger loads = new AtomicInteger();
+        given(mapper.map(storedDates)).willAnswer(invocation -> {
+            final List<BusinessDateData> loaded = storedBusinessDates();
+            if (loads.incrementAndGet() == 1) {
+                // the business date changes and is invalidated while the first load is in flight
+                storedBusinessDate = LocalDate.of(2022, 6, 2);
+                businessDateReadPlatformService.invalidateBusinessDates();
+            }
+            return loaded;
+        });
+
+        // when
+        final LocalDate racingLoad = businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE);
+
+        // then
+        assertEquals(LocalDate.of(2022, 6, 1), racingLoad);
+        assertEquals(LocalDate.of(2022, 6, 2), businessDateReadPlatformService.getBusinessDates().get(BusinessDateType.BUSINESS_DATE));
+        verify(repository, times(2)).findAll();
+    }
+
+    private List<BusinessDateData> storedBusinessDates() {
+        return List.of(BusinessDateData.instance(BusinessDateType.BUSINESS_DATE, storedBusinessDate));
+    }
 }
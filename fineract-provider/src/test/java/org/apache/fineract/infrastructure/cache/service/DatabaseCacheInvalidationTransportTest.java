@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationData;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class DatabaseCacheInvalidationTransportTest {
+
+    private static final String OTHER_NODE = "other-node";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final FineractProperties fineractProperties = new FineractProperties();
+    private final List<CacheInvalidationData> received = new ArrayList<>();
+    private final List<Object[]> logRows = new ArrayList<>();
+
+    private DatabaseCacheInvalidationTransport underTest;
+
+    @BeforeEach
+    public void setUp() {
+        fineractProperties.setCache(new FineractProperties.FineractCacheProperties());
+        fineractProperties.getCache().setMultiNode(true);
+        fineractProperties.getCache().setInvalidationRetentionInMillis(3600000L);
+        underTest = new DatabaseCacheInvalidationTransport(dataSource, fineractProperties);
+        ReflectionTestUtils.setField(underTest, "jdbcTemplate", jdbcTemplate);
+        underTest.subscribe(received::add);
+
+        doAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(1);
+            final long fromMillis = invocation.getArgument(2);
+            for (final Object[] row : logRows) {
+                if ((Long) row[3] >= fromMillis) {
+                    final ResultSet rs = mock(ResultSet.class);
+                    given(rs.getLong("id")).willReturn((Long) row[0]);
+                    given(rs.getString("node_instance")).willReturn((String) row[1]);
+                    given(rs.getString("cache_name")).willReturn((String) row[2]);
+                    given(rs.getString("cache_key")).willReturn(null);
+                    given(rs.getLong("created_at_millis")).willReturn((Long) row[3]);
+                    handler.processRow(rs);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("select id, node_instance"), any(RowCallbackHandler.class), anyLong());
+    }
+
+    @Test
+    public void testLateCommittedInvalidationIsReceivedOnce() {
+        // given
+        underTest.poll();
+        final long now = System.currentTimeMillis();
+        logRows.add(new Object[] { 5L, OTHER_NODE, "codes", now });
+        underTest.poll();
+
+        // when: row 4 got its id before row 5 but only commits now
+        logRows.add(0, new Object[] { 4L, OTHER_NODE, "offices", now - 1 });
+        underTest.poll();
+        underTest.poll();
+
+        // then
+        assertEquals(2, received.size());
+        assertEquals("codes", received.get(0).getCacheName());
+        assertEquals("offices", received.get(1).getCacheName());
+    }
+
+    @Test
+    public void testOwnInvalidationsAreSkipped() {
+        // given
+        underTest.poll();
+        final String ownNode = (String) ReflectionTestUtils.getField(underTest, "nodeInstance");
+        logRows.add(new Object[] { 1L, ownNode, "codes", System.currentTimeMillis() });
+
+        // when
+        underTest.poll();
+
+        // then
+        assertEquals(0, received.size());
+    }
+
+    @Test
+    public void testSingleNodeNeitherPublishesNorPolls() {
+        // given
+        fineractProperties.getCache().setMultiNode(false);
+        fineractProperties.getCache().setInvalidationPollIntervalInMillis(1000L);
+
+        // when
+        underTest.start();
+        underTest.publish(CacheInvalidationData.evict("codes", "1"));
+
+        // then
+        verifyNoInteractions(jdbcTemplate);
+        assertNull(ReflectionTestUtils.getField(underTest, "poller"));
+    }
+
+    @Test
+    public void testMultiNodePublishes() {
+        // given
+        given(jdbcTemplate.update(anyString(), any(), any(), any(), any())).willReturn(1);
+
+        // when
+        underTest.publish(CacheInvalidationData.evict("codes", "1"));
+
+        // then
+        verify(jdbcTemplate).update(startsWith("insert into cache_invalidation_log"), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.campaigns.sms.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.github.mustachejava.Mustache;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SmsCampaignWritePlatformServiceJpaImplTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 20);
+    private static final String TEMPLATE = "Dear {{firstName}}, your repayment is due";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private SmsCampaign smsCampaign;
+    @Captor
+    private ArgumentCaptor<String> sqlCaptor;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchArgsCaptor;
+
+    @InjectMocks
+    private SmsCampaignWritePlatformServiceJpaImpl smsCampaignWritePlatformService;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, BUSINESS_DATE)));
+        given(smsCampaign.getId()).willReturn(7L);
+        given(smsCampaign.getCampaignName()).willReturn("Repayment reminder");
+        given(smsCampaign.getMessage()).willReturn(TEMPLATE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testInsertPendingMessagesBatchesRowsOfExistingClientsWithMobileNumber() {
+        // given
+        given(smsCampaign.isNotification()).willReturn(false);
+        given(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).willReturn(List.of(1L, 2L));
+        final List<HashMap<String, Object>> rows = List.of(row(1L, "Jane", "555-0101"), row(2L, "John", null),
+                row(3L, "Unknown", "555-0103"));
+
+        // when
+        ReflectionTestUtils.invokeMethod(smsCampaignWritePlatformService, "insertPendingMessages", smsCampaign, rows);
+
+        // then
+        verify(jdbcTemplate).queryForList(sqlCaptor.capture(), eq(Long.class), any());
+        assertTrue(sqlCaptor.getValue().startsWith("select id from m_client where id in (?, ?, ?)"));
+        verify(jdbcTemplate).batchUpdate(anyString(), batchArgsCaptor.capture());
+        final List<Object[]> batchArgs = batchArgsCaptor.getValue();
+        assertEquals(1, batchArgs.size());
+        assertArrayEquals(new Object[] { 1L, SmsMessageStatusType.PENDING.getValue(), "555-0101",
+                "Dear Jane, your repayment is due", 7L, BUSINESS_DATE, false }, batchArgs.get(0));
+    }
+
+    @Test
+    public void testInsertPendingMessagesOfNotificationCampaignNeedsRegisteredDeviceOnly() {
+        // given
+        given(smsCampaign.isNotification()).willReturn(true);
+        given(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).willReturn(List.of(2L));
+        final List<HashMap<String, Object>> rows = List.of(row(1L, "Jane", "555-0101"), row(2L, "John", null));
+
+        // when
+        ReflectionTestUtils.invokeMethod(smsCampaignWritePlatformService, "insertPendingMessages", smsCampaign, rows);
+
+        // then
+        verify(jdbcTemplate).queryForList(sqlCaptor.capture(), eq(Long.class), any());
+        assertTrue(sqlCaptor.getValue().startsWith("select client_id from client_device_registration"));
+        verify(jdbcTemplate).batchUpdate(anyString(), batchArgsCaptor.capture());
+        final List<Object[]> batchArgs = batchArgsCaptor.getValue();
+        assertEquals(1, batchArgs.size());
+        assertArrayEquals(new Object[] { 2L, SmsMessageStatusType.PENDING.getValue(), null, "Dear John, your repayment is due", 7L,
+                BUSINESS_DATE, true }, batchArgs.get(0));
+    }
+
+    @Test
+    public void testInsertPendingMessagesWithoutValidClientsWritesNothing() {
+        // given
+        given(smsCampaign.isNotification()).willReturn(false);
+        given(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).willReturn(List.of());
+
+        // when
+        ReflectionTestUtils.invokeMethod(smsCampaignWritePlatformService, "insertPendingMessages", smsCampaign,
+                List.of(row(1L, "Jane", "555-0101")));
+
+        // then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), batchArgsCaptor.capture());
+    }
+
+    @Test
+    public void testInsertPendingMessagesSkipsRowsWithoutClientId() {
+        // given
+        final HashMap<String, Object> rowWithoutId = new HashMap<>();
+        rowWithoutId.put("mobileNo", "555-0101");
+
+        // when
+        ReflectionTestUtils.invokeMethod(smsCampaignWritePlatformService, "insertPendingMessages", smsCampaign, List.of(rowWithoutId));
+
+        // then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void testCompiledTemplateIsReusedForSameTemplate() {
+        // when
+        final String first = smsCampaignWritePlatformService.compileSmsTemplate(TEMPLATE, "Repayment reminder",
+                Map.of("firstName", "Jane"));
+        final String second = smsCampaignWritePlatformService.compileSmsTemplate(TEMPLATE, "Repayment reminder",
+                Map.of("firstName", "John"));
+
+        // then
+        assertEquals("Dear Jane, your repayment is due", first);
+        assertEquals("Dear John, your repayment is due", second);
+        assertEquals(1, compiledTemplates().size());
+    }
+
+    @Test
+    public void testEditedTemplateIsCompiledAgain() {
+        // given
+        smsCampaignWritePlatformService.compileSmsTemplate(TEMPLATE, "Repayment reminder", Map.of("firstName", "Jane"));
+        final Mustache compiled = compiledTemplates().values().iterator().next();
+
+        // when
+        final String message = smsCampaignWritePlatformService.compileSmsTemplate("Hello {{firstName}}", "Repayment reminder",
+                Map.of("firstName", "Jane"));
+
+        // then
+        assertEquals("Hello Jane", message);
+        assertEquals(2, compiledTemplates().size());
+        assertSame(compiled, compiledTemplates().get("Repayment reminder\n" + TEMPLATE));
+        assertNotSame(compiled, compiledTemplates().get("Repayment reminder\nHello {{firstName}}"));
+    }
+
+    @Test
+    public void testCompiledTemplateCacheStartsOverWhenFull() {
+        // given
+        final int maxEntries = (Integer) ReflectionTestUtils.getField(SmsCampaignWritePlatformServiceJpaImpl.class,
+                "COMPILED_TEMPLATE_CACHE_MAX_ENTRIES");
+        for (int i = 0; i < maxEntries; i++) {
+            smsCampaignWritePlatformService.compileSmsTemplate("Template " + i, "Campaign", Map.of());
+        }
+        assertEquals(maxEntries, compiledTemplates().size());
+
+        // when
+        final String message = smsCampaignWritePlatformService.compileSmsTemplate(TEMPLATE, "Repayment reminder",
+                Map.of("firstName", "Jane"));
+
+        // then
+        assertEquals("Dear Jane, your repayment is due", message);
+        assertEquals(1, compiledTemplates().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Mustache> compiledTemplates() {
+        return (Map<String, Mustache>) ReflectionTestUtils.getField(smsCampaignWritePlatformService, "compiledTemplates");
+    }
+
+    private static HashMap<String, Object> row(final Long clientId, final String firstName, final String mobileNo) {
+        final HashMap<String, Object> row = new HashMap<>();
+        row.put("id", clientId);
+        row.put("firstName", firstName);
+        row.put("mobileNo", mobileNo);
+        return row;
+    }
+}
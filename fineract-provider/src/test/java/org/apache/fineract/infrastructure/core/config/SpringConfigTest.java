@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class SpringConfigTest {
+
+    private final SpringConfig springConfig = new SpringConfig();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        this.release.countDown();
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsPolicyRunsOverflowOnSubmittingThread() throws InterruptedException {
+        // given
+        saturatedExecutor("CALLER_RUNS");
+        final AtomicReference<Thread> runner = new AtomicReference<>();
+
+        // when
+        this.executor.execute(() -> runner.set(Thread.currentThread()));
+
+        // then
+        assertSame(Thread.currentThread(), runner.get());
+        assertEquals(1.0, rejected("CALLER_RUNS"));
+    }
+
+    @Test
+    public void testMissingPolicyDefaultsToCallerRuns() throws InterruptedException {
+        // given
+        saturatedExecutor(null);
+        final AtomicReference<Thread> runner = new AtomicReference<>();
+
+        // when
+        this.executor.execute(() -> runner.set(Thread.currentThread()));
+
+        // then
+        assertSame(Thread.currentThread(), runner.get());
+        assertEquals(1.0, rejected("CALLER_RUNS"));
+    }
+
+    @Test
+    public void testAbortPolicyRejectsOverflow() throws InterruptedException {
+        // given
+        saturatedExecutor("abort");
+        final AtomicBoolean ran = new AtomicBoolean();
+
+        // when
+        assertThrows(TaskRejectedException.class, () -> this.executor.execute(() -> ran.set(true)));
+
+        // then
+        assertFalse(ran.get());
+        assertEquals(1.0, rejected("ABORT"));
+    }
+
+    @Test
+    public void testDiscardPolicyDropsOverflow() throws InterruptedException {
+        // given
+        saturatedExecutor("DISCARD");
+        final AtomicBoolean ran = new AtomicBoolean();
+
+        // when
+        this.executor.execute(() -> ran.set(true));
+        this.release.countDown();
+        this.executor.shutdown();
+        assertTrue(this.executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS));
+
+        // then
+        assertFalse(ran.get());
+        assertEquals(1.0, rejected("DISCARD"));
+    }
+
+    @Test
+    public void testUnknownPolicyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> this.springConfig.applicationEventExecutor(properties("CALLER_WAITS"), this.meterRegistry));
+    }
+
+    @Test
+    public void testTasksWithinCapacityAreNotCounted() throws InterruptedException {
+        // given
+        this.executor = this.springConfig.applicationEventExecutor(properties("ABORT"), this.meterRegistry);
+        this.executor.initialize();
+        final CountDownLatch done = new CountDownLatch(2);
+
+        // when
+        this.executor.execute(done::countDown);
+        this.executor.execute(done::countDown);
+
+        // then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0.0, rejected("ABORT"));
+    }
+
+    /**
+     * One pool thread blocked on the release latch and the queue of one full, so the next task overflows.
+     */
+    private void saturatedExecutor(final String policy) throws InterruptedException {
+        this.executor = this.springConfig.applicationEventExecutor(properties(policy), this.meterRegistry);
+        this.executor.initialize();
+        final CountDownLatch started = new CountDownLatch(1);
+        this.executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        this.executor.execute(this::awaitRelease);
+    }
+
+    private void awaitRelease() {
+        try {
+            this.release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double rejected(final String policy) {
+        return this.meterRegistry.get(SpringConfig.EVENT_EXECUTOR_METRIC_NAME + ".rejected").tag("policy", policy).counter().count();
+    }
+
+    private static FineractProperties properties(final String overflowPolicy) {
+        final FineractProperties.FineractEventsProperties events = new FineractProperties.FineractEventsProperties();
+        events.setCorePoolSize(1);
+        events.setMaxPoolSize(1);
+        events.setQueueCapacity(1);
+        events.setOverflowPolicy(overflowPolicy);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setEvents(events);
+        return fineractProperties;
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class ContextPropagatingTaskDecoratorTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 12);
+
+    private final ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+    private ExecutorService pool;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        clearSubmitterContext();
+        // one pooled thread, started before any context is set so it reuses the same thread for every task
+        this.pool = Executors.newSingleThreadExecutor();
+        this.pool.submit(() -> {}).get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.pool.shutdownNow();
+        clearSubmitterContext();
+    }
+
+    @Test
+    public void testPooledThreadSeesSubmitterContext() throws Exception {
+        // given
+        final Authentication authentication = setSubmitterContext("tenant-a", "user-a");
+        final AtomicReference<String> tenant = new AtomicReference<>();
+        final AtomicReference<LocalDate> businessDate = new AtomicReference<>();
+        final AtomicReference<Authentication> seenAuthentication = new AtomicReference<>();
+        final AtomicReference<String> seenMdc = new AtomicReference<>();
+        final Runnable task = this.decorator.decorate(() -> {
+            tenant.set(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+            businessDate.set(ThreadLocalContextUtil.getBusinessDate());
+            seenAuthentication.set(SecurityContextHolder.getContext().getAuthentication());
+            seenMdc.set(MDC.get("user"));
+        });
+
+        // when
+        runOnPool(task);
+
+        // then
+        assertEquals("tenant-a", tenant.get());
+        assertEquals(BUSINESS_DATE, businessDate.get());
+        assertSame(authentication, seenAuthentication.get());
+        assertEquals("user-a", seenMdc.get());
+    }
+
+    @Test
+    public void testPooledThreadIsResetAfterTask() throws Exception {
+        // given
+        setSubmitterContext("tenant-a", "user-a");
+        runOnPool(this.decorator.decorate(() -> {}));
+
+        // when
+        final AtomicReference<Object> context = new AtomicReference<>();
+        final AtomicReference<Authentication> authentication = new AtomicReference<>();
+        final AtomicReference<Map<String, String>> mdc = new AtomicReference<>();
+        runOnPool(() -> {
+            context.set(ThreadLocalContextUtil.getContextIfPresent());
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+            mdc.set(MDC.getCopyOfContextMap());
+        });
+
+        // then
+        assertNull(context.get());
+        assertNull(authentication.get());
+        assertTrue(mdc.get() == null || mdc.get().isEmpty());
+    }
+
+    @Test
+    public void testPooledThreadIsResetWhenFailingTaskEnds() throws Exception {
+        // given
+        setSubmitterContext("tenant-a", "user-a");
+        try {
+            runOnPool(this.decorator.decorate(() -> {
+                throw new IllegalStateException("failed event");
+            }));
+        } catch (ExecutionException expected) {
+            // the failure itself is not under test
+        }
+
+        // when
+        final AtomicReference<Object> context = new AtomicReference<>();
+        runOnPool(() -> context.set(ThreadLocalContextUtil.getContextIfPresent()));
+
+        // then
+        assertNull(context.get());
+    }
+
+    @Test
+    public void testConsecutiveTenantsDoNotLeakIntoEachOther() throws Exception {
+        // given
+        final AtomicReference<String> first = new AtomicReference<>();
+        final AtomicReference<String> second = new AtomicReference<>();
+        final AtomicReference<Object> third = new AtomicReference<>();
+        setSubmitterContext("tenant-a", "user-a");
+        final Runnable taskA = this.decorator.decorate(() -> first.set(ThreadLocalContextUtil.getTenant().getTenantIdentifier()));
+        setSubmitterContext("tenant-b", "user-b");
+        final Runnable taskB = this.decorator.decorate(() -> second.set(ThreadLocalContextUtil.getTenant().getTenantIdentifier()));
+        clearSubmitterContext();
+        final Runnable taskWithoutContext = this.decorator.decorate(() -> third.set(ThreadLocalContextUtil.getContextIfPresent()));
+
+        // when
+        runOnPool(taskA);
+        runOnPool(taskB);
+        runOnPool(taskWithoutContext);
+
+        // then
+        assertEquals("tenant-a", first.get());
+        assertEquals("tenant-b", second.get());
+        assertNull(third.get());
+    }
+
+    @Test
+    public void testSubmitterThreadKeepsItsContextWhenRunningTheTask() {
+        // given
+        final Authentication authentication = setSubmitterContext("tenant-a", "user-a");
+        final AtomicReference<String> tenant = new AtomicReference<>();
+        final Runnable task = this.decorator.decorate(() -> tenant.set(ThreadLocalContextUtil.getTenant().getTenantIdentifier()));
+
+        // when
+        task.run();
+
+        // then
+        assertEquals("tenant-a", tenant.get());
+        assertEquals("tenant-a", ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+        assertEquals(BUSINESS_DATE, ThreadLocalContextUtil.getBusinessDate());
+        assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("user-a", MDC.get("user"));
+    }
+
+    @Test
+    public void testSecurityContextIsCapturedAtSubmission() throws Exception {
+        // given
+        final Authentication authentication = setSubmitterContext("tenant-a", "user-a");
+        final AtomicReference<Authentication> seen = new AtomicReference<>();
+        final Runnable task = this.decorator.decorate(() -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.getContext().setAuthentication(null);
+
+        // when
+        runOnPool(task);
+
+        // then
+        assertSame(authentication, seen.get());
+    }
+
+    private void runOnPool(final Runnable task) throws InterruptedException, ExecutionException, TimeoutException {
+        this.pool.submit(task).get(10, TimeUnit.SECONDS);
+    }
+
+    private static Authentication setSubmitterContext(final String tenantIdentifier, final String user) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, tenantIdentifier, tenantIdentifier, "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, BUSINESS_DATE)));
+        final Authentication authentication = new TestingAuthenticationToken(user, "password");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        MDC.put("user", user);
+        return authentication;
+    }
+
+    private static void clearSubmitterContext() {
+        ThreadLocalContextUtil.reset();
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PaginationHelperTest {
+
+    private static final String SQL_COUNT_ROWS = "select SQL_CALC_FOUND_ROWS c.id from m_client c where c.office_id = ?";
+    private static final String KEYSET_STATEMENT = SQL_COUNT_ROWS + " and c.id > ? order by c.id asc LIMIT 0,2";
+    private static final String COUNT_STATEMENT = "SELECT COUNT(*) FROM (select  c.id from m_client c where c.office_id = ?) AS temp";
+
+    @Mock
+    private DatabaseTypeResolver databaseTypeResolver;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private RowMapper<Long> rowMapper;
+
+    private PaginationHelper underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        given(databaseTypeResolver.isMySQL()).willReturn(true);
+        final FineractProperties.FineractPaginationProperties paginationProperties = new FineractProperties.FineractPaginationProperties();
+        paginationProperties.setCountCacheTtlInSeconds(60);
+        paginationProperties.setCountCacheMaxEntries(10);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setPagination(paginationProperties);
+        underTest = new PaginationHelper(new DatabaseSpecificSQLGenerator(databaseTypeResolver), databaseTypeResolver,
+                fineractProperties);
+
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), (Object[]) any())).willReturn(List.of(11L, 12L));
+        given(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), (Object[]) any())).willReturn(42);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testKeysetPageCountsWithoutTheKeysetCondition() {
+        // when
+        final Page<Long> page = underTest.fetchPage(jdbcTemplate, KEYSET_STATEMENT, new Object[] { 1L, 10L }, SQL_COUNT_ROWS,
+                new Object[] { 1L }, rowMapper, PageCountMode.EXACT);
+
+        // then
+        assertThat(page.getPageItems()).containsExactly(11L, 12L);
+        assertThat(page.getTotalFilteredRecords()).isEqualTo(42);
+        verify(jdbcTemplate).query("select  c.id from m_client c where c.office_id = ? and c.id > ? order by c.id asc LIMIT 0,2",
+                rowMapper, 1L, 10L);
+        verify(jdbcTemplate).queryForObject(COUNT_STATEMENT, Integer.class, 1L);
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT FOUND_ROWS()"), eq(Integer.class), (Object[]) any());
+    }
+
+    @Test
+    public void testCachedCountIsSharedByAllKeysetPages() {
+        // when
+        final Page<Long> first = underTest.fetchPage(jdbcTemplate, KEYSET_STATEMENT, new Object[] { 1L, 10L }, SQL_COUNT_ROWS,
+                new Object[] { 1L }, rowMapper, PageCountMode.CACHED);
+        final Page<Long> second = underTest.fetchPage(jdbcTemplate, KEYSET_STATEMENT, new Object[] { 1L, 12L }, SQL_COUNT_ROWS,
+                new Object[] { 1L }, rowMapper, PageCountMode.CACHED);
+
+        // then
+        assertThat(first.getTotalFilteredRecords()).isEqualTo(42);
+        assertThat(second.getTotalFilteredRecords()).isEqualTo(42);
+        verify(jdbcTemplate, times(1)).queryForObject(COUNT_STATEMENT, Integer.class, 1L);
+    }
+
+    @Test
+    public void testCachedCountIsNotSharedAcrossFilters() {
+        // when
+        underTest.fetchPage(jdbcTemplate, KEYSET_STATEMENT, new Object[] { 1L, 10L }, SQL_COUNT_ROWS, new Object[] { 1L }, rowMapper,
+                PageCountMode.CACHED);
+        underTest.fetchPage(jdbcTemplate, KEYSET_STATEMENT, new Object[] { 2L, 10L }, SQL_COUNT_ROWS, new Object[] { 2L }, rowMapper,
+                PageCountMode.CACHED);
+
+        // then
+        verify(jdbcTemplate).queryForObject(COUNT_STATEMENT, Integer.class, 1L);
+        verify(jdbcTemplate).queryForObject(COUNT_STATEMENT, Integer.class, 2L);
+    }
+
+    @Test
+    public void testKeysetPageWithoutCount() {
+        // when
+        final Page<Long> page = underTest.fetchPage(jdbcTemplate, KEYSET_STATEMENT, new Object[] { 1L, 10L }, SQL_COUNT_ROWS,
+                new Object[] { 1L }, rowMapper, PageCountMode.NONE);
+
+        // then
+        assertThat(page.getTotalFilteredRecords()).isEqualTo(Page.TOTAL_NOT_COUNTED);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), (Object[]) any());
+    }
+
+    @Test
+    public void testCachedCountIsSharedByAllOffsetPages() {
+        // when
+        underTest.fetchPage(jdbcTemplate, SQL_COUNT_ROWS + " order by c.id LIMIT 0,2", new Object[] { 1L }, rowMapper,
+                PageCountMode.CACHED);
+        final Page<Long> second = underTest.fetchPage(jdbcTemplate, SQL_COUNT_ROWS + " order by c.id LIMIT 2,2", new Object[] { 1L },
+                rowMapper, PageCountMode.CACHED);
+
+        // then
+        assertThat(second.getTotalFilteredRecords()).isEqualTo(42);
+        verify(jdbcTemplate, times(1)).queryForObject("SELECT FOUND_ROWS()", Integer.class);
+        verify(jdbcTemplate).query("select  c.id from m_client c where c.office_id = ? order by c.id LIMIT 2,2", rowMapper, 1L);
+    }
+}
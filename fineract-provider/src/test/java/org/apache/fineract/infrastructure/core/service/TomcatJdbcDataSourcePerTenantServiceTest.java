@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TomcatJdbcDataSourcePerTenantServiceTest {
+
+    @Mock
+    private DataSource tenantStoreDataSource;
+
+    @Mock
+    private DataSource tenantDataSource;
+
+    @Mock
+    private DataSource replacementDataSource;
+
+    @Mock
+    private DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory;
+
+    private TomcatJdbcDataSourcePerTenantService underTest;
+
+    @BeforeEach
+    public void setUp() {
+        underTest = new TomcatJdbcDataSourcePerTenantService(tenantStoreDataSource, dataSourcePerTenantServiceFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        underTest.destroy();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testWithoutTenantTheTenantStoreIsUsed() {
+        // when
+        final DataSource dataSource = underTest.retrieveDataSource();
+
+        // then
+        assertSame(tenantStoreDataSource, dataSource);
+    }
+
+    @Test
+    public void testReloadedTenantWithSameSettingsKeepsItsPool() {
+        // given
+        given(dataSourcePerTenantServiceFactory.createNewDataSourceFor(any(FineractPlatformTenantConnection.class)))
+                .willReturn(tenantDataSource);
+
+        // when: the tenant details are loaded again for every request, as without caching
+        setTenant(connection("localhost", 5, 10));
+        final DataSource first = underTest.retrieveDataSource();
+        setTenant(connection("localhost", 5, 10));
+        final DataSource second = underTest.retrieveDataSource();
+
+        // then
+        assertSame(tenantDataSource, first);
+        assertSame(tenantDataSource, second);
+        verify(dataSourcePerTenantServiceFactory, times(1)).createNewDataSourceFor(any(FineractPlatformTenantConnection.class));
+    }
+
+    @Test
+    public void testChangedServerReplacesThePool() {
+        // given
+        given(dataSourcePerTenantServiceFactory.createNewDataSourceFor(any(FineractPlatformTenantConnection.class)))
+                .willReturn(tenantDataSource);
+        given(dataSourcePerTenantServiceFactory.createNewDataSourceFor(any(FineractPlatformTenantConnection.class), eq(1)))
+                .willReturn(replacementDataSource);
+        setTenant(connection("localhost", 5, 10));
+        underTest.retrieveDataSource();
+
+        // when
+        setTenant(connection("otherhost", 5, 10));
+        final DataSource dataSource = underTest.retrieveDataSource();
+
+        // then
+        assertSame(replacementDataSource, dataSource);
+    }
+
+    @Test
+    public void testChangedPoolSizeResizesThePoolInPlace() {
+        // given
+        final HikariDataSource hikariDataSource = new HikariDataSource();
+        hikariDataSource.setMaximumPoolSize(10);
+        hikariDataSource.setMinimumIdle(5);
+        given(dataSourcePerTenantServiceFactory.createNewDataSourceFor(any(FineractPlatformTenantConnection.class)))
+                .willReturn(hikariDataSource);
+        setTenant(connection("localhost", 5, 10));
+        underTest.retrieveDataSource();
+
+        // when
+        setTenant(connection("localhost", 8, 20));
+        final DataSource dataSource = underTest.retrieveDataSource();
+
+        // then
+        assertSame(hikariDataSource, dataSource);
+        assertEquals(20, hikariDataSource.getMaximumPoolSize());
+        assertEquals(8, hikariDataSource.getMinimumIdle());
+    }
+
+    private void setTenant(final FineractPlatformTenantConnection connection) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", connection));
+    }
+
+    private FineractPlatformTenantConnection connection(final String server, final int initialSize, final int maxActive) {
+        return new FineractPlatformTenantConnection(1L, "fineract_default", server, "3306", null, "root", "mysql", true, initialSize,
+                30000L, true, 60, false, 50, maxActive, 5, 10, 60, 34000, 60000, 3, 1, false, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.dataqueries.data.ReportExportFormat;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.service.SqlInjectionPreventerService;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReadReportingServiceImplTest {
+
+    private static final List<ResultsetColumnHeaderData> COLUMN_HEADERS = List.of(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"), ResultsetColumnHeaderData.basic("balance", "DECIMAL"));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformSecurityContext context;
+
+    @Mock
+    private GenericDataService genericDataService;
+
+    @Mock
+    private SqlInjectionPreventerService sqlInjectionPreventerService;
+
+    @Mock
+    private DatabaseSpecificSQLGenerator sqlGenerator;
+
+    private ReadReportingServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        final SqlRowSet reportSql = mock(SqlRowSet.class);
+        given(reportSql.next()).willReturn(true);
+        given(reportSql.getString("the_sql")).willReturn("select * from m_client");
+        given(jdbcTemplate.queryForRowSet(anyString(), anyString())).willReturn(reportSql);
+        given(sqlInjectionPreventerService.encodeSql(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(genericDataService.wrapSQL(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(genericDataService.replace(anyString(), anyString(), anyString())).willAnswer(
+                invocation -> StringUtils.replace(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        given(sqlGenerator.currentBusinessDate()).willReturn("'2022-06-12'");
+        given(sqlGenerator.currentTenantDateTime()).willReturn("'2022-06-12 00:00:00'");
+
+        final Office office = mock(Office.class);
+        given(office.getHierarchy()).willReturn(".");
+        final AppUser user = mock(AppUser.class);
+        given(user.getOffice()).willReturn(office);
+        given(user.getId()).willReturn(1L);
+        given(context.authenticatedUser()).willReturn(user);
+
+        underTest = new ReadReportingServiceImpl(jdbcTemplate, context, genericDataService, sqlInjectionPreventerService, sqlGenerator);
+    }
+
+    @Test
+    public void testCsvQuotesTextAndEscapesQuotes() throws IOException {
+        // given
+        givenRows(Arrays.asList("1", "Jane \"JJ\" Doe, Jr.", "10.50"), Arrays.asList("2", null, null),
+                Arrays.asList("3", "line\nbreak", "0"));
+
+        // when
+        final String csv = export(ReportExportFormat.CSV, false);
+
+        // then
+        assertEquals("\"id\",\"name\",\"balance\"\n" //
+                + "1,\"Jane \"\"JJ\"\" Doe, Jr.\",10.50\n" //
+                + "2,,\n" //
+                + "3,\"line\nbreak\",0\n", csv);
+    }
+
+    @Test
+    public void testCsvOfEmptyReportHasHeaderOnly() throws IOException {
+        // given
+        givenRows();
+
+        // when
+        final String csv = export(ReportExportFormat.CSV, false);
+
+        // then
+        assertEquals("\"id\",\"name\",\"balance\"\n", csv);
+    }
+
+    @Test
+    public void testJsonLinesWritesOneObjectPerRow() throws IOException {
+        // given
+        givenRows(Arrays.asList("1", "Jane \"JJ\" Doe\\", "10.50"), Arrays.asList("2", null, null),
+                Arrays.asList("3", "line\nbreak", "0"));
+
+        // when
+        final String jsonLines = export(ReportExportFormat.JSON_LINES, false);
+
+        // then
+        assertEquals("{\"id\":1,\"name\":\"Jane \\\"JJ\\\" Doe\\\\\",\"balance\":10.50}\n" //
+                + "{\"id\":2,\"name\":null,\"balance\":null}\n" //
+                + "{\"id\":3,\"name\":\"line\\nbreak\",\"balance\":0}\n", jsonLines);
+    }
+
+    @Test
+    public void testGzipWrapsTheExport() throws IOException {
+        // given
+        givenRows(Arrays.asList("1", "Jane", "10.50"));
+        final String plain = export(ReportExportFormat.CSV, false);
+
+        // when
+        final byte[] compressed = exportBytes(ReportExportFormat.CSV, true);
+
+        // then
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(plain, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testGzipWrapsJsonLines() throws IOException {
+        // given
+        givenRows(Arrays.asList("1", "Jane", "10.50"));
+
+        // when
+        final byte[] compressed = exportBytes(ReportExportFormat.JSON_LINES, true);
+
+        // then
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals("{\"id\":1,\"name\":\"Jane\",\"balance\":10.50}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @SafeVarargs
+    private void givenRows(final List<String>... rows) throws IOException {
+        willAnswer(invocation -> {
+            final GenericResultsetStreamHandler handler = invocation.getArgument(1);
+            handler.handleColumnHeaders(COLUMN_HEADERS);
+            for (final List<String> row : rows) {
+                handler.handleRow(row);
+            }
+            return null;
+        }).given(genericDataService).streamGenericResultSet(anyString(), any(GenericResultsetStreamHandler.class));
+    }
+
+    private String export(final ReportExportFormat format, final boolean gzip) throws IOException {
+        return new String(exportBytes(format, gzip), StandardCharsets.UTF_8);
+    }
+
+    private byte[] exportBytes(final ReportExportFormat format, final boolean gzip) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        underTest.retrieveReportStream("Client Listing", "report", Map.of(), false, format, gzip).write(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.io.ByteSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractImagesProperties;
+import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageResizer;
+import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
+import org.apache.fineract.infrastructure.documentmanagement.service.ImageReadPlatformService;
+import org.apache.fineract.infrastructure.documentmanagement.service.ResizedImageCache;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ImagesApiResourceTest {
+
+    private static final byte[] CONTENT = { 1, 2, 3 };
+
+    @Mock
+    private PlatformSecurityContext context;
+
+    @Mock
+    private AppUser appUser;
+
+    @Mock
+    private ImageReadPlatformService imageReadPlatformService;
+
+    @Mock
+    private Request request;
+
+    private int reads;
+    private ImagesApiResource underTest;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractImagesProperties imagesProperties = new FineractImagesProperties();
+        imagesProperties.setResizedCacheMaxBytes(Long.MAX_VALUE);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setImages(imagesProperties);
+        this.underTest = new ImagesApiResource(this.context, this.imageReadPlatformService, null, null, null,
+                new ResizedImageCache(new ImageResizer(), fineractProperties));
+
+        final ImageData storedImage = new ImageData(7L, "images/clients/1/image.png", StorageType.FILE_SYSTEM, 2, "John Doe");
+        given(this.context.authenticatedUser()).willReturn(this.appUser);
+        given(this.imageReadPlatformService.retrieveImageData("clients", 1L)).willReturn(storedImage);
+        given(this.imageReadPlatformService.retrieveImage(storedImage)).willReturn(new FileData(new ByteSource() {
+
+            @Override
+            public InputStream openStream() {
+                ImagesApiResourceTest.this.reads++;
+                return new ByteArrayInputStream(CONTENT);
+            }
+        }, "John Doe", "image/png"));
+    }
+
+    @Test
+    public void testMatchingEntityTagIsNotModifiedWithoutReadingTheImage() {
+        // given
+        given(this.request.evaluatePreconditions(any(EntityTag.class))).willReturn(Response.notModified());
+
+        // when
+        final Response response = this.underTest.retrieveImage("clients", 1L, null, null, "octet", null, this.request);
+
+        // then
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertNull(response.getEntity());
+        assertEquals(0, this.reads);
+        final ArgumentCaptor<EntityTag> entityTag = ArgumentCaptor.forClass(EntityTag.class);
+        verify(this.request).evaluatePreconditions(entityTag.capture());
+        assertEquals("clients-1-7-2-octet", entityTag.getValue().getValue());
+        verify(this.appUser).validateHasReadPermission("CLIENTIMAGE");
+    }
+
+    @Test
+    public void testStaleEntityTagIsAnsweredWithTheImageAndItsTag() {
+        // given
+        given(this.request.evaluatePreconditions(any(EntityTag.class))).willReturn(null);
+
+        // when
+        final Response response = this.underTest.retrieveImage("clients", 1L, null, null, null, null, this.request);
+
+        // then
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(1, this.reads);
+        assertEquals(new EntityTag("clients-1-7-2-text"), response.getEntityTag());
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.io.ByteSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractImagesProperties;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils.ImageFileExtension;
+import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageResizer;
+import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
+import org.apache.fineract.infrastructure.documentmanagement.service.ResizedImageCache.ResizedImage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ResizedImageCacheTest {
+
+    private static final String LOCATION = "images/clients/1/image.png";
+    private static final int VARIANT_SIZE = 100;
+
+    @Mock
+    private ImageResizer imageResizer;
+
+    @Test
+    public void testKeyIsMadeOfEntityImageRevisionLocationAndSize() throws IOException {
+        // given
+        givenVariantsOfSize(VARIANT_SIZE);
+        final ResizedImageCache underTest = cache(Long.MAX_VALUE);
+
+        // when
+        final ResizedImage resized = underTest.resize("Clients", 1L, image(7L, 2), new CountingByteSource().fileData(), 50, 40);
+
+        // then
+        assertEquals("clients-1-7-2-50x40", resized.getEntityTag());
+        assertEquals("clients-1-7-2|" + LOCATION + "|50x40|PNG", ResizedImageCache.key("clients-1-7-2", LOCATION, 50, 40,
+                ImageFileExtension.PNG));
+        assertTrue(underTest.contains("clients-1-7-2|" + LOCATION + "|50x40|PNG"));
+    }
+
+    @Test
+    public void testCacheHitDoesNotReadTheOriginal() throws IOException {
+        // given
+        givenVariantsOfSize(VARIANT_SIZE);
+        final ResizedImageCache underTest = cache(Long.MAX_VALUE);
+        final CountingByteSource first = new CountingByteSource();
+        final CountingByteSource second = new CountingByteSource();
+
+        // when
+        underTest.resize("clients", 1L, image(7L, 2), first.fileData(), 50, 40);
+        final ResizedImage hit = underTest.resize("clients", 1L, image(7L, 2), second.fileData(), 50, 40);
+
+        // then
+        assertEquals(1, first.reads);
+        assertEquals(0, second.reads);
+        assertArrayEquals(new byte[VARIANT_SIZE], hit.getBytes());
+        assertEquals(0, second.reads);
+        verify(this.imageResizer, times(1)).resize(any(byte[].class), any(ImageFileExtension.class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testReplacedImageIsResizedAgainUnderANewTag() throws IOException {
+        // given
+        givenVariantsOfSize(VARIANT_SIZE);
+        final ResizedImageCache underTest = cache(Long.MAX_VALUE);
+
+        // when
+        final ResizedImage before = underTest.resize("clients", 1L, image(7L, 2), new CountingByteSource().fileData(), 50, 40);
+        final CountingByteSource replaced = new CountingByteSource();
+        final ResizedImage after = underTest.resize("clients", 1L, image(7L, 3), replaced.fileData(), 50, 40);
+
+        // then
+        assertNotEquals(before.getEntityTag(), after.getEntityTag());
+        assertEquals(1, replaced.reads);
+        verify(this.imageResizer, times(2)).resize(any(byte[].class), any(ImageFileExtension.class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testOriginalIsOnlyReadWhenItsBytesAreRequested() throws IOException {
+        // given
+        final ResizedImageCache underTest = cache(Long.MAX_VALUE);
+        final CountingByteSource original = new CountingByteSource();
+
+        // when
+        final ResizedImage resized = underTest.resize("staff", 4L, image(9L, 0), original.fileData(), null, null);
+
+        // then
+        assertEquals("staff-4-9-0", resized.getEntityTag());
+        assertNull(resized.getLastModified());
+        assertEquals(0, original.reads);
+        assertArrayEquals(CountingByteSource.CONTENT, resized.getBytes());
+        assertEquals(1, original.reads);
+    }
+
+    @Test
+    public void testOriginalThatAlreadyFitsIsRememberedWithoutKeepingItsBytes() throws IOException {
+        // given
+        given(this.imageResizer.resize(any(byte[].class), any(ImageFileExtension.class), anyInt(), anyInt())).willReturn(Optional.empty());
+        final ResizedImageCache underTest = cache(Long.MAX_VALUE);
+        final CountingByteSource original = new CountingByteSource();
+        underTest.resize("clients", 1L, image(7L, 2), new CountingByteSource().fileData(), 50, 40);
+
+        // when
+        final ResizedImage resized = underTest.resize("clients", 1L, image(7L, 2), original.fileData(), 50, 40);
+
+        // then
+        assertEquals("clients-1-7-2", resized.getEntityTag());
+        assertEquals(0, original.reads);
+        assertEquals(ResizedImageCache.key("clients-1-7-2", LOCATION, 50, 40, ImageFileExtension.PNG).length(),
+                underTest.getCachedBytes());
+        verify(this.imageResizer, times(1)).resize(any(byte[].class), any(ImageFileExtension.class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedVariantsAreEvictedOnceTheBytesExceedTheLimit() throws IOException {
+        // given
+        givenVariantsOfSize(VARIANT_SIZE);
+        final String first = ResizedImageCache.key("clients-1-1-0", LOCATION, 50, 40, ImageFileExtension.PNG);
+        final String second = ResizedImageCache.key("clients-2-2-0", LOCATION, 50, 40, ImageFileExtension.PNG);
+        final String third = ResizedImageCache.key("clients-3-3-0", LOCATION, 50, 40, ImageFileExtension.PNG);
+        final long entrySize = first.length() + VARIANT_SIZE;
+        final ResizedImageCache underTest = cache(2 * entrySize + entrySize / 2);
+
+        // when
+        underTest.resize("clients", 1L, image(1L, 0), new CountingByteSource().fileData(), 50, 40);
+        underTest.resize("clients", 2L, image(2L, 0), new CountingByteSource().fileData(), 50, 40);
+        underTest.resize("clients", 1L, image(1L, 0), new CountingByteSource().fileData(), 50, 40);
+        underTest.resize("clients", 3L, image(3L, 0), new CountingByteSource().fileData(), 50, 40);
+
+        // then
+        assertTrue(underTest.contains(first));
+        assertFalse(underTest.contains(second));
+        assertTrue(underTest.contains(third));
+        assertEquals(2 * entrySize, underTest.getCachedBytes());
+    }
+
+    @Test
+    public void testVariantLargerThanTheLimitIsNotCached() throws IOException {
+        // given
+        givenVariantsOfSize(VARIANT_SIZE);
+        final ResizedImageCache underTest = cache(VARIANT_SIZE);
+
+        // when
+        final ResizedImage resized = underTest.resize("clients", 1L, image(7L, 2), new CountingByteSource().fileData(), 50, 40);
+
+        // then
+        assertArrayEquals(new byte[VARIANT_SIZE], resized.getBytes());
+        assertFalse(underTest.contains(ResizedImageCache.key("clients-1-7-2", LOCATION, 50, 40, ImageFileExtension.PNG)));
+        assertEquals(0, underTest.getCachedBytes());
+    }
+
+    private void givenVariantsOfSize(final int size) throws IOException {
+        given(this.imageResizer.resize(any(byte[].class), any(ImageFileExtension.class), anyInt(), anyInt()))
+                .willAnswer(invocation -> Optional.of(new byte[size]));
+    }
+
+    private ResizedImageCache cache(final long maxBytes) {
+        final FineractImagesProperties imagesProperties = new FineractImagesProperties();
+        imagesProperties.setResizedCacheMaxBytes(maxBytes);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setImages(imagesProperties);
+        return new ResizedImageCache(this.imageResizer, fineractProperties);
+    }
+
+    private static ImageData image(final Long id, final int revision) {
+        return new ImageData(id, LOCATION, StorageType.FILE_SYSTEM, revision, "John Doe");
+    }
+
+    private static final class CountingByteSource extends ByteSource {
+
+        private static final byte[] CONTENT = { 1, 2, 3 };
+
+        private int reads;
+
+        @Override
+        public InputStream openStream() {
+            this.reads++;
+            return new ByteArrayInputStream(CONTENT);
+        }
+
+        private FileData fileData() {
+            return new FileData(this, "John Doe", "image/png");
+        }
+    }
+}
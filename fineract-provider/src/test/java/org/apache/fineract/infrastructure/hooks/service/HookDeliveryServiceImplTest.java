@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
+import org.apache.fineract.infrastructure.hooks.domain.HookDelivery;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryRepository;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus;
+import org.apache.fineract.infrastructure.hooks.domain.HookTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class HookDeliveryServiceImplTest {
+
+    private static final String NODE_ID = "1";
+
+    @Mock
+    private HookReadPlatformService hookReadPlatformService;
+
+    @Mock
+    private HookDeliveryRepository hookDeliveryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final FineractProperties fineractProperties = new FineractProperties();
+
+    private HookDeliveryServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        fineractProperties.setNodeId(NODE_ID);
+        fineractProperties.setHookDelivery(hookDeliveryProperties(4, 100, 120));
+        fineractProperties.getHookDelivery().setMaxAttempts(10);
+        fineractProperties.getHookDelivery().setInitialBackoffInSeconds(5);
+        fineractProperties.getHookDelivery().setMaxBackoffInSeconds(3600);
+        given(transactionTemplate.getTransactionManager()).willReturn(transactionManager);
+        given(hookReadPlatformService.retrieveHooksByEvent(anyString(), anyString())).willReturn(List.of());
+        underTest = new HookDeliveryServiceImpl(hookReadPlatformService, hookDeliveryRepository, fineractProperties, transactionTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testLeaseSizeFitsTheRequestsIntoTheLease() {
+        // 120 s lease, 40 s per request: two rounds of four requests, one round kept as margin
+        assertEquals(8, HookDeliveryServiceImpl.leaseSize(hookDeliveryProperties(4, 100, 120)));
+        assertEquals(5, HookDeliveryServiceImpl.leaseSize(hookDeliveryProperties(4, 5, 120)));
+        // a lease shorter than two requests still leases one round
+        assertEquals(4, HookDeliveryServiceImpl.leaseSize(hookDeliveryProperties(4, 100, 30)));
+    }
+
+    @Test
+    public void testEnqueueWritesWithinTheTransactionOfTheCaller() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        final Hook hook = webHook("http://localhost/hook", "json");
+        given(hookReadPlatformService.retrieveHooksByEvent("LOAN", "CREATE")).willReturn(List.of(hook));
+
+        // when
+        underTest.enqueue("LOAN", "CREATE", "{}");
+
+        // then
+        final ArgumentCaptor<HookDelivery> delivery = ArgumentCaptor.forClass(HookDelivery.class);
+        verify(hookDeliveryRepository).save(delivery.capture());
+        assertEquals("http://localhost/hook", delivery.getValue().getPayloadUrl());
+        assertEquals(HookDeliveryStatus.PENDING, delivery.getValue().getStatus());
+        verify(transactionManager, never()).getTransaction(any());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    public void testEnqueueSkipsHooksWithoutPayloadUrl() {
+        // given
+        final Hook hook = webHook(null, "json");
+        given(hookReadPlatformService.retrieveHooksByEvent("LOAN", "CREATE")).willReturn(List.of(hook));
+
+        // when
+        underTest.enqueue("LOAN", "CREATE", "{}");
+
+        // then
+        verify(hookDeliveryRepository, never()).save(any());
+    }
+
+    @Test
+    public void testAcknowledgeDeletesOnlyDeliveriesLeasedByThisNode() {
+        // when
+        underTest.acknowledge(List.of(1L, 2L));
+
+        // then
+        verify(hookDeliveryRepository).deleteLeasedByIds(List.of(1L, 2L), NODE_ID);
+    }
+
+    @Test
+    public void testRetrySkipsDeliveriesTakenOverByAnotherNode() {
+        // given
+        final HookDelivery own = leasedDelivery(NODE_ID);
+        final HookDelivery takenOver = leasedDelivery("2");
+        given(hookDeliveryRepository.findAllById(any())).willReturn(List.of(own, takenOver));
+
+        // when
+        underTest.retryOrDeadLetter(List.of(1L, 2L), "connection refused");
+
+        // then
+        assertEquals(HookDeliveryStatus.PENDING, own.getStatus());
+        assertEquals(HookDeliveryStatus.SENDING, takenOver.getStatus());
+        assertEquals("2", takenOver.getOwnerNodeId());
+    }
+
+    private static FineractProperties.FineractHookDeliveryProperties hookDeliveryProperties(final int threadCount, final int leaseLimit,
+            final int leaseTimeoutInSeconds) {
+        final FineractProperties.FineractHookDeliveryProperties properties = new FineractProperties.FineractHookDeliveryProperties();
+        properties.setThreadCount(threadCount);
+        properties.setLeaseLimit(leaseLimit);
+        properties.setLeaseTimeoutInSeconds(leaseTimeoutInSeconds);
+        return properties;
+    }
+
+    private static Hook webHook(final String payloadUrl, final String contentType) {
+        final HookTemplate template = mock(HookTemplate.class);
+        given(template.getName()).willReturn(webTemplateName);
+        final Hook hook = mock(Hook.class);
+        given(hook.getHookTemplate()).willReturn(template);
+        final Set<HookConfiguration> config = new HashSet<>();
+        config.add(HookConfiguration.createNewWithoutHook("string", payloadURLName, payloadUrl));
+        config.add(HookConfiguration.createNewWithoutHook("string", contentTypeName, contentType));
+        given(hook.getHookConfig()).willReturn(config);
+        return hook;
+    }
+
+    private static HookDelivery leasedDelivery(final String ownerNodeId) {
+        final HookDelivery delivery = HookDelivery.instance(1L, "http://localhost/hook", "json", 1, "LOAN", "CREATE", "{}",
+                LocalDateTime.now());
+        ReflectionTestUtils.setField(delivery, "status", HookDeliveryStatus.SENDING);
+        ReflectionTestUtils.setField(delivery, "ownerNodeId", ownerNodeId);
+        ReflectionTestUtils.setField(delivery, "attempts", 1);
+        return delivery;
+    }
+}
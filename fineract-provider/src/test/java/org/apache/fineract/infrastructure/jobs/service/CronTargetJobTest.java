@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.InvocationTargetException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.scheduling.quartz.JobMethodInvocationFailedException;
+import org.springframework.util.MethodInvoker;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CronTargetJobTest {
+
+    private static final Long JOB_ID = 7L;
+
+    @Mock
+    private JobRegisterServiceImpl jobRegisterService;
+
+    @Mock
+    private MethodInvoker methodInvoker;
+
+    @Mock
+    private JobExecutionContext context;
+
+    private final CronTargetJob underTest = new CronTargetJob();
+
+    @BeforeEach
+    public void setUp() {
+        underTest.setJobRegisterService(jobRegisterService);
+        underTest.setJobId(JOB_ID);
+    }
+
+    @Test
+    public void testJobInvokesTheResolvedCronTarget() throws Exception {
+        // given
+        given(jobRegisterService.createMethodInvoker(JOB_ID)).willReturn(methodInvoker);
+
+        // when
+        underTest.executeInternal(context);
+
+        // then
+        verify(methodInvoker).invoke();
+    }
+
+    @Test
+    public void testUnresolvableJobFailsWithoutRefire() throws Exception {
+        // given
+        given(jobRegisterService.createMethodInvoker(JOB_ID)).willThrow(new IllegalArgumentException("no @CronTarget"));
+
+        // when
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, () -> underTest.executeInternal(context));
+
+        // then
+        assertFalse(exception.refireImmediately());
+    }
+
+    @Test
+    public void testJobExecutionExceptionOfTheTargetIsPassedOn() throws Exception {
+        // given
+        final JobExecutionException targetException = new JobExecutionException("target failed");
+        given(jobRegisterService.createMethodInvoker(JOB_ID)).willReturn(methodInvoker);
+        given(methodInvoker.invoke()).willThrow(new InvocationTargetException(targetException));
+
+        // when
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, () -> underTest.executeInternal(context));
+
+        // then
+        assertSame(targetException, exception);
+    }
+
+    @Test
+    public void testOtherFailuresOfTheTargetAreWrapped() throws Exception {
+        // given
+        final IllegalStateException targetException = new IllegalStateException("target failed");
+        given(jobRegisterService.createMethodInvoker(JOB_ID)).willReturn(methodInvoker);
+        given(methodInvoker.invoke()).willThrow(new InvocationTargetException(targetException));
+
+        // when
+        final JobMethodInvocationFailedException exception = assertThrows(JobMethodInvocationFailedException.class,
+                () -> underTest.executeInternal(context));
+
+        // then
+        assertSame(targetException, exception.getCause());
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.apache.fineract.infrastructure.jobs.exception.JobNodeIdMismatchingException;
+import org.apache.fineract.infrastructure.jobs.exception.JobNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JobRegisterServiceImplTest {
+
+    private static final Long JOB_ID = 7L;
+    private static final JobKey JOB_KEY = new JobKey("Add Accrual TransactionsJobDetail1", "group1");
+
+    @Mock
+    private SchedularWritePlatformService schedularWritePlatformService;
+
+    @Mock
+    private ScheduledJobDetail scheduledJobDetail;
+
+    @Mock
+    private Scheduler scheduler;
+
+    @InjectMocks
+    private JobRegisterServiceImpl underTest;
+
+    private final FineractProperties fineractProperties = new FineractProperties();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        fineractProperties.setNodeId("1");
+        fineractProperties.setQuartz(new FineractProperties.FineractQuartzProperties());
+        ReflectionTestUtils.setField(underTest, "fineractProperties", fineractProperties);
+        ((Map<String, Scheduler>) ReflectionTestUtils.getField(underTest, "schedulers")).put(SchedulerServiceConstants.SCHEDULER + 1L,
+                scheduler);
+
+        given(schedularWritePlatformService.findByJobId(JOB_ID)).willReturn(scheduledJobDetail);
+        given(scheduledJobDetail.getId()).willReturn(JOB_ID);
+        given(scheduledJobDetail.getJobName()).willReturn("Add Accrual Transactions");
+        given(scheduledJobDetail.getGroupName()).willReturn("group1");
+        given(scheduledJobDetail.getSchedulerGroup()).willReturn((short) 0);
+        given(scheduler.checkExists(JOB_KEY)).willReturn(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testManualTriggerFiresTheJobOnThePooledScheduler() throws Exception {
+        // given
+        given(scheduledJobDetail.getNodeId()).willReturn(1);
+
+        // when
+        underTest.executeJob(JOB_ID);
+
+        // then
+        final ArgumentCaptor<JobDataMap> jobDataMap = ArgumentCaptor.forClass(JobDataMap.class);
+        verify(scheduler).triggerJob(eq(JOB_KEY), jobDataMap.capture());
+        assertEquals(SchedulerServiceConstants.TRIGGER_TYPE_APPLICATION,
+                jobDataMap.getValue().get(SchedulerServiceConstants.TRIGGER_TYPE_REFERENCE));
+        assertEquals("default", jobDataMap.getValue().get(SchedulerServiceConstants.TENANT_IDENTIFIER));
+        verify(scheduler, never()).addJob(any(JobDetail.class), anyBoolean());
+        verify(scheduledJobDetail).setIsMismatchedJob(false);
+        verify(schedularWritePlatformService).saveOrUpdate(scheduledJobDetail);
+    }
+
+    @Test
+    public void testManualTriggerOfJobOfAnotherNodeIsRejected() throws Exception {
+        // given
+        given(scheduledJobDetail.getNodeId()).willReturn(2);
+
+        // when
+        assertThrows(JobNodeIdMismatchingException.class, () -> underTest.executeJob(JOB_ID));
+
+        // then
+        verify(scheduler, never()).triggerJob(any(JobKey.class), any(JobDataMap.class));
+        verify(scheduledJobDetail).setIsMismatchedJob(true);
+        verify(schedularWritePlatformService).saveOrUpdate(scheduledJobDetail);
+    }
+
+    @Test
+    public void testManualTriggerOfJobOfAnotherNodeRunsWhenClustered() throws Exception {
+        // given
+        fineractProperties.getQuartz().setClustered(true);
+        given(scheduledJobDetail.getNodeId()).willReturn(2);
+
+        // when
+        underTest.executeJob(JOB_ID);
+
+        // then
+        verify(scheduler).triggerJob(eq(JOB_KEY), any(JobDataMap.class));
+    }
+
+    @Test
+    public void testManualTriggerOfUnknownJob() {
+        // given
+        given(schedularWritePlatformService.findByJobId(JOB_ID)).willReturn(null);
+
+        // when
+        assertThrows(JobNotFoundException.class, () -> underTest.executeJob(JOB_ID));
+    }
+}
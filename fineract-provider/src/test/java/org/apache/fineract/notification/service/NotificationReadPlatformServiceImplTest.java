@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.PaginationHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
+import org.apache.fineract.notification.cache.CacheNotificationResponseHeader;
+import org.apache.fineract.notification.domain.Notification;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class NotificationReadPlatformServiceImplTest {
+
+    private static final Long USER_ID = 5L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformSecurityContext context;
+    @Mock
+    private ColumnValidator columnValidator;
+    @Mock
+    private PaginationHelper paginationHelper;
+    @Mock
+    private DatabaseSpecificSQLGenerator sqlGenerator;
+    @Mock
+    private NotificationGeneratorWritePlatformService notificationGeneratorWritePlatformService;
+    @Mock
+    private NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper;
+    @Mock
+    private AppUserRepository appUserRepository;
+    @Mock
+    private NotificationMapperWritePlatformService notificationMapperWritePlatformService;
+
+    private NotificationReadPlatformServiceImpl notificationReadPlatformService;
+    private NotificationWritePlatformServiceImpl notificationWritePlatformService;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        given(sqlGenerator.limit(anyInt())).willReturn("LIMIT 1");
+        given(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).willReturn(List.of());
+        given(notificationGeneratorWritePlatformService.create(any(Notification.class))).willReturn(1L);
+        given(notificationGeneratorReadRepositoryWrapper.findById(1L)).willReturn(mock(Notification.class));
+        given(appUserRepository.findById(USER_ID)).willReturn(Optional.of(mock(AppUser.class)));
+        this.notificationReadPlatformService = new NotificationReadPlatformServiceImpl(jdbcTemplate, context, columnValidator,
+                paginationHelper, sqlGenerator);
+        this.notificationWritePlatformService = new NotificationWritePlatformServiceImpl(notificationGeneratorWritePlatformService,
+                notificationGeneratorReadRepositoryWrapper, appUserRepository, notificationMapperWritePlatformService,
+                notificationReadPlatformService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testUnreadFlagIsCachedWithinTheRefreshInterval() {
+        assertFalse(notificationReadPlatformService.hasUnreadNotifications(USER_ID));
+        assertFalse(notificationReadPlatformService.hasUnreadNotifications(USER_ID));
+
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    public void testNotifySetsTheUnreadFlag() {
+        // given
+        assertFalse(notificationReadPlatformService.hasUnreadNotifications(USER_ID));
+
+        // when
+        notificationWritePlatformService.notify(USER_ID, "loan", 7L, "approved", 1L, "Loan approved", false);
+
+        // then
+        assertTrue(notificationReadPlatformService.hasUnreadNotifications(USER_ID));
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    public void testNotifyOfSeveralUsersSetsTheUnreadFlagOfEach() {
+        // given
+        given(appUserRepository.findById(6L)).willReturn(Optional.of(mock(AppUser.class)));
+
+        // when
+        notificationWritePlatformService.notify(List.of(USER_ID, 6L), "loan", 7L, "approved", 1L, "Loan approved", false);
+
+        // then
+        assertTrue(notificationReadPlatformService.hasUnreadNotifications(USER_ID));
+        assertTrue(notificationReadPlatformService.hasUnreadNotifications(6L));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    public void testUnreadFlagExpiresAfterTheRefreshInterval() {
+        // given
+        notificationWritePlatformService.notify(USER_ID, "loan", 7L, "approved", 1L, "Loan approved", false);
+        // the notification was read on another node meanwhile
+        cachedHeader(USER_ID).setLastFetch(System.currentTimeMillis() / 1000L - 31L);
+
+        // when
+        final boolean hasUnreadNotifications = notificationReadPlatformService.hasUnreadNotifications(USER_ID);
+
+        // then
+        assertFalse(hasUnreadNotifications);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(USER_ID));
+    }
+
+    @Test
+    public void testUnreadFlagIsKeptPerTenant() {
+        // given
+        notificationWritePlatformService.notify(USER_ID, "loan", 7L, "approved", 1L, "Loan approved", false);
+
+        // when
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null));
+
+        // then
+        assertFalse(notificationReadPlatformService.hasUnreadNotifications(USER_ID));
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheNotificationResponseHeader cachedHeader(final Long appUserId) {
+        final Object cache = ReflectionTestUtils.getField(notificationReadPlatformService, "tenantNotificationResponseHeaderCache");
+        return ((Map<Long, Map<Long, CacheNotificationResponseHeader>>) cache).get(ThreadLocalContextUtil.getTenant().getId())
+                .get(appUserId);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanSchedulePeriodData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LoanFutureScheduleCacheTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 12);
+
+    private LoanFutureScheduleCache underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(tenant("default"));
+        underTest = new LoanFutureScheduleCache(properties(3));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testHitForSameVersionAndBusinessDate() {
+        // given
+        final Collection<LoanSchedulePeriodData> periods = periods();
+        underTest.put(1L, 4, BUSINESS_DATE, periods);
+
+        // when
+        final LoanFutureScheduleCache.Entry entry = underTest.get(1L, 4, BUSINESS_DATE);
+
+        // then
+        assertNotNull(entry);
+        assertSame(periods, entry.getFuturePeriods());
+    }
+
+    @Test
+    public void testHitForLoanWithoutFutureSchedule() {
+        // given
+        underTest.put(1L, 4, BUSINESS_DATE, null);
+
+        // when
+        final LoanFutureScheduleCache.Entry entry = underTest.get(1L, 4, BUSINESS_DATE);
+
+        // then
+        assertNotNull(entry);
+        assertNull(entry.getFuturePeriods());
+    }
+
+    @Test
+    public void testMissAfterVersionChange() {
+        // given
+        underTest.put(1L, 4, BUSINESS_DATE, periods());
+
+        // then
+        assertNull(underTest.get(1L, 5, BUSINESS_DATE));
+    }
+
+    @Test
+    public void testNewVersionReplacesTheEntry() {
+        // given
+        underTest.put(1L, 4, BUSINESS_DATE, periods());
+        final Collection<LoanSchedulePeriodData> periods = periods();
+
+        // when
+        underTest.put(1L, 5, BUSINESS_DATE, periods);
+
+        // then
+        assertNull(underTest.get(1L, 4, BUSINESS_DATE));
+        assertSame(periods, underTest.get(1L, 5, BUSINESS_DATE).getFuturePeriods());
+    }
+
+    @Test
+    public void testMissAfterBusinessDateChange() {
+        // given
+        underTest.put(1L, 4, BUSINESS_DATE, periods());
+
+        // then
+        assertNull(underTest.get(1L, 4, BUSINESS_DATE.plusDays(1)));
+    }
+
+    @Test
+    public void testEntriesAreKeptPerTenant() {
+        // given
+        underTest.put(1L, 4, BUSINESS_DATE, periods());
+
+        // when
+        ThreadLocalContextUtil.setTenant(tenant("other"));
+
+        // then
+        assertNull(underTest.get(1L, 4, BUSINESS_DATE));
+    }
+
+    @Test
+    public void testFullCacheIsClearedBeforeNextEntry() {
+        // given
+        underTest.put(1L, 1, BUSINESS_DATE, periods());
+        underTest.put(2L, 1, BUSINESS_DATE, periods());
+        underTest.put(3L, 1, BUSINESS_DATE, periods());
+        assertNotNull(underTest.get(1L, 1, BUSINESS_DATE));
+
+        // when
+        final Collection<LoanSchedulePeriodData> periods = periods();
+        underTest.put(4L, 1, BUSINESS_DATE, periods);
+
+        // then
+        assertNull(underTest.get(1L, 1, BUSINESS_DATE));
+        assertNull(underTest.get(2L, 1, BUSINESS_DATE));
+        assertNull(underTest.get(3L, 1, BUSINESS_DATE));
+        assertSame(periods, underTest.get(4L, 1, BUSINESS_DATE).getFuturePeriods());
+    }
+
+    @Test
+    public void testDisabledCacheKeepsNothing() {
+        // given
+        underTest = new LoanFutureScheduleCache(properties(0));
+
+        // when
+        underTest.put(1L, 4, BUSINESS_DATE, periods());
+
+        // then
+        assertNull(underTest.get(1L, 4, BUSINESS_DATE));
+    }
+
+    private static Collection<LoanSchedulePeriodData> periods() {
+        // a distinct instance each time, compared by identity
+        return new ArrayList<>();
+    }
+
+    private static FineractPlatformTenant tenant(final String tenantIdentifier) {
+        return new FineractPlatformTenant(1L, tenantIdentifier, tenantIdentifier, "Asia/Kolkata", null);
+    }
+
+    private static FineractProperties properties(final int maxEntries) {
+        final FineractProperties.FineractLoanScheduleProperties loanSchedule = new FineractProperties.FineractLoanScheduleProperties();
+        loanSchedule.setFutureScheduleCacheMaxEntries(maxEntries);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setLoanSchedule(loanSchedule);
+        return fineractProperties;
+    }
+}
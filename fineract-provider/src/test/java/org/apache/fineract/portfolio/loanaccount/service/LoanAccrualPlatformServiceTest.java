@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanAccrualPlatformServiceTest {
+
+    private static final LocalDate TILL_DATE = LocalDate.of(2022, 6, 30);
+
+    @Mock
+    private LoanReadPlatformService loanReadPlatformService;
+
+    @Mock
+    private LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+
+    @Mock
+    private OfficeReadPlatformService officeReadPlatformService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private LoanAccrualPlatformServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testPeriodicAccrualsForDateRunOnCallingThreadWithoutOwnTransaction() throws Exception {
+        // given
+        givenPeriodicAccrualLoanIds(List.of(1L, 2L));
+        final Thread caller = Thread.currentThread();
+        final List<Thread> postingThreads = new ArrayList<>();
+        doAnswer(invocation -> postingThreads.add(Thread.currentThread())).when(loanAccrualWritePlatformService)
+                .addPeriodicAccruals(eq(TILL_DATE), anyLong(), anyCollection());
+
+        // when
+        underTest.addPeriodicAccruals(TILL_DATE);
+
+        // then
+        assertEquals(List.of(caller, caller), postingThreads);
+        verify(loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE), eq(1L), anyCollection());
+        verify(loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE), eq(2L), anyCollection());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    public void testPeriodicAccrualsForDateCollectErrorsAndContinue() throws Exception {
+        // given
+        givenPeriodicAccrualLoanIds(List.of(1L, 2L));
+        doThrow(new IllegalStateException("broken loan")).when(loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE),
+                eq(1L), anyCollection());
+
+        // when
+        final JobExecutionException exception = assertThrows(JobExecutionException.class,
+                () -> underTest.addPeriodicAccruals(TILL_DATE));
+
+        // then
+        assertEquals(1, exception.getCauses().size());
+        verify(loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE), eq(2L), anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedJobBatchIsReplayedLoanByLoan() throws Exception {
+        // given
+        given(loanReadPlatformService.retriveScheduleAccrualLoanIds(eq(0L), anyInt(), isNull())).willReturn(List.of(1L, 2L));
+        given(loanReadPlatformService.retriveScheduleAccrualLoanIds(eq(2L), anyInt(), isNull())).willReturn(List.of());
+        given(loanReadPlatformService.retriveScheduleAccrualData(anyCollection()))
+                .willAnswer(invocation -> accrualDatas(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doThrow(new IllegalStateException("broken loan")).when(loanAccrualWritePlatformService).addAccrualAccounting(eq(2L),
+                anyCollection());
+
+        // when
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, () -> underTest.addAccrualAccounting());
+
+        // then
+        assertEquals(1, exception.getCauses().size());
+        verify(transactionTemplate).executeWithoutResult(any());
+        // once within the failed batch transaction, once more when replayed alone
+        verify(loanAccrualWritePlatformService, times(2)).addAccrualAccounting(eq(1L), anyCollection());
+        verify(loanAccrualWritePlatformService, times(2)).addAccrualAccounting(eq(2L), anyCollection());
+    }
+
+    @Test
+    public void testOfficeIdParameterRestrictsLoansToOfficeHierarchy() throws Exception {
+        // given
+        given(officeReadPlatformService.retrieveOffice(2L))
+                .willReturn(new OfficeData(2L, "Branch", null, null, null, ".1.2.", 1L, null, null));
+        given(loanReadPlatformService.retriveScheduleAccrualLoanIds(anyLong(), anyInt(), eq(".1.2.%"))).willReturn(List.of());
+
+        // when
+        underTest.addAccrualAccounting(Map.of("officeId", "2"));
+
+        // then
+        verify(loanReadPlatformService).retriveScheduleAccrualLoanIds(0L, 100, ".1.2.%");
+        verifyNoInteractions(loanAccrualWritePlatformService);
+    }
+
+    private void givenPeriodicAccrualLoanIds(final List<Long> loanIds) {
+        given(loanReadPlatformService.retrivePeriodicAccrualLoanIds(eq(TILL_DATE), eq(0L), anyInt(), isNull())).willReturn(loanIds);
+        given(loanReadPlatformService.retrivePeriodicAccrualLoanIds(eq(TILL_DATE), eq(loanIds.get(loanIds.size() - 1)), anyInt(),
+                isNull())).willReturn(List.of());
+        given(loanReadPlatformService.retrivePeriodicAccrualData(eq(TILL_DATE), anyCollection()))
+                .willAnswer(invocation -> accrualDatas(invocation.getArgument(1)));
+    }
+
+    private static List<LoanScheduleAccrualData> accrualDatas(final Collection<Long> loanIds) {
+        final List<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
+        for (final Long loanId : loanIds) {
+            final LoanScheduleAccrualData accrualData = mock(LoanScheduleAccrualData.class);
+            given(accrualData.getLoanId()).willReturn(loanId);
+            accrualDatas.add(accrualData);
+        }
+        return accrualDatas;
+    }
+}
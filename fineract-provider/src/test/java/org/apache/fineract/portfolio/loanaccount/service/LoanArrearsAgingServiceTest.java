@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanArrearsAgingServiceTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 30);
+    private static final String DIRTY_SQL = "select id, loan_id from m_loan_arrears_aging_dirty";
+    private static final String DELETE_DIRTY_SQL = "DELETE FROM m_loan_arrears_aging_dirty WHERE id in (:ids)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private BusinessEventNotifierService businessEventNotifierService;
+
+    @Mock
+    private DatabaseSpecificSQLGenerator sqlGenerator;
+
+    @InjectMocks
+    private LoanArrearsAgingServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, BUSINESS_DATE)));
+        given(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class), any())).willReturn(List.of(BUSINESS_DATE));
+        given(jdbcTemplate.queryForList(anyString(), eq(Long.class))).willReturn(List.of());
+        given(jdbcTemplate.update(anyString(), any(), any())).willReturn(1);
+        given(namedParameterJdbcTemplate.query(anyString(), anyMap(), any(RowMapper.class))).willReturn(new ArrayList<>());
+        given(namedParameterJdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class))).willReturn(List.of());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementalRunDeletesOnlyTheDirtyRowsItRead() {
+        // given: row 11 belongs to a transaction which is still running and commits after the job read the table
+        givenDirtyRows(new long[][] { { 10L, 5L }, { 12L, 7L } });
+
+        // when
+        underTest.updateLoanArrearsAgeingDetails(Map.of(LoanArrearsAgingServiceImpl.INCREMENTAL_PARAMETER, "true"));
+
+        // then
+        final ArgumentCaptor<Map<String, Object>> recalculated = ArgumentCaptor.forClass(Map.class);
+        verify(namedParameterJdbcTemplate).update(eq("DELETE FROM m_loan_arrears_aging WHERE loan_id in (:loanIds)"),
+                recalculated.capture());
+        assertEquals(List.of(5L, 7L), recalculated.getValue().get("loanIds"));
+
+        final ArgumentCaptor<Map<String, Object>> deleted = ArgumentCaptor.forClass(Map.class);
+        verify(namedParameterJdbcTemplate).update(eq(DELETE_DIRTY_SQL), deleted.capture());
+        assertEquals(List.of(10L, 12L), deleted.getValue().get("ids"));
+    }
+
+    @Test
+    public void testIncrementalRunWithoutDirtyRowsDeletesNothing() {
+        // given
+        givenDirtyRows(new long[0][]);
+
+        // when
+        underTest.updateLoanArrearsAgeingDetails(Map.of(LoanArrearsAgingServiceImpl.INCREMENTAL_PARAMETER, "true"));
+
+        // then
+        verify(namedParameterJdbcTemplate, never()).update(eq(DELETE_DIRTY_SQL), anyMap());
+    }
+
+    private void givenDirtyRows(final long[][] rows) {
+        doAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(1);
+            for (final long[] row : rows) {
+                final ResultSet rs = mock(ResultSet.class);
+                given(rs.getLong("id")).willReturn(row[0]);
+                given(rs.getLong("loan_id")).willReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(DIRTY_SQL), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDaysRepositoryWrapper;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.collectionsheet.command.CollectionSheetBulkRepaymentCommand;
+import org.apache.fineract.portfolio.collectionsheet.command.SingleRepaymentCommand;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanAccountDomainService;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.PendingLoanRepayment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanBulkRepaymentTest {
+
+    private static final LocalDate TRANSACTION_DATE = LocalDate.of(2022, 3, 14);
+
+    @Mock
+    private LoanRepositoryWrapper loanRepositoryWrapper;
+    @Mock
+    private LoanAccountDomainService loanAccountDomainService;
+    @Mock
+    private LoanAssembler loanAssembler;
+    @Mock
+    private HolidayRepositoryWrapper holidayRepository;
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+    @Mock
+    private WorkingDaysRepositoryWrapper workingDaysRepository;
+    @Mock
+    private BusinessEventNotifierService businessEventNotifierService;
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private LoanWritePlatformServiceJpaRepositoryImpl underTest;
+
+    private final Loan loan = mock(Loan.class);
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "entityManager", entityManager);
+        given(entityManager.getFlushMode()).willReturn(FlushModeType.AUTO);
+        given(loanRepositoryWrapper.findOneWithNotFoundDetection(anyLong())).willReturn(loan);
+        given(loanAssembler.assembleFrom(anyLong())).willReturn(loan);
+    }
+
+    @Test
+    public void testSheetIsFlushedOnceAndTheEventsFollowAllRepayments() {
+        // given
+        final PendingLoanRepayment first = pendingRepayment(101L);
+        final PendingLoanRepayment second = pendingRepayment(102L);
+        given(loanAccountDomainService.applyBulkRepayment(eq(loan), eq(TRANSACTION_DATE), any(BigDecimal.class), any(), eq("note"), any(),
+                any())).willReturn(first, second);
+        final LoanTransactionBusinessEvent firstEvent = mock(LoanTransactionBusinessEvent.class);
+        final LoanTransactionBusinessEvent secondEvent = mock(LoanTransactionBusinessEvent.class);
+        given(loanAccountDomainService.completeBulkRepayment(first)).willReturn(firstEvent);
+        given(loanAccountDomainService.completeBulkRepayment(second)).willReturn(secondEvent);
+
+        // when
+        final CollectionSheetBulkRepaymentCommand command = new CollectionSheetBulkRepaymentCommand("note", TRANSACTION_DATE,
+                new SingleRepaymentCommand[] { repayment(1L), null, repayment(2L) });
+        final Map<String, Object> changes = underTest.makeLoanBulkRepayment(command);
+
+        // then
+        assertEquals(List.of(101L, 102L), changes.get("loanTransactions"));
+        final InOrder inOrder = inOrder(entityManager, loanAccountDomainService, businessEventNotifierService);
+        inOrder.verify(entityManager).setFlushMode(FlushModeType.COMMIT);
+        inOrder.verify(loanAccountDomainService).applyBulkRepayment(eq(loan), eq(TRANSACTION_DATE), eq(BigDecimal.ONE), any(), eq("note"),
+                any(), any());
+        inOrder.verify(loanAccountDomainService).applyBulkRepayment(eq(loan), eq(TRANSACTION_DATE), eq(BigDecimal.TEN), any(), eq("note"),
+                any(), any());
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).setFlushMode(FlushModeType.AUTO);
+        // each posting is written before the next one reads, as with one makeRepayment after the other
+        inOrder.verify(loanAccountDomainService).completeBulkRepayment(first);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(loanAccountDomainService).completeBulkRepayment(second);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(businessEventNotifierService).notifyPostBusinessEvent(firstEvent);
+        inOrder.verify(businessEventNotifierService).notifyPostBusinessEvent(secondEvent);
+    }
+
+    @Test
+    public void testSecondRepaymentOfTheSameLoanSeesTheFirstOneWritten() {
+        // given
+        final PendingLoanRepayment first = pendingRepayment(101L);
+        final PendingLoanRepayment second = pendingRepayment(102L);
+        given(loanAccountDomainService.applyBulkRepayment(eq(loan), eq(TRANSACTION_DATE), any(BigDecimal.class), any(), any(), any(),
+                any())).willReturn(first, second);
+
+        // when
+        final CollectionSheetBulkRepaymentCommand command = new CollectionSheetBulkRepaymentCommand(null, TRANSACTION_DATE,
+                new SingleRepaymentCommand[] { repayment(1L), repayment(1L) });
+        underTest.makeLoanBulkRepayment(command);
+
+        // then
+        final InOrder inOrder = inOrder(entityManager, loanAccountDomainService);
+        inOrder.verify(entityManager).setFlushMode(FlushModeType.COMMIT);
+        inOrder.verify(loanAccountDomainService).applyBulkRepayment(eq(loan), eq(TRANSACTION_DATE), eq(BigDecimal.ONE), any(), any(),
+                any(), any());
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(loanAccountDomainService).applyBulkRepayment(eq(loan), eq(TRANSACTION_DATE), eq(BigDecimal.ONE), any(), any(),
+                any(), any());
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).setFlushMode(FlushModeType.AUTO);
+        inOrder.verify(loanAccountDomainService).completeBulkRepayment(first);
+    }
+
+    @Test
+    public void testFlushModeIsRestoredWhenARepaymentFails() {
+        // given
+        given(loanAccountDomainService.applyBulkRepayment(any(), any(), any(), any(), any(), any(), any()))
+                .willThrow(new IllegalStateException("closed"));
+
+        final CollectionSheetBulkRepaymentCommand command = new CollectionSheetBulkRepaymentCommand(null, TRANSACTION_DATE,
+                new SingleRepaymentCommand[] { repayment(1L) });
+
+        // when
+        assertThrows(IllegalStateException.class, () -> underTest.makeLoanBulkRepayment(command));
+
+        // then
+        verify(entityManager).setFlushMode(FlushModeType.AUTO);
+        verify(entityManager, never()).flush();
+        verify(businessEventNotifierService, never()).notifyPostBusinessEvent(any());
+    }
+
+    private static SingleRepaymentCommand repayment(final Long loanId) {
+        return new SingleRepaymentCommand(loanId, loanId == 1L ? BigDecimal.ONE : BigDecimal.TEN, TRANSACTION_DATE, null);
+    }
+
+    private static PendingLoanRepayment pendingRepayment(final Long transactionId) {
+        final LoanTransaction transaction = mock(LoanTransaction.class);
+        given(transaction.getId()).willReturn(transactionId);
+        final PendingLoanRepayment repayment = mock(PendingLoanRepayment.class);
+        given(repayment.getTransaction()).willReturn(transaction);
+        return repayment;
+    }
+}
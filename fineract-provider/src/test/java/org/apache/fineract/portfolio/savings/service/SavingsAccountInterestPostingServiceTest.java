@@ -0,0 +1,240 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.SavingsAccountTransactionType;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountApplicationTimelineData;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountSummaryData;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountInterestCheckpoint;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionSummaryWrapper;
+import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SavingsAccountInterestPostingServiceTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+    private static final LocalDate ACTIVATION_DATE = LocalDate.of(2022, 1, 1);
+    private static final LocalDate FIRST_RUN_DATE = LocalDate.of(2022, 5, 1);
+    private static final LocalDate SECOND_RUN_DATE = LocalDate.of(2022, 6, 1);
+    private static final MathContext MC = new MathContext(12, RoundingMode.HALF_EVEN);
+    private static final CurrencyData CURRENCY = new CurrencyData("USD", 2, 0);
+
+    @Mock
+    private AccountTransfersReadPlatformService accountTransfersReadPlatformService;
+
+    private SavingsHelper savingsHelper;
+
+    private SavingsAccountInterestPostingServiceImpl interestPostingService;
+
+    private long transactionId;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, SECOND_RUN_DATE)));
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        given(this.accountTransfersReadPlatformService.fetchPostInterestTransactionIds(anyLong())).willReturn(new ArrayList<>());
+        this.savingsHelper = new SavingsHelper(this.accountTransfersReadPlatformService);
+        this.interestPostingService = new SavingsAccountInterestPostingServiceImpl(this.savingsHelper);
+        this.transactionId = 0;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void nightlyPostingLeavesAnInterestCheckpoint() {
+        final SavingsAccountData savingsAccount = savingsAccountPostedUntilFirstRun();
+
+        final SavingsAccountInterestCheckpoint checkpoint = savingsAccount.getInterestCheckpoint();
+        assertEquals(LocalDate.of(2022, 4, 30), checkpoint.getCheckpointDate());
+        // the checkpoint holds the interest of the posted periods only
+        BigDecimal interestPosted = BigDecimal.ZERO;
+        for (final SavingsAccountTransactionData transaction : savingsAccount.getTransactions()) {
+            if (transaction.isInterestPostingAndNotReversed()) {
+                interestPosted = interestPosted.add(transaction.getAmount());
+            }
+        }
+        assertEquals(0, interestPosted.compareTo(checkpoint.getInterestEarned()));
+        assertTrue(checkpoint.isUsableForTransactionData(SECOND_RUN_DATE, savingsAccount.getTransactions()));
+    }
+
+    @Test
+    public void postingFromTheCheckpointMatchesPostingFromTheFullHistory() {
+        final SavingsAccountData resumed = savingsAccountPostedUntilFirstRun();
+        final SavingsAccountData replayed = savingsAccountPostedUntilFirstRun();
+        replayed.setInterestCheckpoint(SavingsAccountInterestCheckpoint.empty());
+
+        addTransaction(resumed, SavingsAccountTransactionType.DEPOSIT, LocalDate.of(2022, 5, 10), "300");
+        addTransaction(replayed, SavingsAccountTransactionType.DEPOSIT, LocalDate.of(2022, 5, 10), "300");
+        postInterest(resumed, SECOND_RUN_DATE);
+        postInterest(replayed, SECOND_RUN_DATE);
+
+        assertEquals(interestPostings(replayed), interestPostings(resumed));
+        assertEquals(5, interestPostings(resumed).size());
+        assertEquals(0, replayed.getSummary().getTotalInterestEarned().compareTo(resumed.getSummary().getTotalInterestEarned()));
+        assertEquals(0, replayed.getSummary().getAccountBalance().compareTo(resumed.getSummary().getAccountBalance()));
+        assertEquals(LocalDate.of(2022, 5, 31), resumed.getInterestCheckpoint().getCheckpointDate());
+        assertEquals(0,
+                replayed.getInterestCheckpoint().getInterestEarned().compareTo(resumed.getInterestCheckpoint().getInterestEarned()));
+    }
+
+    @Test
+    public void interestIsOnlyCalculatedForThePeriodsAfterTheCheckpoint() {
+        final SavingsAccountData resumed = savingsAccountPostedUntilFirstRun();
+        final SavingsAccountData replayed = savingsAccountPostedUntilFirstRun();
+        replayed.setInterestCheckpoint(SavingsAccountInterestCheckpoint.empty());
+
+        final List<PostingPeriod> resumedPeriods = calculateInterest(resumed, SECOND_RUN_DATE);
+        final List<PostingPeriod> replayedPeriods = calculateInterest(replayed, SECOND_RUN_DATE);
+
+        assertEquals(2, resumedPeriods.size());
+        assertEquals(LocalDate.of(2022, 5, 1), resumedPeriods.get(0).getPeriodInterval().startDate());
+        assertEquals(6, replayedPeriods.size());
+        assertEquals(0, replayed.getSummary().getTotalInterestEarned().compareTo(resumed.getSummary().getTotalInterestEarned()));
+        assertEquals(0, replayedPeriods.get(4).getInterestEarned().getAmount()
+                .compareTo(resumedPeriods.get(0).getInterestEarned().getAmount()));
+    }
+
+    @Test
+    public void backdatedTransactionBehindTheCheckpointFallsBackToTheFullHistory() {
+        final SavingsAccountData resumed = savingsAccountPostedUntilFirstRun();
+        final SavingsAccountData replayed = savingsAccountPostedUntilFirstRun();
+        replayed.setInterestCheckpoint(SavingsAccountInterestCheckpoint.empty());
+
+        addTransaction(resumed, SavingsAccountTransactionType.DEPOSIT, LocalDate.of(2022, 3, 20), "400");
+        addTransaction(replayed, SavingsAccountTransactionType.DEPOSIT, LocalDate.of(2022, 3, 20), "400");
+        assertFalse(resumed.getInterestCheckpoint().isUsableForTransactionData(SECOND_RUN_DATE, resumed.getTransactions()));
+        postInterest(resumed, SECOND_RUN_DATE);
+        postInterest(replayed, SECOND_RUN_DATE);
+
+        assertEquals(interestPostings(replayed), interestPostings(resumed));
+        assertEquals(0, replayed.getSummary().getTotalInterestEarned().compareTo(resumed.getSummary().getTotalInterestEarned()));
+    }
+
+    @Test
+    public void checkpointIsClearedByChangesOnOrBeforeIt() {
+        final SavingsAccountInterestCheckpoint checkpoint = SavingsAccountInterestCheckpoint.instance(LocalDate.of(2022, 4, 30),
+                BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, 1, BigDecimal.TEN, BigDecimal.TEN);
+
+        checkpoint.invalidateFrom(LocalDate.of(2022, 5, 1));
+        assertEquals(LocalDate.of(2022, 4, 30), checkpoint.getCheckpointDate());
+
+        checkpoint.invalidateFrom(LocalDate.of(2022, 4, 30));
+        assertNull(checkpoint.getCheckpointDate());
+        assertNull(checkpoint.getClosingBalance());
+        assertFalse(checkpoint.isUsableForTransactionData(SECOND_RUN_DATE, new ArrayList<>()));
+    }
+
+    private SavingsAccountData savingsAccountPostedUntilFirstRun() {
+        final SavingsAccountData savingsAccount = savingsAccount();
+        addTransaction(savingsAccount, SavingsAccountTransactionType.DEPOSIT, ACTIVATION_DATE, "1000");
+        addTransaction(savingsAccount, SavingsAccountTransactionType.DEPOSIT, LocalDate.of(2022, 2, 15), "500");
+        addTransaction(savingsAccount, SavingsAccountTransactionType.WITHDRAWAL, LocalDate.of(2022, 4, 10), "200");
+        postInterest(savingsAccount, FIRST_RUN_DATE);
+        return savingsAccount;
+    }
+
+    private void postInterest(final SavingsAccountData savingsAccount, final LocalDate postingDate) {
+        this.interestPostingService.postInterest(MC, postingDate, false, false, 1, null, false, savingsAccount);
+    }
+
+    private List<PostingPeriod> calculateInterest(final SavingsAccountData savingsAccount, final LocalDate postingDate) {
+        return this.interestPostingService.calculateInterestUsing(MC, postingDate, false, false, 1, null, false, savingsAccount);
+    }
+
+    private static List<String> interestPostings(final SavingsAccountData savingsAccount) {
+        final List<String> postings = new ArrayList<>();
+        for (final SavingsAccountTransactionData transaction : savingsAccount.getTransactions()) {
+            if (transaction.isInterestPostingAndNotReversed()) {
+                postings.add(transaction.getTransactionLocalDate() + "=" + transaction.getAmount().stripTrailingZeros().toPlainString());
+            }
+        }
+        postings.sort(null);
+        return postings;
+    }
+
+    private void addTransaction(final SavingsAccountData savingsAccount, final SavingsAccountTransactionType type, final LocalDate date,
+            final String amount) {
+        savingsAccount.setSavingsAccountTransactionData(SavingsAccountTransactionData.create(++this.transactionId,
+                SavingsEnumerations.transactionType(type), null, ACCOUNT_ID, "000000001", date, CURRENCY, new BigDecimal(amount), null,
+                BigDecimal.ZERO, false, date, false, BigDecimal.ZERO, null));
+    }
+
+    private SavingsAccountData savingsAccount() {
+        final SavingsAccountApplicationTimelineData timeline = new SavingsAccountApplicationTimelineData(ACTIVATION_DATE, null, null,
+                null, null, null, null, null, null, null, null, null, ACTIVATION_DATE, null, null, null, ACTIVATION_DATE, null, null, null,
+                null, null, null, null);
+        final SavingsAccountSummaryData summary = new SavingsAccountSummaryData(CURRENCY, null, null, null, null, null, BigDecimal.ZERO,
+                BigDecimal.ZERO, null, null, BigDecimal.ZERO, null, BigDecimal.ZERO, null, BigDecimal.ZERO, null);
+        final SavingsAccountData savingsAccount = SavingsAccountData.instance(ACCOUNT_ID, "000000001",
+                SavingsEnumerations.depositType(DepositAccountType.SAVINGS_DEPOSIT), null, null, null, null, null, 1L, null, null, null,
+                SavingsEnumerations.status(SavingsAccountStatusType.ACTIVE), null, null, timeline, CURRENCY, new BigDecimal("10"),
+                SavingsEnumerations.compoundingInterestPeriodType(SavingsCompoundingInterestPeriodType.DAILY),
+                SavingsEnumerations.interestPostingPeriodType(SavingsPostingInterestPeriodType.MONTHLY),
+                SavingsEnumerations.interestCalculationType(SavingsInterestCalculationType.DAILY_BALANCE),
+                SavingsEnumerations.interestCalculationDaysInYearType(SavingsInterestCalculationDaysInYearType.DAYS_365), null, null,
+                null, false, summary, false, null, null, false, null, false, null, null, null, null, false, null, null, false, null, null,
+                null, null);
+        savingsAccount.setHelpers(new SavingsAccountTransactionSummaryWrapper(), this.savingsHelper);
+        return savingsAccount;
+    }
+}
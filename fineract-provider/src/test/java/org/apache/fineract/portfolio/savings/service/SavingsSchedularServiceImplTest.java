@@ -0,0 +1,326 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SavingsSchedularServiceImplTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 1);
+
+    @Mock
+    private SavingsAccountAssembler savingAccountAssembler;
+    @Mock
+    private SavingsAccountWritePlatformService savingsAccountWritePlatformService;
+    @Mock
+    private SavingsAccountReadPlatformService savingAccountReadPlatformService;
+    @Mock
+    private SavingsAccountRepositoryWrapper savingsAccountRepository;
+    @Mock
+    private ApplicationContext applicationContext;
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Long>> postedBatches = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger pagesRead = new AtomicInteger();
+    private BatchPosting batchPosting;
+
+    private SavingsSchedularServiceImpl savingsSchedularService;
+
+    @BeforeEach
+    public void setUp() {
+        initContext();
+        this.batchPosting = accountIds -> {};
+        given(applicationContext.getBean("savingsSchedularInterestPoster")).willAnswer(invocation -> new RecordingPoster());
+        this.savingsSchedularService = new SavingsSchedularServiceImpl(savingAccountAssembler, savingsAccountWritePlatformService,
+                savingAccountReadPlatformService, savingsAccountRepository, applicationContext, configurationDomainService, jdbcTemplate,
+                transactionTemplate, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.savingsSchedularService.shutdown();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testAccountAtEndOfPageStaysInOneBatch() throws JobExecutionException {
+        // given
+        givenPages(Map.of(0L, List.of(account(1L), account(2L), account(2L)), 2L, List.of(account(3L))));
+
+        // when
+        this.savingsSchedularService.postInterestForAccounts(Map.of("thread-pool-size", "1", "batch-size", "2"));
+
+        // then
+        assertEquals(List.of(List.of(1L, 2L, 2L), List.of(3L)), this.postedBatches);
+        // the next page starts after the last account of the previous one, so no account is read twice
+        verify(savingAccountReadPlatformService).retrieveAllSavingsDataForInterestPosting(anyBoolean(), eq(2), any(), eq(2L));
+        verify(savingAccountReadPlatformService).retrieveAllSavingsDataForInterestPosting(anyBoolean(), eq(2), any(), eq(3L));
+        assertEquals(4.0, meterRegistry.get(SavingsSchedularServiceImpl.INTEREST_POSTING_METRIC_NAME + ".accounts.posted")
+                .tag("tenant", "default").counter().count());
+        assertEquals(2.0, meterRegistry.get(SavingsSchedularServiceImpl.INTEREST_POSTING_METRIC_NAME + ".pages").tag("tenant", "default")
+                .counter().count());
+    }
+
+    @Test
+    public void testSplitIntoBatchesKeepsRowsOfAnAccountTogether() {
+        // when
+        final List<List<SavingsAccountData>> batches = SavingsSchedularServiceImpl
+                .splitIntoBatches(List.of(account(1L), account(2L), account(2L), account(2L), account(3L), account(4L)), 2);
+
+        // then
+        assertEquals(List.of(List.of(1L, 2L, 2L, 2L), List.of(3L, 4L)), batches.stream().map(SavingsSchedularServiceImplTest::ids)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testMissingParametersFallBackToDefaults() throws JobExecutionException {
+        // given
+        givenPages(Map.of(0L, List.of(account(1L))));
+
+        // when
+        this.savingsSchedularService.postInterestForAccounts(new HashMap<>());
+
+        // then
+        verify(savingAccountReadPlatformService).retrieveAllSavingsDataForInterestPosting(anyBoolean(), eq(1000), any(), eq(0L));
+        assertEquals(List.of(List.of(1L)), this.postedBatches);
+    }
+
+    @Test
+    public void testFailedBatchIsReportedAndOthersArePosted() {
+        // given
+        givenPages(Map.of(0L, List.of(account(1L), account(2L))));
+        this.batchPosting = accountIds -> {
+            if (accountIds.contains(1L)) {
+                throw new IllegalStateException("posting failed");
+            }
+        };
+
+        // when
+        final JobExecutionException thrown = assertThrows(JobExecutionException.class,
+                () -> this.savingsSchedularService.postInterestForAccounts(Map.of("thread-pool-size", "2", "batch-size", "1")));
+
+        // then
+        assertEquals(1, thrown.getCauses().size());
+        assertEquals(2, this.postedBatches.size());
+        assertEquals(1.0, meterRegistry.get(SavingsSchedularServiceImpl.INTEREST_POSTING_METRIC_NAME + ".accounts.failed")
+                .tag("tenant", "default").counter().count());
+    }
+
+    @Test
+    public void testDeadWorkersDoNotHangTheReader() {
+        // given
+        givenEndlessPages();
+        // the worker exits on its next take from the queue
+        this.batchPosting = accountIds -> Thread.currentThread().interrupt();
+
+        // when
+        final JobExecutionException thrown = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThrows(
+                JobExecutionException.class, () -> postInterestWithContext(Map.of("thread-pool-size", "1", "batch-size", "1",
+                        "queue-capacity", "1"))));
+
+        // then
+        assertTrue(thrown.getCauses().stream().anyMatch(cause -> cause instanceof IllegalStateException));
+    }
+
+    @Test
+    public void testEnqueueGivesUpOnFullQueueWithoutWorkers() throws InterruptedException {
+        // given
+        final BlockingQueue<List<SavingsAccountData>> batches = new ArrayBlockingQueue<>(1);
+        batches.add(List.of(account(1L)));
+
+        // when
+        final boolean queued = SavingsSchedularServiceImpl.enqueue(batches, List.of(account(2L)), new AtomicInteger(0));
+
+        // then
+        assertFalse(queued);
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testReaderWaitsForQueueCapacity() throws Exception {
+        // given
+        givenEndlessPages(10);
+        final CountDownLatch posting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        this.batchPosting = accountIds -> {
+            posting.countDown();
+            release.await();
+        };
+
+        // when
+        final CompletableFuture<Void> run = CompletableFuture.runAsync(() -> {
+            try {
+                postInterestWithContext(Map.of("thread-pool-size", "1", "batch-size", "1", "queue-capacity", "1"));
+            } catch (JobExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // then
+        assertTrue(posting.await(10, TimeUnit.SECONDS));
+        // one batch held by the blocked worker, one in the queue and one read page waiting for space
+        awaitPagesRead(3);
+        Thread.sleep(200);
+        assertEquals(3, this.pagesRead.get());
+        release.countDown();
+        run.get(30, TimeUnit.SECONDS);
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()),
+                this.postedBatches.stream().flatMap(List::stream).sorted().collect(Collectors.toList()));
+    }
+
+    private void postInterestWithContext(final Map<String, String> jobParameters) throws JobExecutionException {
+        initContext();
+        try {
+            this.savingsSchedularService.postInterestForAccounts(jobParameters);
+        } finally {
+            ThreadLocalContextUtil.reset();
+        }
+    }
+
+    private void givenPages(final Map<Long, List<SavingsAccountData>> pagesByMaxSavingsId) {
+        given(savingAccountReadPlatformService.retrieveAllSavingsDataForInterestPosting(anyBoolean(), anyInt(), any(), anyLong()))
+                .willAnswer(invocation -> {
+                    this.pagesRead.incrementAndGet();
+                    return pagesByMaxSavingsId.getOrDefault(invocation.<Long>getArgument(3), List.of());
+                });
+    }
+
+    private void givenEndlessPages() {
+        givenEndlessPages(Long.MAX_VALUE);
+    }
+
+    private void givenEndlessPages(final long accounts) {
+        given(savingAccountReadPlatformService.retrieveAllSavingsDataForInterestPosting(anyBoolean(), anyInt(), any(), anyLong()))
+                .willAnswer(invocation -> {
+                    final long nextId = invocation.<Long>getArgument(3) + 1;
+                    if (nextId > accounts) {
+                        return List.of();
+                    }
+                    this.pagesRead.incrementAndGet();
+                    return List.of(account(nextId));
+                });
+    }
+
+    private void awaitPagesRead(final int pages) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (this.pagesRead.get() < pages && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void initContext() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, BUSINESS_DATE)));
+    }
+
+    private static SavingsAccountData account(final Long id) {
+        return SavingsAccountData.lookup(id, String.format("%09d", id), null);
+    }
+
+    private static List<Long> ids(final Collection<SavingsAccountData> accounts) {
+        return accounts.stream().map(SavingsAccountData::getId).collect(Collectors.toList());
+    }
+
+    @FunctionalInterface
+    private interface BatchPosting {
+
+        void post(List<Long> accountIds) throws InterruptedException;
+    }
+
+    /**
+     * Records the batch it is handed instead of calculating and writing interest.
+     */
+    private final class RecordingPoster extends SavingsSchedularInterestPoster {
+
+        private List<Long> accountIds;
+
+        @Override
+        public void setSavingAccounts(final Collection<SavingsAccountData> savingAccounts) {
+            this.accountIds = ids(savingAccounts);
+        }
+
+        @Override
+        public Void call() {
+            postedBatches.add(this.accountIds);
+            try {
+                batchPosting.post(this.accountIds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class SearchIndexTokenizerTest {
+
+    @Test
+    public void testTokenizeAddsTheValueAndTheSuffixesOfItsWords() {
+        // when
+        final Set<String> tokens = SearchIndexTokenizer.tokenize(Arrays.asList("  John   SMITH ", null, ""));
+
+        // then
+        assertThat(tokens).containsExactly("john smith", "john", "ohn", "smith", "mith", "ith");
+    }
+
+    @Test
+    public void testTokenizeKeepsShortWordsWhole() {
+        // when
+        final Set<String> tokens = SearchIndexTokenizer.tokenize(Arrays.asList("Al Bo", "000123"));
+
+        // then
+        assertThat(tokens).containsExactly("al bo", "al", "bo", "000123", "00123", "0123", "123");
+    }
+
+    @Test
+    public void testTokenizeTruncatesLongTokens() {
+        // given
+        final String longValue = "x".repeat(SearchIndexTokenizer.MAX_TOKEN_LENGTH + 20);
+
+        // when
+        final Set<String> tokens = SearchIndexTokenizer.tokenize(Arrays.asList(longValue));
+
+        // then
+        assertThat(tokens).allMatch(token -> token.length() <= SearchIndexTokenizer.MAX_TOKEN_LENGTH);
+        assertThat(tokens).contains("x".repeat(SearchIndexTokenizer.MAX_TOKEN_LENGTH), "xxx");
+    }
+
+    @Test
+    public void testProbeWordIsTheLongestWord() {
+        assertThat(SearchIndexTokenizer.probeWord("Jo  SMITHSON ann")).isEqualTo("smithson");
+        assertThat(SearchIndexTokenizer.probeWord("abc")).isEqualTo("abc");
+    }
+
+    @Test
+    public void testProbeWordIsNullForShortQueries() {
+        assertThat(SearchIndexTokenizer.probeWord("ab")).isNull();
+        assertThat(SearchIndexTokenizer.probeWord("a b")).isNull();
+        assertThat(SearchIndexTokenizer.probeWord("   ")).isNull();
+        assertThat(SearchIndexTokenizer.probeWord(null)).isNull();
+    }
+
+    @Test
+    public void testEveryProbeWordOfAValueIsAPrefixOfOneOfItsTokens() {
+        // given
+        final Set<String> tokens = SearchIndexTokenizer.tokenize(Arrays.asList("Maria Gonzalez"));
+
+        // when
+        final String probe = SearchIndexTokenizer.probeWord("zale");
+
+        // then
+        assertThat(tokens).anyMatch(token -> token.startsWith(probe));
+    }
+
+    @Test
+    public void testExactTokenIsNormalized() {
+        assertThat(SearchIndexTokenizer.exactToken("  Maria\tGONZALEZ ")).isEqualTo("maria gonzalez");
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.search.data.SearchIndexEntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SearchIndexWritePlatformServiceImplTest {
+
+    private static final String INSERT_TOKEN_SQL = "insert if absent";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DatabaseSpecificSQLGenerator sqlGenerator;
+    @Mock
+    private BusinessEventNotifierService businessEventNotifierService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SearchIndexWritePlatformServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        given(sqlGenerator.limit(anyInt())).willReturn("LIMIT 1000");
+        given(sqlGenerator.insertIfAbsent("m_search_index", "entity_type", "entity_id", "token")).willReturn(INSERT_TOKEN_SQL);
+        underTest = new SearchIndexWritePlatformServiceImpl(jdbcTemplate, sqlGenerator, businessEventNotifierService, transactionManager);
+    }
+
+    @Test
+    public void testFullBatchReplacesTheTokensOfItsIdRangeOnly() throws SQLException {
+        // given
+        final List<Long> ids = LongStream.rangeClosed(11, 1010).boxed().collect(Collectors.toList());
+        givenRows(SearchIndexEntityType.LOAN, ids);
+
+        // when
+        final List<Long> indexed = underTest.rebuildBatch(SearchIndexEntityType.LOAN, 10L);
+
+        // then
+        assertThat(indexed).isEqualTo(ids);
+        verify(jdbcTemplate).update("delete from m_search_index where entity_type = ? and entity_id > ? and entity_id <= ?", "LOAN", 10L,
+                1010L);
+        final ArgumentCaptor<List<Object[]>> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_TOKEN_SQL), batchArgs.capture());
+        assertThat(batchArgs.getValue().get(0)).containsExactly("LOAN", 11L, "acc-11");
+    }
+
+    @Test
+    public void testLastBatchAlsoDropsTheTokensPastIt() throws SQLException {
+        // given
+        givenRows(SearchIndexEntityType.CLIENT, List.of(20L, 21L));
+
+        // when
+        underTest.rebuildBatch(SearchIndexEntityType.CLIENT, 10L);
+
+        // then
+        verify(jdbcTemplate).update("delete from m_search_index where entity_type = ? and entity_id > ?", "CLIENT", 10L);
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_TOKEN_SQL), anyList());
+    }
+
+    @Test
+    public void testEmptyLastBatchOnlyDeletes() throws SQLException {
+        // given
+        givenRows(SearchIndexEntityType.SHARE, List.of());
+
+        // when
+        underTest.rebuildBatch(SearchIndexEntityType.SHARE, 0L);
+
+        // then
+        verify(jdbcTemplate).update("delete from m_search_index where entity_type = ? and entity_id > ?", "SHARE", 0L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void testRebuildPagesThroughEveryEntityTypeInItsOwnTransactions() throws SQLException {
+        // given
+        final List<Long> firstBatch = LongStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+        givenRows(SearchIndexEntityType.GROUP, firstBatch, List.of(1001L));
+
+        // when
+        underTest.rebuildSearchIndex();
+
+        // then
+        verify(jdbcTemplate).update("delete from m_search_index where entity_type = ? and entity_id > ? and entity_id <= ?", "GROUP", 0L,
+                1000L);
+        verify(jdbcTemplate).update("delete from m_search_index where entity_type = ? and entity_id > ?", "GROUP", 1000L);
+        verify(jdbcTemplate, never()).update("delete from m_search_index where entity_type = ?", "GROUP");
+        for (SearchIndexEntityType entityType : SearchIndexEntityType.values()) {
+            if (entityType != SearchIndexEntityType.GROUP) {
+                verify(jdbcTemplate).update("delete from m_search_index where entity_type = ? and entity_id > ?", entityType.name(), 0L);
+            }
+        }
+    }
+
+    /**
+     * Answers the batch query of the entity type with one row per id (the id and one searchable column), one batch per
+     * call; every other entity type has no rows.
+     */
+    @SafeVarargs
+    private void givenRows(final SearchIndexEntityType entityType, final List<Long>... batches) throws SQLException {
+        final List<List<Long>> remaining = new ArrayList<>(List.of(batches));
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), (Object[]) any())).willAnswer(invocation -> {
+            final String sql = invocation.getArgument(0);
+            if (!sql.contains(" from " + entityType.getTableName() + " ") || remaining.isEmpty()) {
+                return List.of();
+            }
+            final RowMapper<Long> rowMapper = invocation.getArgument(1);
+            final List<Long> result = new ArrayList<>();
+            int rowNum = 0;
+            for (Long id : remaining.remove(0)) {
+                result.add(rowMapper.mapRow(row(id), rowNum++));
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet row(final Long id) throws SQLException {
+        final ResultSet rs = mock(ResultSet.class);
+        final ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        given(metaData.getColumnCount()).willReturn(2);
+        given(rs.getMetaData()).willReturn(metaData);
+        given(rs.getLong(1)).willReturn(id);
+        given(rs.getString(2)).willReturn("ACC-" + id);
+        return rs;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+public class AppUserTest {
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 12))));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testPermissionChecksIgnoreCase() {
+        // given
+        final AppUser user = user(role("Loan officer", permission("READ", "LOAN")));
+
+        // then
+        assertTrue(user.hasSpecificPermissionTo("READ_LOAN"));
+        assertTrue(user.hasSpecificPermissionTo("read_loan"));
+        assertFalse(user.hasNotPermissionForAnyOf("CREATE_CLIENT", "READ_LOAN"));
+        assertDoesNotThrow(() -> user.validateHasPermissionTo("read_loan"));
+        assertThrows(NoAuthorizationException.class, () -> user.validateHasPermissionTo("CREATE_CLIENT"));
+    }
+
+    @Test
+    public void testAllFunctionsGrantsEveryPermission() {
+        // given
+        final AppUser user = user(role("Super user", permission("ALL", "FUNCTIONS")));
+
+        // then
+        assertFalse(user.hasSpecificPermissionTo("CREATE_CLIENT"));
+        assertDoesNotThrow(() -> user.validateHasPermissionTo("CREATE_CLIENT"));
+        assertDoesNotThrow(() -> user.validateHasReadPermission("LOAN"));
+    }
+
+    @Test
+    public void testUpdateRolesResetsThePermissionCodes() {
+        // given
+        final AppUser user = user(role("Loan officer", permission("READ", "LOAN")));
+        assertTrue(user.hasSpecificPermissionTo("READ_LOAN"));
+
+        // when
+        user.updateRoles(new HashSet<>(Set.of(role("Teller", permission("CREATE", "CLIENT")))));
+
+        // then
+        assertFalse(user.hasSpecificPermissionTo("READ_LOAN"));
+        assertTrue(user.hasSpecificPermissionTo("CREATE_CLIENT"));
+        assertThrows(NoAuthorizationException.class, () -> user.validateHasPermissionTo("READ_LOAN"));
+    }
+
+    @Test
+    public void testUpdateRolesWithoutRolesKeepsThePermissionCodes() {
+        // given
+        final AppUser user = user(role("Loan officer", permission("READ", "LOAN")));
+        assertTrue(user.hasSpecificPermissionTo("READ_LOAN"));
+
+        // when
+        user.updateRoles(new HashSet<>());
+
+        // then
+        assertTrue(user.hasSpecificPermissionTo("READ_LOAN"));
+    }
+
+    @Test
+    public void testDeleteResetsThePermissionCodes() {
+        // given
+        final AppUser user = user(role("Super user", permission("ALL", "FUNCTIONS")), role("Loan officer", permission("READ", "LOAN")));
+        assertDoesNotThrow(() -> user.validateHasPermissionTo("CREATE_CLIENT"));
+
+        // when
+        user.delete();
+
+        // then
+        assertFalse(user.hasSpecificPermissionTo("READ_LOAN"));
+        assertTrue(user.hasNotPermissionForAnyOf("ALL_FUNCTIONS", "READ_LOAN"));
+        assertThrows(NoAuthorizationException.class, () -> user.validateHasPermissionTo("CREATE_CLIENT"));
+    }
+
+    private static AppUser user(final Role... roles) {
+        final User user = new User("jane", "secret", true, true, true, true, List.of());
+        return new AppUser(null, user, new HashSet<>(Set.of(roles)), "jane@example.com", "Jane", "Doe", null, false, false, null, false);
+    }
+
+    private static Role role(final String name, final Permission... permissions) {
+        final Role role = new Role(name, name);
+        for (final Permission permission : permissions) {
+            role.updatePermission(permission, true);
+        }
+        return role;
+    }
+
+    /**
+     * The code of a permission is its action name followed by its entity name, e.g. READ_LOAN or ALL_FUNCTIONS.
+     */
+    private static Permission permission(final String actionName, final String entityName) {
+        return new Permission("portfolio", entityName, actionName);
+    }
+}
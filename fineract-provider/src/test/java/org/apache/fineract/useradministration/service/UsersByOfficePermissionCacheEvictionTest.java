@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fineract.useradministration.domain.JpaUserDomainService;
+import org.apache.fineract.useradministration.domain.UserDomainService;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+
+/**
+ * The users holding a permission are cached per office, so every write of a user, role or permission has to drop that
+ * cache.
+ */
+public class UsersByOfficePermissionCacheEvictionTest {
+
+    private static final String CACHE_NAME = "usersByOfficePermission";
+
+    @Test
+    public void testUserWritesEvictTheOfficeCache() throws NoSuchMethodException {
+        assertEveryWriteEvicts(AppUserWritePlatformService.class, AppUserWritePlatformServiceJpaRepositoryImpl.class);
+        assertEveryWriteEvicts(UserDomainService.class, JpaUserDomainService.class);
+    }
+
+    @Test
+    public void testRoleWritesEvictTheOfficeCache() throws NoSuchMethodException {
+        assertEveryWriteEvicts(RoleWritePlatformService.class, RoleWritePlatformServiceJpaRepositoryImpl.class);
+    }
+
+    @Test
+    public void testPermissionWritesEvictTheOfficeCache() throws NoSuchMethodException {
+        assertEveryWriteEvicts(PermissionWritePlatformService.class, PermissionWritePlatformServiceJpaRepositoryImpl.class);
+    }
+
+    private static void assertEveryWriteEvicts(final Class<?> service, final Class<?> implementation) throws NoSuchMethodException {
+        for (final Method method : service.getMethods()) {
+            final Method implemented = implementation.getMethod(method.getName(), method.getParameterTypes());
+            assertTrue(evictsAllEntries(implemented),
+                    implementation.getSimpleName() + "." + method.getName() + " does not evict " + CACHE_NAME);
+        }
+    }
+
+    private static boolean evictsAllEntries(final Method method) {
+        final List<CacheEvict> evictions = new ArrayList<>();
+        final CacheEvict cacheEvict = method.getAnnotation(CacheEvict.class);
+        if (cacheEvict != null) {
+            evictions.add(cacheEvict);
+        }
+        final Caching caching = method.getAnnotation(Caching.class);
+        if (caching != null) {
+            evictions.addAll(Arrays.asList(caching.evict()));
+        }
+        for (final CacheEvict eviction : evictions) {
+            if (eviction.allEntries() && (Arrays.asList(eviction.value()).contains(CACHE_NAME)
+                    || Arrays.asList(eviction.cacheNames()).contains(CACHE_NAME))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}